@@ -31,7 +31,8 @@ import org.springframework.web.bind.annotation.RestController;
 
 /**
  * The aggregator aggregates calls on various micro-services, collects data and further publishes
- * them under a REST endpoint.
+ * them under a REST endpoint. The micro-services are called at the same time, so a product takes
+ * as long as the slowest of them.
  */
 @RestController
 public class Aggregator {
@@ -42,6 +43,14 @@ public class Aggregator {
   @Resource
   private ProductInventoryClient inventoryClient;
 
+  public Aggregator() {
+  }
+
+  Aggregator(ProductInformationClient informationClient, ProductInventoryClient inventoryClient) {
+    this.informationClient = informationClient;
+    this.inventoryClient = inventoryClient;
+  }
+
   /**
    * Retrieves product data.
    *
@@ -51,8 +60,10 @@ public class Aggregator {
   public Product getProduct() {
 
     var product = new Product();
-    var productTitle = informationClient.getProductTitle();
-    var productInventory = inventoryClient.getProductInventories();
+    var titleResponse = informationClient.getProductTitleAsync();
+    var inventoryResponse = inventoryClient.getProductInventoriesAsync();
+    var productTitle = titleResponse.join();
+    var productInventory = inventoryResponse.join();
 
     //Fallback to error message
     product.setTitle(requireNonNullElse(productTitle, "Error: Fetching Product Title Failed"));
@@ -23,11 +23,22 @@
 
 package com.iluwatar.aggregator.microservices;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Interface for the Information micro-service.
  */
 public interface ProductInformationClient {
 
-  String getProductTitle();
+  /**
+   * Requests the product title without waiting for it.
+   *
+   * @return the title, or {@code null} if it could not be fetched
+   */
+  CompletableFuture<String> getProductTitleAsync();
+
+  default String getProductTitle() {
+    return getProductTitleAsync().join();
+  }
 
 }
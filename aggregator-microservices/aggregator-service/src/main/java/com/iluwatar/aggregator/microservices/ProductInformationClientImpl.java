@@ -23,12 +23,14 @@
 
 package com.iluwatar.aggregator.microservices;
 
-import java.io.IOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 /**
@@ -38,22 +40,46 @@ import org.springframework.stereotype.Component;
 @Component
 public class ProductInformationClientImpl implements ProductInformationClient {
 
+  private static final URI URI_INFORMATION = URI.create("http://localhost:51515/information");
+  private static final Duration TIMEOUT = Duration.ofSeconds(1);
+  private static final Duration CACHE_TTL = Duration.ofMillis(500);
+
+  private final HttpClient client;
+  private final HttpRequest request;
+  private final ResponseCache<String> cache;
+
+  @Autowired
+  public ProductInformationClientImpl(HttpClient client) {
+    this(client, URI_INFORMATION, TIMEOUT, CACHE_TTL);
+  }
+
+  /**
+   * Creates a client of the information micro-service at the given address.
+   *
+   * @param client  sends the requests
+   * @param uri     endpoint of the product information
+   * @param timeout how long to wait for the service before giving up
+   * @param ttl     how long a title is reused
+   */
+  public ProductInformationClientImpl(HttpClient client, URI uri, Duration timeout, Duration ttl) {
+    this.client = client;
+    this.request = HttpRequest.newBuilder().GET().uri(uri).timeout(timeout).build();
+    this.cache = new ResponseCache<>(ttl);
+  }
+
   @Override
-  public String getProductTitle() {
-    var request = HttpRequest.newBuilder()
-        .GET()
-        .uri(URI.create("http://localhost:51515/information"))
-        .build();
-    var client = HttpClient.newHttpClient();
-    try {
-      var httpResponse = client.send(request, HttpResponse.BodyHandlers.ofString());
-      return httpResponse.body();
-    } catch (IOException ioe) {
-      LOGGER.error("IOException Occurred", ioe);
-    } catch (InterruptedException ie) {
-      LOGGER.error("InterruptedException Occurred", ie);
-      Thread.currentThread().interrupt();
-    }
-    return null;
+  public CompletableFuture<String> getProductTitleAsync() {
+    return cache.get(() -> client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+        .thenApply(httpResponse -> {
+          if (httpResponse.statusCode() != 200) {
+            LOGGER.error("Information service answered {}", httpResponse.statusCode());
+            return null;
+          }
+          return httpResponse.body();
+        })
+        .exceptionally(e -> {
+          LOGGER.error("Fetching the product title failed", e);
+          return null;
+        }));
   }
 }
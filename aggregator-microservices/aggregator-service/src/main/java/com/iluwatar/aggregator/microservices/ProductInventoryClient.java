@@ -23,10 +23,21 @@
 
 package com.iluwatar.aggregator.microservices;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Interface to Inventory micro-service.
  */
 public interface ProductInventoryClient {
 
-  Integer getProductInventories();
+  /**
+   * Requests the product inventories without waiting for them.
+   *
+   * @return the inventories, or {@code null} if they could not be fetched
+   */
+  CompletableFuture<Integer> getProductInventoriesAsync();
+
+  default Integer getProductInventories() {
+    return getProductInventoriesAsync().join();
+  }
 }
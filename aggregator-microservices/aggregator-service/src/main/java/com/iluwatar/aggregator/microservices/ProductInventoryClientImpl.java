@@ -23,12 +23,14 @@
 
 package com.iluwatar.aggregator.microservices;
 
-import java.io.IOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 /**
@@ -38,28 +40,46 @@ import org.springframework.stereotype.Component;
 @Component
 public class ProductInventoryClientImpl implements ProductInventoryClient {
 
-  @Override
-  public Integer getProductInventories() {
-    var response = "";
+  private static final URI URI_INVENTORIES = URI.create("http://localhost:51516/inventories");
+  private static final Duration TIMEOUT = Duration.ofSeconds(1);
+  private static final Duration CACHE_TTL = Duration.ofMillis(500);
+
+  private final HttpClient client;
+  private final HttpRequest request;
+  private final ResponseCache<Integer> cache;
+
+  @Autowired
+  public ProductInventoryClientImpl(HttpClient client) {
+    this(client, URI_INVENTORIES, TIMEOUT, CACHE_TTL);
+  }
 
-    var request = HttpRequest.newBuilder()
-        .GET()
-        .uri(URI.create("http://localhost:51516/inventories"))
-        .build();
-    var client = HttpClient.newHttpClient();
-    try {
-      var httpResponse = client.send(request, HttpResponse.BodyHandlers.ofString());
-      response = httpResponse.body();
-    } catch (IOException ioe) {
-      LOGGER.error("IOException Occurred", ioe);
-    } catch (InterruptedException ie) {
-      LOGGER.error("InterruptedException Occurred", ie);
-      Thread.currentThread().interrupt();
-    }
-    if ("".equalsIgnoreCase(response)) {
-      return null;
-    } else {
-      return Integer.parseInt(response);
-    }
+  /**
+   * Creates a client of the inventory micro-service at the given address.
+   *
+   * @param client  sends the requests
+   * @param uri     endpoint of the product inventories
+   * @param timeout how long to wait for the service before giving up
+   * @param ttl     how long the inventories are reused
+   */
+  public ProductInventoryClientImpl(HttpClient client, URI uri, Duration timeout, Duration ttl) {
+    this.client = client;
+    this.request = HttpRequest.newBuilder().GET().uri(uri).timeout(timeout).build();
+    this.cache = new ResponseCache<>(ttl);
+  }
+
+  @Override
+  public CompletableFuture<Integer> getProductInventoriesAsync() {
+    return cache.get(() -> client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+        .thenApply(httpResponse -> {
+          if (httpResponse.statusCode() != 200 || "".equals(httpResponse.body())) {
+            LOGGER.error("Inventory service answered {}", httpResponse.statusCode());
+            return null;
+          }
+          return Integer.parseInt(httpResponse.body());
+        })
+        .exceptionally(e -> {
+          LOGGER.error("Fetching the product inventories failed", e);
+          return null;
+        }));
   }
 }
@@ -0,0 +1,70 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.aggregator.microservices;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the latest response of a backend for a short time. Callers arriving while a request is in
+ * flight share it, and a request that failed, completing with {@code null}, is not kept.
+ */
+class ResponseCache<T> {
+
+  private final long ttlNanos;
+  private CompletableFuture<T> response;
+  private long expiresAt;
+
+  ResponseCache(Duration ttl) {
+    this.ttlNanos = ttl.toNanos();
+  }
+
+  /**
+   * Returns the cached response, or one from the loader if there is none or it has expired.
+   *
+   * @param loader sends a new request
+   * @return the response, completing with {@code null} on failure
+   */
+  synchronized CompletableFuture<T> get(Supplier<CompletableFuture<T>> loader) {
+    if (response != null && System.nanoTime() - expiresAt < 0) {
+      return response;
+    }
+    var loaded = loader.get();
+    response = loaded;
+    expiresAt = System.nanoTime() + ttlNanos;
+    loaded.thenAccept(value -> {
+      if (value == null) {
+        evict(loaded);
+      }
+    });
+    return loaded;
+  }
+
+  private synchronized void evict(CompletableFuture<T> failed) {
+    if (response == failed) {
+      response = null;
+    }
+  }
+}
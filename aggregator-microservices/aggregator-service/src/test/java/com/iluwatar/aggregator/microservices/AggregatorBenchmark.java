@@ -0,0 +1,143 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.aggregator.microservices;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Serves product information after 40 ms and inventories after 60 ms from local stub servers, and
+ * reports the latency of building a product by calling them one after the other with a new client
+ * per call, as the aggregator used to, and by calling them at the same time through a shared
+ * client, without a cache and with a 500 ms one.
+ *
+ * <p>Run the main method; it is not part of the test suite.
+ */
+@Slf4j
+public class AggregatorBenchmark {
+
+  private static final int PRODUCTS = 200;
+  private static final Duration TIMEOUT = Duration.ofSeconds(1);
+
+  /**
+   * Program entry point.
+   *
+   * @param args command line args
+   * @throws IOException if the stub servers cannot start
+   */
+  public static void main(String[] args) throws IOException {
+    //otherwise Nagle's algorithm holds back each response body for a delayed ack
+    System.setProperty("sun.net.httpserver.nodelay", "true");
+    var pool = Executors.newCachedThreadPool();
+    var information = stub("/information", "The Product Title.", 40);
+    var inventories = stub("/inventories", "5", 60);
+    information.setExecutor(pool);
+    inventories.setExecutor(pool);
+    information.start();
+    inventories.start();
+    try {
+      var informationUri = uri(information, "/information");
+      var inventoriesUri = uri(inventories, "/inventories");
+      var client = new HttpClientConfiguration().httpClient();
+      for (var round = 0; round < 2; round++) { //the first round warms up
+        measure("sequential, client per call", () -> {
+          var title = fetch(informationUri);
+          var inventory = fetch(inventoriesUri);
+          return title + inventory;
+        });
+        var uncached = new Aggregator(
+            new ProductInformationClientImpl(client, informationUri, TIMEOUT, Duration.ZERO),
+            new ProductInventoryClientImpl(client, inventoriesUri, TIMEOUT, Duration.ZERO));
+        measure("concurrent, shared client", uncached::getProduct);
+        var cached = new Aggregator(
+            new ProductInformationClientImpl(client, informationUri, TIMEOUT,
+                Duration.ofMillis(500)),
+            new ProductInventoryClientImpl(client, inventoriesUri, TIMEOUT,
+                Duration.ofMillis(500)));
+        measure("concurrent, shared client, 500 ms cache", cached::getProduct);
+      }
+    } finally {
+      information.stop(0);
+      inventories.stop(0);
+      pool.shutdown();
+    }
+  }
+
+  private static void measure(String name, Supplier<Object> product) {
+    var latencies = new long[PRODUCTS];
+    for (var i = 0; i < PRODUCTS; i++) {
+      var start = System.nanoTime();
+      product.get();
+      latencies[i] = System.nanoTime() - start;
+    }
+    Arrays.sort(latencies);
+    LOGGER.info("{}: latency p50 {} ms, p99 {} ms", name,
+        TimeUnit.NANOSECONDS.toMillis(latencies[PRODUCTS / 2]),
+        TimeUnit.NANOSECONDS.toMillis(latencies[PRODUCTS * 99 / 100]));
+  }
+
+  private static String fetch(URI uri) {
+    var request = HttpRequest.newBuilder().GET().uri(uri).build();
+    try {
+      return HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString()).body();
+    } catch (IOException e) {
+      return null;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return null;
+    }
+  }
+
+  private static HttpServer stub(String path, String body, long delayMillis) throws IOException {
+    var server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    var bytes = body.getBytes(StandardCharsets.UTF_8);
+    server.createContext(path, exchange -> {
+      try {
+        Thread.sleep(delayMillis);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      exchange.sendResponseHeaders(200, bytes.length);
+      exchange.getResponseBody().write(bytes);
+      exchange.close();
+    });
+    return server;
+  }
+
+  private static URI uri(HttpServer server, String path) {
+    return URI.create("http://localhost:" + server.getAddress().getPort() + path);
+  }
+}
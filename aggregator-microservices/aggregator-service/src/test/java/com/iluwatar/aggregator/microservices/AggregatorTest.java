@@ -29,9 +29,12 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.when;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Test Aggregation of domain objects
  */
@@ -59,8 +62,8 @@ class AggregatorTest {
     var title = "The Product Title.";
     var inventories = 5;
 
-    when(informationClient.getProductTitle()).thenReturn(title);
-    when(inventoryClient.getProductInventories()).thenReturn(inventories);
+    when(informationClient.getProductTitleAsync()).thenReturn(completedFuture(title));
+    when(inventoryClient.getProductInventoriesAsync()).thenReturn(completedFuture(inventories));
 
     var testProduct = aggregator.getProduct();
 
@@ -68,4 +71,25 @@ class AggregatorTest {
     assertEquals(inventories, testProduct.getProductInventories());
   }
 
+  /**
+   * Tests that both services are asked before either answers, and that a failed service falls
+   * back to the error values
+   */
+  @Test
+  void testGetProductAsksServicesTogether() {
+    var title = new CompletableFuture<String>();
+    var inventories = new CompletableFuture<Integer>();
+    when(informationClient.getProductTitleAsync()).thenReturn(title);
+    when(inventoryClient.getProductInventoriesAsync()).thenAnswer(invocation -> {
+      //the title only arrives once the inventories have been asked for
+      title.complete(null);
+      return inventories.completeAsync(() -> 5);
+    });
+
+    var testProduct = aggregator.getProduct();
+
+    assertEquals("Error: Fetching Product Title Failed", testProduct.getTitle());
+    assertEquals(5, testProduct.getProductInventories());
+  }
+
 }
@@ -0,0 +1,111 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.aggregator.microservices;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the micro-service clients against a local server.
+ */
+class ProductClientsTest {
+
+  private final HttpClient client = HttpClient.newHttpClient();
+  private final AtomicInteger requests = new AtomicInteger();
+  private HttpServer server;
+
+  @BeforeEach
+  void startServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/information", exchange -> {
+      requests.incrementAndGet();
+      var body = "The Product Title.".getBytes(StandardCharsets.UTF_8);
+      exchange.sendResponseHeaders(200, body.length);
+      exchange.getResponseBody().write(body);
+      exchange.close();
+    });
+    server.createContext("/inventories", exchange -> {
+      try {
+        Thread.sleep(2_000);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      exchange.sendResponseHeaders(500, -1);
+      exchange.close();
+    });
+    server.start();
+  }
+
+  @AfterEach
+  void stopServer() {
+    server.stop(0);
+  }
+
+  @Test
+  void testReusesResponseWithinTtl() {
+    var informationClient = new ProductInformationClientImpl(client, uri("/information"),
+        Duration.ofSeconds(1), Duration.ofMinutes(1));
+
+    assertEquals("The Product Title.", informationClient.getProductTitle());
+    assertEquals("The Product Title.", informationClient.getProductTitle());
+    assertEquals(1, requests.get());
+  }
+
+  @Test
+  void testFetchesAgainAfterTtl() {
+    var informationClient = new ProductInformationClientImpl(client, uri("/information"),
+        Duration.ofSeconds(1), Duration.ZERO);
+
+    informationClient.getProductTitle();
+    informationClient.getProductTitle();
+    assertEquals(2, requests.get());
+  }
+
+  @Test
+  void testGivesUpOnSlowService() {
+    var inventoryClient = new ProductInventoryClientImpl(client, uri("/inventories"),
+        Duration.ofMillis(100), Duration.ofMinutes(1));
+
+    var start = System.nanoTime();
+    assertNull(inventoryClient.getProductInventories());
+    assertTrue(System.nanoTime() - start < Duration.ofSeconds(1).toNanos());
+  }
+
+  private URI uri(String path) {
+    return URI.create("http://localhost:" + server.getAddress().getPort() + path);
+  }
+}
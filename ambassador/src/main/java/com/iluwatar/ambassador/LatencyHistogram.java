@@ -0,0 +1,111 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.ambassador;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram of the calls to one remote service, in the manner of an HDR histogram.
+ * Latencies are counted in buckets whose width grows with the latency, 64 buckets for every power
+ * of two, so any percentile is within 1.6% of the latency actually seen while recording costs a
+ * few atomic increments and no allocation. Percentiles may be read while calls are recorded.
+ */
+public class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 6;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final long HIGHEST_NANOS = TimeUnit.HOURS.toNanos(1);
+
+  private final AtomicLongArray counts = new AtomicLongArray(indexOf(HIGHEST_NANOS) + 1);
+  private final LongAdder calls = new LongAdder();
+  private final AtomicLong maxNanos = new AtomicLong();
+
+  /**
+   * Records the latency of one call; latencies over an hour count as an hour.
+   *
+   * @param nanos latency of the call in nanoseconds
+   */
+  void record(long nanos) {
+    var value = Math.min(Math.max(nanos, 0), HIGHEST_NANOS);
+    counts.incrementAndGet(indexOf(value));
+    calls.increment();
+    maxNanos.accumulateAndGet(value, Math::max);
+  }
+
+  public long getCount() {
+    return calls.sum();
+  }
+
+  public long getMax(TimeUnit unit) {
+    return unit.convert(maxNanos.get(), TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Latency that the given percentage of the recorded calls did not exceed.
+   *
+   * @param percentile percentage of calls, from 0 to 100
+   * @param unit unit of the returned latency
+   * @return the latency, or 0 if no call was recorded
+   */
+  public long getValueAtPercentile(double percentile, TimeUnit unit) {
+    if (percentile < 0 || percentile > 100) {
+      throw new IllegalArgumentException("Not a percentile: " + percentile);
+    }
+    var count = calls.sum();
+    var rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+    var seen = 0L;
+    for (var index = 0; index < counts.length(); index++) {
+      seen += counts.get(index);
+      if (seen >= rank) {
+        var nanos = Math.min(highestValueIn(index), maxNanos.get());
+        return unit.convert(nanos, TimeUnit.NANOSECONDS);
+      }
+    }
+    //calls recorded while walking the buckets may be counted in total but not yet in a bucket
+    return getMax(unit);
+  }
+
+  private static int indexOf(long value) {
+    var shift = Math.max(0, 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS);
+    return shift * SUB_BUCKETS + (int) (value >>> shift);
+  }
+
+  private static long highestValueIn(int index) {
+    var shift = Math.max(0, index / SUB_BUCKETS - 1);
+    var subBucket = index - shift * SUB_BUCKETS;
+    return ((subBucket + 1L) << shift) - 1;
+  }
+
+  @Override
+  public String toString() {
+    return "calls=" + getCount()
+        + ", p50=" + getValueAtPercentile(50, TimeUnit.MILLISECONDS) + "ms"
+        + ", p95=" + getValueAtPercentile(95, TimeUnit.MILLISECONDS) + "ms"
+        + ", p99=" + getValueAtPercentile(99, TimeUnit.MILLISECONDS) + "ms"
+        + ", max=" + getMax(TimeUnit.MILLISECONDS) + "ms";
+  }
+}
@@ -24,60 +24,163 @@
 package com.iluwatar.ambassador;
 
 import static com.iluwatar.ambassador.RemoteServiceStatus.FAILURE;
-import static java.lang.Thread.sleep;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * ServiceAmbassador provides an interface for a ({@link Client}) to access ({@link RemoteService}).
  * The interface adds logging, latency testing and usage of the service in a safe way that will not
  * add stress to the remote service when connectivity issues occur.
+ *
+ * <p>Calls never block the caller's thread: a failed call is retried on a timer after a delay, and
+ * a call still running when the 95th percentile of the latencies seen so far has passed is hedged
+ * with a second call, the first success answering. The latencies of all calls to the remote service
+ * are kept in a {@link LatencyHistogram}.
  */
 @Slf4j
 public class ServiceAmbassador implements RemoteServiceInterface {
 
   private static final int RETRIES = 3;
-  private static final int DELAY_MS = 3000;
+  private static final Duration DELAY = Duration.ofMillis(3000);
+  private static final double HEDGE_PERCENTILE = 95;
+  private static final long HEDGE_MIN_CALLS = 20;
+  private static final Executor CALLS = Executors.newCachedThreadPool(daemon("ambassador-call"));
+  private static final ScheduledExecutorService TIMER =
+      Executors.newSingleThreadScheduledExecutor(daemon("ambassador-timer"));
+
+  private final RemoteServiceInterface remoteService;
+  private final Executor executor;
+  private final ScheduledExecutorService timer;
+  private final Duration retryDelay;
+  private final boolean hedging;
+  private final LatencyHistogram latencies = new LatencyHistogram();
+  private final LongAdder hedgedCalls = new LongAdder();
 
   ServiceAmbassador() {
+    this(RemoteService.getRemoteService(), CALLS, TIMER, DELAY, true);
+  }
+
+  /**
+   * Creates an ambassador for the given remote service.
+   *
+   * @param remoteService service to call
+   * @param executor runs the blocking calls to the remote service
+   * @param timer schedules retries and hedged calls
+   * @param retryDelay time to wait before retrying a failed call
+   * @param hedging whether slow calls are hedged
+   */
+  ServiceAmbassador(RemoteServiceInterface remoteService, Executor executor,
+      ScheduledExecutorService timer, Duration retryDelay, boolean hedging) {
+    this.remoteService = remoteService;
+    this.executor = executor;
+    this.timer = timer;
+    this.retryDelay = retryDelay;
+    this.hedging = hedging;
   }
 
   @Override
   public long doRemoteFunction(int value) {
-    return safeCall(value);
+    return doRemoteFunctionAsync(value).join();
   }
 
-  private long checkLatency(int value) {
-    var startTime = System.currentTimeMillis();
-    var result = RemoteService.getRemoteService().doRemoteFunction(value);
-    var timeTaken = System.currentTimeMillis() - startTime;
-
-    LOGGER.info("Time taken (ms): {}", timeTaken);
+  /**
+   * Calls the remote service without blocking.
+   *
+   * @param value integer value to be multiplied
+   * @return completes with the result of the remote service, or {@link RemoteServiceStatus#FAILURE}
+   *     if every retry failed
+   */
+  public CompletableFuture<Long> doRemoteFunctionAsync(int value) {
+    var result = new CompletableFuture<Long>();
+    safeCall(value, 0, result);
     return result;
   }
 
-  private long safeCall(int value) {
-    var retries = 0;
-    var result = FAILURE.getRemoteServiceStatusValue();
+  /**
+   * Latencies of the calls made to the remote service, hedged calls included.
+   */
+  public LatencyHistogram getLatencies() {
+    return latencies;
+  }
 
-    for (int i = 0; i < RETRIES; i++) {
-      if (retries >= RETRIES) {
-        return FAILURE.getRemoteServiceStatusValue();
-      }
+  public long getHedgedCalls() {
+    return hedgedCalls.sum();
+  }
 
-      if ((result = checkLatency(value)) == FAILURE.getRemoteServiceStatusValue()) {
-        LOGGER.info("Failed to reach remote: ({})", i + 1);
-        retries++;
-        try {
-          sleep(DELAY_MS);
-        } catch (InterruptedException e) {
-          LOGGER.error("Thread sleep state interrupted", e);
-          Thread.currentThread().interrupt();
-        }
+  private void safeCall(int value, int retries, CompletableFuture<Long> result) {
+    hedgedCall(value).thenAccept(outcome -> {
+      if (outcome != FAILURE.getRemoteServiceStatusValue()) {
+        result.complete(outcome);
+        return;
+      }
+      LOGGER.info("Failed to reach remote: ({})", retries + 1);
+      if (retries + 1 >= RETRIES) {
+        result.complete(FAILURE.getRemoteServiceStatusValue());
       } else {
-        break;
+        timer.schedule(() -> safeCall(value, retries + 1, result),
+            retryDelay.toNanos(), TimeUnit.NANOSECONDS);
       }
+    });
+  }
+
+  private CompletableFuture<Long> hedgedCall(int value) {
+    var outcome = new CompletableFuture<Long>();
+    var running = new AtomicInteger(1);
+    call(value, outcome, running);
+    if (hedging && latencies.getCount() >= HEDGE_MIN_CALLS) {
+      var threshold = latencies.getValueAtPercentile(HEDGE_PERCENTILE, TimeUnit.NANOSECONDS);
+      var hedge = timer.schedule(() -> {
+        //no hedge once the first call has answered, even if it failed
+        if (!outcome.isDone() && running.getAndUpdate(n -> n == 0 ? 0 : n + 1) > 0) {
+          hedgedCalls.increment();
+          call(value, outcome, running);
+        }
+      }, threshold, TimeUnit.NANOSECONDS);
+      outcome.whenComplete((result, error) -> hedge.cancel(false));
     }
-    return result;
+    return outcome;
+  }
+
+  private void call(int value, CompletableFuture<Long> outcome, AtomicInteger running) {
+    CompletableFuture.supplyAsync(() -> checkLatency(value), executor)
+        .whenComplete((result, error) -> {
+          if (error != null) {
+            LOGGER.error("Remote call failed", error);
+          }
+          if (error == null && result != FAILURE.getRemoteServiceStatusValue()) {
+            outcome.complete(result);
+          } else if (running.decrementAndGet() == 0) {
+            outcome.complete(FAILURE.getRemoteServiceStatusValue());
+          }
+        });
+  }
+
+  private long checkLatency(int value) {
+    var startTime = System.nanoTime();
+    try {
+      return remoteService.doRemoteFunction(value);
+    } finally {
+      var timeTaken = System.nanoTime() - startTime;
+      latencies.record(timeTaken);
+      LOGGER.info("Time taken (ms): {}", TimeUnit.NANOSECONDS.toMillis(timeTaken));
+    }
+  }
+
+  private static ThreadFactory daemon(String name) {
+    var threadNumber = new AtomicInteger();
+    return runnable -> {
+      var thread = new Thread(runnable, name + "-" + threadNumber.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
   }
 }
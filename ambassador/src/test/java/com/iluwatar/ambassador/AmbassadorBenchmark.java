@@ -0,0 +1,111 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.iluwatar.ambassador;
+
+import ch.qos.logback.classic.Level;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sends thousands of calls, 64 at a time, through {@link ServiceAmbassador} to a remote service
+ * that answers in 5 ms, except for one call in 50 which takes 300 ms. Compares the ambassador
+ * without and with hedging by p50, p99 and p99.9 latency and by how many extra calls the hedging
+ * cost.
+ *
+ * <p>Run the main method; it is not part of the test suite.
+ */
+@Slf4j
+public class AmbassadorBenchmark {
+
+  private static final int CALLS = 5_000;
+  private static final int IN_FLIGHT = 64;
+  private static final long FAST_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+  private static final long SLOW_NANOS = TimeUnit.MILLISECONDS.toNanos(300);
+
+  /**
+   * Program entry point.
+   *
+   * @param args command line args
+   * @throws InterruptedException if interrupted while waiting for calls
+   */
+  public static void main(String[] args) throws InterruptedException {
+    ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(ServiceAmbassador.class))
+        .setLevel(Level.WARN);
+    RemoteServiceInterface remote = value -> {
+      var slow = ThreadLocalRandom.current().nextInt(50) == 0;
+      LockSupport.parkNanos(slow ? SLOW_NANOS : FAST_NANOS);
+      return value * 10L;
+    };
+    var executor = Executors.newCachedThreadPool();
+    var timer = Executors.newSingleThreadScheduledExecutor();
+    try {
+      for (var round = 0; round < 2; round++) { //the first round warms up
+        run("without hedging",
+            new ServiceAmbassador(remote, executor, timer, Duration.ofMillis(100), false));
+        run("with hedging at p95",
+            new ServiceAmbassador(remote, executor, timer, Duration.ofMillis(100), true));
+      }
+    } finally {
+      executor.shutdown();
+      timer.shutdown();
+    }
+  }
+
+  private static void run(String name, ServiceAmbassador ambassador)
+      throws InterruptedException {
+    var latencies = new long[CALLS];
+    var inFlight = new Semaphore(IN_FLIGHT);
+    var futures = new ArrayList<CompletableFuture<Long>>(CALLS);
+    var start = System.nanoTime();
+    for (var i = 0; i < CALLS; i++) {
+      inFlight.acquire();
+      var index = i;
+      var begin = System.nanoTime();
+      futures.add(ambassador.doRemoteFunctionAsync(i).whenComplete((result, error) -> {
+        latencies[index] = System.nanoTime() - begin;
+        inFlight.release();
+      }));
+    }
+    futures.forEach(CompletableFuture::join);
+    var elapsed = System.nanoTime() - start;
+    Arrays.sort(latencies);
+    LOGGER.info("{}: {} calls/s, latency p50 {} ms, p99 {} ms, p99.9 {} ms, hedged calls {}",
+        name, CALLS * TimeUnit.SECONDS.toNanos(1) / elapsed,
+        TimeUnit.NANOSECONDS.toMillis(latencies[CALLS / 2]),
+        TimeUnit.NANOSECONDS.toMillis(latencies[CALLS * 99 / 100]),
+        TimeUnit.NANOSECONDS.toMillis(latencies[CALLS * 999 / 1000]),
+        ambassador.getHedgedCalls());
+    LOGGER.info("  remote service latencies: {}", ambassador.getLatencies());
+  }
+}
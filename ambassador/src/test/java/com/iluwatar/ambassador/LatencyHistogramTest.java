@@ -0,0 +1,72 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.iluwatar.ambassador;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link LatencyHistogram}
+ */
+class LatencyHistogramTest {
+
+  @Test
+  void testPercentilesOfNothingRecorded() {
+    var histogram = new LatencyHistogram();
+    assertEquals(0, histogram.getCount());
+    assertEquals(0, histogram.getValueAtPercentile(99, TimeUnit.NANOSECONDS));
+  }
+
+  @Test
+  void testPercentilesAreWithinBucketPrecision() {
+    var histogram = new LatencyHistogram();
+    for (var millis = 1; millis <= 1000; millis++) {
+      histogram.record(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    assertEquals(1000, histogram.getCount());
+    assertEquals(1000, histogram.getMax(TimeUnit.MILLISECONDS));
+    for (var percentile : new double[] {1, 50, 95, 99, 100}) {
+      var expected = TimeUnit.MILLISECONDS.toNanos((long) (percentile * 10));
+      var actual = histogram.getValueAtPercentile(percentile, TimeUnit.NANOSECONDS);
+      assertTrue(actual >= expected && actual <= expected * 1.016,
+          percentile + "th percentile was " + actual);
+    }
+  }
+
+  @Test
+  void testSmallLatenciesAreExact() {
+    var histogram = new LatencyHistogram();
+    for (var nanos = 0; nanos < 128; nanos++) {
+      histogram.record(nanos);
+    }
+
+    assertEquals(63, histogram.getValueAtPercentile(50, TimeUnit.NANOSECONDS));
+    assertEquals(127, histogram.getValueAtPercentile(100, TimeUnit.NANOSECONDS));
+  }
+}
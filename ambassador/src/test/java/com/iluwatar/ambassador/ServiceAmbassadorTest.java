@@ -23,8 +23,17 @@
 
 package com.iluwatar.ambassador;
 
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -32,9 +41,84 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
  */
 class ServiceAmbassadorTest {
 
+  private final ScheduledExecutorService executor = Executors.newScheduledThreadPool(4);
+
+  @AfterEach
+  void shutDown() {
+    executor.shutdownNow();
+  }
+
   @Test
   void test() {
     long result = new ServiceAmbassador().doRemoteFunction(10);
     assertTrue(result == 100 || result == RemoteServiceStatus.FAILURE.getRemoteServiceStatusValue());
   }
+
+  @Test
+  void testRetriesWithoutBlocking() {
+    var calls = new AtomicInteger();
+    var ambassador = ambassador(value -> calls.incrementAndGet() < 3
+        ? RemoteServiceStatus.FAILURE.getRemoteServiceStatusValue() : value * 10, false);
+
+    var result = ambassador.doRemoteFunctionAsync(10);
+
+    assertFalse(result.isDone());
+    assertEquals(100, (long) result.join());
+    assertEquals(3, calls.get());
+    assertEquals(3, ambassador.getLatencies().getCount());
+  }
+
+  @Test
+  void testGivesUpAfterThreeCalls() {
+    var calls = new AtomicInteger();
+    var ambassador = ambassador(value -> {
+      calls.incrementAndGet();
+      return RemoteServiceStatus.FAILURE.getRemoteServiceStatusValue();
+    }, false);
+
+    assertEquals(RemoteServiceStatus.FAILURE.getRemoteServiceStatusValue(),
+        ambassador.doRemoteFunction(10));
+    assertEquals(3, calls.get());
+  }
+
+  @Test
+  void testHedgesCallSlowerThanMostCalls() throws Exception {
+    var stuck = new CountDownLatch(1);
+    var slowCalls = new AtomicInteger();
+    var ambassador = ambassador(value -> {
+      if (value < 0 && slowCalls.incrementAndGet() == 1) {
+        stuck.await();
+      }
+      return Math.abs(value) * 10L;
+    }, true);
+    for (var i = 0; i < 30; i++) {
+      ambassador.doRemoteFunction(i);
+    }
+    var hedgedCalls = ambassador.getHedgedCalls();
+
+    var result = ambassador.doRemoteFunctionAsync(-10);
+
+    try {
+      assertEquals(100, (long) result.get(5, TimeUnit.SECONDS));
+      assertEquals(hedgedCalls + 1, ambassador.getHedgedCalls());
+    } finally {
+      stuck.countDown();
+    }
+  }
+
+  private ServiceAmbassador ambassador(InterruptibleRemote remote, boolean hedging) {
+    RemoteServiceInterface service = value -> {
+      try {
+        return remote.doRemoteFunction(value);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return RemoteServiceStatus.FAILURE.getRemoteServiceStatusValue();
+      }
+    };
+    return new ServiceAmbassador(service, executor, executor, Duration.ofMillis(50), hedging);
+  }
+
+  private interface InterruptibleRemote {
+    long doRemoteFunction(int value) throws InterruptedException;
+  }
 }
@@ -29,6 +29,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 /**
  * The ApiGateway aggregates calls to microservices based on the needs of the individual clients.
+ * Microservices needed for one answer are called at the same time.
  */
 @RestController
 public class ApiGateway {
@@ -39,6 +40,14 @@ public class ApiGateway {
   @Resource
   private PriceClient priceClient;
 
+  public ApiGateway() {
+  }
+
+  ApiGateway(ImageClient imageClient, PriceClient priceClient) {
+    this.imageClient = imageClient;
+    this.priceClient = priceClient;
+  }
+
   /**
    * Retrieves product information that desktop clients need.
    *
@@ -46,9 +55,11 @@ public class ApiGateway {
    */
   @GetMapping("/desktop")
   public DesktopProduct getProductDesktop() {
+    var imagePath = imageClient.getImagePathAsync();
+    var price = priceClient.getPriceAsync();
     var desktopProduct = new DesktopProduct();
-    desktopProduct.setImagePath(imageClient.getImagePath());
-    desktopProduct.setPrice(priceClient.getPrice());
+    desktopProduct.setImagePath(imagePath.join());
+    desktopProduct.setPrice(price.join());
     return desktopProduct;
   }
 
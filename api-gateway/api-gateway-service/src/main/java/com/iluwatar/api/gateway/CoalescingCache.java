@@ -0,0 +1,103 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.api.gateway;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the latest response of a backend. Within the time to live the response is served
+ * without asking the backend. For a while after that it is still served, but a request is sent in
+ * the background to replace it. Callers arriving while a request is in flight share that request
+ * instead of sending their own. A request completing with {@code null} is a failure and replaces
+ * nothing.
+ */
+class CoalescingCache<T> {
+
+  private final long ttlNanos;
+  private final long staleNanos;
+  private final LongSupplier clock;
+  private T value;
+  private long fetchedAt;
+  private CompletableFuture<T> inFlight;
+
+  /**
+   * Creates the cache.
+   *
+   * @param ttl                  how long a response is served as it is
+   * @param staleWhileRevalidate how long after that a response is still served while a new one is
+   *                             fetched
+   */
+  CoalescingCache(Duration ttl, Duration staleWhileRevalidate) {
+    this(ttl, staleWhileRevalidate, System::nanoTime);
+  }
+
+  CoalescingCache(Duration ttl, Duration staleWhileRevalidate, LongSupplier clock) {
+    this.ttlNanos = ttl.toNanos();
+    this.staleNanos = staleWhileRevalidate.toNanos();
+    this.clock = clock;
+  }
+
+  /**
+   * Returns the remembered response if it is fresh enough, or else the response of the request in
+   * flight, sending one with the loader if there is none.
+   *
+   * @param loader sends a request to the backend
+   * @return the response, completing with {@code null} if the backend could not be reached
+   */
+  synchronized CompletableFuture<T> get(Supplier<CompletableFuture<T>> loader) {
+    if (value != null) {
+      var age = clock.getAsLong() - fetchedAt;
+      if (age < ttlNanos) {
+        return CompletableFuture.completedFuture(value);
+      }
+      if (age < ttlNanos + staleNanos) {
+        if (inFlight == null) {
+          load(loader);
+        }
+        return CompletableFuture.completedFuture(value);
+      }
+    }
+    return inFlight != null ? inFlight : load(loader);
+  }
+
+  private CompletableFuture<T> load(Supplier<CompletableFuture<T>> loader) {
+    var request = loader.get();
+    inFlight = request;
+    request.whenComplete((response, error) -> loaded(request, response));
+    return request;
+  }
+
+  private synchronized void loaded(CompletableFuture<T> request, T response) {
+    if (inFlight == request) {
+      inFlight = null;
+    }
+    if (response != null) {
+      value = response;
+      fetchedAt = clock.getAsLong();
+    }
+  }
+}
@@ -23,9 +23,21 @@
 
 package com.iluwatar.api.gateway;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * An interface used to communicate with the Image microservice.
  */
 public interface ImageClient {
-  String getImagePath();
+
+  /**
+   * Requests the image path without waiting for it.
+   *
+   * @return the path, or {@code null} if it could not be fetched
+   */
+  CompletableFuture<String> getImagePathAsync();
+
+  default String getImagePath() {
+    return getImagePathAsync().join();
+  }
 }
@@ -23,56 +23,80 @@
 
 package com.iluwatar.api.gateway;
 
-import java.io.IOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 /**
- * An adapter to communicate with the Image microservice.
+ * An adapter to communicate with the Image microservice. Image paths rarely change, so a path is
+ * reused for a minute, and for another ten minutes while a fresh one is fetched.
  */
 @Slf4j
 @Component
 public class ImageClientImpl implements ImageClient {
 
+  private static final URI IMAGE_PATH_URI = URI.create("http://localhost:50005/image-path");
+  private static final Duration TIMEOUT = Duration.ofSeconds(1);
+  private static final Duration TTL = Duration.ofMinutes(1);
+  private static final Duration STALE_WHILE_REVALIDATE = Duration.ofMinutes(10);
+
+  private final HttpClient httpClient;
+  private final HttpRequest httpGet;
+  private final CoalescingCache<String> cache;
+
+  @Autowired
+  public ImageClientImpl(HttpClient httpClient) {
+    this(httpClient, IMAGE_PATH_URI, TIMEOUT, TTL, STALE_WHILE_REVALIDATE);
+  }
+
+  /**
+   * Creates a client of the Image microservice at the given address.
+   *
+   * @param httpClient           sends the requests
+   * @param uri                  endpoint of the image path
+   * @param timeout              how long to wait for the microservice before giving up
+   * @param ttl                  how long an image path is reused
+   * @param staleWhileRevalidate how long after that an image path is reused while fetching anew
+   */
+  public ImageClientImpl(HttpClient httpClient, URI uri, Duration timeout, Duration ttl,
+      Duration staleWhileRevalidate) {
+    this.httpClient = httpClient;
+    this.httpGet = HttpRequest.newBuilder().GET().uri(uri).timeout(timeout).build();
+    this.cache = new CoalescingCache<>(ttl, staleWhileRevalidate);
+  }
+
   /**
-   * Makes a simple HTTP Get request to the Image microservice.
+   * Makes a simple HTTP Get request to the Image microservice, unless a recent path is known.
    *
    * @return The path to the image
    */
   @Override
-  public String getImagePath() {
-    var httpClient = HttpClient.newHttpClient();
-    var httpGet = HttpRequest.newBuilder()
-        .GET()
-        .uri(URI.create("http://localhost:50005/image-path"))
-        .build();
-
-    try {
+  public CompletableFuture<String> getImagePathAsync() {
+    return cache.get(() -> {
       LOGGER.info("Sending request to fetch image path");
-      var httpResponse = httpClient.send(httpGet, BodyHandlers.ofString());
-      logResponse(httpResponse);
-      return httpResponse.body();
-    } catch (IOException ioe) {
-      LOGGER.error("Failure occurred while getting image path", ioe);
-    } catch (InterruptedException ie) {
-      LOGGER.error("Failure occurred while getting image path", ie);
-      Thread.currentThread().interrupt();
-    }
-
-    return null;
+      return httpClient.sendAsync(httpGet, BodyHandlers.ofString())
+          .thenApply(this::bodyIfSuccessful)
+          .exceptionally(e -> {
+            LOGGER.error("Failure occurred while getting image path", e);
+            return null;
+          });
+    });
   }
 
-  private void logResponse(HttpResponse<String> httpResponse) {
+  private String bodyIfSuccessful(HttpResponse<String> httpResponse) {
     if (isSuccessResponse(httpResponse.statusCode())) {
       LOGGER.info("Image path received successfully");
-    } else {
-      LOGGER.warn("Image path request failed");
+      return httpResponse.body();
     }
+    LOGGER.warn("Image path request failed");
+    return null;
   }
 
   private boolean isSuccessResponse(int responseCode) {
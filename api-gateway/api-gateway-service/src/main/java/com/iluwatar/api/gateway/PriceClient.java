@@ -23,9 +23,21 @@
 
 package com.iluwatar.api.gateway;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * An interface used to communicate with the Price microservice.
  */
 public interface PriceClient {
-  String getPrice();
+
+  /**
+   * Requests the price without waiting for it.
+   *
+   * @return the price, or {@code null} if it could not be fetched
+   */
+  CompletableFuture<String> getPriceAsync();
+
+  default String getPrice() {
+    return getPriceAsync().join();
+  }
 }
@@ -23,57 +23,76 @@
 
 package com.iluwatar.api.gateway;
 
-import java.io.IOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 
 /**
- * An adapter to communicate with the Price microservice.
+ * An adapter to communicate with the Price microservice. Prices are not reused, but callers asking
+ * while a request is in flight share its answer.
  */
 @Slf4j
 @Component
 public class PriceClientImpl implements PriceClient {
 
+  private static final URI PRICE_URI = URI.create("http://localhost:50006/price");
+  private static final Duration TIMEOUT = Duration.ofSeconds(1);
+
+  private final HttpClient httpClient;
+  private final HttpRequest httpGet;
+  private final CoalescingCache<String> inFlight =
+      new CoalescingCache<>(Duration.ZERO, Duration.ZERO);
+
+  @Autowired
+  public PriceClientImpl(HttpClient httpClient) {
+    this(httpClient, PRICE_URI, TIMEOUT);
+  }
+
+  /**
+   * Creates a client of the Price microservice at the given address.
+   *
+   * @param httpClient sends the requests
+   * @param uri        endpoint of the price
+   * @param timeout    how long to wait for the microservice before giving up
+   */
+  public PriceClientImpl(HttpClient httpClient, URI uri, Duration timeout) {
+    this.httpClient = httpClient;
+    this.httpGet = HttpRequest.newBuilder().GET().uri(uri).timeout(timeout).build();
+  }
+
   /**
    * Makes a simple HTTP Get request to the Price microservice.
    *
    * @return The price of the product
    */
   @Override
-  public String getPrice() {
-    var httpClient = HttpClient.newHttpClient();
-    var httpGet = HttpRequest.newBuilder()
-        .GET()
-        .uri(URI.create("http://localhost:50006/price"))
-        .build();
-
-    try {
+  public CompletableFuture<String> getPriceAsync() {
+    return inFlight.get(() -> {
       LOGGER.info("Sending request to fetch price info");
-      var httpResponse = httpClient.send(httpGet, BodyHandlers.ofString());
-      logResponse(httpResponse);
-      return httpResponse.body();
-    } catch (IOException e) {
-      LOGGER.error("Failure occurred while getting price info", e);
-    } catch (InterruptedException e) {
-      LOGGER.error("Failure occurred while getting price info", e);
-      Thread.currentThread().interrupt();
-    }
-
-    return null;
+      return httpClient.sendAsync(httpGet, BodyHandlers.ofString())
+          .thenApply(this::bodyIfSuccessful)
+          .exceptionally(e -> {
+            LOGGER.error("Failure occurred while getting price info", e);
+            return null;
+          });
+    });
   }
 
-  private void logResponse(HttpResponse<String> httpResponse) {
+  private String bodyIfSuccessful(HttpResponse<String> httpResponse) {
     if (isSuccessResponse(httpResponse.statusCode())) {
       LOGGER.info("Price info received successfully");
-    } else {
-      LOGGER.warn("Price info request failed");
+      return httpResponse.body();
     }
+    LOGGER.warn("Price info request failed");
+    return null;
   }
 
   private boolean isSuccessResponse(int responseCode) {
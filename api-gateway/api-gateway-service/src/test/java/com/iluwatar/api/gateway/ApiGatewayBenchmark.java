@@ -0,0 +1,153 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.api.gateway;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Load test of the desktop product against local stub microservices, the image one answering
+ * after 30 ms and the price one after 50 ms. Many clients at once ask for products, first served
+ * by calling the microservices one after the other with a new client per call, as the gateway used
+ * to, and then by {@link ApiGateway} with the shared client, the image path cache and coalesced
+ * price requests. Reports p50 and p99 latency and how many requests reached the microservices.
+ *
+ * <p>Run the main method; it is not part of the test suite.
+ */
+@Slf4j
+public class ApiGatewayBenchmark {
+
+  private static final int CLIENTS = 32;
+  private static final int PRODUCTS = 2_000;
+  private static final Duration TIMEOUT = Duration.ofSeconds(2);
+
+  /**
+   * Program entry point.
+   *
+   * @param args command line args
+   * @throws Exception if the stub microservices cannot start or a client fails
+   */
+  public static void main(String[] args) throws Exception {
+    //otherwise Nagle's algorithm holds back each response body for a delayed ack
+    System.setProperty("sun.net.httpserver.nodelay", "true");
+    var serverPool = Executors.newCachedThreadPool();
+    var backendRequests = new AtomicInteger();
+    var images = stub("/image-path", "/product-image.png", 30, backendRequests);
+    var prices = stub("/price", "20", 50, backendRequests);
+    images.setExecutor(serverPool);
+    prices.setExecutor(serverPool);
+    images.start();
+    prices.start();
+    var clients = Executors.newFixedThreadPool(CLIENTS);
+    try {
+      var imageUri = uri(images, "/image-path");
+      var priceUri = uri(prices, "/price");
+      var httpClient = new HttpClientConfiguration().httpClient();
+      for (var round = 0; round < 2; round++) { //the first round warms up
+        backendRequests.set(0);
+        run("serial calls, client per call", clients, () -> fetch(imageUri) + fetch(priceUri));
+        LOGGER.info("  backend requests: {}", backendRequests.getAndSet(0));
+        var gateway = new ApiGateway(
+            new ImageClientImpl(httpClient, imageUri, TIMEOUT, Duration.ofMinutes(1),
+                Duration.ofMinutes(10)),
+            new PriceClientImpl(httpClient, priceUri, TIMEOUT));
+        run("concurrent calls, cache and coalescing", clients, gateway::getProductDesktop);
+        LOGGER.info("  backend requests: {}", backendRequests.getAndSet(0));
+      }
+    } finally {
+      clients.shutdown();
+      images.stop(0);
+      prices.stop(0);
+      serverPool.shutdown();
+    }
+  }
+
+  private static void run(String name, ExecutorService clients, Callable<Object> product)
+      throws InterruptedException, ExecutionException {
+    var latencies = new long[PRODUCTS];
+    var tasks = new ArrayList<Callable<Void>>(PRODUCTS);
+    for (var i = 0; i < PRODUCTS; i++) {
+      var index = i;
+      tasks.add(() -> {
+        var start = System.nanoTime();
+        product.call();
+        latencies[index] = System.nanoTime() - start;
+        return null;
+      });
+    }
+    var start = System.nanoTime();
+    for (var future : clients.invokeAll(tasks)) {
+      future.get();
+    }
+    var elapsed = System.nanoTime() - start;
+    Arrays.sort(latencies);
+    LOGGER.info("{}: {} products/s, latency p50 {} ms, p99 {} ms", name,
+        PRODUCTS * TimeUnit.SECONDS.toNanos(1) / elapsed,
+        TimeUnit.NANOSECONDS.toMillis(latencies[PRODUCTS / 2]),
+        TimeUnit.NANOSECONDS.toMillis(latencies[PRODUCTS * 99 / 100]));
+  }
+
+  private static String fetch(URI uri) throws IOException, InterruptedException {
+    var request = HttpRequest.newBuilder().GET().uri(uri).build();
+    return HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString()).body();
+  }
+
+  private static HttpServer stub(String path, String body, long delayMillis,
+      AtomicInteger requests) throws IOException {
+    var server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    var bytes = body.getBytes(StandardCharsets.UTF_8);
+    server.createContext(path, exchange -> {
+      requests.incrementAndGet();
+      try {
+        Thread.sleep(delayMillis);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      exchange.sendResponseHeaders(200, bytes.length);
+      exchange.getResponseBody().write(bytes);
+      exchange.close();
+    });
+    return server;
+  }
+
+  private static URI uri(HttpServer server, String path) {
+    return URI.create("http://localhost:" + server.getAddress().getPort() + path);
+  }
+}
@@ -23,6 +23,7 @@
 
 package com.iluwatar.api.gateway;
 
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.when;
 
@@ -58,8 +59,8 @@ class ApiGatewayTest {
   void testGetProductDesktop() {
     var imagePath = "/product-image.png";
     var price = "20";
-    when(imageClient.getImagePath()).thenReturn(imagePath);
-    when(priceClient.getPrice()).thenReturn(price);
+    when(imageClient.getImagePathAsync()).thenReturn(completedFuture(imagePath));
+    when(priceClient.getPriceAsync()).thenReturn(completedFuture(price));
 
     var desktopProduct = apiGateway.getProductDesktop();
 
@@ -0,0 +1,102 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.api.gateway;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link CoalescingCache}
+ */
+class CoalescingCacheTest {
+
+  private final List<CompletableFuture<String>> requests = new ArrayList<>();
+  private long now;
+  private final CoalescingCache<String> cache =
+      new CoalescingCache<>(Duration.ofNanos(10), Duration.ofNanos(100), () -> now);
+
+  @Test
+  void testSharesRequestInFlight() {
+    var first = cache.get(this::request);
+    var second = cache.get(this::request);
+
+    assertSame(first, second);
+    assertEquals(1, requests.size());
+  }
+
+  @Test
+  void testServesFreshThenStaleWhileRevalidating() {
+    cache.get(this::request);
+    requests.get(0).complete("/v1.png");
+
+    now = 5;
+    assertEquals("/v1.png", cache.get(this::request).join());
+    assertEquals(1, requests.size());
+
+    now = 50;
+    assertEquals("/v1.png", cache.get(this::request).join());
+    assertEquals("/v1.png", cache.get(this::request).join());
+    assertEquals(2, requests.size());
+
+    requests.get(1).complete("/v2.png");
+    assertEquals("/v2.png", cache.get(this::request).join());
+  }
+
+  @Test
+  void testWaitsForNewResponseOnceTooStale() {
+    cache.get(this::request);
+    requests.get(0).complete("/v1.png");
+
+    now = 200;
+    var response = cache.get(this::request);
+    requests.get(1).complete("/v2.png");
+
+    assertEquals("/v2.png", response.join());
+  }
+
+  @Test
+  void testKeepsResponseWhenRefreshFails() {
+    cache.get(this::request);
+    requests.get(0).complete("/v1.png");
+
+    now = 50;
+    cache.get(this::request);
+    requests.get(1).complete(null);
+
+    assertEquals("/v1.png", cache.get(this::request).join());
+    assertEquals(3, requests.size());
+  }
+
+  private CompletableFuture<String> request() {
+    var request = new CompletableFuture<String>();
+    requests.add(request);
+    return request;
+  }
+}
@@ -45,6 +45,19 @@ public enum Instruction {
   ADD(10),            // e.g. "ADD", pop 2 values, push their sum
   DIVIDE(11);         // e.g. "DIVIDE", pop 2 values, push their division
 
+  private static final Instruction[] BY_INT_VALUE;
+
+  static {
+    var maxValue = 0;
+    for (var instruction : values()) {
+      maxValue = Math.max(maxValue, instruction.intValue);
+    }
+    BY_INT_VALUE = new Instruction[maxValue + 1];
+    for (var instruction : values()) {
+      BY_INT_VALUE[instruction.intValue] = instruction;
+    }
+  }
+
   private final int intValue;
 
   /**
@@ -54,11 +67,19 @@ public enum Instruction {
    * @return representation of the instruction
    */
   public static Instruction getInstruction(int value) {
-    for (var i = 0; i < Instruction.values().length; i++) {
-      if (Instruction.values()[i].getIntValue() == value) {
-        return Instruction.values()[i];
-      }
+    if (!isInstruction(value)) {
+      throw new IllegalArgumentException("Invalid instruction value");
     }
-    throw new IllegalArgumentException("Invalid instruction value");
+    return BY_INT_VALUE[value];
+  }
+
+  /**
+   * Checks whether the integer value maps to an instruction.
+   *
+   * @param value value of instruction
+   * @return true if the value is a valid instruction
+   */
+  public static boolean isInstruction(int value) {
+    return value >= 0 && value < BY_INT_VALUE.length && BY_INT_VALUE[value] != null;
   }
 }
@@ -24,11 +24,38 @@
 package com.iluwatar.bytecode.util;
 
 import com.iluwatar.bytecode.Instruction;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * Utility class used for instruction validation and conversion.
+ *
+ * <p>Converted programs are cached by their source text, so converting the same program again
+ * costs a lookup and an array copy instead of a full parse. The cache holds the most recently
+ * converted programs, up to {@value #CACHE_CAPACITY} of them.
  */
 public class InstructionConverterUtil {
+
+  static final int CACHE_CAPACITY = 1024;
+
+  private static final Map<String, Instruction> INSTRUCTIONS_BY_NAME = new HashMap<>();
+
+  private static final Map<String, int[]> CACHE = Collections.synchronizedMap(
+      new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, int[]> eldest) {
+          return size() > CACHE_CAPACITY;
+        }
+      });
+
+  static {
+    for (var instruction : Instruction.values()) {
+      INSTRUCTIONS_BY_NAME.put(instruction.name(), instruction);
+    }
+  }
+
   /**
    * Converts instructions represented as String.
    *
@@ -40,37 +67,79 @@ public class InstructionConverterUtil {
       return new int[0];
     }
 
-    var splitedInstructions = instructions.trim().split(" ");
-    var bytecode = new int[splitedInstructions.length];
-    for (var i = 0; i < splitedInstructions.length; i++) {
-      if (isValidInstruction(splitedInstructions[i])) {
-        bytecode[i] = Instruction.valueOf(splitedInstructions[i]).getIntValue();
-      } else if (isValidInt(splitedInstructions[i])) {
-        bytecode[i] = Integer.parseInt(splitedInstructions[i]);
-      } else {
-        var errorMessage = "Invalid instruction or number: " + splitedInstructions[i];
-        throw new IllegalArgumentException(errorMessage);
+    var bytecode = CACHE.get(instructions);
+    if (bytecode == null) {
+      bytecode = parse(instructions.trim());
+      CACHE.put(instructions, bytecode);
+    }
+    return bytecode.clone();
+  }
+
+  /**
+   * Removes all cached programs.
+   */
+  public static void clearCache() {
+    CACHE.clear();
+  }
+
+  static int cacheSize() {
+    return CACHE.size();
+  }
+
+  static boolean isCached(String instructions) {
+    return CACHE.containsKey(instructions);
+  }
+
+  private static int[] parse(String instructions) {
+    var count = 1;
+    for (var i = 0; i < instructions.length(); i++) {
+      if (instructions.charAt(i) == ' ') {
+        count++;
       }
     }
 
+    var bytecode = new int[count];
+    var start = 0;
+    for (var i = 0; i < count; i++) {
+      var end = instructions.indexOf(' ', start);
+      if (end < 0) {
+        end = instructions.length();
+      }
+      bytecode[i] = parseToken(instructions.substring(start, end));
+      start = end + 1;
+    }
     return bytecode;
   }
 
-  private static boolean isValidInstruction(String instruction) {
-    try {
-      Instruction.valueOf(instruction);
-      return true;
-    } catch (IllegalArgumentException e) {
-      return false;
+  private static int parseToken(String token) {
+    var instruction = INSTRUCTIONS_BY_NAME.get(token);
+    if (instruction != null) {
+      return instruction.getIntValue();
+    }
+    if (isValidInt(token)) {
+      return Integer.parseInt(token);
     }
+    var errorMessage = "Invalid instruction or number: " + token;
+    throw new IllegalArgumentException(errorMessage);
   }
 
   private static boolean isValidInt(String value) {
-    try {
-      Integer.parseInt(value);
-      return true;
-    } catch (NumberFormatException e) {
+    var length = value.length();
+    var start = length > 1 && (value.charAt(0) == '-' || value.charAt(0) == '+') ? 1 : 0;
+    if (length == start) {
       return false;
     }
+    long result = 0;
+    for (var i = start; i < length; i++) {
+      var digit = value.charAt(i) - '0';
+      if (digit < 0 || digit > 9) {
+        return false;
+      }
+      result = result * 10 + digit;
+      if (result > (long) Integer.MAX_VALUE + 1) {
+        return false;
+      }
+    }
+    return result <= Integer.MAX_VALUE || value.charAt(0) == '-';
   }
 }
@@ -0,0 +1,218 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.bytecode.util;
+
+import com.iluwatar.bytecode.Instruction;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact binary format for bytecode programs.
+ *
+ * <p>Every instruction takes a single byte. The operand of {@link Instruction#LITERAL} follows
+ * its instruction as a zigzag encoded variable-length integer, so small literals take one byte
+ * instead of four. A program file starts with a magic number and the number of programs, followed
+ * by each program prefixed with its encoded length.
+ *
+ * <p>Programs are validated once when they are loaded. Program files are memory-mapped, so
+ * loading a large number of scripts at startup does not go through text parsing at all.
+ */
+public final class ProgramCodec {
+
+  static final int MAGIC = 0x42435031; // "BCP1"
+
+  private ProgramCodec() {
+  }
+
+  /**
+   * Checks that the bytecode consists of valid instructions and that every literal has an
+   * operand.
+   *
+   * @param bytecode to validate
+   * @throws IllegalArgumentException if the bytecode is invalid
+   */
+  public static void validate(int[] bytecode) {
+    for (var i = 0; i < bytecode.length; i++) {
+      if (!Instruction.isInstruction(bytecode[i])) {
+        throw new IllegalArgumentException("Invalid instruction value at " + i);
+      }
+      if (bytecode[i] == Instruction.LITERAL.getIntValue() && ++i == bytecode.length) {
+        throw new IllegalArgumentException("Missing literal value at " + i);
+      }
+    }
+  }
+
+  /**
+   * Encodes a single program.
+   *
+   * @param bytecode to encode
+   * @return encoded program
+   */
+  public static byte[] encode(int[] bytecode) {
+    validate(bytecode);
+    var out = new ByteArrayOutputStream(bytecode.length + 4);
+    for (var i = 0; i < bytecode.length; i++) {
+      out.write(bytecode[i]);
+      if (bytecode[i] == Instruction.LITERAL.getIntValue()) {
+        writeVarInt(out, zigzag(bytecode[++i]));
+      }
+    }
+    return out.toByteArray();
+  }
+
+  /**
+   * Decodes and validates a single program.
+   *
+   * @param encoded program
+   * @return bytecode ready for execution
+   * @throws IllegalArgumentException if the program is invalid or truncated
+   */
+  public static int[] decode(byte[] encoded) {
+    try {
+      return decode(ByteBuffer.wrap(encoded), encoded.length);
+    } catch (BufferUnderflowException e) {
+      throw new IllegalArgumentException("Truncated program", e);
+    }
+  }
+
+  private static int[] decode(ByteBuffer buffer, int length) {
+    var end = buffer.position() + length;
+    if (length < 0 || end > buffer.limit()) {
+      throw new IllegalArgumentException("Truncated program");
+    }
+    var bytecode = new int[length];
+    var size = 0;
+    while (buffer.position() < end) {
+      var value = buffer.get() & 0xFF;
+      if (!Instruction.isInstruction(value)) {
+        throw new IllegalArgumentException("Invalid instruction value at " + size);
+      }
+      bytecode[size++] = value;
+      if (value == Instruction.LITERAL.getIntValue()) {
+        if (buffer.position() == end) {
+          throw new IllegalArgumentException("Missing literal value at " + size);
+        }
+        bytecode[size++] = unzigzag(readVarInt(buffer));
+      }
+    }
+    if (buffer.position() != end) {
+      throw new IllegalArgumentException("Literal value exceeds program length");
+    }
+    return size == length ? bytecode : Arrays.copyOf(bytecode, size);
+  }
+
+  /**
+   * Writes programs to a file.
+   *
+   * @param path of the file
+   * @param programs to write
+   * @throws IOException if the file cannot be written
+   */
+  public static void write(Path path, List<int[]> programs) throws IOException {
+    var out = new ByteArrayOutputStream();
+    var magic = ByteBuffer.allocate(Integer.BYTES).putInt(MAGIC).array();
+    out.write(magic, 0, magic.length);
+    writeVarInt(out, programs.size());
+    for (var program : programs) {
+      var encoded = encode(program);
+      writeVarInt(out, encoded.length);
+      out.write(encoded, 0, encoded.length);
+    }
+    Files.write(path, out.toByteArray());
+  }
+
+  /**
+   * Memory-maps a program file and decodes all programs in it.
+   *
+   * @param path of the file
+   * @return bytecode of every program in the file
+   * @throws IOException if the file cannot be read
+   */
+  public static List<int[]> load(Path path) throws IOException {
+    try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      return read(buffer);
+    }
+  }
+
+  /**
+   * Decodes all programs from a buffer in program file format.
+   *
+   * @param buffer positioned at the start of the program file
+   * @return bytecode of every program in the buffer
+   */
+  public static List<int[]> read(ByteBuffer buffer) {
+    try {
+      if (buffer.getInt() != MAGIC) {
+        throw new IllegalArgumentException("Not a program file");
+      }
+      var count = readVarInt(buffer);
+      var programs = new ArrayList<int[]>(count);
+      for (var i = 0; i < count; i++) {
+        var length = readVarInt(buffer);
+        programs.add(decode(buffer, length));
+      }
+      return programs;
+    } catch (BufferUnderflowException e) {
+      throw new IllegalArgumentException("Truncated program file", e);
+    }
+  }
+
+  private static int zigzag(int value) {
+    return (value << 1) ^ (value >> 31);
+  }
+
+  private static int unzigzag(int value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  private static void writeVarInt(ByteArrayOutputStream out, int value) {
+    while ((value & ~0x7F) != 0) {
+      out.write((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    out.write(value);
+  }
+
+  private static int readVarInt(ByteBuffer buffer) {
+    var result = 0;
+    for (var shift = 0; shift < Integer.SIZE; shift += 7) {
+      var b = buffer.get();
+      result |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return result;
+      }
+    }
+    throw new IllegalArgumentException("Malformed variable-length integer");
+  }
+}
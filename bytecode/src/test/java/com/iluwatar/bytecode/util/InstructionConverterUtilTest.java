@@ -61,4 +61,49 @@ class InstructionConverterUtilTest {
     Assertions.assertEquals(Instruction.DIVIDE.getIntValue(), bytecode[9]);
   }
 
+  @Test
+  void testNegativeLiteral() {
+    var bytecode = InstructionConverterUtil.convertToByteCode("LITERAL -7");
+
+    Assertions.assertEquals(-7, bytecode[1]);
+  }
+
+  @Test
+  void testInvalidInstruction() {
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> InstructionConverterUtil.convertToByteCode("LITERAL 2147483648"));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> InstructionConverterUtil.convertToByteCode("JUMP"));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> InstructionConverterUtil.convertToByteCode("ADD  ADD"));
+  }
+
+  @Test
+  void testCachedProgramIsCopied() {
+    InstructionConverterUtil.clearCache();
+    var first = InstructionConverterUtil.convertToByteCode("LITERAL 5");
+    first[1] = 6;
+
+    var second = InstructionConverterUtil.convertToByteCode("LITERAL 5");
+
+    Assertions.assertEquals(1, InstructionConverterUtil.cacheSize());
+    Assertions.assertEquals(5, second[1]);
+  }
+
+  @Test
+  void testCacheEvictsLeastRecentlyUsedProgram() {
+    InstructionConverterUtil.clearCache();
+    InstructionConverterUtil.convertToByteCode("LITERAL 0");
+    for (var i = 1; i <= InstructionConverterUtil.CACHE_CAPACITY; i++) {
+      InstructionConverterUtil.convertToByteCode("LITERAL " + i);
+      //keep the first program recently used
+      InstructionConverterUtil.convertToByteCode("LITERAL 0");
+    }
+
+    Assertions.assertEquals(InstructionConverterUtil.CACHE_CAPACITY,
+        InstructionConverterUtil.cacheSize());
+    Assertions.assertTrue(InstructionConverterUtil.isCached("LITERAL 0"));
+    Assertions.assertFalse(InstructionConverterUtil.isCached("LITERAL 1"));
+    Assertions.assertTrue(InstructionConverterUtil.isCached("LITERAL 2"));
+  }
 }
@@ -0,0 +1,104 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.bytecode.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test for {@link ProgramCodec}
+ */
+class ProgramCodecTest {
+
+  private static final String PROGRAM = "LITERAL 0 LITERAL -300 SET_HEALTH LITERAL 1 GET_WISDOM ADD";
+
+  @Test
+  void testEncodeDecode() {
+    var bytecode = InstructionConverterUtil.convertToByteCode(PROGRAM);
+
+    var encoded = ProgramCodec.encode(bytecode);
+
+    assertEquals(10, encoded.length);
+    assertArrayEquals(bytecode, ProgramCodec.decode(encoded));
+  }
+
+  @Test
+  void testExtremeLiterals() {
+    var bytecode = InstructionConverterUtil.convertToByteCode(
+        "LITERAL 2147483647 LITERAL -2147483648");
+
+    assertArrayEquals(bytecode, ProgramCodec.decode(ProgramCodec.encode(bytecode)));
+  }
+
+  @Test
+  void testWriteAndLoad(@TempDir Path dir) throws Exception {
+    var file = dir.resolve("programs.bcp");
+    var first = InstructionConverterUtil.convertToByteCode(PROGRAM);
+    var second = InstructionConverterUtil.convertToByteCode("LITERAL 1 PLAY_SOUND");
+
+    ProgramCodec.write(file, List.of(first, second, new int[0]));
+    var programs = ProgramCodec.load(file);
+
+    assertEquals(3, programs.size());
+    assertArrayEquals(first, programs.get(0));
+    assertArrayEquals(second, programs.get(1));
+    assertEquals(0, programs.get(2).length);
+  }
+
+  @Test
+  void testInvalidBytecode() {
+    assertThrows(IllegalArgumentException.class, () -> ProgramCodec.encode(new int[]{42}));
+    assertThrows(IllegalArgumentException.class, () -> ProgramCodec.encode(new int[]{1}));
+    assertThrows(IllegalArgumentException.class, () -> ProgramCodec.decode(new byte[]{42}));
+    assertThrows(IllegalArgumentException.class, () -> ProgramCodec.decode(new byte[]{1}));
+  }
+
+  @Test
+  void testTruncatedLiteral() {
+    var truncated = new byte[]{1, (byte) 0x80};
+    var file = ByteBuffer.allocate(8).putInt(ProgramCodec.MAGIC).put((byte) 1).put((byte) 2)
+        .put(truncated);
+    file.flip();
+
+    assertThrows(IllegalArgumentException.class, () -> ProgramCodec.decode(truncated));
+    assertThrows(IllegalArgumentException.class, () -> ProgramCodec.read(file));
+  }
+
+  @Test
+  void testInvalidProgramFile() {
+    var wrongMagic = ByteBuffer.wrap(new byte[]{0, 0, 0, 0, 1});
+    var truncated = ByteBuffer.allocate(6).putInt(ProgramCodec.MAGIC).put((byte) 1).put((byte) 4);
+    truncated.flip();
+
+    assertThrows(IllegalArgumentException.class, () -> ProgramCodec.read(wrongMagic));
+    assertThrows(IllegalArgumentException.class, () -> ProgramCodec.read(truncated));
+  }
+}
@@ -32,11 +32,18 @@ import com.iluwatar.commander.exceptions.PaymentDetailsErrorException;
 import com.iluwatar.commander.exceptions.ShippingNotPossibleException;
 import com.iluwatar.commander.messagingservice.MessagingService;
 import com.iluwatar.commander.paymentservice.PaymentService;
+import com.iluwatar.commander.queue.DurableQueueDatabase;
 import com.iluwatar.commander.queue.QueueDatabase;
 import com.iluwatar.commander.queue.QueueTask;
 import com.iluwatar.commander.queue.QueueTask.TaskType;
 import com.iluwatar.commander.shippingservice.ShippingService;
 import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -69,6 +76,10 @@ import org.slf4j.LoggerFactory;
  * 5 classes - {@link AppShippingFailCases}, {@link AppPaymentFailCases}, {@link
  * AppMessagingFailCases}, {@link AppQueueFailCases} and {@link AppEmployeeDbFailCases}, which look
  * at the different scenarios that may be encountered during the placing of an order.</p>
+ * <p>Retries and the periodic queue sweep do not own threads: every attempt is a task on a
+ * shared {@link ScheduledExecutorService}, and the back-off between attempts is a scheduled
+ * delay rather than a sleeping thread, so the number of threads stays bounded no matter how
+ * many orders are in flight.</p>
  */
 
 public class Commander {
@@ -78,7 +89,9 @@ public class Commander {
   private final PaymentService paymentService;
   private final ShippingService shippingService;
   private final MessagingService messagingService;
-  private int queueItems = 0; //keeping track here only so don't need access to queue db to get this
+  //keeping track here only so don't need access to queue db to get this
+  private final AtomicInteger queueItems;
+  private final AtomicBoolean queueSweeping = new AtomicBoolean();
   private final int numOfRetries;
   private final long retryDuration;
   private final long queueTime;
@@ -86,14 +99,26 @@ public class Commander {
   private final long paymentTime;
   private final long messageTime;
   private final long employeeTime;
-  private boolean finalSiteMsgShown;
+  private final ScheduledExecutorService scheduler;
+  private volatile boolean finalSiteMsgShown;
   private static final Logger LOG = LoggerFactory.getLogger(Commander.class);
+  private static final ScheduledExecutorService SHARED_SCHEDULER = createSharedScheduler();
+  private static final int QUEUE_BATCH_SIZE = 64;
   //we could also have another db where it stores all orders
 
   Commander(EmployeeHandle empDb, PaymentService paymentService, ShippingService shippingService,
             MessagingService messagingService, QueueDatabase qdb, int numOfRetries,
             long retryDuration, long queueTime, long queueTaskTime, long paymentTime,
             long messageTime, long employeeTime) {
+    this(empDb, paymentService, shippingService, messagingService, qdb, numOfRetries,
+        retryDuration, queueTime, queueTaskTime, paymentTime, messageTime, employeeTime,
+        SHARED_SCHEDULER);
+  }
+
+  Commander(EmployeeHandle empDb, PaymentService paymentService, ShippingService shippingService,
+            MessagingService messagingService, QueueDatabase qdb, int numOfRetries,
+            long retryDuration, long queueTime, long queueTaskTime, long paymentTime,
+            long messageTime, long employeeTime, ScheduledExecutorService scheduler) {
     this.paymentService = paymentService;
     this.shippingService = shippingService;
     this.messagingService = messagingService;
@@ -106,24 +131,58 @@ public class Commander {
     this.paymentTime = paymentTime;
     this.messageTime = messageTime;
     this.employeeTime = employeeTime;
+    this.scheduler = scheduler;
+    this.queueItems = new AtomicInteger(qdb.size());
     this.finalSiteMsgShown = false;
   }
 
+  private static ScheduledExecutorService createSharedScheduler() {
+    var count = new AtomicInteger();
+    ThreadFactory factory = r -> new Thread(r, "commander-" + count.incrementAndGet());
+    var executor = new ScheduledThreadPoolExecutor(
+        Runtime.getRuntime().availableProcessors(), factory);
+    //idle workers die off, so the JVM can exit once every order has settled
+    executor.setKeepAliveTime(1, TimeUnit.SECONDS);
+    executor.allowCoreThreadTimeOut(true);
+    executor.setRemoveOnCancelPolicy(true);
+    return executor;
+  }
+
+  private static Exception nextFailure(List<Exception> list) {
+    //failure lists are shared by every order using the same service
+    synchronized (list) {
+      return list.isEmpty() ? null : list.remove(0);
+    }
+  }
+
   void placeOrder(Order order) throws Exception {
     sendShippingRequest(order);
   }
 
-  private void sendShippingRequest(Order order) throws Exception {
+  /**
+   * Starts working through tasks that were already in the queue db when the commander was
+   * created, such as those a {@link DurableQueueDatabase} restored after a restart. None of the
+   * example apps use a durable queue; an application that does calls this once after creating
+   * the commander.
+   */
+  void resumeQueuedTasks() {
+    if (queueItems.get() != 0) {
+      tryDoingTasksInQueue();
+    }
+  }
+
+  private void sendShippingRequest(Order order) {
     var list = shippingService.exceptionsList;
     Retry.Operation op = (l) -> {
-      if (!l.isEmpty()) {
-        if (DatabaseUnavailableException.class.isAssignableFrom(l.get(0).getClass())) {
+      var failure = nextFailure(l);
+      if (failure != null) {
+        if (DatabaseUnavailableException.class.isAssignableFrom(failure.getClass())) {
           LOG.debug("Order " + order.id + ": Error in connecting to shipping service, "
               + "trying again..");
         } else {
           LOG.debug("Order " + order.id + ": Error in creating shipping request..");
         }
-        throw l.remove(0);
+        throw failure;
       }
       String transactionId = shippingService.receiveRequest(order.item, order.user.address);
       //could save this transaction id in a db too
@@ -156,7 +215,7 @@ public class Commander {
     };
     var r = new Retry<>(op, handleError, numOfRetries, retryDuration,
         e -> DatabaseUnavailableException.class.isAssignableFrom(e.getClass()));
-    r.perform(list, order);
+    r.performAsync(list, order, scheduler);
   }
 
   private void sendPaymentRequest(Order order) {
@@ -169,65 +228,59 @@ public class Commander {
       return;
     }
     var list = paymentService.exceptionsList;
-    var t = new Thread(() -> {
-      Retry.Operation op = (l) -> {
-        if (!l.isEmpty()) {
-          if (DatabaseUnavailableException.class.isAssignableFrom(l.get(0).getClass())) {
-            LOG.debug("Order " + order.id + ": Error in connecting to payment service,"
-                + " trying again..");
-          } else {
-            LOG.debug("Order " + order.id + ": Error in creating payment request..");
-          }
-          throw l.remove(0);
+    Retry.Operation op = (l) -> {
+      var failure = nextFailure(l);
+      if (failure != null) {
+        if (DatabaseUnavailableException.class.isAssignableFrom(failure.getClass())) {
+          LOG.debug("Order " + order.id + ": Error in connecting to payment service,"
+              + " trying again..");
+        } else {
+          LOG.debug("Order " + order.id + ": Error in creating payment request..");
         }
-        if (order.paid.equals(PaymentStatus.TRYING)) {
-          var transactionId = paymentService.receiveRequest(order.price);
-          order.paid = PaymentStatus.DONE;
-          LOG.info("Order " + order.id + ": Payment successful, transaction Id: " + transactionId);
-          if (!finalSiteMsgShown) {
-            LOG.info("Payment made successfully, thank you for shopping with us!!");
-            finalSiteMsgShown = true;
-          }
-          sendSuccessMessage(order);
+        throw failure;
+      }
+      if (order.paid.equals(PaymentStatus.TRYING)) {
+        var transactionId = paymentService.receiveRequest(order.price, order.id);
+        order.paid = PaymentStatus.DONE;
+        LOG.info("Order " + order.id + ": Payment successful, transaction Id: " + transactionId);
+        if (!finalSiteMsgShown) {
+          LOG.info("Payment made successfully, thank you for shopping with us!!");
+          finalSiteMsgShown = true;
+        }
+        sendSuccessMessage(order);
+      }
+    };
+    Retry.HandleErrorIssue<Order> handleError = (o, err) -> {
+      if (PaymentDetailsErrorException.class.isAssignableFrom(err.getClass())) {
+        if (!finalSiteMsgShown) {
+          LOG.info("There was an error in payment. Your account/card details "
+              + "may have been incorrect. "
+              + "Meanwhile, your order has been converted to COD and will be shipped.");
+          finalSiteMsgShown = true;
         }
-      };
-      Retry.HandleErrorIssue<Order> handleError = (o, err) -> {
-        if (PaymentDetailsErrorException.class.isAssignableFrom(err.getClass())) {
+        LOG.error("Order " + order.id + ": Payment details incorrect, failed..");
+        o.paid = PaymentStatus.NOT_DONE;
+        sendPaymentFailureMessage(o);
+      } else {
+        if (o.messageSent.equals(MessageSent.NONE_SENT)) {
           if (!finalSiteMsgShown) {
-            LOG.info("There was an error in payment. Your account/card details "
-                + "may have been incorrect. "
-                + "Meanwhile, your order has been converted to COD and will be shipped.");
+            LOG.info("There was an error in payment. We are on it, and will get back to you "
+                + "asap. Don't worry, your order has been placed and will be shipped.");
             finalSiteMsgShown = true;
           }
-          LOG.error("Order " + order.id + ": Payment details incorrect, failed..");
-          o.paid = PaymentStatus.NOT_DONE;
-          sendPaymentFailureMessage(o);
-        } else {
-          if (o.messageSent.equals(MessageSent.NONE_SENT)) {
-            if (!finalSiteMsgShown) {
-              LOG.info("There was an error in payment. We are on it, and will get back to you "
-                  + "asap. Don't worry, your order has been placed and will be shipped.");
-              finalSiteMsgShown = true;
-            }
-            LOG.warn("Order " + order.id + ": Payment error, going to queue..");
-            sendPaymentPossibleErrorMsg(o);
-          }
-          if (o.paid.equals(PaymentStatus.TRYING) && System
-              .currentTimeMillis() - o.createdTime < paymentTime) {
-            var qt = new QueueTask(o, TaskType.PAYMENT, -1);
-            updateQueue(qt);
-          }
+          LOG.warn("Order " + order.id + ": Payment error, going to queue..");
+          sendPaymentPossibleErrorMsg(o);
+        }
+        if (o.paid.equals(PaymentStatus.TRYING) && System
+            .currentTimeMillis() - o.createdTime < paymentTime) {
+          var qt = new QueueTask(o, TaskType.PAYMENT, -1);
+          updateQueue(qt);
         }
-      };
-      var r = new Retry<>(op, handleError, numOfRetries, retryDuration,
-          e -> DatabaseUnavailableException.class.isAssignableFrom(e.getClass()));
-      try {
-        r.perform(list, order);
-      } catch (Exception e1) {
-        e1.printStackTrace();
       }
-    });
-    t.start();
+    };
+    var r = new Retry<>(op, handleError, numOfRetries, retryDuration,
+        e -> DatabaseUnavailableException.class.isAssignableFrom(e.getClass()));
+    r.performAsync(list, order, scheduler);
   }
 
   private void updateQueue(QueueTask qt) {
@@ -246,84 +299,63 @@ public class Commander {
       return;
     }
     var list = queue.exceptionsList;
-    Thread t = new Thread(() -> {
-      Retry.Operation op = (list1) -> {
-        if (!list1.isEmpty()) {
-          LOG.warn("Order " + qt.order.id + ": Error in connecting to queue db, trying again..");
-          throw list1.remove(0);
-        }
-        queue.add(qt);
-        queueItems++;
-        LOG.info("Order " + qt.order.id + ": " + qt.getType() + " task enqueued..");
-        tryDoingTasksInQueue();
-      };
-      Retry.HandleErrorIssue<QueueTask> handleError = (qt1, err) -> {
-        if (qt1.taskType.equals(TaskType.PAYMENT)) {
-          qt1.order.paid = PaymentStatus.NOT_DONE;
-          sendPaymentFailureMessage(qt1.order);
-          LOG.error("Order " + qt1.order.id + ": Unable to enqueue payment task,"
-              + " payment failed..");
-        }
-        LOG.error("Order " + qt1.order.id + ": Unable to enqueue task of type " + qt1.getType()
-            + ", trying to add to employee handle..");
-        employeeHandleIssue(qt1.order);
-      };
-      var r = new Retry<>(op, handleError, numOfRetries, retryDuration,
-          e -> DatabaseUnavailableException.class.isAssignableFrom(e.getClass()));
-      try {
-        r.perform(list, qt);
-      } catch (Exception e1) {
-        e1.printStackTrace();
+    Retry.Operation op = (list1) -> {
+      var failure = nextFailure(list1);
+      if (failure != null) {
+        LOG.warn("Order " + qt.order.id + ": Error in connecting to queue db, trying again..");
+        throw failure;
+      }
+      queue.add(qt);
+      queueItems.incrementAndGet();
+      LOG.info("Order " + qt.order.id + ": " + qt.getType() + " task enqueued..");
+      tryDoingTasksInQueue();
+    };
+    Retry.HandleErrorIssue<QueueTask> handleError = (qt1, err) -> {
+      if (qt1.taskType.equals(TaskType.PAYMENT)) {
+        qt1.order.paid = PaymentStatus.NOT_DONE;
+        sendPaymentFailureMessage(qt1.order);
+        LOG.error("Order " + qt1.order.id + ": Unable to enqueue payment task,"
+            + " payment failed..");
       }
-    });
-    t.start();
+      LOG.error("Order " + qt1.order.id + ": Unable to enqueue task of type " + qt1.getType()
+          + ", trying to add to employee handle..");
+      employeeHandleIssue(qt1.order);
+    };
+    var r = new Retry<>(op, handleError, numOfRetries, retryDuration,
+        e -> DatabaseUnavailableException.class.isAssignableFrom(e.getClass()));
+    r.performAsync(list, qt, scheduler);
   }
 
   private void tryDoingTasksInQueue() { //commander controls operations done to queue
-    var list = queue.exceptionsList;
-    var t2 = new Thread(() -> {
-      Retry.Operation op = (list1) -> {
-        if (!list1.isEmpty()) {
-          LOG.warn("Error in accessing queue db to do tasks, trying again..");
-          throw list1.remove(0);
-        }
-        doTasksInQueue();
-      };
-      Retry.HandleErrorIssue<QueueTask> handleError = (o, err) -> {
-      };
-      var r = new Retry<>(op, handleError, numOfRetries, retryDuration,
-          e -> DatabaseUnavailableException.class.isAssignableFrom(e.getClass()));
-      try {
-        r.perform(list, null);
-      } catch (Exception e1) {
-        e1.printStackTrace();
-      }
-    });
-    t2.start();
+    //one sweep at a time works through the queue, however many tasks get enqueued
+    if (queueSweeping.compareAndSet(false, true)) {
+      sweepQueue();
+    }
   }
 
-  private void tryDequeue() {
+  private void sweepQueue() {
     var list = queue.exceptionsList;
-    var t3 = new Thread(() -> {
-      Retry.Operation op = (list1) -> {
-        if (!list1.isEmpty()) {
-          LOG.warn("Error in accessing queue db to dequeue task, trying again..");
-          throw list1.remove(0);
-        }
-        queue.dequeue();
-        queueItems--;
-      };
-      Retry.HandleErrorIssue<QueueTask> handleError = (o, err) -> {
-      };
-      var r = new Retry<QueueTask>(op, handleError, numOfRetries, retryDuration,
-          e -> DatabaseUnavailableException.class.isAssignableFrom(e.getClass()));
-      try {
-        r.perform(list, null);
-      } catch (Exception e1) {
-        e1.printStackTrace();
+    Retry.Operation op = (list1) -> {
+      var failure = nextFailure(list1);
+      if (failure != null) {
+        LOG.warn("Error in accessing queue db to do tasks, trying again..");
+        throw failure;
       }
-    });
-    t3.start();
+      doTasksInQueue();
+    };
+    Retry.HandleErrorIssue<QueueTask> handleError = (o, err) -> {
+      queueSweeping.set(false);
+    };
+    var r = new Retry<>(op, handleError, numOfRetries, retryDuration,
+        e -> DatabaseUnavailableException.class.isAssignableFrom(e.getClass()));
+    r.performAsync(list, null, scheduler);
+  }
+
+  private void finishQueueSweep() {
+    queueSweeping.set(false);
+    if (queueItems.get() != 0) { //enqueued while the sweep was finishing
+      tryDoingTasksInQueue();
+    }
   }
 
   private void sendSuccessMessage(Order order) {
@@ -332,20 +364,13 @@ public class Commander {
       return;
     }
     var list = messagingService.exceptionsList;
-    Thread t = new Thread(() -> {
-      Retry.Operation op = handleSuccessMessageRetryOperation(order);
-      Retry.HandleErrorIssue<Order> handleError = (o, err) -> {
-        handleSuccessMessageErrorIssue(order, o);
-      };
-      var r = new Retry<>(op, handleError, numOfRetries, retryDuration,
-          e -> DatabaseUnavailableException.class.isAssignableFrom(e.getClass()));
-      try {
-        r.perform(list, order);
-      } catch (Exception e1) {
-        e1.printStackTrace();
-      }
-    });
-    t.start();
+    Retry.Operation op = handleSuccessMessageRetryOperation(order);
+    Retry.HandleErrorIssue<Order> handleError = (o, err) -> {
+      handleSuccessMessageErrorIssue(order, o);
+    };
+    var r = new Retry<>(op, handleError, numOfRetries, retryDuration,
+        e -> DatabaseUnavailableException.class.isAssignableFrom(e.getClass()));
+    r.performAsync(list, order, scheduler);
   }
 
   private void handleSuccessMessageErrorIssue(Order order, Order o) {
@@ -362,15 +387,16 @@ public class Commander {
 
   private Retry.Operation handleSuccessMessageRetryOperation(Order order) {
     return (l) -> {
-      if (!l.isEmpty()) {
-        if (DatabaseUnavailableException.class.isAssignableFrom(l.get(0).getClass())) {
+      var failure = nextFailure(l);
+      if (failure != null) {
+        if (DatabaseUnavailableException.class.isAssignableFrom(failure.getClass())) {
           LOG.debug("Order " + order.id + ": Error in connecting to messaging service "
               + "(Payment Success msg), trying again..");
         } else {
           LOG.debug("Order " + order.id + ": Error in creating Payment Success"
               + " messaging request..");
         }
-        throw l.remove(0);
+        throw failure;
       }
       if (!order.messageSent.equals(MessageSent.PAYMENT_FAIL)
           && !order.messageSent.equals(MessageSent.PAYMENT_SUCCESSFUL)) {
@@ -388,22 +414,15 @@ public class Commander {
       return;
     }
     var list = messagingService.exceptionsList;
-    var t = new Thread(() -> {
-      Retry.Operation op = (l) -> {
-        handlePaymentFailureRetryOperation(order, l);
-      };
-      Retry.HandleErrorIssue<Order> handleError = (o, err) -> {
-        handlePaymentErrorIssue(order, o);
-      };
-      var r = new Retry<>(op, handleError, numOfRetries, retryDuration,
-          e -> DatabaseUnavailableException.class.isAssignableFrom(e.getClass()));
-      try {
-        r.perform(list, order);
-      } catch (Exception e1) {
-        e1.printStackTrace();
-      }
-    });
-    t.start();
+    Retry.Operation op = (l) -> {
+      handlePaymentFailureRetryOperation(order, l);
+    };
+    Retry.HandleErrorIssue<Order> handleError = (o, err) -> {
+      handlePaymentErrorIssue(order, o);
+    };
+    var r = new Retry<>(op, handleError, numOfRetries, retryDuration,
+        e -> DatabaseUnavailableException.class.isAssignableFrom(e.getClass()));
+    r.performAsync(list, order, scheduler);
   }
 
   private void handlePaymentErrorIssue(Order order, Order o) {
@@ -419,15 +438,16 @@ public class Commander {
   }
 
   private void handlePaymentFailureRetryOperation(Order order, List<Exception> l) throws Exception {
-    if (!l.isEmpty()) {
-      if (DatabaseUnavailableException.class.isAssignableFrom(l.get(0).getClass())) {
+    var failure = nextFailure(l);
+    if (failure != null) {
+      if (DatabaseUnavailableException.class.isAssignableFrom(failure.getClass())) {
         LOG.debug("Order " + order.id + ": Error in connecting to messaging service "
             + "(Payment Failure msg), trying again..");
       } else {
         LOG.debug("Order " + order.id + ": Error in creating Payment Failure"
             + " message request..");
       }
-      throw l.remove(0);
+      throw failure;
     }
     if (!order.messageSent.equals(MessageSent.PAYMENT_FAIL)
         && !order.messageSent.equals(MessageSent.PAYMENT_SUCCESSFUL)) {
@@ -444,22 +464,15 @@ public class Commander {
       return;
     }
     var list = messagingService.exceptionsList;
-    var t = new Thread(() -> {
-      Retry.Operation op = (l) -> {
-        handlePaymentPossibleErrorMsgRetryOperation(order, l);
-      };
-      Retry.HandleErrorIssue<Order> handleError = (o, err) -> {
-        handlePaymentPossibleErrorMsgErrorIssue(order, o);
-      };
-      var r = new Retry<>(op, handleError, numOfRetries, retryDuration,
-          e -> DatabaseUnavailableException.class.isAssignableFrom(e.getClass()));
-      try {
-        r.perform(list, order);
-      } catch (Exception e1) {
-        e1.printStackTrace();
-      }
-    });
-    t.start();
+    Retry.Operation op = (l) -> {
+      handlePaymentPossibleErrorMsgRetryOperation(order, l);
+    };
+    Retry.HandleErrorIssue<Order> handleError = (o, err) -> {
+      handlePaymentPossibleErrorMsgErrorIssue(order, o);
+    };
+    var r = new Retry<>(op, handleError, numOfRetries, retryDuration,
+        e -> DatabaseUnavailableException.class.isAssignableFrom(e.getClass()));
+    r.performAsync(list, order, scheduler);
   }
 
   private void handlePaymentPossibleErrorMsgErrorIssue(Order order, Order o) {
@@ -476,15 +489,16 @@ public class Commander {
 
   private void handlePaymentPossibleErrorMsgRetryOperation(Order order, List<Exception> l)
       throws Exception {
-    if (!l.isEmpty()) {
-      if (DatabaseUnavailableException.class.isAssignableFrom(l.get(0).getClass())) {
+    var failure = nextFailure(l);
+    if (failure != null) {
+      if (DatabaseUnavailableException.class.isAssignableFrom(failure.getClass())) {
         LOG.debug("Order " + order.id + ": Error in connecting to messaging service "
             + "(Payment Error msg), trying again..");
       } else {
         LOG.debug("Order " + order.id + ": Error in creating Payment Error"
             + " messaging request..");
       }
-      throw l.remove(0);
+      throw failure;
     }
     if (order.paid.equals(PaymentStatus.TRYING) && order.messageSent
         .equals(MessageSent.NONE_SENT)) {
@@ -501,98 +515,110 @@ public class Commander {
       return;
     }
     var list = employeeDb.exceptionsList;
-    var t = new Thread(() -> {
-      Retry.Operation op = (l) -> {
-        if (!l.isEmpty()) {
-          LOG.warn("Order " + order.id + ": Error in connecting to employee handle,"
-              + " trying again..");
-          throw l.remove(0);
-        }
-        if (!order.addedToEmployeeHandle) {
-          employeeDb.receiveRequest(order);
-          order.addedToEmployeeHandle = true;
-          LOG.info("Order " + order.id + ": Added order to employee database");
-        }
-      };
-      Retry.HandleErrorIssue<Order> handleError = (o, err) -> {
-        if (!o.addedToEmployeeHandle && System
-            .currentTimeMillis() - order.createdTime < employeeTime) {
-          var qt = new QueueTask(order, TaskType.EMPLOYEE_DB, -1);
-          updateQueue(qt);
-          LOG.warn("Order " + order.id + ": Error in adding to employee db,"
-              + " trying to queue task..");
-        }
-      };
-      var r = new Retry<>(op, handleError, numOfRetries, retryDuration,
-          e -> DatabaseUnavailableException.class.isAssignableFrom(e.getClass()));
-      try {
-        r.perform(list, order);
-      } catch (Exception e1) {
-        e1.printStackTrace();
+    Retry.Operation op = (l) -> {
+      var failure = nextFailure(l);
+      if (failure != null) {
+        LOG.warn("Order " + order.id + ": Error in connecting to employee handle,"
+            + " trying again..");
+        throw failure;
       }
-    });
-    t.start();
+      if (!order.addedToEmployeeHandle) {
+        employeeDb.receiveRequest(order);
+        order.addedToEmployeeHandle = true;
+        LOG.info("Order " + order.id + ": Added order to employee database");
+      }
+    };
+    Retry.HandleErrorIssue<Order> handleError = (o, err) -> {
+      if (!o.addedToEmployeeHandle && System
+          .currentTimeMillis() - order.createdTime < employeeTime) {
+        var qt = new QueueTask(order, TaskType.EMPLOYEE_DB, -1);
+        updateQueue(qt);
+        LOG.warn("Order " + order.id + ": Error in adding to employee db,"
+            + " trying to queue task..");
+      }
+    };
+    var r = new Retry<>(op, handleError, numOfRetries, retryDuration,
+        e -> DatabaseUnavailableException.class.isAssignableFrom(e.getClass()));
+    r.performAsync(list, order, scheduler);
   }
 
   private void doTasksInQueue() throws Exception {
-    if (queueItems != 0) {
-      var qt = queue.peek(); //this should probably be cloned here
-      //this is why we have retry for doTasksInQueue
-      LOG.trace("Order " + qt.order.id + ": Started doing task of type " + qt.getType());
-      if (qt.getFirstAttemptTime() == -1) {
-        qt.setFirstAttemptTime(System.currentTimeMillis());
+    //each sweep goes once through the tasks queued when it started, a batch at a time
+    var remaining = queueItems.get();
+    while (remaining > 0) {
+      var batch = queue.peek(Math.min(remaining, QUEUE_BATCH_SIZE));
+      if (batch.isEmpty()) {
+        break;
       }
-      if (System.currentTimeMillis() - qt.getFirstAttemptTime() >= queueTaskTime) {
-        tryDequeue();
-        LOG.trace("Order " + qt.order.id + ": This queue task of type " + qt.getType()
-            + " does not need to be done anymore (timeout), dequeue..");
-      } else {
-        if (qt.taskType.equals(TaskType.PAYMENT)) {
-          if (!qt.order.paid.equals(PaymentStatus.TRYING)) {
-            tryDequeue();
-            LOG.trace("Order " + qt.order.id + ": This payment task already done, dequeueing..");
-          } else {
-            sendPaymentRequest(qt.order);
-            LOG.debug("Order " + qt.order.id + ": Trying to connect to payment service..");
-          }
-        } else if (qt.taskType.equals(TaskType.MESSAGING)) {
-          if (qt.order.messageSent.equals(MessageSent.PAYMENT_FAIL)
-              || qt.order.messageSent.equals(MessageSent.PAYMENT_SUCCESSFUL)) {
-            tryDequeue();
-            LOG.trace("Order " + qt.order.id + ": This messaging task already done, dequeue..");
-          } else if (qt.messageType == 1 && (!qt.order.messageSent.equals(MessageSent.NONE_SENT)
-              || !qt.order.paid.equals(PaymentStatus.TRYING))) {
-            tryDequeue();
-            LOG.trace("Order " + qt.order.id + ": This messaging task does not need to be done,"
-                + " dequeue..");
-          } else if (qt.messageType == 0) {
-            sendPaymentFailureMessage(qt.order);
-            LOG.debug("Order " + qt.order.id + ": Trying to connect to messaging service..");
-          } else if (qt.messageType == 1) {
-            sendPaymentPossibleErrorMsg(qt.order);
-            LOG.debug("Order " + qt.order.id + ": Trying to connect to messaging service..");
-          } else if (qt.messageType == 2) {
-            sendSuccessMessage(qt.order);
-            LOG.debug("Order " + qt.order.id + ": Trying to connect to messaging service..");
-          }
-        } else if (qt.taskType.equals(TaskType.EMPLOYEE_DB)) {
-          if (qt.order.addedToEmployeeHandle) {
-            tryDequeue();
-            LOG.trace("Order " + qt.order.id + ": This employee handle task already done,"
-                + " dequeue..");
-          } else {
-            employeeHandleIssue(qt.order);
-            LOG.debug("Order " + qt.order.id + ": Trying to connect to employee handle..");
-          }
+      //tasks not done yet go to the back of the queue before the batch is removed, so a failure
+      //in between can at worst leave a task queued twice, which the other dbs take care of
+      var requeued = 0;
+      for (var qt : batch) {
+        if (doTask(qt)) {
+          queue.add(qt);
+          requeued++;
         }
       }
+      queueItems.addAndGet(requeued - queue.dequeue(batch.size()).size());
+      remaining -= batch.size();
     }
-    if (queueItems == 0) {
+    if (queueItems.get() == 0) {
       LOG.trace("Queue is empty, returning..");
+      finishQueueSweep();
     } else {
-      Thread.sleep(queueTaskTime / 3);
-      tryDoingTasksInQueue();
+      scheduler.schedule(this::sweepQueue, queueTaskTime / 3, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private boolean doTask(QueueTask qt) { //returns whether the task still has to be done
+    LOG.trace("Order " + qt.order.id + ": Started doing task of type " + qt.getType());
+    if (qt.getFirstAttemptTime() == -1) {
+      qt.setFirstAttemptTime(System.currentTimeMillis());
+    }
+    if (System.currentTimeMillis() - qt.getFirstAttemptTime() >= queueTaskTime) {
+      LOG.trace("Order " + qt.order.id + ": This queue task of type " + qt.getType()
+          + " does not need to be done anymore (timeout), dequeue..");
+      return false;
+    }
+    if (qt.taskType.equals(TaskType.PAYMENT)) {
+      if (!qt.order.paid.equals(PaymentStatus.TRYING)) {
+        LOG.trace("Order " + qt.order.id + ": This payment task already done, dequeueing..");
+        return false;
+      } else {
+        sendPaymentRequest(qt.order);
+        LOG.debug("Order " + qt.order.id + ": Trying to connect to payment service..");
+      }
+    } else if (qt.taskType.equals(TaskType.MESSAGING)) {
+      if (qt.order.messageSent.equals(MessageSent.PAYMENT_FAIL)
+          || qt.order.messageSent.equals(MessageSent.PAYMENT_SUCCESSFUL)) {
+        LOG.trace("Order " + qt.order.id + ": This messaging task already done, dequeue..");
+        return false;
+      } else if (qt.messageType == 1 && (!qt.order.messageSent.equals(MessageSent.NONE_SENT)
+          || !qt.order.paid.equals(PaymentStatus.TRYING))) {
+        LOG.trace("Order " + qt.order.id + ": This messaging task does not need to be done,"
+            + " dequeue..");
+        return false;
+      } else if (qt.messageType == 0) {
+        sendPaymentFailureMessage(qt.order);
+        LOG.debug("Order " + qt.order.id + ": Trying to connect to messaging service..");
+      } else if (qt.messageType == 1) {
+        sendPaymentPossibleErrorMsg(qt.order);
+        LOG.debug("Order " + qt.order.id + ": Trying to connect to messaging service..");
+      } else if (qt.messageType == 2) {
+        sendSuccessMessage(qt.order);
+        LOG.debug("Order " + qt.order.id + ": Trying to connect to messaging service..");
+      }
+    } else if (qt.taskType.equals(TaskType.EMPLOYEE_DB)) {
+      if (qt.order.addedToEmployeeHandle) {
+        LOG.trace("Order " + qt.order.id + ": This employee handle task already done,"
+            + " dequeue..");
+        return false;
+      } else {
+        employeeHandleIssue(qt.order);
+        LOG.debug("Order " + qt.order.id + ": Trying to connect to employee handle..");
+      }
     }
+    return true;
   }
 
 }
@@ -23,9 +23,12 @@
 
 package com.iluwatar.commander;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.security.SecureRandom;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Order class holds details of the order.
@@ -53,10 +56,10 @@ public class Order { //can store all transactions ids also
   final long createdTime;
   private static final SecureRandom RANDOM = new SecureRandom();
   private static final String ALL_CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ1234567890";
-  private static final Map<String, Boolean> USED_IDS = new HashMap<>();
-  PaymentStatus paid;
-  MessageSent messageSent; //to avoid sending error msg on page and text more than once
-  boolean addedToEmployeeHandle; //to avoid creating more to enqueue
+  private static final Map<String, Boolean> USED_IDS = new ConcurrentHashMap<>();
+  volatile PaymentStatus paid;
+  volatile MessageSent messageSent; //to avoid sending error msg on page and text more than once
+  volatile boolean addedToEmployeeHandle; //to avoid creating more to enqueue
 
   Order(User user, String item, float price) {
     this.createdTime = System.currentTimeMillis();
@@ -76,6 +79,56 @@ public class Order { //can store all transactions ids also
     this.addedToEmployeeHandle = false;
   }
 
+  private Order(String id, User user, String item, float price, long createdTime) {
+    this.createdTime = createdTime;
+    this.user = user;
+    this.item = item;
+    this.price = price;
+    this.id = id;
+    USED_IDS.put(this.id, true);
+    this.paid = PaymentStatus.TRYING;
+    this.messageSent = MessageSent.NONE_SENT;
+    this.addedToEmployeeHandle = false;
+  }
+
+  /**
+   * Writes the details of the order and how far it got, so that it can be rebuilt by {@link
+   * #readFrom(DataInput)} after a restart. The flags are those at the time of writing, so a
+   * restored order may still repeat a step. Payments are keyed by order id only in memory, so a
+   * payment repeated after a restart is charged again.
+   *
+   * @param out where the order is written
+   * @throws IOException if writing fails
+   */
+  public void writeTo(DataOutput out) throws IOException {
+    out.writeUTF(id);
+    out.writeUTF(user.name);
+    out.writeUTF(user.address);
+    out.writeUTF(item);
+    out.writeFloat(price);
+    out.writeLong(createdTime);
+    out.writeByte(paid.ordinal());
+    out.writeByte(messageSent.ordinal());
+    out.writeBoolean(addedToEmployeeHandle);
+  }
+
+  /**
+   * Rebuilds an order written by {@link #writeTo(DataOutput)}.
+   *
+   * @param in where the order is read from
+   * @return the restored order
+   * @throws IOException if reading fails
+   */
+  public static Order readFrom(DataInput in) throws IOException {
+    var id = in.readUTF();
+    var user = new User(in.readUTF(), in.readUTF());
+    var order = new Order(id, user, in.readUTF(), in.readFloat(), in.readLong());
+    order.paid = PaymentStatus.values()[in.readByte()];
+    order.messageSent = MessageSent.values()[in.readByte()];
+    order.addedToEmployeeHandle = in.readBoolean();
+    return order;
+  }
+
   private String createUniqueId() {
     StringBuilder random = new StringBuilder();
     while (random.length() < 12) { // length of the random string.
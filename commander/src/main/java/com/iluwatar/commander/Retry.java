@@ -27,8 +27,12 @@ import java.security.SecureRandom;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Retry pattern.
@@ -57,6 +61,7 @@ public class Retry<T> {
   }
 
   private static final SecureRandom RANDOM = new SecureRandom();
+  private static final Logger LOG = LoggerFactory.getLogger(Retry.class);
 
   private final Operation op;
   private final HandleErrorIssue<T> handleError;
@@ -96,10 +101,7 @@ public class Retry<T> {
           return; //return here...dont go further
         }
         try {
-          long testDelay =
-              (long) Math.pow(2, this.attempts.intValue()) * 1000 + RANDOM.nextInt(1000);
-          long delay = Math.min(testDelay, this.maxDelay);
-          Thread.sleep(delay);
+          Thread.sleep(nextDelay());
         } catch (InterruptedException f) {
           //ignore
         }
@@ -107,4 +109,40 @@ public class Retry<T> {
     } while (true);
   }
 
+  /**
+   * Performing the operation with retries without blocking the caller. Each attempt runs as a
+   * task on the scheduler and the back-off between attempts is a scheduled delay, so no thread is
+   * held while waiting to retry.
+   *
+   * @param list      is the exception list
+   * @param obj       is the parameter to be passed into handleIsuue method
+   * @param scheduler runs the attempts
+   */
+
+  public void performAsync(List<Exception> list, T obj, ScheduledExecutorService scheduler) {
+    scheduler.execute(() -> attempt(list, obj, scheduler));
+  }
+
+  private void attempt(List<Exception> list, T obj, ScheduledExecutorService scheduler) {
+    try {
+      op.operation(list);
+    } catch (Exception e) {
+      this.errors.add(e);
+      if (this.attempts.incrementAndGet() >= this.maxAttempts || !this.test.test(e)) {
+        try {
+          this.handleError.handleIssue(obj, e);
+        } catch (RuntimeException f) {
+          LOG.error("Error while handling failed operation", f);
+        }
+        return;
+      }
+      scheduler.schedule(() -> attempt(list, obj, scheduler), nextDelay(), TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private long nextDelay() {
+    long testDelay = (long) Math.pow(2, this.attempts.intValue()) * 1000 + RANDOM.nextInt(1000);
+    return Math.min(testDelay, this.maxDelay);
+  }
+
 }
@@ -24,10 +24,9 @@
 package com.iluwatar.commander;
 
 import com.iluwatar.commander.exceptions.DatabaseUnavailableException;
-
-import java.security.SecureRandom;
+import com.iluwatar.commander.idgenerator.IdGenerator;
+import com.iluwatar.commander.idgenerator.RandomIdGenerator;
 import java.util.ArrayList;
-import java.util.Hashtable;
 import java.util.List;
 
 /**
@@ -37,18 +36,23 @@ import java.util.List;
  * which adds to their respective databases. There is a method to generate transaction/request id
  * for the transactions/requests, which are then sent back. These could be stored by the {@link
  * Commander} class in a separate database for reference (though we are not doing that here).
+ * Ids come from an {@link IdGenerator}, random ones unless the service is given another.
  */
 
 public abstract class Service {
 
   protected final Database database;
   public ArrayList<Exception> exceptionsList;
-  private static final SecureRandom RANDOM = new SecureRandom();
-  private static final String ALL_CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ1234567890";
-  private static final Hashtable<String, Boolean> USED_IDS = new Hashtable<>();
+  private static final IdGenerator DEFAULT_ID_GENERATOR = new RandomIdGenerator();
+  private final IdGenerator idGenerator;
 
   protected Service(Database db, Exception... exc) {
+    this(db, DEFAULT_ID_GENERATOR, exc);
+  }
+
+  protected Service(Database db, IdGenerator idGenerator, Exception... exc) {
     this.database = db;
+    this.idGenerator = idGenerator;
     this.exceptionsList = new ArrayList<>(List.of(exc));
   }
 
@@ -57,17 +61,7 @@ public abstract class Service {
   protected abstract String updateDb(Object... parameters) throws DatabaseUnavailableException;
 
   protected String generateId() {
-    StringBuilder random = new StringBuilder();
-    while (random.length() < 12) { // length of the random string.
-      int index = (int) (RANDOM.nextFloat() * ALL_CHARS.length());
-      random.append(ALL_CHARS.charAt(index));
-    }
-    String id = random.toString();
-    if (USED_IDS.get(id) != null) {
-      while (USED_IDS.get(id)) {
-        id = generateId();
-      }
-    }
-    return id;
+    return idGenerator.nextId();
   }
+
 }
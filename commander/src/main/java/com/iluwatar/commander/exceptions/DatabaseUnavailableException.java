@@ -30,4 +30,12 @@ package com.iluwatar.commander.exceptions;
 
 public class DatabaseUnavailableException extends Exception {
   private static final long serialVersionUID = 2459603L;
+
+  public DatabaseUnavailableException() {
+    super();
+  }
+
+  public DatabaseUnavailableException(Throwable cause) {
+    super(cause);
+  }
 }
@@ -0,0 +1,61 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.commander.idgenerator;
+
+import java.security.SecureRandom;
+
+/**
+ * Random bits for the calling thread. Each thread has its own {@link SecureRandom} and takes bits
+ * from a buffer that is refilled a block at a time, so threads never contend and the cost of the
+ * secure generator is spread over many ids.
+ */
+final class RandomBuffer {
+
+  private static final int SIZE = 512;
+  private static final ThreadLocal<RandomBuffer> CURRENT =
+      ThreadLocal.withInitial(RandomBuffer::new);
+
+  private final SecureRandom random = new SecureRandom();
+  private final byte[] bytes = new byte[SIZE];
+  private int position = SIZE;
+
+  private RandomBuffer() {
+  }
+
+  static RandomBuffer current() {
+    return CURRENT.get();
+  }
+
+  long nextLong() {
+    if (position > SIZE - Long.BYTES) {
+      random.nextBytes(bytes);
+      position = 0;
+    }
+    var value = 0L;
+    for (var i = 0; i < Long.BYTES; i++) {
+      value = value << 8 | (bytes[position++] & 0xFF);
+    }
+    return value;
+  }
+}
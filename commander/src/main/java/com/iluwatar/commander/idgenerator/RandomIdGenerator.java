@@ -0,0 +1,65 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.commander.idgenerator;
+
+/**
+ * RandomIdGenerator makes ids of random base 32 characters, five random bits each, drawn from the
+ * calling thread's own {@link RandomBuffer}. The default length of 16 gives 80 random bits, so a
+ * collision is not expected before around a trillion ids.
+ */
+
+public class RandomIdGenerator implements IdGenerator {
+
+  private static final int DEFAULT_LENGTH = 16;
+  private static final int CHARS_PER_LONG = Long.SIZE / Crockford.BITS_PER_CHAR;
+
+  private final int length;
+
+  public RandomIdGenerator() {
+    this(DEFAULT_LENGTH);
+  }
+
+  /**
+   * Creates a generator making ids of the given length.
+   *
+   * @param length number of characters in each id
+   */
+  public RandomIdGenerator(int length) {
+    if (length <= 0) {
+      throw new IllegalArgumentException("Id length must be positive: " + length);
+    }
+    this.length = length;
+  }
+
+  @Override
+  public String nextId() {
+    var random = RandomBuffer.current();
+    var chars = new char[length];
+    for (var offset = 0; offset < length; offset += CHARS_PER_LONG) {
+      var count = Math.min(CHARS_PER_LONG, length - offset);
+      Crockford.encode(random.nextLong(), chars, offset, count);
+    }
+    return new String(chars);
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.commander.idgenerator;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * SnowflakeIdGenerator makes 64 bit ids from a millisecond timestamp (41 bits, counted from 2020),
+ * a node number (10 bits) and a sequence (12 bits), written as 13 base 32 characters. Ids from one
+ * generator always increase. Generators given different node numbers never clash, so each
+ * instance of a service should be given its own.
+ *
+ * <p>Timestamp and sequence are kept together in one atomic long. If the sequence runs out within
+ * a millisecond, it carries into the timestamp, borrowing the next millisecond instead of
+ * waiting for it. If the clock goes back, ids keep counting up from the last one.
+ */
+
+public class SnowflakeIdGenerator implements IdGenerator {
+
+  static final long EPOCH = 1577836800000L; //2020-01-01T00:00:00Z
+  static final int NODE_BITS = 10;
+  static final int SEQUENCE_BITS = 12;
+  static final long MAX_NODE = (1L << NODE_BITS) - 1;
+  private static final int ID_LENGTH = 13;
+
+  private final long node;
+  private final LongSupplier clock;
+  private final AtomicLong last = new AtomicLong();
+
+  public SnowflakeIdGenerator(long node) {
+    this(node, System::currentTimeMillis);
+  }
+
+  SnowflakeIdGenerator(long node, LongSupplier clock) {
+    if (node < 0 || node > MAX_NODE) {
+      throw new IllegalArgumentException("Node must be between 0 and " + MAX_NODE + ": " + node);
+    }
+    this.node = node << SEQUENCE_BITS;
+    this.clock = clock;
+  }
+
+  /**
+   * Returns a new id as a number.
+   *
+   * @return the id
+   */
+  public long nextLong() {
+    var now = (clock.getAsLong() - EPOCH) << SEQUENCE_BITS;
+    var next = last.accumulateAndGet(now, (previous, start) -> Math.max(previous + 1, start));
+    var timestamp = next >>> SEQUENCE_BITS;
+    var sequence = next & ((1L << SEQUENCE_BITS) - 1);
+    return timestamp << (NODE_BITS + SEQUENCE_BITS) | node | sequence;
+  }
+
+  @Override
+  public String nextId() {
+    var chars = new char[ID_LENGTH];
+    Crockford.encode(nextLong(), chars, 0, ID_LENGTH);
+    return new String(chars);
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.commander.idgenerator;
+
+import java.util.function.LongSupplier;
+
+/**
+ * UlidIdGenerator makes ULIDs: 26 base 32 characters holding a 48 bit millisecond timestamp
+ * followed by 80 random bits, so ids sort by creation time. Each thread keeps its own state. When
+ * a thread asks for more than one id within a millisecond, the random part is incremented
+ * rather than drawn again, so that thread's ids still sort in the order they were made.
+ * Uniqueness across threads comes from the 80 random bits.
+ */
+
+public class UlidIdGenerator implements IdGenerator {
+
+  private static final int TIME_CHARS = 10;
+  private static final int RANDOM_HIGH_CHARS = 4;
+  private static final int RANDOM_LOW_CHARS = 12;
+  private static final int ID_LENGTH = TIME_CHARS + RANDOM_HIGH_CHARS + RANDOM_LOW_CHARS;
+  private static final long RANDOM_HIGH_MASK = (1L << 20) - 1;
+  private static final long RANDOM_LOW_MASK = (1L << 60) - 1;
+  private static final long MAX_TIME = (1L << 48) - 1;
+
+  private static class State {
+    long time = -1;
+    long high; //top 20 random bits
+    long low; //bottom 60 random bits
+  }
+
+  private final LongSupplier clock;
+  private final ThreadLocal<State> state = ThreadLocal.withInitial(State::new);
+
+  public UlidIdGenerator() {
+    this(System::currentTimeMillis);
+  }
+
+  UlidIdGenerator(LongSupplier clock) {
+    this.clock = clock;
+  }
+
+  @Override
+  public String nextId() {
+    var s = state.get();
+    var now = clock.getAsLong();
+    if (now > s.time) {
+      var random = RandomBuffer.current();
+      s.time = now;
+      s.high = random.nextLong() & RANDOM_HIGH_MASK;
+      s.low = random.nextLong() & RANDOM_LOW_MASK;
+    } else {
+      s.low = (s.low + 1) & RANDOM_LOW_MASK;
+      if (s.low == 0) {
+        s.high = (s.high + 1) & RANDOM_HIGH_MASK;
+        if (s.high == 0) {
+          s.time++; //random part used up, move on to the next millisecond
+        }
+      }
+    }
+    var chars = new char[ID_LENGTH];
+    Crockford.encode(s.time & MAX_TIME, chars, 0, TIME_CHARS);
+    Crockford.encode(s.high, chars, TIME_CHARS, RANDOM_HIGH_CHARS);
+    Crockford.encode(s.low, chars, TIME_CHARS + RANDOM_HIGH_CHARS, RANDOM_LOW_CHARS);
+    return new String(chars);
+  }
+}
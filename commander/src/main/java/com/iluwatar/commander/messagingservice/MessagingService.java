@@ -25,6 +25,7 @@ package com.iluwatar.commander.messagingservice;
 
 import com.iluwatar.commander.Service;
 import com.iluwatar.commander.exceptions.DatabaseUnavailableException;
+import com.iluwatar.commander.idgenerator.IdGenerator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -53,6 +54,10 @@ public class MessagingService extends Service {
     super(db, exc);
   }
 
+  public MessagingService(MessagingDatabase db, IdGenerator idGenerator, Exception... exc) {
+    super(db, idGenerator, exc);
+  }
+
   /**
    * Public method which will receive request from {@link com.iluwatar.commander.Commander}.
    */
@@ -27,6 +27,7 @@ import com.iluwatar.commander.Database;
 import com.iluwatar.commander.paymentservice.PaymentService.PaymentRequest;
 import java.util.Hashtable;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * PaymentDatabase is where the PaymentRequest is added, along with details.
@@ -35,6 +36,7 @@ public class PaymentDatabase extends Database<PaymentRequest> {
 
   //0-fail, 1-error, 2-success
   private final Map<String, PaymentRequest> data = new Hashtable<>();
+  private final Map<String, PaymentRequest> byOrder = new ConcurrentHashMap<>();
 
   @Override
   public PaymentRequest add(PaymentRequest r) {
@@ -46,4 +48,18 @@ public class PaymentDatabase extends Database<PaymentRequest> {
     return data.get(requestId);
   }
 
+  /**
+   * Adds the request unless a request for the same order has been added before.
+   *
+   * @param r request naming its order
+   * @return the request added before for the same order, or {@code null} if this one was added
+   */
+  public PaymentRequest addOnce(PaymentRequest r) {
+    var earlier = byOrder.putIfAbsent(r.orderId, r);
+    if (earlier == null) {
+      data.put(r.transactionId, r);
+    }
+    return earlier;
+  }
+
 }
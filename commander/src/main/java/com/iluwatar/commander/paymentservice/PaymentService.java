@@ -25,11 +25,14 @@ package com.iluwatar.commander.paymentservice;
 
 import com.iluwatar.commander.Service;
 import com.iluwatar.commander.exceptions.DatabaseUnavailableException;
+import com.iluwatar.commander.idgenerator.IdGenerator;
 import lombok.RequiredArgsConstructor;
 
 /**
  * The PaymentService class receives request from the {@link com.iluwatar.commander.Commander} and
- * adds to the {@link PaymentDatabase}.
+ * adds to the {@link PaymentDatabase}. A request naming its order is made at most once per order
+ * while the process runs, so a retried payment task is not charged again. The database is kept in
+ * memory, so a task replayed after a restart is charged again.
  */
 
 public class PaymentService extends Service {
@@ -38,26 +41,47 @@ public class PaymentService extends Service {
   static class PaymentRequest {
     final String transactionId;
     final float payment;
+    final String orderId;
     boolean paid;
   }
 
+  private final PaymentDatabase payments;
+
   public PaymentService(PaymentDatabase db, Exception... exc) {
     super(db, exc);
+    this.payments = db;
+  }
+
+  public PaymentService(PaymentDatabase db, IdGenerator idGenerator, Exception... exc) {
+    super(db, idGenerator, exc);
+    this.payments = db;
   }
 
   /**
-   * Public method which will receive request from {@link com.iluwatar.commander.Commander}.
+   * Public method which will receive request from {@link com.iluwatar.commander.Commander}. The
+   * parameters are the amount and, optionally, the id of the order being paid for.
+   *
+   * @return id of the transaction, the earlier one if the order has already been paid for
    */
 
   public String receiveRequest(Object... parameters) throws DatabaseUnavailableException {
     //it could also be sending a userid, payment details here or something, not added here
     var id = generateId();
-    var req = new PaymentRequest(id, (float) parameters[0]);
+    var orderId = parameters.length > 1 ? (String) parameters[1] : null;
+    var req = new PaymentRequest(id, (float) parameters[0], orderId);
     return updateDb(req);
   }
 
   protected String updateDb(Object... parameters) throws DatabaseUnavailableException {
     var req = (PaymentRequest) parameters[0];
+    if (req.orderId != null) {
+      var earlier = payments.addOnce(req);
+      if (earlier != null) {
+        return earlier.transactionId;
+      }
+      req.paid = true;
+      return req.transactionId;
+    }
     if (database.get(req.transactionId) == null || !req.paid) {
       database.add(req);
       req.paid = true;
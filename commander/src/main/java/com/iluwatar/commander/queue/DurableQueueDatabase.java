@@ -0,0 +1,186 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.commander.queue;
+
+import com.iluwatar.commander.exceptions.DatabaseUnavailableException;
+import com.iluwatar.commander.exceptions.IsEmptyException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * QueueDatabase which also keeps its tasks in a {@link SegmentLog} on disk, so queued retries
+ * survive a crash or restart. Adding a task appends it to the log, dequeuing moves the log's
+ * checkpoint past the removed tasks, and opening the database on the same directory again puts
+ * back every task that was still queued.
+ *
+ * <p>Any number of threads may add tasks; appends are serialised on a lock, while peeking and
+ * dequeuing only touch the lock-free in-memory queue. By default a task is kept once its write
+ * reaches the operating system, which survives the process dying. With {@code fsync} each add also
+ * waits for the log to be forced to disk, one force serving all adds waiting at the time.
+ *
+ * <p>This is a library class: the example apps keep their queue in memory. An application opting
+ * in passes it to the {@link com.iluwatar.commander.Commander} in place of a {@link QueueDatabase}
+ * and then calls {@code resumeQueuedTasks()} to pick up the restored tasks.
+ */
+
+public class DurableQueueDatabase extends QueueDatabase implements Closeable {
+
+  private static final long DEFAULT_SEGMENT_BYTES = 16L << 20;
+
+  @RequiredArgsConstructor
+  private static class Entry {
+    final long sequence;
+    final QueueTask task;
+  }
+
+  private final Queue<Entry> pending = new Queue<>();
+  private final ReentrantLock appendLock = new ReentrantLock();
+  private final SegmentLog log;
+  private final boolean fsync;
+  //highest sequence already in the pending queue, everything below it has been queued too
+  private volatile long published;
+
+  public DurableQueueDatabase(Path directory, Exception... exc) throws IOException {
+    this(directory, DEFAULT_SEGMENT_BYTES, false, exc);
+  }
+
+  /**
+   * Opens the queue kept in the given directory, restoring any tasks left in it.
+   *
+   * @param directory    where the log is kept
+   * @param segmentBytes size after which the log starts a new segment file
+   * @param fsync        whether adds wait for the log to be forced to disk
+   * @param exc          failures to inject, as for {@link QueueDatabase}
+   * @throws IOException if the log cannot be opened or read
+   */
+  public DurableQueueDatabase(Path directory, long segmentBytes, boolean fsync, Exception... exc)
+      throws IOException {
+    super(exc);
+    this.log = new SegmentLog(directory, segmentBytes, fsync);
+    this.fsync = fsync;
+    this.published = log.recover((sequence, payload) ->
+        pending.enqueue(new Entry(sequence, decode(payload)))) - 1;
+  }
+
+  @Override
+  public QueueTask add(QueueTask t) throws DatabaseUnavailableException {
+    var payload = encode(t);
+    long sequence;
+    appendLock.lock();
+    try {
+      //appending and queueing together keeps the queue in sequence order
+      sequence = log.append(payload);
+      pending.enqueue(new Entry(sequence, t));
+      published = sequence;
+    } catch (IOException e) {
+      throw new DatabaseUnavailableException(e);
+    } finally {
+      appendLock.unlock();
+    }
+    if (fsync) {
+      try {
+        log.sync(sequence);
+      } catch (IOException e) {
+        throw new DatabaseUnavailableException(e);
+      }
+    }
+    return t;
+  }
+
+  @Override
+  public QueueTask peek() throws IsEmptyException {
+    return pending.peek().task;
+  }
+
+  @Override
+  public List<QueueTask> peek(int max) {
+    return tasks(pending.peek(max));
+  }
+
+  @Override
+  public QueueTask dequeue() throws IsEmptyException, DatabaseUnavailableException {
+    var removed = dequeue(1);
+    if (removed.isEmpty()) {
+      throw new IsEmptyException();
+    }
+    return removed.get(0);
+  }
+
+  @Override
+  public List<QueueTask> dequeue(int max) throws DatabaseUnavailableException {
+    var last = published;
+    var removed = pending.dequeue(max);
+    if (!removed.isEmpty()) {
+      //anything below the new front, or up to last if nothing is left, has been dequeued
+      var front = pending.peek(1);
+      var checkpoint = front.isEmpty() ? last + 1 : front.get(0).sequence;
+      try {
+        log.commit(checkpoint);
+      } catch (IOException e) {
+        throw new DatabaseUnavailableException(e);
+      }
+    }
+    return tasks(removed);
+  }
+
+  @Override
+  public int size() {
+    return pending.size();
+  }
+
+  @Override
+  public void close() throws IOException {
+    log.close();
+  }
+
+  private static List<QueueTask> tasks(List<Entry> entries) {
+    return entries.stream().map(entry -> entry.task).collect(Collectors.toList());
+  }
+
+  private static byte[] encode(QueueTask task) {
+    var bytes = new ByteArrayOutputStream(64);
+    try (var out = new DataOutputStream(bytes)) {
+      task.writeTo(out);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e); //cannot happen writing to memory
+    }
+    return bytes.toByteArray();
+  }
+
+  private static QueueTask decode(byte[] payload) throws IOException {
+    try (var in = new DataInputStream(new ByteArrayInputStream(payload))) {
+      return QueueTask.readFrom(in);
+    }
+  }
+}
@@ -24,60 +24,136 @@
 package com.iluwatar.commander.queue;
 
 import com.iluwatar.commander.exceptions.IsEmptyException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 /**
- * Queue data structure implementation.
+ * Queue data structure implementation. It is a lock-free linked queue (Michael and Scott), so any
+ * number of threads may enqueue and dequeue at the same time.
  *
  * @param <T> is the type of object the queue will hold.
  */
 public class Queue<T> {
 
-  private Node<T> front;
-  private Node<T> rear;
-  private int size;
+  @SuppressWarnings("rawtypes")
+  private static final AtomicReferenceFieldUpdater<Queue, Node> FRONT =
+      AtomicReferenceFieldUpdater.newUpdater(Queue.class, Node.class, "front");
+  @SuppressWarnings("rawtypes")
+  private static final AtomicReferenceFieldUpdater<Queue, Node> REAR =
+      AtomicReferenceFieldUpdater.newUpdater(Queue.class, Node.class, "rear");
+
+  //front is a sentinel, the first element is front.next
+  private volatile Node<T> front;
+  private volatile Node<T> rear;
+  private final AtomicInteger size = new AtomicInteger();
 
   static class Node<V> {
-    V value;
-    Node<V> next;
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<Node, Node> NEXT =
+        AtomicReferenceFieldUpdater.newUpdater(Node.class, Node.class, "next");
+
+    final V value;
+    volatile Node<V> next;
 
     Node(V obj, Node<V> b) {
       value = obj;
       next = b;
     }
+
+    boolean casNext(Node<V> expected, Node<V> update) {
+      return NEXT.compareAndSet(this, expected, update);
+    }
+  }
+
+  Queue() {
+    front = new Node<>(null, null);
+    rear = front;
   }
 
   boolean isEmpty() {
-    return size == 0;
+    return front.next == null;
+  }
+
+  int size() {
+    return Math.max(size.get(), 0);
   }
 
   void enqueue(T obj) {
-    if (front == null) {
-      front = new Node<>(obj, null);
-      rear = front;
-    } else {
-      var temp = new Node<>(obj, null);
-      rear.next = temp;
-      rear = temp;
+    var node = new Node<>(obj, null);
+    while (true) {
+      var last = rear;
+      var next = last.next;
+      if (next != null) {
+        REAR.compareAndSet(this, last, next); //help a stalled enqueuer along
+      } else if (last.casNext(null, node)) {
+        REAR.compareAndSet(this, last, node);
+        size.incrementAndGet();
+        return;
+      }
     }
-    size++;
   }
 
   T dequeue() throws IsEmptyException {
-    if (isEmpty()) {
+    var value = poll();
+    if (value == null) {
       throw new IsEmptyException();
-    } else {
-      var temp = front;
-      front = front.next;
-      size = size - 1;
-      return temp.value;
     }
+    return value;
+  }
+
+  /**
+   * Removes up to {@code max} objects from the front of the queue.
+   *
+   * @param max largest number of objects to remove
+   * @return removed objects in queue order, empty if the queue was empty
+   */
+  List<T> dequeue(int max) {
+    var batch = new ArrayList<T>(Math.min(max, size() + 1));
+    T value;
+    while (batch.size() < max && (value = poll()) != null) {
+      batch.add(value);
+    }
+    return batch;
   }
 
   T peek() throws IsEmptyException {
-    if (isEmpty()) {
+    var first = front.next;
+    if (first == null) {
       throw new IsEmptyException();
-    } else {
-      return front.value;
+    }
+    return first.value;
+  }
+
+  /**
+   * Returns up to {@code max} objects from the front of the queue without removing them.
+   *
+   * @param max largest number of objects to return
+   * @return objects in queue order, empty if the queue is empty
+   */
+  List<T> peek(int max) {
+    var batch = new ArrayList<T>(Math.min(max, size() + 1));
+    for (var node = front.next; node != null && batch.size() < max; node = node.next) {
+      batch.add(node.value);
+    }
+    return batch;
+  }
+
+  private T poll() {
+    while (true) {
+      var first = front;
+      var last = rear;
+      var next = first.next;
+      if (next == null) {
+        return null;
+      }
+      if (first == last) {
+        REAR.compareAndSet(this, last, next);
+      } else if (FRONT.compareAndSet(this, first, next)) {
+        size.decrementAndGet();
+        return next.value; //next is the new sentinel
+      }
     }
   }
 }
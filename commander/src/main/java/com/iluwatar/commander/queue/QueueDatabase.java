@@ -44,7 +44,7 @@ public class QueueDatabase extends Database<QueueTask> {
   }
 
   @Override
-  public QueueTask add(QueueTask t) {
+  public QueueTask add(QueueTask t) throws DatabaseUnavailableException {
     data.enqueue(t);
     return t;
     //even if same thing queued twice, it is taken care of in other dbs
@@ -61,17 +61,52 @@ public class QueueDatabase extends Database<QueueTask> {
     return this.data.peek();
   }
 
+  /**
+   * peek method returns up to max objects at front without removing them from queue.
+   *
+   * @param max largest number of objects to return
+   * @return objects at front of queue, empty if queue is empty
+   */
+
+  public List<QueueTask> peek(int max) {
+    return this.data.peek(max);
+  }
+
   /**
    * dequeue method removes the object at front and returns it.
    *
    * @return object at front of queue
    * @throws IsEmptyException             if queue is empty
+   * @throws DatabaseUnavailableException if the removal cannot be recorded
    */
 
-  public QueueTask dequeue() throws IsEmptyException {
+  public QueueTask dequeue() throws IsEmptyException, DatabaseUnavailableException {
     return this.data.dequeue();
   }
 
+  /**
+   * dequeue method removes up to max objects at front and returns them, so a worker can clear a
+   * whole batch of tasks in one call.
+   *
+   * @param max largest number of objects to remove
+   * @return objects removed from front of queue, empty if queue is empty
+   * @throws DatabaseUnavailableException if the removal cannot be recorded
+   */
+
+  public List<QueueTask> dequeue(int max) throws DatabaseUnavailableException {
+    return this.data.dequeue(max);
+  }
+
+  /**
+   * size method returns the number of objects in queue.
+   *
+   * @return number of queued objects
+   */
+
+  public int size() {
+    return this.data.size();
+  }
+
   @Override
   public QueueTask get(String taskId) {
     return null;
@@ -24,6 +24,9 @@
 package com.iluwatar.commander.queue;
 
 import com.iluwatar.commander.Order;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
@@ -71,4 +74,18 @@ public class QueueTask {
       }
     }
   }
+
+  void writeTo(DataOutput out) throws IOException {
+    order.writeTo(out);
+    out.writeByte(taskType.ordinal());
+    out.writeByte(messageType);
+    out.writeLong(firstAttemptTime);
+  }
+
+  static QueueTask readFrom(DataInput in) throws IOException {
+    var order = Order.readFrom(in);
+    var task = new QueueTask(order, TaskType.values()[in.readByte()], in.readByte());
+    task.setFirstAttemptTime(in.readLong());
+    return task;
+  }
 }
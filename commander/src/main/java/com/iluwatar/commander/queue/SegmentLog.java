@@ -0,0 +1,304 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.commander.queue;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of records spread over segment files, with a checkpoint marking how far the log
+ * has been consumed. Records before the checkpoint are never replayed, and segments lying wholly
+ * behind it are deleted.
+ *
+ * <p>A record is written as {@code [length][sequence][payload][crc32]}, the crc covering the
+ * sequence and payload, so a record torn by a crash is found and cut off on recovery. Appends must
+ * be serialised by the caller; {@link #sync(long)} and {@link #commit(long)} may be called from
+ * any thread.
+ */
+final class SegmentLog implements Closeable {
+
+  /**
+   * Receives the records replayed by {@link #recover(RecordHandler)}.
+   */
+  interface RecordHandler {
+    void accept(long sequence, byte[] payload) throws IOException;
+  }
+
+  private static final String SEGMENT_SUFFIX = ".log";
+  private static final String CHECKPOINT_FILE = "checkpoint";
+  private static final int HEADER_BYTES = Integer.BYTES + Long.BYTES;
+  private static final int CRC_BYTES = Integer.BYTES;
+
+  private final Path directory;
+  private final long segmentBytes;
+  private final boolean fsync;
+  private final ConcurrentSkipListMap<Long, Path> segments = new ConcurrentSkipListMap<>();
+  private final FileChannel checkpointChannel;
+  private final Object syncLock = new Object();
+  private final Object commitLock = new Object();
+  private volatile FileChannel active;
+  private long activeSize;
+  private volatile long nextSequence;
+  private long syncedSequence;
+  private volatile long checkpoint;
+
+  SegmentLog(Path directory, long segmentBytes, boolean fsync) throws IOException {
+    if (segmentBytes <= HEADER_BYTES + CRC_BYTES || segmentBytes > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Unusable segment size: " + segmentBytes);
+    }
+    this.directory = Files.createDirectories(directory);
+    this.segmentBytes = segmentBytes;
+    this.fsync = fsync;
+    this.checkpointChannel =
+        FileChannel.open(directory.resolve(CHECKPOINT_FILE), CREATE, READ, WRITE);
+    this.checkpoint = readCheckpoint();
+    try (var files = Files.list(directory)) {
+      files.filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+          .forEach(file -> segments.put(baseOf(file), file));
+    }
+  }
+
+  /**
+   * Replays every record at or after the checkpoint, cuts off a torn tail and opens the log for
+   * appending.
+   *
+   * @param handler receives the replayed records in order
+   * @return the sequence the next append will get
+   * @throws IOException if the log cannot be read
+   */
+  long recover(RecordHandler handler) throws IOException {
+    var next = checkpoint;
+    var torn = false;
+    for (var segment : new ArrayList<>(segments.entrySet())) {
+      if (torn) {
+        //nothing after a torn record can be trusted
+        Files.delete(segment.getValue());
+        segments.remove(segment.getKey());
+        continue;
+      }
+      try (var channel = FileChannel.open(segment.getValue(), READ, WRITE)) {
+        var buffer = ByteBuffer.allocate((int) channel.size());
+        while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+          //read the whole segment
+        }
+        buffer.flip();
+        var crc = new CRC32();
+        while (buffer.remaining() >= HEADER_BYTES) {
+          var start = buffer.position();
+          var length = buffer.getInt();
+          if (length < 0 || buffer.remaining() < Long.BYTES + length + CRC_BYTES) {
+            buffer.position(start);
+            break;
+          }
+          crc.reset();
+          crc.update(buffer.array(), start + Integer.BYTES, Long.BYTES + length);
+          var sequence = buffer.getLong();
+          var payload = new byte[length];
+          buffer.get(payload);
+          if (buffer.getInt() != (int) crc.getValue()) {
+            buffer.position(start);
+            break;
+          }
+          if (sequence >= checkpoint) {
+            handler.accept(sequence, payload);
+          }
+          next = Math.max(next, sequence + 1);
+        }
+        if (buffer.hasRemaining()) {
+          channel.truncate(buffer.position());
+          torn = true;
+        }
+      }
+    }
+    nextSequence = next;
+    syncedSequence = next;
+    if (segments.isEmpty()) {
+      openSegment(next);
+    } else {
+      var last = segments.lastEntry().getValue();
+      active = FileChannel.open(last, WRITE);
+      activeSize = active.size();
+      active.position(activeSize);
+    }
+    return next;
+  }
+
+  /**
+   * Appends a record, starting a new segment when the current one is full.
+   *
+   * @param payload bytes of the record
+   * @return sequence given to the record
+   * @throws IOException if the record cannot be written, in which case the log is left as it was
+   */
+  long append(byte[] payload) throws IOException {
+    var recordBytes = HEADER_BYTES + payload.length + CRC_BYTES;
+    if (activeSize > 0 && activeSize + recordBytes > segmentBytes) {
+      roll();
+    }
+    var sequence = nextSequence;
+    var buffer = ByteBuffer.allocate(recordBytes);
+    buffer.putInt(payload.length).putLong(sequence).put(payload);
+    var crc = new CRC32();
+    crc.update(buffer.array(), Integer.BYTES, Long.BYTES + payload.length);
+    buffer.putInt((int) crc.getValue()).flip();
+    try {
+      while (buffer.hasRemaining()) {
+        active.write(buffer);
+      }
+    } catch (IOException e) {
+      //drop the partial record, otherwise recovery would stop at it
+      active.truncate(activeSize);
+      active.position(activeSize);
+      throw e;
+    }
+    activeSize += recordBytes;
+    nextSequence = sequence + 1;
+    return sequence;
+  }
+
+  /**
+   * Forces every record up to and including the given sequence to disk. Callers waiting at the
+   * same time share one force.
+   *
+   * @param sequence sequence of the record that must be durable
+   * @throws IOException if forcing fails
+   */
+  void sync(long sequence) throws IOException {
+    synchronized (syncLock) {
+      if (syncedSequence > sequence) {
+        return;
+      }
+      var target = nextSequence;
+      try {
+        active.force(false);
+      } catch (ClosedChannelException e) {
+        //the segment was rolled, which forced it
+      }
+      syncedSequence = target;
+    }
+  }
+
+  /**
+   * Moves the checkpoint to the given sequence, so earlier records are no longer replayed, and
+   * deletes the segments that only hold such records. The checkpoint never moves backwards.
+   *
+   * @param sequence first sequence still to be replayed
+   * @throws IOException if the checkpoint cannot be written
+   */
+  void commit(long sequence) throws IOException {
+    synchronized (commitLock) {
+      if (sequence <= checkpoint) {
+        return;
+      }
+      var buffer = ByteBuffer.allocate(Long.BYTES + CRC_BYTES).putLong(sequence);
+      var crc = new CRC32();
+      crc.update(buffer.array(), 0, Long.BYTES);
+      buffer.putInt((int) crc.getValue()).flip();
+      var position = 0L;
+      while (buffer.hasRemaining()) {
+        position += checkpointChannel.write(buffer, position);
+      }
+      if (fsync) {
+        checkpointChannel.force(false);
+      }
+      checkpoint = sequence;
+      var first = segments.firstEntry();
+      while (first != null) {
+        var following = segments.higherKey(first.getKey());
+        if (following == null || following > sequence) {
+          break;
+        }
+        Files.deleteIfExists(first.getValue());
+        segments.remove(first.getKey());
+        first = segments.firstEntry();
+      }
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      if (active != null) {
+        if (fsync) {
+          active.force(false);
+        }
+        active.close();
+      }
+    } finally {
+      checkpointChannel.close();
+    }
+  }
+
+  private void roll() throws IOException {
+    if (fsync) {
+      active.force(false);
+    }
+    active.close();
+    openSegment(nextSequence);
+  }
+
+  private void openSegment(long base) throws IOException {
+    var file = directory.resolve(String.format("%020d%s", base, SEGMENT_SUFFIX));
+    active = FileChannel.open(file, CREATE_NEW, WRITE);
+    activeSize = 0;
+    segments.put(base, file);
+  }
+
+  private long readCheckpoint() throws IOException {
+    var buffer = ByteBuffer.allocate(Long.BYTES + CRC_BYTES);
+    var position = 0L;
+    int read;
+    while (buffer.hasRemaining() && (read = checkpointChannel.read(buffer, position)) > 0) {
+      position += read;
+    }
+    if (buffer.hasRemaining()) {
+      return 0;
+    }
+    var crc = new CRC32();
+    crc.update(buffer.array(), 0, Long.BYTES);
+    buffer.flip();
+    var sequence = buffer.getLong();
+    //a damaged checkpoint only means replaying more; replayed orders keep their progress flags,
+    //but payments are only keyed by order in memory, so a replayed payment may be charged again
+    return buffer.getInt() == (int) crc.getValue() ? sequence : 0;
+  }
+
+  private static long baseOf(Path segment) {
+    var name = segment.getFileName().toString();
+    return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+  }
+}
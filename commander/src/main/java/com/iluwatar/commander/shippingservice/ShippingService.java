@@ -25,6 +25,7 @@ package com.iluwatar.commander.shippingservice;
 
 import com.iluwatar.commander.Service;
 import com.iluwatar.commander.exceptions.DatabaseUnavailableException;
+import com.iluwatar.commander.idgenerator.IdGenerator;
 import lombok.AllArgsConstructor;
 
 /**
@@ -45,6 +46,10 @@ public class ShippingService extends Service {
     super(db, exc);
   }
 
+  public ShippingService(ShippingDatabase db, IdGenerator idGenerator, Exception... exc) {
+    super(db, idGenerator, exc);
+  }
+
   /**
    * Public method which will receive request from {@link com.iluwatar.commander.Commander}.
    */
@@ -0,0 +1,135 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.commander;
+
+import ch.qos.logback.classic.Level;
+import com.iluwatar.commander.Order.PaymentStatus;
+import com.iluwatar.commander.employeehandle.EmployeeDatabase;
+import com.iluwatar.commander.employeehandle.EmployeeHandle;
+import com.iluwatar.commander.exceptions.DatabaseUnavailableException;
+import com.iluwatar.commander.messagingservice.MessagingDatabase;
+import com.iluwatar.commander.messagingservice.MessagingService;
+import com.iluwatar.commander.paymentservice.PaymentDatabase;
+import com.iluwatar.commander.paymentservice.PaymentService;
+import com.iluwatar.commander.queue.QueueDatabase;
+import com.iluwatar.commander.shippingservice.ShippingDatabase;
+import com.iluwatar.commander.shippingservice.ShippingService;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Places a large number of orders on one {@link Commander} while the payment and messaging
+ * services keep failing, then reports how many threads and how much heap it took and how long the
+ * orders needed to settle.
+ *
+ * <p>Run the main method; it is not part of the test suite.
+ */
+@Slf4j
+public class CommanderLoadBenchmark {
+
+  private static final int ORDERS = 100_000;
+  private static final int INJECTED_FAILURES = ORDERS / 10;
+  private static final int NUM_OF_RETRIES = 10;
+  private static final long RETRY_DURATION = 5;
+  private static final long DEADLINE = TimeUnit.MINUTES.toMillis(2);
+
+  /**
+   * Program entry point.
+   *
+   * @param args command line args
+   */
+  public static void main(String[] args) throws Exception {
+    ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger("com.iluwatar.commander"))
+        .setLevel(Level.WARN);
+    var commander = new Commander(new EmployeeHandle(new EmployeeDatabase()),
+        new PaymentService(new PaymentDatabase(), failures()),
+        new ShippingService(new ShippingDatabase()),
+        new MessagingService(new MessagingDatabase(), failures()),
+        new QueueDatabase(), NUM_OF_RETRIES, RETRY_DURATION, DEADLINE, DEADLINE, DEADLINE,
+        DEADLINE, DEADLINE);
+    var user = new User("Jim", "ABCD");
+    var orders = new ArrayList<Order>(ORDERS);
+    var placedAt = new long[ORDERS];
+    var threads = ManagementFactory.getThreadMXBean();
+    threads.resetPeakThreadCount();
+
+    var start = System.nanoTime();
+    for (var i = 0; i < ORDERS; i++) {
+      var order = new Order(user, "book", 10f);
+      orders.add(order);
+      placedAt[i] = System.nanoTime();
+      commander.placeOrder(order);
+    }
+    var latencies = awaitSettled(orders, placedAt, start);
+    var elapsed = System.nanoTime() - start;
+
+    var heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+    LOGGER.info("{} orders settled in {} ms ({} unsettled)", latencies.length,
+        TimeUnit.NANOSECONDS.toMillis(elapsed), ORDERS - latencies.length);
+    LOGGER.info("threads: peak {}, live {}", threads.getPeakThreadCount(),
+        threads.getThreadCount());
+    LOGGER.info("heap used: {} MB", heap.getUsed() >> 20);
+    Arrays.sort(latencies);
+    LOGGER.info("completion latency: p50 {} ms, p99 {} ms, max {} ms",
+        millis(latencies, 0.50), millis(latencies, 0.99), millis(latencies, 1.0));
+  }
+
+  private static Exception[] failures() {
+    var failures = new Exception[INJECTED_FAILURES];
+    for (var i = 0; i < failures.length; i++) {
+      failures[i] = new DatabaseUnavailableException();
+    }
+    return failures;
+  }
+
+  private static long[] awaitSettled(ArrayList<Order> orders, long[] placedAt, long start)
+      throws InterruptedException {
+    var latencies = new long[orders.size()];
+    var settled = new boolean[orders.size()];
+    var count = 0;
+    var deadline = start + TimeUnit.MILLISECONDS.toNanos(DEADLINE);
+    while (count < orders.size() && System.nanoTime() < deadline) {
+      for (var i = 0; i < orders.size(); i++) {
+        if (!settled[i] && orders.get(i).paid != PaymentStatus.TRYING) {
+          settled[i] = true;
+          latencies[count++] = System.nanoTime() - placedAt[i];
+        }
+      }
+      Thread.sleep(1);
+    }
+    return Arrays.copyOf(latencies, count);
+  }
+
+  private static long millis(long[] sorted, double quantile) {
+    if (sorted.length == 0) {
+      return 0;
+    }
+    var index = (int) Math.ceil(quantile * sorted.length) - 1;
+    return TimeUnit.NANOSECONDS.toMillis(sorted[Math.max(index, 0)]);
+  }
+}
@@ -0,0 +1,200 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.commander;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.iluwatar.commander.queue.DurableQueueDatabase;
+import com.iluwatar.commander.queue.QueueTask;
+import com.iluwatar.commander.queue.QueueTask.TaskType;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DurableQueueDatabaseTest {
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void dequeuesInBatchesInOrder() throws Exception {
+    try (var db = new DurableQueueDatabase(directory)) {
+      var tasks = tasks(5);
+      for (var task : tasks) {
+        db.add(task);
+      }
+      assertEquals(tasks.subList(0, 3), db.peek(3));
+      assertEquals(tasks.subList(0, 3), db.dequeue(3));
+      assertEquals(tasks.subList(3, 5), db.dequeue(10));
+      assertTrue(db.dequeue(10).isEmpty());
+      assertEquals(0, db.size());
+    }
+  }
+
+  @Test
+  void restoresTasksNotDequeued() throws Exception {
+    var tasks = tasks(4);
+    try (var db = new DurableQueueDatabase(directory)) {
+      for (var task : tasks) {
+        db.add(task);
+      }
+      db.dequeue(1);
+    }
+    try (var db = new DurableQueueDatabase(directory)) {
+      assertEquals(3, db.size());
+      assertEquals(ids(tasks.subList(1, 4)), ids(db.peek(10)));
+      var restored = db.peek();
+      assertEquals(tasks.get(1).taskType, restored.taskType);
+      assertEquals(tasks.get(1).messageType, restored.messageType);
+      assertEquals(tasks.get(1).getFirstAttemptTime(), restored.getFirstAttemptTime());
+    }
+  }
+
+  @Test
+  void restoresProgressOfOrders() throws Exception {
+    var task = tasks(1).get(0);
+    task.order.paid = Order.PaymentStatus.DONE;
+    task.order.messageSent = Order.MessageSent.PAYMENT_SUCCESSFUL;
+    task.order.addedToEmployeeHandle = true;
+    try (var db = new DurableQueueDatabase(directory)) {
+      db.add(task);
+    }
+    try (var db = new DurableQueueDatabase(directory)) {
+      var restored = db.peek().order;
+      assertEquals(Order.PaymentStatus.DONE, restored.paid);
+      assertEquals(Order.MessageSent.PAYMENT_SUCCESSFUL, restored.messageSent);
+      assertTrue(restored.addedToEmployeeHandle);
+    }
+  }
+
+  @Test
+  void dropsTornRecordOnRecovery() throws Exception {
+    var tasks = tasks(2);
+    try (var db = new DurableQueueDatabase(directory)) {
+      for (var task : tasks) {
+        db.add(task);
+      }
+    }
+    var segment = segments().get(0);
+    //a crash in the middle of an append leaves part of a record behind
+    Files.write(segment, new byte[] {0, 0, 0, 42, 1, 2}, StandardOpenOption.APPEND);
+    try (var db = new DurableQueueDatabase(directory)) {
+      assertEquals(ids(tasks), ids(db.peek(10)));
+      var added = tasks(1).get(0);
+      db.add(added);
+    }
+    try (var db = new DurableQueueDatabase(directory)) {
+      assertEquals(3, db.size());
+    }
+  }
+
+  @Test
+  void deletesSegmentsBehindCheckpoint() throws Exception {
+    try (var db = new DurableQueueDatabase(directory, 256, false)) {
+      for (var task : tasks(50)) {
+        db.add(task);
+      }
+      assertTrue(segmentCount() > 1);
+      db.dequeue(50);
+      assertEquals(1, segmentCount());
+    }
+    try (var db = new DurableQueueDatabase(directory, 256, false)) {
+      assertEquals(0, db.size());
+    }
+  }
+
+  @Test
+  void concurrentProducersAndConsumersLoseNothing() throws Exception {
+    var producers = 4;
+    var perProducer = 500;
+    var seen = ConcurrentHashMap.<String>newKeySet();
+    try (var db = new DurableQueueDatabase(directory, 4096, true)) {
+      var executor = Executors.newFixedThreadPool(producers + 2);
+      for (var p = 0; p < producers; p++) {
+        executor.execute(() -> {
+          try {
+            for (var task : tasks(perProducer)) {
+              db.add(task);
+            }
+          } catch (Exception e) {
+            throw new IllegalStateException(e);
+          }
+        });
+      }
+      for (var c = 0; c < 2; c++) {
+        executor.execute(() -> {
+          try {
+            while (seen.size() < producers * perProducer) {
+              db.dequeue(16).forEach(task -> seen.add(task.order.id));
+            }
+          } catch (Exception e) {
+            throw new IllegalStateException(e);
+          }
+        });
+      }
+      executor.shutdown();
+      assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+      assertEquals(producers * perProducer, seen.size());
+      assertEquals(0, db.size());
+    }
+    try (var db = new DurableQueueDatabase(directory, 4096, true)) {
+      assertEquals(0, db.size());
+    }
+  }
+
+  private List<Path> segments() throws IOException {
+    try (var files = Files.list(directory)) {
+      return files.filter(file -> file.toString().endsWith(".log")).collect(Collectors.toList());
+    }
+  }
+
+  private long segmentCount() throws IOException {
+    return segments().size();
+  }
+
+  private static ArrayList<QueueTask> tasks(int count) {
+    var tasks = new ArrayList<QueueTask>();
+    for (var i = 0; i < count; i++) {
+      var order = new Order(new User("Jim", "ABCD"), "book", 10f);
+      var task = new QueueTask(order, TaskType.values()[i % 3], i % 3);
+      task.setFirstAttemptTime(i);
+      tasks.add(task);
+    }
+    return tasks;
+  }
+
+  private static List<String> ids(List<QueueTask> tasks) {
+    return tasks.stream().map(task -> task.order.id).collect(Collectors.toList());
+  }
+}
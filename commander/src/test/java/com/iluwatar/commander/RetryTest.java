@@ -23,12 +23,17 @@
 
 package com.iluwatar.commander;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.iluwatar.commander.exceptions.DatabaseUnavailableException;
 import com.iluwatar.commander.exceptions.ItemUnavailableException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.Test;
 
 class RetryTest {
@@ -64,4 +69,44 @@ class RetryTest {
     assertTrue(arr1.size() == 1 && arr2.size() == 0);
   }
 
+  @Test
+  void performAsyncTest() throws Exception {
+    var scheduler = Executors.newSingleThreadScheduledExecutor();
+    var done = new CountDownLatch(2);
+    var calls = new AtomicInteger();
+    Retry.Operation op = (l) -> {
+      calls.incrementAndGet();
+      if (!l.isEmpty()) {
+        throw l.remove(0);
+      }
+      done.countDown();
+    };
+    var handled = new ArrayList<Exception>();
+    Retry.HandleErrorIssue<Order> handleError = (o, e) -> {
+      handled.add(e);
+      done.countDown();
+    };
+    var order = new Order(new User("Jim", "ABCD"), "book", 10f);
+    try {
+      var arr1 = new ArrayList<>(List.of(new ItemUnavailableException(),
+          new DatabaseUnavailableException()));
+      new Retry<>(op, handleError, 3, 10,
+          e -> DatabaseUnavailableException.class.isAssignableFrom(e.getClass()))
+          .performAsync(arr1, order, scheduler);
+      var arr2 = new ArrayList<Exception>(List.of(new DatabaseUnavailableException(),
+          new DatabaseUnavailableException()));
+      new Retry<>(op, handleError, 3, 10,
+          e -> DatabaseUnavailableException.class.isAssignableFrom(e.getClass()))
+          .performAsync(arr2, order, scheduler);
+      assertTrue(done.await(5, TimeUnit.SECONDS));
+      //r1 gives up on ItemUnavailableException, r2 succeeds on its third attempt
+      assertEquals(1, arr1.size());
+      assertTrue(arr2.isEmpty());
+      assertEquals(1, handled.size());
+      assertEquals(4, calls.get());
+    } finally {
+      scheduler.shutdownNow();
+    }
+  }
+
 }
@@ -0,0 +1,125 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.commander.idgenerator;
+
+import java.security.SecureRandom;
+import java.util.Hashtable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Compares the id generators with the way {@link com.iluwatar.commander.Service} used to make ids,
+ * on one thread and on several threads at once.
+ *
+ * <p>Run the main method; it is not part of the test suite.
+ */
+@Slf4j
+public class IdGeneratorBenchmark {
+
+  private static final int IDS_PER_THREAD = 500_000;
+  private static final int ROUNDS = 5;
+
+  private static final SecureRandom RANDOM = new SecureRandom();
+  private static final String ALL_CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ1234567890";
+  private static final Hashtable<String, Boolean> USED_IDS = new Hashtable<>();
+
+  /**
+   * Program entry point.
+   *
+   * @param args command line args
+   */
+  public static void main(String[] args) throws Exception {
+    var threads = Math.max(4, Runtime.getRuntime().availableProcessors());
+    var snowflake = new SnowflakeIdGenerator(1);
+    var random = new RandomIdGenerator();
+    var ulid = new UlidIdGenerator();
+    for (var threadCount : new int[] {1, threads}) {
+      report("previous method", IdGeneratorBenchmark::previousGenerateId, threadCount);
+      report("snowflake", snowflake::nextId, threadCount);
+      report("thread-local random", random::nextId, threadCount);
+      report("ulid", ulid::nextId, threadCount);
+    }
+  }
+
+  private static void report(String name, Supplier<String> generator, int threads)
+      throws InterruptedException {
+    var best = Long.MAX_VALUE;
+    for (var round = 0; round < ROUNDS; round++) {
+      best = Math.min(best, run(generator, threads));
+    }
+    LOGGER.info("{} on {} thread(s): {} ns per id", name, threads,
+        String.format("%.1f", (double) best / IDS_PER_THREAD));
+  }
+
+  private static long run(Supplier<String> generator, int threads) throws InterruptedException {
+    var executor = Executors.newFixedThreadPool(threads);
+    var ready = new CountDownLatch(threads);
+    var start = new CountDownLatch(1);
+    var done = new CountDownLatch(threads);
+    for (var t = 0; t < threads; t++) {
+      executor.execute(() -> {
+        ready.countDown();
+        try {
+          start.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+        var sink = 0;
+        for (var i = 0; i < IDS_PER_THREAD; i++) {
+          sink += generator.get().length();
+        }
+        if (sink == 0) {
+          LOGGER.info("unreachable");
+        }
+        done.countDown();
+      });
+    }
+    ready.await();
+    var begin = System.nanoTime();
+    start.countDown();
+    done.await();
+    var elapsed = System.nanoTime() - begin;
+    executor.shutdown();
+    return elapsed;
+  }
+
+  //Service.generateId before the generators were added
+  private static String previousGenerateId() {
+    StringBuilder random = new StringBuilder();
+    while (random.length() < 12) { // length of the random string.
+      int index = (int) (RANDOM.nextFloat() * ALL_CHARS.length());
+      random.append(ALL_CHARS.charAt(index));
+    }
+    String id = random.toString();
+    if (USED_IDS.get(id) != null) {
+      while (USED_IDS.get(id)) {
+        id = previousGenerateId();
+      }
+    }
+    return id;
+  }
+}
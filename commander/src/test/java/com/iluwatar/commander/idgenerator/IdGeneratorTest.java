@@ -0,0 +1,116 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.commander.idgenerator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class IdGeneratorTest {
+
+  private static final String BASE_32 = "[0-9A-HJKMNP-TV-Z]";
+
+  @Test
+  void randomIdsHaveRequestedLength() {
+    assertTrue(new RandomIdGenerator().nextId().matches(BASE_32 + "{16}"));
+    assertTrue(new RandomIdGenerator(5).nextId().matches(BASE_32 + "{5}"));
+    assertTrue(new RandomIdGenerator(30).nextId().matches(BASE_32 + "{30}"));
+    assertThrows(IllegalArgumentException.class, () -> new RandomIdGenerator(0));
+  }
+
+  @Test
+  void snowflakeIdsIncreaseAndCarryNodeAndTime() {
+    var clock = new AtomicLong(SnowflakeIdGenerator.EPOCH + 1000);
+    var generator = new SnowflakeIdGenerator(7, clock::get);
+    var first = generator.nextLong();
+    assertEquals(1000, first >>> (SnowflakeIdGenerator.NODE_BITS
+        + SnowflakeIdGenerator.SEQUENCE_BITS));
+    assertEquals(7, first >>> SnowflakeIdGenerator.SEQUENCE_BITS & SnowflakeIdGenerator.MAX_NODE);
+    //running out of sequence numbers borrows the next millisecond
+    var previous = first;
+    for (var i = 0; i < 10_000; i++) {
+      var next = generator.nextLong();
+      assertTrue(next > previous);
+      previous = next;
+    }
+    //so does the clock going back
+    clock.addAndGet(-500);
+    assertTrue(generator.nextLong() > previous);
+    assertTrue(generator.nextId().matches(BASE_32 + "{13}"));
+    assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(1024));
+  }
+
+  @Test
+  void ulidsSortByTimeAndWithinThread() {
+    var clock = new AtomicLong(1_600_000_000_000L);
+    var generator = new UlidIdGenerator(clock::get);
+    var ids = new ArrayList<String>();
+    for (var i = 0; i < 1000; i++) {
+      ids.add(generator.nextId());
+      if (i % 100 == 0) {
+        clock.incrementAndGet();
+      }
+    }
+    var sorted = new ArrayList<>(ids);
+    sorted.sort(null);
+    assertEquals(ids, sorted);
+    assertTrue(ids.get(0).matches(BASE_32 + "{26}"));
+    //1600000000000 ms in base 32 is 1EJ3PX000
+    assertTrue(ids.get(0).startsWith("01EJ3PX000"));
+  }
+
+  @Test
+  void generatorsDoNotCollideAcrossThreads() throws Exception {
+    for (var generator : List.of(new RandomIdGenerator(), new SnowflakeIdGenerator(1),
+        new UlidIdGenerator())) {
+      assertUniqueAcrossThreads(generator);
+    }
+  }
+
+  private static void assertUniqueAcrossThreads(IdGenerator generator) throws Exception {
+    var threads = 8;
+    var perThread = 20_000;
+    Set<String> ids = ConcurrentHashMap.newKeySet();
+    var executor = Executors.newFixedThreadPool(threads);
+    for (var t = 0; t < threads; t++) {
+      executor.execute(() -> {
+        for (var i = 0; i < perThread; i++) {
+          ids.add(generator.nextId());
+        }
+      });
+    }
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+    assertEquals(threads * perThread, ids.size(), generator.getClass().getSimpleName());
+  }
+}
@@ -0,0 +1,53 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.commander.paymentservice;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import org.junit.jupiter.api.Test;
+
+class PaymentServiceTest {
+
+  @Test
+  void chargesAnOrderOnlyOnce() throws Exception {
+    var db = new PaymentDatabase();
+    var service = new PaymentService(db);
+
+    var first = service.receiveRequest(10f, "ORDER1");
+    var replayed = service.receiveRequest(10f, "ORDER1");
+    var other = service.receiveRequest(10f, "ORDER2");
+
+    assertEquals(first, replayed);
+    assertNotEquals(first, other);
+    assertEquals(10f, db.get(first).payment);
+  }
+
+  @Test
+  void chargesRequestsWithoutOrderEveryTime() throws Exception {
+    var service = new PaymentService(new PaymentDatabase());
+
+    assertNotEquals(service.receiveRequest(10f), service.receiveRequest(10f));
+  }
+}
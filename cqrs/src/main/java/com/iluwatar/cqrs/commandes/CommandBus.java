@@ -0,0 +1,389 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.cqrs.commandes;
+
+import com.iluwatar.cqrs.domain.model.Author;
+import com.iluwatar.cqrs.domain.model.Book;
+import com.iluwatar.cqrs.events.AuthorCreated;
+import com.iluwatar.cqrs.events.AuthorEmailUpdated;
+import com.iluwatar.cqrs.events.AuthorNameUpdated;
+import com.iluwatar.cqrs.events.AuthorUsernameUpdated;
+import com.iluwatar.cqrs.events.BookAddedToAuthor;
+import com.iluwatar.cqrs.events.BookPriceUpdated;
+import com.iluwatar.cqrs.events.BookTitleUpdated;
+import com.iluwatar.cqrs.events.ChangeEvent;
+import com.iluwatar.cqrs.events.ChangeHandler;
+import com.iluwatar.cqrs.util.HibernateUtil;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+
+/**
+ * This class is an implementation of {@link ICommandService} that returns at once and runs the
+ * commands later on a writer thread of its own. Commands waiting at the same time are run together
+ * in one session and one transaction, with updates sent to the database in JDBC batches, and every
+ * author and book is looked up at most once per batch. Each command is queued as the {@link
+ * ChangeEvent} it publishes once its batch is committed.
+ *
+ * <p>A command naming an author or book that does not exist is logged and skipped. If a batch
+ * fails as a whole, its commands are retried one per transaction so that only the failing ones are
+ * lost. Failures, including those of the publisher, are reported through {@link #flush()} and never
+ * stop the writer thread.
+ */
+@Slf4j
+public class CommandBus implements ICommandService, AutoCloseable {
+
+  private static final int MAX_BATCH = 256;
+  private static final int JDBC_BATCH_SIZE = 50;
+  private static final Command STOP = new Command(null, null);
+
+  private final SessionFactory sessionFactory;
+  private final Consumer<ChangeEvent> publisher;
+  private final BlockingQueue<Command> queue = new LinkedBlockingQueue<>();
+  private final Thread writer;
+  private boolean closed;
+  private Throwable failure;
+
+  public CommandBus(Consumer<ChangeEvent> publisher) {
+    this(HibernateUtil.getSessionFactory(), publisher);
+  }
+
+  /**
+   * Creates the bus and starts its writer thread.
+   *
+   * @param sessionFactory opens the sessions the commands run in
+   * @param publisher receives the changes once they are committed
+   */
+  public CommandBus(SessionFactory sessionFactory, Consumer<ChangeEvent> publisher) {
+    this.sessionFactory = sessionFactory;
+    this.publisher = publisher;
+    this.writer = new Thread(this::run, "command-bus");
+    writer.setDaemon(true);
+    writer.start();
+  }
+
+  @Override
+  public void authorCreated(String username, String name, String email) {
+    submit(new Command(new AuthorCreated(username, name, email), null));
+  }
+
+  @Override
+  public void bookAddedToAuthor(String title, double price, String username) {
+    submit(new Command(new BookAddedToAuthor(title, price, username), null));
+  }
+
+  @Override
+  public void authorNameUpdated(String username, String name) {
+    submit(new Command(new AuthorNameUpdated(username, name), null));
+  }
+
+  @Override
+  public void authorUsernameUpdated(String oldUsername, String newUsername) {
+    submit(new Command(new AuthorUsernameUpdated(oldUsername, newUsername), null));
+  }
+
+  @Override
+  public void authorEmailUpdated(String username, String email) {
+    submit(new Command(new AuthorEmailUpdated(username, email), null));
+  }
+
+  @Override
+  public void bookTitleUpdated(String oldTitle, String newTitle) {
+    submit(new Command(new BookTitleUpdated(oldTitle, newTitle), null));
+  }
+
+  @Override
+  public void bookPriceUpdated(String title, double price) {
+    submit(new Command(new BookPriceUpdated(title, price), null));
+  }
+
+  /**
+   * Returns a future completed once every command submitted so far has been run and its change
+   * published. The future completes exceptionally if a command submitted since the previous flush
+   * failed or its change could not be published.
+   */
+  public CompletableFuture<Void> flush() {
+    var done = new CompletableFuture<Void>();
+    submit(new Command(null, done));
+    return done;
+  }
+
+  /**
+   * Runs the commands already submitted and stops the writer thread.
+   */
+  @Override
+  public void close() throws InterruptedException {
+    synchronized (this) {
+      if (!closed) {
+        closed = true;
+        queue.add(STOP);
+      }
+    }
+    writer.join();
+  }
+
+  private synchronized void submit(Command command) {
+    if (closed) {
+      throw new IllegalStateException("Command bus is closed");
+    }
+    queue.add(command);
+  }
+
+  private void run() {
+    var batch = new ArrayList<Command>(MAX_BATCH);
+    while (true) {
+      try {
+        batch.add(queue.take());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      queue.drainTo(batch, MAX_BATCH - 1);
+      execute(batch);
+      if (batch.contains(STOP)) {
+        return;
+      }
+      batch.clear();
+    }
+  }
+
+  private void execute(List<Command> batch) {
+    try {
+      var changes = new ArrayList<ChangeEvent>(batch.size());
+      batch.forEach(command -> {
+        if (command.change != null) {
+          changes.add(command.change);
+        }
+      });
+      List<ChangeEvent> applied;
+      try {
+        applied = apply(changes);
+      } catch (RuntimeException e) {
+        LOGGER.warn("Batch of {} commands failed, running them one at a time", changes.size(), e);
+        applied = new ArrayList<>();
+        for (var change : changes) {
+          try {
+            applied.addAll(apply(List.of(change)));
+          } catch (RuntimeException ex) {
+            LOGGER.error("Command {} failed", change, ex);
+            fail(ex);
+          }
+        }
+      }
+      for (var change : applied) {
+        try {
+          publisher.accept(change);
+        } catch (Throwable e) {
+          LOGGER.error("Publishing {} failed", change, e);
+          fail(e);
+        }
+      }
+    } catch (Throwable e) {
+      LOGGER.error("Batch of {} commands failed", batch.size(), e);
+      fail(e);
+    } finally {
+      var flushed = false;
+      for (var command : batch) {
+        if (command.done == null) {
+          continue;
+        }
+        flushed = true;
+        if (failure == null) {
+          command.done.complete(null);
+        } else {
+          command.done.completeExceptionally(failure);
+        }
+      }
+      if (flushed) {
+        failure = null;
+      }
+    }
+  }
+
+  private void fail(Throwable e) {
+    if (failure == null) {
+      failure = e;
+    }
+  }
+
+  private List<ChangeEvent> apply(List<ChangeEvent> changes) {
+    if (changes.isEmpty()) {
+      return changes;
+    }
+    try (var session = sessionFactory.openSession()) {
+      session.setJdbcBatchSize(JDBC_BATCH_SIZE);
+      //lookups go through the identity map, so nothing needs flushing before a query
+      session.setHibernateFlushMode(FlushMode.COMMIT);
+      var transaction = session.beginTransaction();
+      try {
+        var batchWriter = new BatchWriter(session);
+        changes.forEach(change -> change.applyTo(batchWriter));
+        transaction.commit();
+        return batchWriter.applied;
+      } catch (RuntimeException e) {
+        if (transaction.isActive()) {
+          transaction.rollback();
+        }
+        throw e;
+      }
+    }
+  }
+
+  private static final class Command {
+    private final ChangeEvent change;
+    private final CompletableFuture<Void> done;
+
+    private Command(ChangeEvent change, CompletableFuture<Void> done) {
+      this.change = change;
+      this.done = done;
+    }
+  }
+
+  /**
+   * Applies the changes of one batch to the entities of its session. An author or book is queried
+   * the first time the batch needs it; after that, and after being created or renamed, it is found
+   * in the identity maps, where a {@code null} marks a name known not to be in use.
+   */
+  private static final class BatchWriter implements ChangeHandler {
+    private final Session session;
+    private final Map<String, Author> authors = new HashMap<>();
+    private final Map<String, Book> books = new HashMap<>();
+    private final List<ChangeEvent> applied = new ArrayList<>();
+
+    private BatchWriter(Session session) {
+      this.session = session;
+    }
+
+    @Override
+    public void on(AuthorCreated event) {
+      var author = new Author(event.getUsername(), event.getName(), event.getEmail());
+      session.save(author);
+      authors.put(author.getUsername(), author);
+      applied.add(event);
+    }
+
+    @Override
+    public void on(BookAddedToAuthor event) {
+      var author = author(event.getUsername());
+      if (author == null) {
+        skip(event);
+        return;
+      }
+      var book = new Book(event.getTitle(), event.getPrice(), author);
+      session.save(book);
+      books.put(book.getTitle(), book);
+      applied.add(event);
+    }
+
+    @Override
+    public void on(AuthorNameUpdated event) {
+      var author = author(event.getUsername());
+      if (author == null) {
+        skip(event);
+        return;
+      }
+      author.setName(event.getName());
+      applied.add(event);
+    }
+
+    @Override
+    public void on(AuthorUsernameUpdated event) {
+      var author = author(event.getOldUsername());
+      if (author == null) {
+        skip(event);
+        return;
+      }
+      author.setUsername(event.getNewUsername());
+      authors.put(event.getOldUsername(), null);
+      authors.put(event.getNewUsername(), author);
+      applied.add(event);
+    }
+
+    @Override
+    public void on(AuthorEmailUpdated event) {
+      var author = author(event.getUsername());
+      if (author == null) {
+        skip(event);
+        return;
+      }
+      author.setEmail(event.getEmail());
+      applied.add(event);
+    }
+
+    @Override
+    public void on(BookTitleUpdated event) {
+      var book = book(event.getOldTitle());
+      if (book == null) {
+        skip(event);
+        return;
+      }
+      book.setTitle(event.getNewTitle());
+      books.put(event.getOldTitle(), null);
+      books.put(event.getNewTitle(), book);
+      applied.add(event);
+    }
+
+    @Override
+    public void on(BookPriceUpdated event) {
+      var book = book(event.getTitle());
+      if (book == null) {
+        skip(event);
+        return;
+      }
+      book.setPrice(event.getPrice());
+      applied.add(event);
+    }
+
+    private Author author(String username) {
+      if (!authors.containsKey(username)) {
+        var query = session.createQuery("from Author where username=:username", Author.class);
+        query.setParameter("username", username);
+        authors.put(username, query.uniqueResult());
+      }
+      return authors.get(username);
+    }
+
+    private Book book(String title) {
+      if (!books.containsKey(title)) {
+        var query = session.createQuery("from Book where title=:title", Book.class);
+        query.setParameter("title", title);
+        books.put(title, query.uniqueResult());
+      }
+      return books.get(title);
+    }
+
+    private static void skip(ChangeEvent event) {
+      LOGGER.error("Skipping {}, which names a missing author or book", event);
+    }
+  }
+}
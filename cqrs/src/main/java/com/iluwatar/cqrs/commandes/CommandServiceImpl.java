@@ -25,16 +25,42 @@ package com.iluwatar.cqrs.commandes;
 
 import com.iluwatar.cqrs.domain.model.Author;
 import com.iluwatar.cqrs.domain.model.Book;
+import com.iluwatar.cqrs.events.AuthorCreated;
+import com.iluwatar.cqrs.events.AuthorEmailUpdated;
+import com.iluwatar.cqrs.events.AuthorNameUpdated;
+import com.iluwatar.cqrs.events.AuthorUsernameUpdated;
+import com.iluwatar.cqrs.events.BookAddedToAuthor;
+import com.iluwatar.cqrs.events.BookPriceUpdated;
+import com.iluwatar.cqrs.events.BookTitleUpdated;
+import com.iluwatar.cqrs.events.ChangeEvent;
 import com.iluwatar.cqrs.util.HibernateUtil;
+import java.util.function.Consumer;
 import org.hibernate.SessionFactory;
 
 /**
  * This class is an implementation of {@link ICommandService} interface. It uses Hibernate as an api
- * for persistence.
+ * for persistence, and publishes a {@link ChangeEvent} for every committed change. Commands run one
+ * at a time, each publishing its change before the next one commits, so the publisher sees the
+ * changes in the order they were committed even when several threads issue commands.
  */
 public class CommandServiceImpl implements ICommandService {
 
-  private final SessionFactory sessionFactory = HibernateUtil.getSessionFactory();
+  private final SessionFactory sessionFactory;
+  private final Consumer<ChangeEvent> publisher;
+
+  public CommandServiceImpl() {
+    this(event -> {
+    });
+  }
+
+  public CommandServiceImpl(Consumer<ChangeEvent> publisher) {
+    this(HibernateUtil.getSessionFactory(), publisher);
+  }
+
+  public CommandServiceImpl(SessionFactory sessionFactory, Consumer<ChangeEvent> publisher) {
+    this.sessionFactory = sessionFactory;
+    this.publisher = publisher;
+  }
 
   private Author getAuthorByUsername(String username) {
     Author author;
@@ -44,7 +70,7 @@ public class CommandServiceImpl implements ICommandService {
       author = (Author) query.uniqueResult();
     }
     if (author == null) {
-      HibernateUtil.getSessionFactory().close();
+      sessionFactory.close();
       throw new NullPointerException("Author " + username + " doesn't exist!");
     }
     return author;
@@ -58,24 +84,25 @@ public class CommandServiceImpl implements ICommandService {
       book = (Book) query.uniqueResult();
     }
     if (book == null) {
-      HibernateUtil.getSessionFactory().close();
+      sessionFactory.close();
       throw new NullPointerException("Book " + title + " doesn't exist!");
     }
     return book;
   }
 
   @Override
-  public void authorCreated(String username, String name, String email) {
+  public synchronized void authorCreated(String username, String name, String email) {
     var author = new Author(username, name, email);
     try (var session = sessionFactory.openSession()) {
       session.beginTransaction();
       session.save(author);
       session.getTransaction().commit();
     }
+    publisher.accept(new AuthorCreated(username, name, email));
   }
 
   @Override
-  public void bookAddedToAuthor(String title, double price, String username) {
+  public synchronized void bookAddedToAuthor(String title, double price, String username) {
     var author = getAuthorByUsername(username);
     var book = new Book(title, price, author);
     try (var session = sessionFactory.openSession()) {
@@ -83,10 +110,11 @@ public class CommandServiceImpl implements ICommandService {
       session.save(book);
       session.getTransaction().commit();
     }
+    publisher.accept(new BookAddedToAuthor(title, price, username));
   }
 
   @Override
-  public void authorNameUpdated(String username, String name) {
+  public synchronized void authorNameUpdated(String username, String name) {
     var author = getAuthorByUsername(username);
     author.setName(name);
     try (var session = sessionFactory.openSession()) {
@@ -94,10 +122,11 @@ public class CommandServiceImpl implements ICommandService {
       session.update(author);
       session.getTransaction().commit();
     }
+    publisher.accept(new AuthorNameUpdated(username, name));
   }
 
   @Override
-  public void authorUsernameUpdated(String oldUsername, String newUsername) {
+  public synchronized void authorUsernameUpdated(String oldUsername, String newUsername) {
     var author = getAuthorByUsername(oldUsername);
     author.setUsername(newUsername);
     try (var session = sessionFactory.openSession()) {
@@ -105,10 +134,11 @@ public class CommandServiceImpl implements ICommandService {
       session.update(author);
       session.getTransaction().commit();
     }
+    publisher.accept(new AuthorUsernameUpdated(oldUsername, newUsername));
   }
 
   @Override
-  public void authorEmailUpdated(String username, String email) {
+  public synchronized void authorEmailUpdated(String username, String email) {
     var author = getAuthorByUsername(username);
     author.setEmail(email);
     try (var session = sessionFactory.openSession()) {
@@ -116,10 +146,11 @@ public class CommandServiceImpl implements ICommandService {
       session.update(author);
       session.getTransaction().commit();
     }
+    publisher.accept(new AuthorEmailUpdated(username, email));
   }
 
   @Override
-  public void bookTitleUpdated(String oldTitle, String newTitle) {
+  public synchronized void bookTitleUpdated(String oldTitle, String newTitle) {
     var book = getBookByTitle(oldTitle);
     book.setTitle(newTitle);
     try (var session = sessionFactory.openSession()) {
@@ -127,10 +158,11 @@ public class CommandServiceImpl implements ICommandService {
       session.update(book);
       session.getTransaction().commit();
     }
+    publisher.accept(new BookTitleUpdated(oldTitle, newTitle));
   }
 
   @Override
-  public void bookPriceUpdated(String title, double price) {
+  public synchronized void bookPriceUpdated(String title, double price) {
     var book = getBookByTitle(title);
     book.setPrice(price);
     try (var session = sessionFactory.openSession()) {
@@ -138,6 +170,7 @@ public class CommandServiceImpl implements ICommandService {
       session.update(book);
       session.getTransaction().commit();
     }
+    publisher.accept(new BookPriceUpdated(title, price));
   }
 
 }
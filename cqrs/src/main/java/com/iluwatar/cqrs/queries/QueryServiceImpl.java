@@ -38,7 +38,15 @@ import org.hibernate.transform.Transformers;
  */
 public class QueryServiceImpl implements IQueryService {
 
-  private final SessionFactory sessionFactory = HibernateUtil.getSessionFactory();
+  private final SessionFactory sessionFactory;
+
+  public QueryServiceImpl() {
+    this(HibernateUtil.getSessionFactory());
+  }
+
+  public QueryServiceImpl(SessionFactory sessionFactory) {
+    this.sessionFactory = sessionFactory;
+  }
 
   @Override
   public Author getAuthorByUsername(String username) {
@@ -0,0 +1,177 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.cqrs.queries;
+
+import com.iluwatar.cqrs.dto.Author;
+import com.iluwatar.cqrs.dto.Book;
+import com.iluwatar.cqrs.events.AuthorCreated;
+import com.iluwatar.cqrs.events.AuthorEmailUpdated;
+import com.iluwatar.cqrs.events.AuthorNameUpdated;
+import com.iluwatar.cqrs.events.AuthorUsernameUpdated;
+import com.iluwatar.cqrs.events.BookAddedToAuthor;
+import com.iluwatar.cqrs.events.BookPriceUpdated;
+import com.iluwatar.cqrs.events.BookTitleUpdated;
+import com.iluwatar.cqrs.events.ChangeHandler;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Denormalized view of the authors and their books, answering every query with a map lookup.
+ * Author profiles and books are immutable values that are replaced as a whole, so readers on any
+ * thread always see a complete profile. The model is kept up to date by a {@link
+ * ReadModelProjector}; events must be applied by one thread at a time.
+ */
+@Slf4j
+public class ReadModel implements ChangeHandler {
+
+  private final Map<String, AuthorProfile> authors = new ConcurrentHashMap<>();
+  private final Map<String, BookEntry> books = new ConcurrentHashMap<>();
+
+  public Author getAuthor(String username) {
+    var profile = authors.get(username);
+    return profile == null ? null : profile.author;
+  }
+
+  public Book getBook(String title) {
+    var entry = books.get(title);
+    return entry == null ? null : entry.book;
+  }
+
+  public List<Book> getAuthorBooks(String username) {
+    var profile = authors.get(username);
+    return profile == null ? List.of() : profile.books;
+  }
+
+  public int getAuthorBooksCount(String username) {
+    return getAuthorBooks(username).size();
+  }
+
+  public int getAuthorsCount() {
+    return authors.size();
+  }
+
+  @Override
+  public void on(AuthorCreated event) {
+    var author = new Author(event.getName(), event.getEmail(), event.getUsername());
+    authors.put(event.getUsername(), new AuthorProfile(author, List.of()));
+  }
+
+  @Override
+  public void on(BookAddedToAuthor event) {
+    var profile = authors.get(event.getUsername());
+    if (profile == null) {
+      LOGGER.warn("Ignoring {} for an unknown author", event);
+      return;
+    }
+    var book = new Book(event.getTitle(), event.getPrice());
+    books.put(book.getTitle(), new BookEntry(book, event.getUsername()));
+    var authorBooks = new ArrayList<>(profile.books);
+    authorBooks.add(book);
+    authors.put(event.getUsername(), new AuthorProfile(profile.author, authorBooks));
+  }
+
+  @Override
+  public void on(AuthorNameUpdated event) {
+    authors.computeIfPresent(event.getUsername(), (username, profile) -> new AuthorProfile(
+        new Author(event.getName(), profile.author.getEmail(), username), profile.books));
+  }
+
+  @Override
+  public void on(AuthorEmailUpdated event) {
+    authors.computeIfPresent(event.getUsername(), (username, profile) -> new AuthorProfile(
+        new Author(profile.author.getName(), event.getEmail(), username), profile.books));
+  }
+
+  @Override
+  public void on(AuthorUsernameUpdated event) {
+    var profile = authors.get(event.getOldUsername());
+    if (profile == null) {
+      LOGGER.warn("Ignoring {} for an unknown author", event);
+      return;
+    }
+    var author = new Author(profile.author.getName(), profile.author.getEmail(),
+        event.getNewUsername());
+    authors.put(event.getNewUsername(), new AuthorProfile(author, profile.books));
+    authors.remove(event.getOldUsername());
+    profile.books.forEach(book ->
+        books.put(book.getTitle(), new BookEntry(book, event.getNewUsername())));
+  }
+
+  @Override
+  public void on(BookTitleUpdated event) {
+    var entry = books.get(event.getOldTitle());
+    if (entry == null) {
+      LOGGER.warn("Ignoring {} for an unknown book", event);
+      return;
+    }
+    var book = new Book(event.getNewTitle(), entry.book.getPrice());
+    books.put(book.getTitle(), new BookEntry(book, entry.username));
+    books.remove(event.getOldTitle());
+    replaceBook(entry, book);
+  }
+
+  @Override
+  public void on(BookPriceUpdated event) {
+    var entry = books.get(event.getTitle());
+    if (entry == null) {
+      LOGGER.warn("Ignoring {} for an unknown book", event);
+      return;
+    }
+    var book = new Book(event.getTitle(), event.getPrice());
+    books.put(book.getTitle(), new BookEntry(book, entry.username));
+    replaceBook(entry, book);
+  }
+
+  private void replaceBook(BookEntry old, Book book) {
+    authors.computeIfPresent(old.username, (username, profile) -> {
+      var authorBooks = new ArrayList<>(profile.books);
+      authorBooks.replaceAll(b -> b == old.book ? book : b);
+      return new AuthorProfile(profile.author, authorBooks);
+    });
+  }
+
+  private static final class AuthorProfile {
+    private final Author author;
+    private final List<Book> books;
+
+    private AuthorProfile(Author author, List<Book> books) {
+      this.author = author;
+      this.books = Collections.unmodifiableList(books);
+    }
+  }
+
+  private static final class BookEntry {
+    private final Book book;
+    private final String username;
+
+    private BookEntry(Book book, String username) {
+      this.book = book;
+      this.username = username;
+    }
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.cqrs.queries;
+
+import com.iluwatar.cqrs.events.ChangeEvent;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Applies published {@link ChangeEvent}s to a {@link ReadModel} on a thread of its own, in the
+ * order they were published, so that the command side never waits for the read side. Queries see
+ * a change once it has been applied; {@link #caughtUp()} tells when that is.
+ */
+@Slf4j
+public class ReadModelProjector implements Consumer<ChangeEvent>, AutoCloseable {
+
+  private final ReadModel readModel;
+  private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+    var thread = new Thread(runnable, "read-model-projector");
+    thread.setDaemon(true);
+    return thread;
+  });
+  private final AtomicLong published = new AtomicLong();
+  private final AtomicLong applied = new AtomicLong();
+
+  public ReadModelProjector(ReadModel readModel) {
+    this.readModel = readModel;
+  }
+
+  @Override
+  public void accept(ChangeEvent event) {
+    published.incrementAndGet();
+    executor.execute(() -> {
+      try {
+        event.applyTo(readModel);
+      } catch (RuntimeException e) {
+        LOGGER.error("Could not apply {}", event, e);
+      }
+      applied.incrementAndGet();
+    });
+  }
+
+  /**
+   * Returns a future completed once every event published so far has been applied.
+   */
+  public CompletableFuture<Void> caughtUp() {
+    return CompletableFuture.runAsync(() -> {
+    }, executor);
+  }
+
+  /**
+   * Returns how many published events are still to be applied.
+   */
+  public long getLag() {
+    return published.get() - applied.get();
+  }
+
+  /**
+   * Applies the events already published and stops.
+   */
+  @Override
+  public void close() throws InterruptedException {
+    executor.shutdown();
+    executor.awaitTermination(1, TimeUnit.MINUTES);
+  }
+}
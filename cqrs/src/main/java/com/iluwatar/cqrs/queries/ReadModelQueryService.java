@@ -0,0 +1,68 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.cqrs.queries;
+
+import com.iluwatar.cqrs.dto.Author;
+import com.iluwatar.cqrs.dto.Book;
+import java.math.BigInteger;
+import java.util.List;
+
+/**
+ * This class is an implementation of {@link IQueryService} serving every query from a {@link
+ * ReadModel} instead of the database the commands write to. Answers follow the commands as soon
+ * as the {@link ReadModelProjector} has applied them.
+ */
+public class ReadModelQueryService implements IQueryService {
+
+  private final ReadModel readModel;
+
+  public ReadModelQueryService(ReadModel readModel) {
+    this.readModel = readModel;
+  }
+
+  @Override
+  public Author getAuthorByUsername(String username) {
+    return readModel.getAuthor(username);
+  }
+
+  @Override
+  public Book getBook(String title) {
+    return readModel.getBook(title);
+  }
+
+  @Override
+  public List<Book> getAuthorBooks(String username) {
+    return readModel.getAuthorBooks(username);
+  }
+
+  @Override
+  public BigInteger getAuthorBooksCount(String username) {
+    return BigInteger.valueOf(readModel.getAuthorBooksCount(username));
+  }
+
+  @Override
+  public BigInteger getAuthorsCount() {
+    return BigInteger.valueOf(readModel.getAuthorsCount());
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.cqrs;
+
+import ch.qos.logback.classic.Level;
+import com.iluwatar.cqrs.commandes.CommandBus;
+import com.iluwatar.cqrs.commandes.CommandServiceImpl;
+import com.iluwatar.cqrs.commandes.ICommandService;
+import com.iluwatar.cqrs.util.HibernateUtil;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reports how many commands per second {@link CommandServiceImpl}, with a lookup session and a
+ * write session per command, and {@link CommandBus}, with one session per batch of commands, run
+ * against the in-memory H2 database. The commands create authors, add books to them and then
+ * update the prices of the books.
+ *
+ * <p>Run the main method; it is not part of the test suite.
+ */
+@Slf4j
+public class CommandBusBenchmark {
+
+  private static final int AUTHORS = 500;
+  private static final int BOOKS_PER_AUTHOR = 4;
+  private static final int PRICE_UPDATES = 10;
+
+  /**
+   * Program entry point.
+   *
+   * @param args command line args
+   * @throws InterruptedException if interrupted while closing the bus
+   */
+  public static void main(String[] args) throws InterruptedException {
+    ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger("org.hibernate")).setLevel(Level.WARN);
+    try {
+      for (var round = 0; round < 2; round++) { //the first round warms up
+        var start = System.nanoTime();
+        var commands = run(new CommandServiceImpl(), "percall" + round);
+        report("command per call", commands, start);
+
+        start = System.nanoTime();
+        try (var bus = new CommandBus(change -> {
+        })) {
+          commands = run(bus, "bus" + round);
+          bus.flush().join();
+        }
+        report("command bus", commands, start);
+      }
+    } finally {
+      HibernateUtil.getSessionFactory().close();
+    }
+  }
+
+  private static int run(ICommandService commands, String prefix) {
+    var count = 0;
+    for (var a = 0; a < AUTHORS; a++) {
+      var username = prefix + "-author" + a;
+      commands.authorCreated(username, "Author " + a, username + "@email.com");
+      count++;
+      for (var b = 0; b < BOOKS_PER_AUTHOR; b++) {
+        commands.bookAddedToAuthor(username + "-title" + b, b, username);
+        count++;
+      }
+    }
+    for (var u = 0; u < PRICE_UPDATES; u++) {
+      for (var a = 0; a < AUTHORS; a++) {
+        commands.bookPriceUpdated(prefix + "-author" + a + "-title" + (u % BOOKS_PER_AUTHOR), u);
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private static void report(String name, int commands, long start) {
+    var elapsed = System.nanoTime() - start;
+    LOGGER.info("{}: {} commands/s", name, commands * TimeUnit.SECONDS.toNanos(1) / elapsed);
+  }
+}
@@ -0,0 +1,184 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.cqrs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.iluwatar.cqrs.commandes.CommandBus;
+import com.iluwatar.cqrs.domain.model.Author;
+import com.iluwatar.cqrs.domain.model.Book;
+import com.iluwatar.cqrs.events.AuthorCreated;
+import com.iluwatar.cqrs.events.ChangeEvent;
+import com.iluwatar.cqrs.queries.ReadModel;
+import com.iluwatar.cqrs.queries.ReadModelProjector;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link CommandBus}, on a database of its own so that {@link IntegrationTest} is not
+ * affected.
+ */
+class CommandBusTest {
+
+  private static SessionFactory sessionFactory;
+
+  @BeforeAll
+  static void createSessionFactory() {
+    sessionFactory = new Configuration().configure()
+        .setProperty("hibernate.connection.url", "jdbc:h2:mem:command-bus")
+        .buildSessionFactory();
+  }
+
+  @AfterAll
+  static void closeSessionFactory() {
+    sessionFactory.close();
+  }
+
+  @Test
+  void testRunsCommandsAndPublishesTheirChanges() throws Exception {
+    var readModel = new ReadModel();
+    try (var projector = new ReadModelProjector(readModel);
+         var bus = new CommandBus(sessionFactory, projector)) {
+      bus.authorCreated("username1", "name1", "email1");
+      bus.bookAddedToAuthor("title1", 10, "username1");
+      bus.bookAddedToAuthor("title2", 20, "username1");
+      bus.bookPriceUpdated("title2", 30);
+      bus.bookTitleUpdated("title2", "new_title2");
+      bus.authorUsernameUpdated("username1", "new_username1");
+      bus.authorNameUpdated("new_username1", "new_name1");
+      bus.authorEmailUpdated("new_username1", "new_email1");
+      bus.flush().join();
+      projector.caughtUp().join();
+
+      var author = author("new_username1");
+      assertEquals("new_name1", author.getName());
+      assertEquals("new_email1", author.getEmail());
+      assertNull(author("username1"));
+      var book = book("new_title2");
+      assertEquals(30, book.getPrice(), 0.01);
+      assertEquals("new_username1", book.getAuthor().getUsername());
+      assertNull(book("title2"));
+      assertEquals(2, readModel.getAuthorBooksCount("new_username1"));
+      assertEquals("new_email1", readModel.getAuthor("new_username1").getEmail());
+    }
+  }
+
+  @Test
+  void testSkipsCommandsNamingMissingEntries() throws Exception {
+    var published = new CopyOnWriteArrayList<ChangeEvent>();
+    try (var bus = new CommandBus(sessionFactory, published::add)) {
+      bus.authorCreated("username3", "name3", "email3");
+      bus.bookAddedToAuthor("title3", 10, "nobody");
+      bus.bookPriceUpdated("no_title", 10);
+      bus.authorEmailUpdated("username3", "new_email3");
+    }
+
+    assertEquals(2, published.size());
+    assertEquals("new_email3", author("username3").getEmail());
+    assertNull(book("title3"));
+  }
+
+  @Test
+  void testRunsCommandsOneAtATimeWhenTheirBatchFails() throws Exception {
+    var published = new CopyOnWriteArrayList<ChangeEvent>();
+    var release = new CountDownLatch(1);
+    try (var bus = new CommandBus(sessionFactory, change -> {
+      awaitUninterruptibly(release);
+      published.add(change);
+    })) {
+      // the writer waits in the publisher, so the next commands are run as one batch
+      bus.authorCreated("username5", "name5", "email5");
+      bus.authorCreated("username6", "n".repeat(1000), "email6");
+      bus.authorEmailUpdated("username5", "new_email5");
+      var flushed = bus.flush();
+      release.countDown();
+      assertThrows(CompletionException.class, flushed::join);
+      bus.flush().join();
+    }
+
+    assertEquals(2, published.size());
+    assertEquals("new_email5", author("username5").getEmail());
+    assertNull(author("username6"));
+  }
+
+  @Test
+  void testKeepsRunningWhenThePublisherFails() throws Exception {
+    var published = new CopyOnWriteArrayList<ChangeEvent>();
+    try (var bus = new CommandBus(sessionFactory, change -> {
+      if (change instanceof AuthorCreated) {
+        throw new IllegalStateException("Publisher failed");
+      }
+      published.add(change);
+    })) {
+      bus.authorCreated("username7", "name7", "email7");
+      assertThrows(CompletionException.class, () -> bus.flush().join());
+      bus.authorEmailUpdated("username7", "new_email7");
+      bus.flush().join();
+    }
+
+    assertEquals(1, published.size());
+    assertEquals("new_email7", author("username7").getEmail());
+  }
+
+  @Test
+  void testRejectsCommandsOnceClosed() throws Exception {
+    var bus = new CommandBus(sessionFactory, change -> {
+    });
+    bus.close();
+    assertThrows(IllegalStateException.class, () -> bus.authorCreated("username4", "n", "e"));
+  }
+
+  private static void awaitUninterruptibly(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static Author author(String username) {
+    try (var session = sessionFactory.openSession()) {
+      List<Author> authors = session.createQuery("from Author where username=:username",
+          Author.class).setParameter("username", username).list();
+      return authors.isEmpty() ? null : authors.get(0);
+    }
+  }
+
+  private static Book book(String title) {
+    try (var session = sessionFactory.openSession()) {
+      List<Book> books = session.createQuery("select b from Book b join fetch b.author"
+          + " where b.title=:title", Book.class).setParameter("title", title).list();
+      return books.isEmpty() ? null : books.get(0);
+    }
+  }
+}
@@ -0,0 +1,167 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.cqrs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.iluwatar.cqrs.commandes.CommandServiceImpl;
+import com.iluwatar.cqrs.events.BookPriceUpdated;
+import com.iluwatar.cqrs.queries.QueryServiceImpl;
+import com.iluwatar.cqrs.queries.ReadModel;
+import com.iluwatar.cqrs.queries.ReadModelProjector;
+import com.iluwatar.cqrs.queries.ReadModelQueryService;
+import java.util.HashSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link CommandServiceImpl}, on a database of its own so that {@link IntegrationTest}
+ * is not affected.
+ */
+class CommandServiceImplTest {
+
+  private static final int WRITERS = 4;
+  private static final int CHANGES = 10;
+  private static final long PUBLISH_NANOS = 5_000_000;
+  private static final long OVERTAKE_MILLIS = 500;
+
+  private static SessionFactory sessionFactory;
+
+  @BeforeAll
+  static void createSessionFactory() {
+    sessionFactory = new Configuration().configure()
+        .setProperty("hibernate.connection.url", "jdbc:h2:mem:command-service")
+        .buildSessionFactory();
+  }
+
+  @AfterAll
+  static void closeSessionFactory() {
+    sessionFactory.close();
+  }
+
+  @Test
+  void testPublishesChangesInTheOrderTheyWereCommitted() throws Exception {
+    var readModel = new ReadModel();
+    var queries = new QueryServiceImpl(sessionFactory);
+    var readModelQueries = new ReadModelQueryService(readModel);
+    var publishing = new CountDownLatch(1);
+    var overtaken = new CountDownLatch(1);
+    try (var projector = new ReadModelProjector(readModel)) {
+      // the first price waits for the second to be published, unless the second waits for it
+      var commands = new CommandServiceImpl(sessionFactory, change -> {
+        if (change instanceof BookPriceUpdated && ((BookPriceUpdated) change).getPrice() == 1) {
+          publishing.countDown();
+          awaitBriefly(overtaken);
+        }
+        projector.accept(change);
+        if (change instanceof BookPriceUpdated && ((BookPriceUpdated) change).getPrice() == 2) {
+          overtaken.countDown();
+        }
+      });
+      commands.authorCreated("ordered", "ordered", "ordered");
+      commands.bookAddedToAuthor("ordered", 0, "ordered");
+
+      var first = CompletableFuture.runAsync(() -> commands.bookPriceUpdated("ordered", 1));
+      publishing.await();
+      commands.bookPriceUpdated("ordered", 2);
+      first.join();
+      projector.caughtUp().join();
+
+      assertEquals(queries.getBook("ordered"), readModelQueries.getBook("ordered"));
+    }
+  }
+
+  @Test
+  void testReadModelFollowsConcurrentWriters() throws Exception {
+    var readModel = new ReadModel();
+    var queries = new QueryServiceImpl(sessionFactory);
+    var readModelQueries = new ReadModelQueryService(readModel);
+    try (var projector = new ReadModelProjector(readModel)) {
+      // a slow publisher widens the window between a commit and the publishing of its change
+      var commands = new CommandServiceImpl(sessionFactory, change -> {
+        LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(PUBLISH_NANOS));
+        projector.accept(change);
+      });
+      commands.authorCreated("shared", "shared", "shared");
+      commands.bookAddedToAuthor("shared", 0, "shared");
+
+      var start = new CountDownLatch(1);
+      var writers = IntStream.range(0, WRITERS).mapToObj(writer -> (Callable<Void>) () -> {
+        start.await();
+        var username = "writer" + writer;
+        commands.authorCreated(username, "name", "email");
+        for (var i = 0; i < CHANGES; i++) {
+          commands.bookAddedToAuthor(username + "-title" + i, i, username);
+          commands.bookPriceUpdated("shared", writer * CHANGES + i);
+          commands.authorEmailUpdated("shared", username + "-email" + i);
+          commands.authorNameUpdated(username, "name" + i);
+        }
+        return null;
+      }).collect(Collectors.toList());
+      var executor = Executors.newFixedThreadPool(WRITERS);
+      try {
+        var results = writers.stream().map(executor::submit).collect(Collectors.toList());
+        start.countDown();
+        for (var result : results) {
+          result.get(1, TimeUnit.MINUTES);
+        }
+      } finally {
+        executor.shutdownNow();
+      }
+      projector.caughtUp().join();
+
+      assertEquals(queries.getAuthorsCount(), readModelQueries.getAuthorsCount());
+      assertEquals(queries.getAuthorByUsername("shared"),
+          readModelQueries.getAuthorByUsername("shared"));
+      assertEquals(queries.getBook("shared"), readModelQueries.getBook("shared"));
+      for (var writer = 0; writer < WRITERS; writer++) {
+        var username = "writer" + writer;
+        assertEquals(queries.getAuthorByUsername(username),
+            readModelQueries.getAuthorByUsername(username));
+        assertEquals(new HashSet<>(queries.getAuthorBooks(username)),
+            new HashSet<>(readModelQueries.getAuthorBooks(username)));
+      }
+    }
+  }
+
+  private static void awaitBriefly(CountDownLatch latch) {
+    try {
+      latch.await(OVERTAKE_MILLIS, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -31,7 +31,11 @@ import com.iluwatar.cqrs.dto.Author;
 import com.iluwatar.cqrs.dto.Book;
 import com.iluwatar.cqrs.queries.IQueryService;
 import com.iluwatar.cqrs.queries.QueryServiceImpl;
+import com.iluwatar.cqrs.queries.ReadModel;
+import com.iluwatar.cqrs.queries.ReadModelProjector;
+import com.iluwatar.cqrs.queries.ReadModelQueryService;
 import java.math.BigInteger;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
@@ -41,11 +45,15 @@ import org.junit.jupiter.api.Test;
 class IntegrationTest {
 
   private static IQueryService queryService;
+  private static IQueryService readModelQueryService;
 
   @BeforeAll
   static void initializeAndPopulateDatabase() {
-    var commandService = new CommandServiceImpl();
+    var readModel = new ReadModel();
+    var projector = new ReadModelProjector(readModel);
+    var commandService = new CommandServiceImpl(projector);
     queryService = new QueryServiceImpl();
+    readModelQueryService = new ReadModelQueryService(readModel);
 
     // create first author1
     commandService.authorCreated("username1", "name1", "email1");
@@ -64,6 +72,7 @@ class IntegrationTest {
     commandService.bookPriceUpdated("title2", 30);
     commandService.bookTitleUpdated("title2", "new_title2");
 
+    projector.caughtUp().join();
   }
 
   @Test
@@ -109,4 +118,20 @@ class IntegrationTest {
     assertEquals(new BigInteger("2"), authorCount);
   }
 
+  @Test
+  void testReadModelAnswersLikeDatabase() {
+    for (var username : new String[]{"username1", "new_username2", "username2"}) {
+      assertEquals(queryService.getAuthorByUsername(username),
+          readModelQueryService.getAuthorByUsername(username));
+      assertEquals(queryService.getAuthorBooksCount(username),
+          readModelQueryService.getAuthorBooksCount(username));
+      assertEquals(Set.copyOf(queryService.getAuthorBooks(username)),
+          Set.copyOf(readModelQueryService.getAuthorBooks(username)));
+    }
+    for (var title : new String[]{"title1", "new_title2", "title2"}) {
+      assertEquals(queryService.getBook(title), readModelQueryService.getBook(title));
+    }
+    assertEquals(queryService.getAuthorsCount(), readModelQueryService.getAuthorsCount());
+  }
+
 }
@@ -0,0 +1,127 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.cqrs;
+
+import ch.qos.logback.classic.Level;
+import com.iluwatar.cqrs.commandes.CommandServiceImpl;
+import com.iluwatar.cqrs.queries.IQueryService;
+import com.iluwatar.cqrs.queries.QueryServiceImpl;
+import com.iluwatar.cqrs.queries.ReadModel;
+import com.iluwatar.cqrs.queries.ReadModelProjector;
+import com.iluwatar.cqrs.queries.ReadModelQueryService;
+import com.iluwatar.cqrs.util.HibernateUtil;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reports the latency of looking up the books of an author and counting them, served by {@link
+ * QueryServiceImpl} from the tables the commands write and by {@link ReadModelQueryService} from
+ * the projected {@link ReadModel}, first with no writes going on and then while another thread
+ * keeps updating book prices. Under writes it also reports how far the projection fell behind.
+ *
+ * <p>Run the main method; it is not part of the test suite.
+ */
+@Slf4j
+public class QueryServiceBenchmark {
+
+  private static final int AUTHORS = 200;
+  private static final int BOOKS_PER_AUTHOR = 10;
+  private static final int QUERIES = 20_000;
+
+  /**
+   * Program entry point.
+   *
+   * @param args command line args
+   * @throws Exception if the projector is interrupted while closing
+   */
+  public static void main(String[] args) throws Exception {
+    ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger("org.hibernate")).setLevel(Level.WARN);
+    var readModel = new ReadModel();
+    try (var projector = new ReadModelProjector(readModel)) {
+      var commands = new CommandServiceImpl(projector);
+      for (var a = 0; a < AUTHORS; a++) {
+        commands.authorCreated("author" + a, "Author " + a, "author" + a + "@email.com");
+        for (var b = 0; b < BOOKS_PER_AUTHOR; b++) {
+          commands.bookAddedToAuthor(title(a, b), b, "author" + a);
+        }
+      }
+      projector.caughtUp().join();
+
+      var database = new QueryServiceImpl();
+      var projected = new ReadModelQueryService(readModel);
+      for (var round = 0; round < 2; round++) { //the first round warms up
+        measure("database, no writes", database);
+        measure("read model, no writes", projected);
+      }
+
+      var writing = new AtomicBoolean(true);
+      var maxLag = new AtomicLong();
+      var writer = new Thread(() -> {
+        var random = ThreadLocalRandom.current();
+        while (writing.get()) {
+          commands.bookPriceUpdated(
+              title(random.nextInt(AUTHORS), random.nextInt(BOOKS_PER_AUTHOR)),
+              random.nextInt(100));
+          maxLag.accumulateAndGet(projector.getLag(), Math::max);
+        }
+      });
+      writer.start();
+      try {
+        measure("database, concurrent writes", database);
+        measure("read model, concurrent writes", projected);
+      } finally {
+        writing.set(false);
+        writer.join();
+      }
+      LOGGER.info("projection lag under writes: at most {} events", maxLag.get());
+    } finally {
+      HibernateUtil.getSessionFactory().close();
+    }
+  }
+
+  private static void measure(String name, IQueryService queries) {
+    var latencies = new long[QUERIES];
+    var random = ThreadLocalRandom.current();
+    for (var i = 0; i < QUERIES; i++) {
+      var username = "author" + random.nextInt(AUTHORS);
+      var start = System.nanoTime();
+      queries.getAuthorBooks(username);
+      queries.getAuthorBooksCount(username);
+      latencies[i] = System.nanoTime() - start;
+    }
+    Arrays.sort(latencies);
+    LOGGER.info("{}: latency p50 {} us, p99 {} us", name,
+        TimeUnit.NANOSECONDS.toMicros(latencies[QUERIES / 2]),
+        TimeUnit.NANOSECONDS.toMicros(latencies[QUERIES * 99 / 100]));
+  }
+
+  private static String title(int author, int book) {
+    return "title" + author + "-" + book;
+  }
+}
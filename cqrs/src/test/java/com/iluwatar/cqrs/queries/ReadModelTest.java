@@ -0,0 +1,95 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.cqrs.queries;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.iluwatar.cqrs.dto.Author;
+import com.iluwatar.cqrs.dto.Book;
+import com.iluwatar.cqrs.events.AuthorCreated;
+import com.iluwatar.cqrs.events.AuthorEmailUpdated;
+import com.iluwatar.cqrs.events.AuthorNameUpdated;
+import com.iluwatar.cqrs.events.AuthorUsernameUpdated;
+import com.iluwatar.cqrs.events.BookAddedToAuthor;
+import com.iluwatar.cqrs.events.BookPriceUpdated;
+import com.iluwatar.cqrs.events.BookTitleUpdated;
+import java.math.BigInteger;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link ReadModel} kept up to date by a {@link ReadModelProjector}.
+ */
+class ReadModelTest {
+
+  @Test
+  void testProjectsEveryChange() throws Exception {
+    var readModel = new ReadModel();
+    var queries = new ReadModelQueryService(readModel);
+    try (var projector = new ReadModelProjector(readModel)) {
+      projector.accept(new AuthorCreated("username1", "name1", "email1"));
+      projector.accept(new AuthorCreated("username2", "name2", "email2"));
+      projector.accept(new BookAddedToAuthor("title1", 10, "username1"));
+      projector.accept(new BookAddedToAuthor("title2", 20, "username1"));
+      projector.accept(new BookPriceUpdated("title2", 30));
+      projector.accept(new BookTitleUpdated("title2", "new_title2"));
+      projector.accept(new AuthorNameUpdated("username1", "new_name1"));
+      projector.accept(new AuthorEmailUpdated("username1", "new_email1"));
+      projector.accept(new AuthorUsernameUpdated("username1", "new_username1"));
+      projector.caughtUp().join();
+
+      assertEquals(0, projector.getLag());
+      assertNull(queries.getAuthorByUsername("username1"));
+      assertEquals(new Author("new_name1", "new_email1", "new_username1"),
+          queries.getAuthorByUsername("new_username1"));
+      assertEquals(List.of(new Book("title1", 10), new Book("new_title2", 30)),
+          queries.getAuthorBooks("new_username1"));
+      assertEquals(BigInteger.valueOf(2), queries.getAuthorBooksCount("new_username1"));
+      assertEquals(BigInteger.ZERO, queries.getAuthorBooksCount("username2"));
+      assertEquals(BigInteger.valueOf(2), queries.getAuthorsCount());
+      assertNull(queries.getBook("title2"));
+      assertEquals(new Book("new_title2", 30), queries.getBook("new_title2"));
+
+      projector.accept(new BookPriceUpdated("new_title2", 35));
+      projector.caughtUp().join();
+      assertEquals(new Book("new_title2", 35), queries.getAuthorBooks("new_username1").get(1));
+    }
+  }
+
+  @Test
+  void testIgnoresChangesToUnknownEntries() throws Exception {
+    var readModel = new ReadModel();
+    try (var projector = new ReadModelProjector(readModel)) {
+      projector.accept(new BookAddedToAuthor("title1", 10, "nobody"));
+      projector.accept(new BookPriceUpdated("title1", 20));
+      projector.accept(new AuthorUsernameUpdated("nobody", "somebody"));
+      projector.caughtUp().join();
+    }
+    assertNull(readModel.getBook("title1"));
+    assertTrue(readModel.getAuthorBooks("somebody").isEmpty());
+    assertEquals(0, readModel.getAuthorsCount());
+  }
+}
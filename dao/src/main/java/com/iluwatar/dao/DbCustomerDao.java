@@ -27,6 +27,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.Optional;
 import java.util.Spliterator;
 import java.util.Spliterators;
@@ -34,17 +35,53 @@ import java.util.function.Consumer;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 import javax.sql.DataSource;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * An implementation of {@link CustomerDao} that persists customers in RDBMS.
+ *
+ * <p>Every operation takes a connection from the data source and gives it back, so a pooled data
+ * source should be passed in when throughput matters. Many customers are best added or updated
+ * with {@link #addAll(Stream)} and {@link #updateAll(Stream)}, which send them in JDBC batches over
+ * one connection and one transaction.
  */
 @Slf4j
-@RequiredArgsConstructor
 public class DbCustomerDao implements CustomerDao {
 
+  /**
+   * Rows fetched per round-trip by {@link #getAll()} unless told otherwise.
+   */
+  public static final int DEFAULT_FETCH_SIZE = 1000;
+
+  private static final int BATCH_SIZE = 1000;
+  private static final String SELECT_ALL = "SELECT ID, FNAME, LNAME FROM CUSTOMERS";
+  private static final String SELECT_BY_ID = SELECT_ALL + " WHERE ID = ?";
+  private static final String INSERT_IF_ABSENT = "INSERT INTO CUSTOMERS (ID, FNAME, LNAME) "
+      + "SELECT ?, ?, ? FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM CUSTOMERS WHERE ID = ?)";
+  private static final String MERGE = "MERGE INTO CUSTOMERS (ID, FNAME, LNAME) KEY (ID) "
+      + "VALUES (?, ?, ?)";
+  private static final String UPDATE = "UPDATE CUSTOMERS SET FNAME = ?, LNAME = ? WHERE ID = ?";
+
   private final DataSource dataSource;
+  private final int fetchSize;
+
+  public DbCustomerDao(DataSource dataSource) {
+    this(dataSource, DEFAULT_FETCH_SIZE);
+  }
+
+  /**
+   * Creates the DAO.
+   *
+   * @param dataSource gives the connections, preferably from a pool
+   * @param fetchSize rows fetched per round-trip while streaming {@link #getAll()}
+   */
+  public DbCustomerDao(DataSource dataSource, int fetchSize) {
+    if (fetchSize < 1) {
+      throw new IllegalArgumentException("Fetch size must be positive: " + fetchSize);
+    }
+    this.dataSource = dataSource;
+    this.fetchSize = fetchSize;
+  }
 
   /**
    * Get all customers as Java Stream.
@@ -57,24 +94,31 @@ public class DbCustomerDao implements CustomerDao {
   public Stream<Customer> getAll() throws Exception {
     try {
       var connection = getConnection();
-      var statement = connection.prepareStatement("SELECT * FROM CUSTOMERS"); // NOSONAR
-      var resultSet = statement.executeQuery(); // NOSONAR
-      return StreamSupport.stream(new Spliterators.AbstractSpliterator<Customer>(Long.MAX_VALUE,
-          Spliterator.ORDERED) {
-
-        @Override
-        public boolean tryAdvance(Consumer<? super Customer> action) {
-          try {
-            if (!resultSet.next()) {
-              return false;
+      try {
+        var statement = connection.prepareStatement(SELECT_ALL); // NOSONAR
+        statement.setFetchSize(fetchSize);
+        var resultSet = statement.executeQuery(); // NOSONAR
+        return StreamSupport.stream(new Spliterators.AbstractSpliterator<Customer>(Long.MAX_VALUE,
+            Spliterator.ORDERED) {
+
+          @Override
+          public boolean tryAdvance(Consumer<? super Customer> action) {
+            try {
+              if (!resultSet.next()) {
+                return false;
+              }
+              action.accept(createCustomer(resultSet));
+              return true;
+            } catch (SQLException e) {
+              throw new RuntimeException(e); // NOSONAR
             }
-            action.accept(createCustomer(resultSet));
-            return true;
-          } catch (SQLException e) {
-            throw new RuntimeException(e); // NOSONAR
           }
-        }
-      }, false).onClose(() -> mutedClose(connection, statement, resultSet));
+        }, false).onClose(() -> mutedClose(connection, statement, resultSet));
+      } catch (SQLException e) {
+        //no stream was handed out to close the connection later
+        mutedClose(connection, null, null);
+        throw e;
+      }
     } catch (SQLException e) {
       throw new CustomException(e.getMessage(), e);
     }
@@ -86,8 +130,12 @@ public class DbCustomerDao implements CustomerDao {
 
   private void mutedClose(Connection connection, PreparedStatement statement, ResultSet resultSet) {
     try {
-      resultSet.close();
-      statement.close();
+      if (resultSet != null) {
+        resultSet.close();
+      }
+      if (statement != null) {
+        statement.close();
+      }
       connection.close();
     } catch (SQLException e) {
       LOGGER.info("Exception thrown " + e.getMessage());
@@ -95,9 +143,9 @@ public class DbCustomerDao implements CustomerDao {
   }
 
   private Customer createCustomer(ResultSet resultSet) throws SQLException {
-    return new Customer(resultSet.getInt("ID"),
-        resultSet.getString("FNAME"),
-        resultSet.getString("LNAME"));
+    return new Customer(resultSet.getInt(1),
+        resultSet.getString(2),
+        resultSet.getString(3));
   }
 
   /**
@@ -109,7 +157,7 @@ public class DbCustomerDao implements CustomerDao {
     ResultSet resultSet = null;
 
     try (var connection = getConnection();
-         var statement = connection.prepareStatement("SELECT * FROM CUSTOMERS WHERE ID = ?")) {
+         var statement = connection.prepareStatement(SELECT_BY_ID)) {
 
       statement.setInt(1, id);
       resultSet = statement.executeQuery();
@@ -132,31 +180,56 @@ public class DbCustomerDao implements CustomerDao {
    */
   @Override
   public boolean add(Customer customer) throws Exception {
-    if (getById(customer.getId()).isPresent()) {
-      return false;
-    }
-
     try (var connection = getConnection();
-         var statement = connection.prepareStatement("INSERT INTO CUSTOMERS VALUES (?,?,?)")) {
+         var statement = connection.prepareStatement(INSERT_IF_ABSENT)) {
       statement.setInt(1, customer.getId());
       statement.setString(2, customer.getFirstName());
       statement.setString(3, customer.getLastName());
-      statement.execute();
-      return true;
+      statement.setInt(4, customer.getId());
+      return statement.executeUpdate() > 0;
     } catch (SQLException ex) {
       throw new CustomException(ex.getMessage(), ex);
     }
   }
 
+  /**
+   * Adds the customers, replacing those already stored under the same id. The customers are
+   * merged in batches within one transaction, so either all of them are stored or none.
+   *
+   * @param customers the customers to be stored.
+   * @return the number of customers stored.
+   * @throws Exception if any error occurs.
+   */
+  public int addAll(Stream<Customer> customers) throws Exception {
+    return executeBatches(MERGE, customers, (statement, customer) -> {
+      statement.setInt(1, customer.getId());
+      statement.setString(2, customer.getFirstName());
+      statement.setString(3, customer.getLastName());
+    });
+  }
+
+  /**
+   * Updates the customers that are stored, in batches within one transaction.
+   *
+   * @param customers the customers to be updated.
+   * @return the number of customers found and updated.
+   * @throws Exception if any error occurs.
+   */
+  public int updateAll(Stream<Customer> customers) throws Exception {
+    return executeBatches(UPDATE, customers, (statement, customer) -> {
+      statement.setString(1, customer.getFirstName());
+      statement.setString(2, customer.getLastName());
+      statement.setInt(3, customer.getId());
+    });
+  }
+
   /**
    * {@inheritDoc}
    */
   @Override
   public boolean update(Customer customer) throws Exception {
     try (var connection = getConnection();
-         var statement =
-             connection
-                 .prepareStatement("UPDATE CUSTOMERS SET FNAME = ?, LNAME = ? WHERE ID = ?")) {
+         var statement = connection.prepareStatement(UPDATE)) {
       statement.setString(1, customer.getFirstName());
       statement.setString(2, customer.getLastName());
       statement.setInt(3, customer.getId());
@@ -179,4 +252,53 @@ public class DbCustomerDao implements CustomerDao {
       throw new CustomException(ex.getMessage(), ex);
     }
   }
+
+  private int executeBatches(String sql, Stream<Customer> customers, Binder binder)
+      throws Exception {
+    try (var connection = getConnection()) {
+      var autoCommit = connection.getAutoCommit();
+      connection.setAutoCommit(false);
+      try (var statement = connection.prepareStatement(sql)) {
+        var count = 0;
+        var batched = 0;
+        var iterator = customers.iterator();
+        while (iterator.hasNext()) {
+          binder.bind(statement, iterator.next());
+          statement.addBatch();
+          if (++batched == BATCH_SIZE) {
+            count += countRows(statement.executeBatch());
+            batched = 0;
+          }
+        }
+        if (batched > 0) {
+          count += countRows(statement.executeBatch());
+        }
+        connection.commit();
+        return count;
+      } catch (SQLException | RuntimeException ex) {
+        connection.rollback();
+        throw ex;
+      } finally {
+        connection.setAutoCommit(autoCommit);
+      }
+    } catch (SQLException ex) {
+      throw new CustomException(ex.getMessage(), ex);
+    }
+  }
+
+  private static int countRows(int[] updateCounts) {
+    var count = 0;
+    for (var updateCount : updateCounts) {
+      //a driver may run a statement without reporting how many rows it touched
+      count += updateCount == Statement.SUCCESS_NO_INFO ? 1 : updateCount;
+    }
+    return count;
+  }
+
+  /**
+   * Binds a customer to the parameters of a statement.
+   */
+  private interface Binder {
+    void bind(PreparedStatement statement, Customer customer) throws SQLException;
+  }
 }
@@ -0,0 +1,110 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.dao;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.h2.jdbcx.JdbcDataSource;
+
+/**
+ * Compares adding customers one at a time over fresh connections, as callers of {@link
+ * DbCustomerDao} used to, with adding them in batches over a pooled connection, by inserts per
+ * second, and compares streaming every customer with one row per fetch and with {@link
+ * DbCustomerDao#DEFAULT_FETCH_SIZE} rows per fetch, by rows per second. Runs against an in-memory
+ * H2 database.
+ *
+ * <p>Run the main method; it is not part of the test suite.
+ */
+@Slf4j
+public class DbCustomerDaoBenchmark {
+
+  private static final String DB_URL = "jdbc:h2:mem:dao-benchmark;DB_CLOSE_DELAY=-1";
+  private static final int CUSTOMERS = 100_000;
+  private static final int SINGLE_CUSTOMERS = 10_000;
+
+  /**
+   * Program entry point.
+   *
+   * @param args command line args
+   * @throws Exception if any error occurs
+   */
+  public static void main(String[] args) throws Exception {
+    var plain = new JdbcDataSource();
+    plain.setURL(DB_URL);
+    var pool = JdbcConnectionPool.create(DB_URL, "", "");
+    try {
+      for (var round = 0; round < 2; round++) { //the first round warms up
+        recreateSchema(plain);
+        var oneByOne = new DbCustomerDao(plain);
+        var start = System.nanoTime();
+        for (var id = 0; id < SINGLE_CUSTOMERS; id++) {
+          oneByOne.add(customer(id));
+        }
+        report("one at a time, fresh connections", SINGLE_CUSTOMERS, start, "inserts");
+
+        recreateSchema(plain);
+        var batched = new DbCustomerDao(pool);
+        start = System.nanoTime();
+        batched.addAll(IntStream.range(0, CUSTOMERS).mapToObj(DbCustomerDaoBenchmark::customer));
+        report("batched, pooled connection", CUSTOMERS, start, "inserts");
+
+        scan("one row per fetch", new DbCustomerDao(pool, 1));
+        scan("default fetch size", batched);
+      }
+    } finally {
+      pool.dispose();
+    }
+  }
+
+  private static void scan(String name, DbCustomerDao dao) throws Exception {
+    var start = System.nanoTime();
+    long rows;
+    try (Stream<Customer> customers = dao.getAll()) {
+      rows = customers.count();
+    }
+    report(name, rows, start, "rows");
+  }
+
+  private static void report(String name, long count, long start, String unit) {
+    var elapsed = Math.max(1, System.nanoTime() - start);
+    LOGGER.info("{}: {} {}/s", name, count * TimeUnit.SECONDS.toNanos(1) / elapsed, unit);
+  }
+
+  private static Customer customer(int id) {
+    return new Customer(id, "First" + id, "Last" + id);
+  }
+
+  private static void recreateSchema(DataSource dataSource) throws SQLException {
+    try (var connection = dataSource.getConnection();
+         var statement = connection.createStatement()) {
+      statement.execute("DROP TABLE IF EXISTS CUSTOMERS");
+      statement.execute(CustomerSchemaSql.CREATE_SCHEMA_SQL);
+    }
+  }
+}
@@ -35,6 +35,10 @@ import static org.mockito.Mockito.mock;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 import javax.sql.DataSource;
 import org.h2.jdbcx.JdbcDataSource;
 import org.junit.jupiter.api.AfterEach;
@@ -173,6 +177,53 @@ class DbCustomerDaoTest {
         assertEquals(newLastname, cust.getLastName());
       }
     }
+
+    /**
+     * Represents the scenario when many customers are added or updated at once.
+     */
+    @Nested
+    class Batches {
+
+      @Test
+      void addingAllShouldStoreNewAndReplaceExistingCustomers() throws Exception {
+        var replaced = new Customer(existingCustomer.getId(), "Robert", "Englund");
+        var added = IntStream.range(2, 2500)
+            .mapToObj(id -> new Customer(id, "First" + id, "Last" + id));
+
+        var result = dao.addAll(Stream.concat(Stream.of(replaced), added));
+
+        assertEquals(2499, result);
+        assertCustomerCountIs(2499);
+        assertEquals("Robert", dao.getById(replaced.getId()).get().getFirstName());
+        assertEquals("First2499", dao.getById(2499).get().getFirstName());
+      }
+
+      @Test
+      void updatingAllShouldOnlyCountStoredCustomers() throws Exception {
+        var updated = new Customer(existingCustomer.getId(), "Bernard", "Montgomery");
+        var missing = new Customer(getNonExistingCustomerId(), "Douglas", "MacArthur");
+
+        var result = dao.updateAll(Stream.of(updated, missing));
+
+        assertEquals(1, result);
+        assertEquals("Bernard", dao.getById(updated.getId()).get().getFirstName());
+        assertFalse(dao.getById(missing.getId()).isPresent());
+      }
+
+      @Test
+      void streamingWithSmallFetchSizeShouldReturnAllCustomers() throws Exception {
+        var dataSource = new JdbcDataSource();
+        dataSource.setURL(DB_URL);
+        var smallFetches = new DbCustomerDao(dataSource, 2);
+        dao.addAll(IntStream.range(2, 10).mapToObj(id -> new Customer(id, "F", "L")));
+
+        try (var allCustomers = smallFetches.getAll()) {
+          List<Integer> ids = allCustomers.map(Customer::getId).sorted()
+              .collect(Collectors.toList());
+          assertEquals(IntStream.range(1, 10).boxed().collect(Collectors.toList()), ids);
+        }
+      }
+    }
   }
 
   /**
@@ -0,0 +1,368 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.databus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Data-Bus delivering events asynchronously.
+ *
+ * <p>Each subscription has its own bounded queue, drained by a shared pool of threads a batch at a
+ * time, so a slow member only delays its own events. Members receive their events in the order
+ * they were published. When a queue is full the subscription's {@link OverflowPolicy} decides
+ * what happens.</p>
+ *
+ * <p>Members subscribe to a type of event, and receive events of that class and its subclasses.
+ * The subscriptions matching an event class are worked out once and kept in an array until the
+ * subscriptions change, so publishing does not look at the members which are not interested.</p>
+ */
+@Slf4j
+public class AsyncDataBus extends DataBus implements AutoCloseable {
+
+  /**
+   * What publishing does when the queue of a subscription is full.
+   */
+  public enum OverflowPolicy {
+    /**
+     * The publisher waits for room. A member must not publish to itself with this policy.
+     */
+    BLOCK,
+    /**
+     * The event being published is dropped.
+     */
+    DROP_NEWEST,
+    /**
+     * The oldest event waiting in the queue is dropped to make room.
+     */
+    DROP_OLDEST
+  }
+
+  private static final int BATCH_SIZE = 64;
+  private static final AtomicInteger BUS_NUMBER = new AtomicInteger();
+
+  private final ExecutorService executor;
+  private final int queueCapacity;
+  private final OverflowPolicy defaultPolicy;
+  private final LongAdder dropped = new LongAdder();
+  private final Object subscriptionLock = new Object();
+  private volatile Routing routing = new Routing(new Subscription[0]);
+  private volatile boolean closed;
+
+  /**
+   * Creates a bus.
+   *
+   * @param threads       number of threads delivering events
+   * @param queueCapacity most events waiting for each subscription
+   * @param defaultPolicy policy of subscriptions which do not choose one
+   */
+  public AsyncDataBus(int threads, int queueCapacity, OverflowPolicy defaultPolicy) {
+    if (queueCapacity < 1) {
+      throw new IllegalArgumentException("Queue capacity must be positive: " + queueCapacity);
+    }
+    var busNumber = BUS_NUMBER.incrementAndGet();
+    var threadNumber = new AtomicInteger();
+    this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+      var thread = new Thread(runnable,
+          "data-bus-" + busNumber + "-" + threadNumber.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.queueCapacity = queueCapacity;
+    this.defaultPolicy = defaultPolicy;
+  }
+
+  /**
+   * Register a member to receive every event.
+   *
+   * @param member The member to register
+   */
+  @Override
+  public void subscribe(final Member member) {
+    subscribe(DataType.class, member, defaultPolicy);
+  }
+
+  /**
+   * Register a member to receive the events of a type.
+   *
+   * @param type   The type of events, subclasses included
+   * @param member The member to register
+   */
+  public void subscribe(final Class<? extends DataType> type, final Member member) {
+    subscribe(type, member, defaultPolicy);
+  }
+
+  /**
+   * Register a member to receive the events of a type.
+   *
+   * @param type   The type of events, subclasses included
+   * @param member The member to register
+   * @param policy What to do when the member falls behind by a full queue
+   */
+  public void subscribe(final Class<? extends DataType> type, final Member member,
+                        final OverflowPolicy policy) {
+    synchronized (subscriptionLock) {
+      var subscriptions = routing.subscriptions;
+      var added = Arrays.copyOf(subscriptions, subscriptions.length + 1);
+      added[subscriptions.length] = new Subscription(type, member, policy);
+      routing = new Routing(added);
+    }
+  }
+
+  /**
+   * Deregister a member from all the types it receives. Events waiting for it are discarded.
+   *
+   * @param member The member to deregister
+   */
+  @Override
+  public void unsubscribe(final Member member) {
+    synchronized (subscriptionLock) {
+      var kept = new ArrayList<Subscription>();
+      for (var subscription : routing.subscriptions) {
+        if (subscription.member.equals(member)) {
+          subscription.cancel();
+        } else {
+          kept.add(subscription);
+        }
+      }
+      routing = new Routing(kept.toArray(new Subscription[0]));
+    }
+  }
+
+  /**
+   * Publish an event to the members receiving its type. Returns once the event is queued.
+   *
+   * @param event The event
+   * @throws IllegalStateException if the bus is closed
+   */
+  @Override
+  public void publish(final DataType event) {
+    checkOpen();
+    event.setDataBus(this);
+    for (var subscription : routing.route(event.getClass())) {
+      if (subscription.enqueue(event)) {
+        subscription.schedule();
+      }
+    }
+  }
+
+  /**
+   * Publish several events. A member is scheduled once its events are queued, or as soon as its
+   * queue fills up, so a batch costs one hand-over per member rather than one per event without
+   * dropping more events than publishing them one by one would.
+   *
+   * @param events The events, in order
+   * @throws IllegalStateException if the bus is closed
+   */
+  public void publishAll(final Collection<? extends DataType> events) {
+    checkOpen();
+    var current = routing;
+    var touched = new IdentityHashMap<Subscription, Boolean>();
+    for (var event : events) {
+      event.setDataBus(this);
+      for (var subscription : current.route(event.getClass())) {
+        if (subscription.enqueue(event)) {
+          touched.put(subscription, Boolean.TRUE);
+        }
+        if (subscription.isFull()) {
+          subscription.schedule();
+        }
+      }
+    }
+    touched.keySet().forEach(Subscription::schedule);
+  }
+
+  /**
+   * Number of events dropped because a queue was full.
+   *
+   * @return dropped events
+   */
+  public long getDropped() {
+    return dropped.sum();
+  }
+
+  /**
+   * Refuse any further events, deliver the events already published, then stop the delivering
+   * threads.
+   *
+   * @throws InterruptedException if interrupted while waiting
+   */
+  @Override
+  public void close() throws InterruptedException {
+    closed = true;
+    for (var subscription : routing.subscriptions) {
+      while (!subscription.isIdle()) {
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        if (Thread.interrupted()) {
+          throw new InterruptedException();
+        }
+      }
+    }
+    executor.shutdown();
+    executor.awaitTermination(1, TimeUnit.MINUTES);
+  }
+
+  private void checkOpen() {
+    if (closed) {
+      throw new IllegalStateException("The data bus is closed");
+    }
+  }
+
+  /**
+   * The subscriptions, and the ones matching each event class worked out so far.
+   */
+  private static final class Routing {
+    private final Subscription[] subscriptions;
+    private final ConcurrentHashMap<Class<?>, Subscription[]> routes = new ConcurrentHashMap<>();
+
+    private Routing(Subscription[] subscriptions) {
+      this.subscriptions = subscriptions;
+    }
+
+    private Subscription[] route(Class<?> eventClass) {
+      var route = routes.get(eventClass);
+      if (route == null) {
+        route = routes.computeIfAbsent(eventClass, c -> Arrays.stream(subscriptions)
+            .filter(subscription -> subscription.type.isAssignableFrom(c))
+            .toArray(Subscription[]::new));
+      }
+      return route;
+    }
+  }
+
+  /**
+   * A member receiving a type of events, with the queue of events waiting for it.
+   */
+  private final class Subscription implements Runnable {
+    private final Class<? extends DataType> type;
+    private final Member member;
+    private final OverflowPolicy policy;
+    private final BlockingQueue<DataType> queue = new ArrayBlockingQueue<>(queueCapacity);
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private volatile boolean active = true;
+
+    private Subscription(Class<? extends DataType> type, Member member, OverflowPolicy policy) {
+      this.type = type;
+      this.member = member;
+      this.policy = policy;
+    }
+
+    private boolean enqueue(DataType event) {
+      if (!active) {
+        return false;
+      }
+      switch (policy) {
+        case BLOCK:
+          try {
+            while (!queue.offer(event, 1, TimeUnit.MILLISECONDS)) {
+              //the member may be waiting for a hand-over of what is already queued
+              schedule();
+              if (!active) {
+                return false;
+              }
+            }
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            dropped.increment();
+            return false;
+          }
+          return true;
+        case DROP_OLDEST:
+          while (!queue.offer(event)) {
+            if (queue.poll() != null) {
+              dropped.increment();
+            }
+          }
+          return true;
+        case DROP_NEWEST:
+        default:
+          if (queue.offer(event)) {
+            return true;
+          }
+          dropped.increment();
+          return false;
+      }
+    }
+
+    private void schedule() {
+      if (active && scheduled.compareAndSet(false, true)) {
+        try {
+          executor.execute(this);
+        } catch (RejectedExecutionException e) {
+          //published while the bus was closing, after its threads had stopped
+          var lost = queue.size();
+          queue.clear();
+          dropped.add(lost);
+          scheduled.set(false);
+        }
+      }
+    }
+
+    private boolean isFull() {
+      return queue.remainingCapacity() == 0;
+    }
+
+    private void cancel() {
+      active = false;
+      queue.clear();
+    }
+
+    private boolean isIdle() {
+      return !active || (queue.isEmpty() && !scheduled.get());
+    }
+
+    @Override
+    public void run() {
+      for (var i = 0; i < BATCH_SIZE && active; i++) {
+        var event = queue.poll();
+        if (event == null) {
+          break;
+        }
+        try {
+          member.accept(event);
+        } catch (RuntimeException e) {
+          LOGGER.error("Member {} failed on {}", member, event, e);
+        }
+      }
+      scheduled.set(false);
+      if (!queue.isEmpty()) {
+        schedule();
+      }
+    }
+  }
+}
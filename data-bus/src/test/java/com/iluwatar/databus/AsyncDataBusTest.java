@@ -0,0 +1,207 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.databus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.iluwatar.databus.AsyncDataBus.OverflowPolicy;
+import com.iluwatar.databus.data.MessageData;
+import com.iluwatar.databus.data.StartingData;
+import com.iluwatar.databus.members.MessageCollectorMember;
+import java.time.LocalDateTime;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link AsyncDataBus}.
+ */
+class AsyncDataBusTest {
+
+  @Test
+  void eventsAreDeliveredInOrderToMembersOfTheirType() throws InterruptedException {
+    //given
+    final var dataBus = new AsyncDataBus(2, 16, OverflowPolicy.BLOCK);
+    final var collector = new MessageCollectorMember("collector");
+    final var everything = new RecordingMember();
+    final var starts = new RecordingMember();
+    dataBus.subscribe(MessageData.class, collector);
+    dataBus.subscribe(everything);
+    dataBus.subscribe(StartingData.class, starts);
+    //when
+    final var messages = IntStream.range(0, 100).mapToObj(String::valueOf)
+        .collect(Collectors.toList());
+    messages.forEach(message -> dataBus.publish(MessageData.of(message)));
+    dataBus.publish(StartingData.of(LocalDateTime.now()));
+    dataBus.close();
+    //then
+    assertEquals(messages, collector.getMessages());
+    assertEquals(101, everything.events.size());
+    assertEquals(1, starts.events.size());
+    assertEquals(dataBus, starts.events.get(0).getDataBus());
+  }
+
+  @Test
+  void publishAllDeliversEveryEvent() throws InterruptedException {
+    //given
+    final var dataBus = new AsyncDataBus(1, 1_000, OverflowPolicy.BLOCK);
+    final var collector = new MessageCollectorMember("collector");
+    dataBus.subscribe(collector);
+    //when
+    final var messages = IntStream.range(0, 500).mapToObj(String::valueOf)
+        .collect(Collectors.toList());
+    dataBus.publishAll(messages.stream().map(MessageData::of).collect(Collectors.toList()));
+    dataBus.close();
+    //then
+    assertEquals(messages, collector.getMessages());
+  }
+
+  @Test
+  void publishAllHandsOverEventsOnceAQueueIsFull() throws InterruptedException {
+    //given
+    final var dataBus = new AsyncDataBus(1, 4, OverflowPolicy.DROP_NEWEST);
+    final var received = new CountDownLatch(8);
+    final var member = new RecordingMember() {
+      @Override
+      public void accept(DataType event) {
+        super.accept(event);
+        received.countDown();
+      }
+    };
+    dataBus.subscribe(member);
+    //when
+    final var events = new AbstractCollection<DataType>() {
+      @Override
+      public Iterator<DataType> iterator() {
+        return IntStream.range(0, 8).mapToObj(i -> {
+          //a full queue must be handed over before the batch goes on
+          if (i == 4) {
+            awaitReceived(received, 4);
+          }
+          return MessageData.of(String.valueOf(i));
+        }).iterator();
+      }
+
+      @Override
+      public int size() {
+        return 8;
+      }
+    };
+    dataBus.publishAll(events);
+    dataBus.close();
+    //then
+    assertEquals(0, dataBus.getDropped());
+    assertEquals(8, member.events.size());
+  }
+
+  @Test
+  void closedBusRefusesEvents() throws InterruptedException {
+    //given
+    final var dataBus = new AsyncDataBus(1, 16, OverflowPolicy.DROP_OLDEST);
+    dataBus.subscribe(new RecordingMember());
+    dataBus.close();
+    //when
+    final var event = MessageData.of("message");
+    //then
+    assertThrows(IllegalStateException.class, () -> dataBus.publish(event));
+    assertThrows(IllegalStateException.class, () -> dataBus.publishAll(List.of(event)));
+  }
+
+  @Test
+  void slowMemberDropsEventsWithoutStallingOthers() throws InterruptedException {
+    //given
+    final var dataBus = new AsyncDataBus(2, 4, OverflowPolicy.DROP_NEWEST);
+    final var release = new CountDownLatch(1);
+    final var slow = new RecordingMember() {
+      @Override
+      public void accept(DataType event) {
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        super.accept(event);
+      }
+    };
+    final var fast = new MessageCollectorMember("fast");
+    dataBus.subscribe(slow);
+    dataBus.subscribe(MessageData.class, fast, OverflowPolicy.BLOCK);
+    //when
+    for (var i = 0; i < 20; i++) {
+      dataBus.publish(MessageData.of(String.valueOf(i)));
+    }
+    final var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (fast.getMessages().size() < 20 && System.nanoTime() < deadline) {
+      Thread.sleep(1);
+    }
+    //then
+    assertEquals(20, fast.getMessages().size());
+    assertTrue(dataBus.getDropped() >= 15);
+    release.countDown();
+    dataBus.close();
+    assertEquals(20 - dataBus.getDropped(), slow.events.size());
+  }
+
+  @Test
+  void unsubscribedMemberReceivesNothing() throws InterruptedException {
+    //given
+    final var dataBus = new AsyncDataBus(1, 16, OverflowPolicy.DROP_OLDEST);
+    final var member = new RecordingMember();
+    dataBus.subscribe(member);
+    dataBus.unsubscribe(member);
+    //when
+    dataBus.publish(MessageData.of("message"));
+    dataBus.close();
+    //then
+    assertTrue(member.events.isEmpty());
+  }
+
+  private static void awaitReceived(CountDownLatch received, int count) {
+    final var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (received.getCount() > count && System.nanoTime() < deadline) {
+      LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+    }
+  }
+
+  /**
+   * Member keeping every event it receives.
+   */
+  private static class RecordingMember implements Member {
+    final List<DataType> events = new ArrayList<>();
+
+    @Override
+    public void accept(DataType event) {
+      events.add(event);
+    }
+  }
+}
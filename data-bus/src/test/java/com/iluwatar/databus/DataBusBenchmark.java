@@ -0,0 +1,119 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.databus;
+
+import com.iluwatar.databus.AsyncDataBus.OverflowPolicy;
+import com.iluwatar.databus.data.MessageData;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Publishes messages to eight members, one of which takes 20 microseconds per event, and reports
+ * the latency of {@code publish} and the fan-out throughput for {@link DataBus}, for
+ * {@link AsyncDataBus} and for {@link AsyncDataBus#publishAll} in batches of 100.
+ *
+ * <p>Run the main method; it is not part of the test suite.
+ */
+@Slf4j
+public class DataBusBenchmark {
+
+  private static final int EVENTS = 50_000;
+  private static final int MEMBERS = 8;
+  private static final long SLOW_MEMBER_NANOS = 20_000;
+  private static final int BATCH = 100;
+
+  /**
+   * Program entry point.
+   *
+   * @param args command line args
+   * @throws InterruptedException if interrupted while closing the bus
+   */
+  public static void main(String[] args) throws InterruptedException {
+    var events = new ArrayList<DataType>(EVENTS);
+    for (var i = 0; i < EVENTS; i++) {
+      events.add(MessageData.of(String.valueOf(i)));
+    }
+
+    var delivered = new LongAdder();
+    var sync = new DataBus();
+    subscribe(sync, delivered);
+    var latencies = new long[EVENTS];
+    var start = System.nanoTime();
+    for (var i = 0; i < EVENTS; i++) {
+      var begin = System.nanoTime();
+      sync.publish(events.get(i));
+      latencies[i] = System.nanoTime() - begin;
+    }
+    report("sync", latencies, start, delivered);
+
+    delivered = new LongAdder();
+    var async = new AsyncDataBus(4, EVENTS, OverflowPolicy.BLOCK);
+    subscribe(async, delivered);
+    latencies = new long[EVENTS];
+    start = System.nanoTime();
+    for (var i = 0; i < EVENTS; i++) {
+      var begin = System.nanoTime();
+      async.publish(events.get(i));
+      latencies[i] = System.nanoTime() - begin;
+    }
+    async.close();
+    report("async", latencies, start, delivered);
+
+    delivered = new LongAdder();
+    var batched = new AsyncDataBus(4, EVENTS, OverflowPolicy.BLOCK);
+    subscribe(batched, delivered);
+    latencies = new long[EVENTS / BATCH];
+    start = System.nanoTime();
+    for (var i = 0; i < EVENTS; i += BATCH) {
+      var begin = System.nanoTime();
+      batched.publishAll(events.subList(i, i + BATCH));
+      latencies[i / BATCH] = (System.nanoTime() - begin) / BATCH;
+    }
+    batched.close();
+    report("async batched", latencies, start, delivered);
+  }
+
+  private static void subscribe(DataBus bus, LongAdder delivered) {
+    bus.subscribe(event -> {
+      var until = System.nanoTime() + SLOW_MEMBER_NANOS;
+      while (System.nanoTime() < until) {
+        Thread.onSpinWait();
+      }
+      delivered.increment();
+    });
+    for (var i = 1; i < MEMBERS; i++) {
+      bus.subscribe(event -> delivered.increment());
+    }
+  }
+
+  private static void report(String name, long[] latencies, long start, LongAdder delivered) {
+    var millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+    Arrays.sort(latencies);
+    LOGGER.info("{}: publish p50 {} ns, p99 {} ns per event; {} deliveries in {} ms ({}/ms)",
+        name, latencies[latencies.length / 2], latencies[latencies.length * 99 / 100],
+        delivered.sum(), millis, delivered.sum() / millis);
+  }
+}
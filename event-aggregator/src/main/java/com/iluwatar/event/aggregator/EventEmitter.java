@@ -23,18 +23,21 @@
 
 package com.iluwatar.event.aggregator;
 
-import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
- * EventEmitter is the base class for event producers that can be observed.
+ * EventEmitter is the base class for event producers that can be observed. Observers may register
+ * while events are being emitted. An emitter created with {@link ObserverMailboxes} hands each
+ * event to the mailbox of every observer and returns, instead of waiting for the observers.
  */
 public abstract class EventEmitter {
 
   private final List<EventObserver> observers;
+  private final ObserverMailboxes mailboxes;
 
   public EventEmitter() {
-    observers = new LinkedList<>();
+    this((ObserverMailboxes) null);
   }
 
   public EventEmitter(EventObserver obs) {
@@ -42,8 +45,18 @@ public abstract class EventEmitter {
     registerObserver(obs);
   }
 
+  protected EventEmitter(ObserverMailboxes mailboxes) {
+    this.observers = new CopyOnWriteArrayList<>();
+    this.mailboxes = mailboxes;
+  }
+
+  protected EventEmitter(ObserverMailboxes mailboxes, EventObserver obs) {
+    this(mailboxes);
+    registerObserver(obs);
+  }
+
   public final void registerObserver(EventObserver obs) {
-    observers.add(obs);
+    observers.add(mailboxes == null ? obs : mailboxes.mailboxOf(obs));
   }
 
   protected void notifyObservers(Event e) {
@@ -24,7 +24,8 @@
 package com.iluwatar.event.aggregator;
 
 /**
- * KingsHand observes events from multiple sources and delivers them to listeners.
+ * KingsHand observes events from multiple sources and delivers them to listeners, either directly
+ * or through their {@link ObserverMailboxes mailboxes}.
  */
 public class KingsHand extends EventEmitter implements EventObserver {
 
@@ -35,6 +36,14 @@ public class KingsHand extends EventEmitter implements EventObserver {
     super(obs);
   }
 
+  public KingsHand(ObserverMailboxes mailboxes) {
+    super(mailboxes);
+  }
+
+  public KingsHand(ObserverMailboxes mailboxes, EventObserver obs) {
+    super(mailboxes, obs);
+  }
+
   @Override
   public void onEvent(Event e) {
     notifyObservers(e);
@@ -0,0 +1,142 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.event.aggregator;
+
+import java.util.LinkedHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded mailbox standing in front of one {@link EventObserver}. Events are queued and handed to
+ * the observer on an executor, so a slow observer holds up neither the emitter nor the other
+ * observers. An event that is already waiting in the mailbox is not queued again, and when the
+ * mailbox is full the oldest waiting event is dropped to make room.
+ */
+@Slf4j
+public final class ObserverMailbox implements EventObserver {
+
+  private static final int BATCH = 16;
+
+  private final EventObserver observer;
+  private final Executor executor;
+  private final int capacity;
+  private final LinkedHashMap<Event, Long> pending = new LinkedHashMap<>();
+  private final AtomicLong delivered = new AtomicLong();
+  private final AtomicLong coalesced = new AtomicLong();
+  private final AtomicLong dropped = new AtomicLong();
+  private boolean scheduled;
+
+  /**
+   * Creates a mailbox.
+   *
+   * @param observer receives the events
+   * @param executor runs the deliveries
+   * @param capacity how many distinct events may wait at once
+   */
+  public ObserverMailbox(EventObserver observer, Executor executor, int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+    }
+    this.observer = observer;
+    this.executor = executor;
+    this.capacity = capacity;
+  }
+
+  @Override
+  public void onEvent(Event e) {
+    synchronized (this) {
+      if (pending.containsKey(e)) {
+        coalesced.incrementAndGet();
+        return;
+      }
+      if (pending.size() == capacity) {
+        var oldest = pending.keySet().iterator();
+        oldest.next();
+        oldest.remove();
+        dropped.incrementAndGet();
+      }
+      pending.put(e, System.nanoTime());
+      if (scheduled) {
+        return;
+      }
+      scheduled = true;
+    }
+    executor.execute(this::drain);
+  }
+
+  public EventObserver getObserver() {
+    return observer;
+  }
+
+  /**
+   * Returns the number of events waiting to be delivered.
+   */
+  public synchronized int getLag() {
+    return pending.size();
+  }
+
+  /**
+   * Returns how long the oldest waiting event has been waiting, in nanoseconds, or zero when
+   * nothing is waiting.
+   */
+  public synchronized long getOldestPendingNanos() {
+    return pending.isEmpty() ? 0 : System.nanoTime() - pending.values().iterator().next();
+  }
+
+  public long getDelivered() {
+    return delivered.get();
+  }
+
+  public long getCoalesced() {
+    return coalesced.get();
+  }
+
+  public long getDropped() {
+    return dropped.get();
+  }
+
+  private void drain() {
+    for (var i = 0; i < BATCH; i++) {
+      Event next;
+      synchronized (this) {
+        var oldest = pending.keySet().iterator();
+        if (!oldest.hasNext()) {
+          scheduled = false;
+          return;
+        }
+        next = oldest.next();
+        oldest.remove();
+      }
+      try {
+        observer.onEvent(next);
+      } catch (RuntimeException e) {
+        LOGGER.error("Observer failed on {}", next, e);
+      }
+      delivered.incrementAndGet();
+    }
+    //give the other mailboxes a turn before going on
+    executor.execute(this::drain);
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.event.aggregator;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Gives every observer its own {@link ObserverMailbox}, all of them drained by one executor. An
+ * emitter built with this delivers events through the mailboxes, and an observer registered with
+ * several such emitters shares one mailbox among them.
+ */
+public class ObserverMailboxes {
+
+  private final Executor executor;
+  private final int capacity;
+  private final Map<EventObserver, ObserverMailbox> mailboxes = new ConcurrentHashMap<>();
+
+  /**
+   * Creates the mailboxes.
+   *
+   * @param executor drains the mailboxes
+   * @param capacity how many distinct events may wait in each mailbox
+   */
+  public ObserverMailboxes(Executor executor, int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+    }
+    this.executor = executor;
+    this.capacity = capacity;
+  }
+
+  /**
+   * Returns the mailbox of the observer, creating it if needed.
+   *
+   * @param observer the observer
+   * @return the mailbox delivering to the observer
+   */
+  public ObserverMailbox mailboxOf(EventObserver observer) {
+    if (observer instanceof ObserverMailbox) {
+      return (ObserverMailbox) observer;
+    }
+    return mailboxes.computeIfAbsent(observer, o -> new ObserverMailbox(o, executor, capacity));
+  }
+
+  public Collection<ObserverMailbox> getMailboxes() {
+    return Collections.unmodifiableCollection(mailboxes.values());
+  }
+
+  /**
+   * Returns the number of events waiting for each observer.
+   */
+  public Map<EventObserver, Integer> getLag() {
+    var lag = new HashMap<EventObserver, Integer>();
+    mailboxes.forEach((observer, mailbox) -> lag.put(observer, mailbox.getLag()));
+    return lag;
+  }
+}
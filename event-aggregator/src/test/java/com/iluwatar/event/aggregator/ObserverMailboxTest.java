@@ -0,0 +1,118 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.event.aggregator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link ObserverMailbox} and {@link ObserverMailboxes}.
+ */
+class ObserverMailboxTest {
+
+  @Test
+  void testSlowObserverDoesNotHoldUpOthers() throws Exception {
+    var executor = Executors.newFixedThreadPool(2);
+    try {
+      var release = new CountDownLatch(1);
+      var received = new CountDownLatch(1);
+      var mailboxes = new ObserverMailboxes(executor, 4);
+      var kingsHand = new KingsHand(mailboxes, e -> await(release));
+      kingsHand.registerObserver(e -> received.countDown());
+
+      kingsHand.onEvent(Event.STARK_SIGHTED);
+
+      assertTrue(received.await(5, TimeUnit.SECONDS));
+      release.countDown();
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  void testCoalescesAndDropsOldest() {
+    var tasks = new ArrayList<Runnable>();
+    var received = new ArrayList<Event>();
+    var mailbox = new ObserverMailbox(received::add, tasks::add, 2);
+
+    mailbox.onEvent(Event.STARK_SIGHTED);
+    mailbox.onEvent(Event.STARK_SIGHTED);
+    mailbox.onEvent(Event.WARSHIPS_APPROACHING);
+    mailbox.onEvent(Event.TRAITOR_DETECTED);
+
+    assertEquals(2, mailbox.getLag());
+    assertEquals(1, mailbox.getCoalesced());
+    assertEquals(1, mailbox.getDropped());
+    assertEquals(1, tasks.size());
+    assertTrue(mailbox.getOldestPendingNanos() >= 0);
+
+    runAll(tasks);
+
+    assertEquals(List.of(Event.WARSHIPS_APPROACHING, Event.TRAITOR_DETECTED), received);
+    assertEquals(0, mailbox.getLag());
+    assertEquals(0, mailbox.getOldestPendingNanos());
+    assertEquals(2, mailbox.getDelivered());
+  }
+
+  @Test
+  void testObserverSharesMailboxAcrossEmitters() {
+    var tasks = new ArrayList<Runnable>();
+    var received = new ArrayList<Event>();
+    EventObserver observer = received::add;
+    var mailboxes = new ObserverMailboxes(tasks::add, 4);
+    var first = new KingsHand(mailboxes, observer);
+    var second = new KingsHand(mailboxes, observer);
+
+    first.onEvent(Event.TRAITOR_DETECTED);
+    second.onEvent(Event.TRAITOR_DETECTED);
+
+    assertSame(mailboxes.mailboxOf(observer), mailboxes.getMailboxes().iterator().next());
+    assertEquals(1, mailboxes.getLag().get(observer).intValue());
+    runAll(tasks);
+    assertEquals(List.of(Event.TRAITOR_DETECTED), received);
+    assertEquals(0, mailboxes.getLag().get(observer).intValue());
+  }
+
+  private static void runAll(List<Runnable> tasks) {
+    while (!tasks.isEmpty()) {
+      tasks.remove(0).run();
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.eda.framework;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link EventDispatcher} handling events on background threads. Events are spread over a fixed
+ * number of partitions by a key taken from each event, and every partition handles its events one
+ * at a time in the order they were dispatched, so events with the same key are handled in order
+ * while events with different keys may be handled in parallel.
+ */
+@Slf4j
+public class AsyncEventDispatcher extends EventDispatcher implements AutoCloseable {
+
+  private final ExecutorService[] partitions;
+  private final Function<? super Event, ?> keyOf;
+
+  /**
+   * Creates a dispatcher.
+   *
+   * @param partitions number of partitions, each with its own thread
+   * @param keyOf      gives the key of an event; events with equal keys are handled in order
+   */
+  public AsyncEventDispatcher(int partitions, Function<? super Event, ?> keyOf) {
+    if (partitions < 1) {
+      throw new IllegalArgumentException("At least one partition is needed: " + partitions);
+    }
+    this.partitions = new ExecutorService[partitions];
+    for (var i = 0; i < partitions; i++) {
+      var name = "event-partition-" + i;
+      this.partitions[i] = Executors.newSingleThreadExecutor(runnable -> {
+        var thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+    this.keyOf = keyOf;
+  }
+
+  /**
+   * Queues an {@link Event} on the partition of its key and returns.
+   *
+   * @param event The {@link Event} to be dispatched
+   */
+  @Override
+  public <E extends Event> void dispatch(E event) {
+    var key = keyOf.apply(event);
+    var partition = Math.floorMod(key == null ? 0 : key.hashCode(), partitions.length);
+    partitions[partition].execute(() -> {
+      try {
+        handle(event);
+      } catch (RuntimeException e) {
+        LOGGER.error("Failed to handle {}", event, e);
+      }
+    });
+  }
+
+  /**
+   * Handles the events already dispatched, then stops the partitions.
+   *
+   * @throws InterruptedException if interrupted while waiting
+   */
+  @Override
+  public void close() throws InterruptedException {
+    for (var partition : partitions) {
+      partition.shutdown();
+    }
+    for (var partition : partitions) {
+      partition.awaitTermination(1, TimeUnit.MINUTES);
+    }
+  }
+}
@@ -23,20 +23,21 @@
 
 package com.iluwatar.eda.framework;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 
 /**
- * Handles the routing of {@link Event} messages to associated handlers. A {@link HashMap} is used
- * to store the association between events and their respective handlers.
+ * Handles the routing of {@link Event} messages to associated handlers. Any number of handlers may
+ * be registered for a type of event, and they also handle the events of its subtypes, in the order
+ * they were registered.
+ *
+ * <p>The handlers of each event class are looked up on the first dispatch of that class and kept
+ * in a {@link ClassValue}, so later dispatches do no search. Registering a handler starts a fresh
+ * lookup.
  */
 public class EventDispatcher {
 
-  private final Map<Class<? extends Event>, Handler<? extends Event>> handlers;
-
-  public EventDispatcher() {
-    handlers = new HashMap<>();
-  }
+  private final Object registrationLock = new Object();
+  private volatile Routes routes = new Routes(new Registration[0]);
 
   /**
    * Links an {@link Event} to a specific {@link Handler}.
@@ -48,7 +49,12 @@ public class EventDispatcher {
       Class<E> eventType,
       Handler<E> handler
   ) {
-    handlers.put(eventType, handler);
+    synchronized (registrationLock) {
+      var registrations = routes.registrations;
+      var added = Arrays.copyOf(registrations, registrations.length + 1);
+      added[registrations.length] = new Registration(eventType, handler);
+      routes = new Routes(added);
+    }
   }
 
   /**
@@ -56,12 +62,53 @@ public class EventDispatcher {
    *
    * @param event The {@link Event} to be dispatched
    */
-  @SuppressWarnings("unchecked")
   public <E extends Event> void dispatch(E event) {
-    var handler = (Handler<E>) handlers.get(event.getClass());
-    if (handler != null) {
-      handler.onEvent(event);
+    handle(event);
+  }
+
+  /**
+   * Passes an event to the handlers of its class on the calling thread.
+   *
+   * @param event The {@link Event} to be handled
+   */
+  @SuppressWarnings("unchecked")
+  void handle(Event event) {
+    for (var handler : routes.handlers.get(event.getClass())) {
+      ((Handler<Event>) handler).onEvent(event);
+    }
+  }
+
+  /**
+   * A handler and the type of events it handles.
+   */
+  private static final class Registration {
+    private final Class<? extends Event> eventType;
+    private final Handler<? extends Event> handler;
+
+    private Registration(Class<? extends Event> eventType, Handler<? extends Event> handler) {
+      this.eventType = eventType;
+      this.handler = handler;
+    }
+  }
+
+  /**
+   * The registered handlers, and the handlers of each event class looked up so far.
+   */
+  private static final class Routes {
+    private final Registration[] registrations;
+    private final ClassValue<Handler<?>[]> handlers = new ClassValue<>() {
+      @Override
+      protected Handler<?>[] computeValue(Class<?> eventClass) {
+        return Arrays.stream(registrations)
+            .filter(registration -> registration.eventType.isAssignableFrom(eventClass))
+            .map(registration -> registration.handler)
+            .toArray(Handler<?>[]::new);
+      }
+    };
+
+    private Routes(Registration[] registrations) {
+      this.registrations = registrations;
     }
   }
 
-}
\ No newline at end of file
+}
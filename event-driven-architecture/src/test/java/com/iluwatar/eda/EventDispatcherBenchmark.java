@@ -0,0 +1,119 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.eda;
+
+import com.iluwatar.eda.event.AbstractEvent;
+import com.iluwatar.eda.event.UserCreatedEvent;
+import com.iluwatar.eda.event.UserUpdatedEvent;
+import com.iluwatar.eda.framework.AsyncEventDispatcher;
+import com.iluwatar.eda.framework.Event;
+import com.iluwatar.eda.framework.EventDispatcher;
+import com.iluwatar.eda.model.User;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Dispatches a million {@link UserCreatedEvent}s and {@link UserUpdatedEvent}s and reports the
+ * throughput of a lookup by exact class in a {@link HashMap}, as the dispatcher used to do, of
+ * {@link EventDispatcher} with a handler per event class and one for all {@link AbstractEvent}s,
+ * and of {@link AsyncEventDispatcher} with four partitions keyed by user name.
+ *
+ * <p>Run the main method; it is not part of the test suite.
+ */
+@Slf4j
+public class EventDispatcherBenchmark {
+
+  private static final int EVENTS = 1_000_000;
+  private static final int USERS = 1_000;
+  private static final int ROUNDS = 5;
+
+  /**
+   * Program entry point.
+   *
+   * @param args command line args
+   * @throws InterruptedException if interrupted while closing the async dispatcher
+   */
+  public static void main(String[] args) throws InterruptedException {
+    var events = new Event[EVENTS];
+    for (var i = 0; i < EVENTS; i++) {
+      var user = new User("user" + i % USERS);
+      events[i] = i % 2 == 0 ? new UserCreatedEvent(user) : new UserUpdatedEvent(user);
+    }
+
+    for (var round = 0; round < ROUNDS; round++) {
+      var handled = new LongAdder();
+      Map<Class<?>, Consumer<Event>> exact = new HashMap<>();
+      exact.put(UserCreatedEvent.class, event -> handled.increment());
+      exact.put(UserUpdatedEvent.class, event -> handled.increment());
+      var start = System.nanoTime();
+      for (var event : events) {
+        var handler = exact.get(event.getClass());
+        if (handler != null) {
+          handler.accept(event);
+        }
+      }
+      report("exact class map", start, handled);
+
+      var dispatcher = new EventDispatcher();
+      register(dispatcher, handled);
+      start = System.nanoTime();
+      for (var event : events) {
+        dispatcher.dispatch(event);
+      }
+      report("dispatcher", start, handled);
+
+      var async = new AsyncEventDispatcher(4, EventDispatcherBenchmark::userName);
+      register(async, handled);
+      start = System.nanoTime();
+      for (var event : events) {
+        async.dispatch(event);
+      }
+      async.close();
+      report("async dispatcher", start, handled);
+    }
+  }
+
+  private static void register(EventDispatcher dispatcher, LongAdder handled) {
+    handled.reset();
+    dispatcher.registerHandler(UserCreatedEvent.class, event -> handled.increment());
+    dispatcher.registerHandler(UserUpdatedEvent.class, event -> handled.increment());
+    dispatcher.registerHandler(AbstractEvent.class, event -> handled.increment());
+  }
+
+  private static String userName(Event event) {
+    return event instanceof UserCreatedEvent
+        ? ((UserCreatedEvent) event).getUser().getUsername()
+        : ((UserUpdatedEvent) event).getUser().getUsername();
+  }
+
+  private static void report(String name, long start, LongAdder handled) {
+    var micros = Math.max(1, (System.nanoTime() - start) / 1_000);
+    LOGGER.info("{}: {} events, {} handler calls, {} events/ms", name, EVENTS, handled.sum(),
+        EVENTS * 1_000L / micros);
+    handled.reset();
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.eda.framework;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.iluwatar.eda.event.UserCreatedEvent;
+import com.iluwatar.eda.event.UserUpdatedEvent;
+import com.iluwatar.eda.model.User;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Asynchronous Event Dispatcher unit tests
+ */
+class AsyncEventDispatcherTest {
+
+  /**
+   * Events with the same key should be handled in the order they were dispatched.
+   */
+  @Test
+  void testEventsOfAKeyAreHandledInOrder() throws InterruptedException {
+    Map<String, List<Integer>> handled = new ConcurrentHashMap<>();
+    var dispatcher = new AsyncEventDispatcher(4, event -> ((NumberedEvent) event).user);
+    dispatcher.registerHandler(NumberedEvent.class, event ->
+        handled.computeIfAbsent(event.user, user -> new ArrayList<>()).add(event.number));
+
+    for (var number = 0; number < 1_000; number++) {
+      dispatcher.dispatch(new NumberedEvent("user" + number % 10, number));
+    }
+    dispatcher.close();
+
+    assertEquals(10, handled.size());
+    handled.forEach((user, numbers) -> {
+      assertEquals(100, numbers.size());
+      for (var i = 1; i < numbers.size(); i++) {
+        assertEquals(numbers.get(i - 1) + 10, numbers.get(i).intValue());
+      }
+    });
+  }
+
+  /**
+   * A failing handler should not stop the events after it from being handled.
+   */
+  @Test
+  void testFailingHandlerDoesNotStopPartition() throws InterruptedException {
+    List<Event> handled = new ArrayList<>();
+    var dispatcher = new AsyncEventDispatcher(1, event -> null);
+    dispatcher.registerHandler(UserCreatedEvent.class, event -> {
+      throw new IllegalStateException("failed");
+    });
+    dispatcher.registerHandler(UserUpdatedEvent.class, handled::add);
+
+    var user = new User("iluwatar");
+    dispatcher.dispatch(new UserCreatedEvent(user));
+    var updated = new UserUpdatedEvent(user);
+    dispatcher.dispatch(updated);
+    dispatcher.close();
+
+    assertEquals(List.of(updated), handled);
+  }
+
+  private static class NumberedEvent implements Event {
+    private final String user;
+    private final int number;
+
+    NumberedEvent(String user, int number) {
+      this.user = user;
+      this.number = number;
+    }
+
+    @Override
+    public Class<? extends Event> getType() {
+      return getClass();
+    }
+  }
+}
@@ -23,14 +23,18 @@
 
 package com.iluwatar.eda.framework;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 
+import com.iluwatar.eda.event.AbstractEvent;
 import com.iluwatar.eda.event.UserCreatedEvent;
 import com.iluwatar.eda.event.UserUpdatedEvent;
 import com.iluwatar.eda.handler.UserCreatedEventHandler;
 import com.iluwatar.eda.handler.UserUpdatedEventHandler;
 import com.iluwatar.eda.model.User;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -67,4 +71,26 @@ class EventDispatcherTest {
     verify(dispatcher).dispatch(userUpdatedEvent);
   }
 
+  /**
+   * Every handler registered for the type of an event or one of its supertypes should handle it,
+   * in the order the handlers were registered, also when registered after the first dispatch.
+   */
+  @Test
+  void testHandlersOfSupertypes() {
+    var dispatcher = new EventDispatcher();
+    List<String> handled = new ArrayList<>();
+    dispatcher.registerHandler(Event.class, event -> handled.add("event"));
+    dispatcher.registerHandler(UserCreatedEvent.class, event -> handled.add("created"));
+
+    var user = new User("iluwatar");
+    dispatcher.dispatch(new UserCreatedEvent(user));
+    dispatcher.dispatch(new UserUpdatedEvent(user));
+    assertEquals(List.of("event", "created", "event"), handled);
+
+    handled.clear();
+    dispatcher.registerHandler(AbstractEvent.class, event -> handled.add("abstract"));
+    dispatcher.dispatch(new UserCreatedEvent(user));
+    assertEquals(List.of("event", "created", "abstract"), handled);
+  }
+
 }
@@ -25,6 +25,8 @@ package com.iluwatar.event.queue;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.sound.sampled.AudioInputStream;
 import javax.sound.sampled.AudioSystem;
 import javax.sound.sampled.LineUnavailableException;
@@ -34,21 +36,23 @@ import lombok.extern.slf4j.Slf4j;
 /**
  * This class implements the Event Queue pattern.
  *
+ * <p>Any number of threads may request sounds; the requests wait in a lock-free queue for the
+ * single update thread, which takes them in batches and sleeps while there is nothing to play. A
+ * stream already waiting to be played is not queued again, only its volume is raised.
+ *
  * @author mkuprivecz
  */
 @Slf4j
 public class Audio {
   private static final Audio INSTANCE = new Audio();
 
-  private static final int MAX_PENDING = 16;
-
-  private int headIndex;
-
-  private int tailIndex;
+  private static final int MAX_BATCH = 16;
 
   private volatile Thread updateThread = null;
 
-  private final PlayMessage[] pendingAudio = new PlayMessage[MAX_PENDING];
+  private final MpscQueue<PlayMessage> pendingQueue = new MpscQueue<>();
+
+  private final Map<AudioInputStream, PlayMessage> pendingByStream = new ConcurrentHashMap<>();
 
   // Visible only for testing purposes
   Audio() {
@@ -65,8 +69,8 @@ public class Audio {
   public synchronized void stopService() throws InterruptedException {
     if (updateThread != null) {
       updateThread.interrupt();
+      updateThread.join();
     }
-    updateThread.join();
     updateThread = null;
   }
 
@@ -80,28 +84,30 @@ public class Audio {
   }
 
   /**
-   * Starts the thread for the Update Method pattern if it was not started previously. Also when the
-   * thread is is ready initializes the indexes of the queue
+   * Starts the thread for the Update Method pattern if it was not started previously.
    */
   public void init() {
-    if (updateThread == null) {
-      updateThread = new Thread(() -> {
-        while (!Thread.currentThread().isInterrupted()) {
-          update();
-        }
-      });
+    var thread = updateThread;
+    if (thread == null || !thread.isAlive()) {
+      startThread();
     }
-    startThread();
   }
 
   /**
    * This is a synchronized thread starter.
    */
   private synchronized void startThread() {
+    if (updateThread == null) {
+      updateThread = new Thread(() -> {
+        while (!Thread.currentThread().isInterrupted()) {
+          if (update() == 0) {
+            pendingQueue.awaitEvents();
+          }
+        }
+      });
+    }
     if (!updateThread.isAlive()) {
       updateThread.start();
-      headIndex = 0;
-      tailIndex = 0;
     }
   }
 
@@ -113,34 +119,36 @@ public class Audio {
    */
   public void playSound(AudioInputStream stream, float volume) {
     init();
-    // Walk the pending requests.
-    for (var i = headIndex; i != tailIndex; i = (i + 1) % MAX_PENDING) {
-      var playMessage = getPendingAudio()[i];
-      if (playMessage.getStream() == stream) {
-        // Use the larger of the two volumes.
-        playMessage.setVolume(Math.max(volume, playMessage.getVolume()));
-
-        // Don't need to enqueue.
-        return;
+    var playMessage = new PlayMessage(stream, volume);
+    var pending = pendingByStream.compute(stream, (s, waiting) -> {
+      if (waiting == null) {
+        return playMessage;
       }
+      // Use the larger of the two volumes.
+      waiting.setVolume(Math.max(volume, waiting.getVolume()));
+      return waiting;
+    });
+    if (pending == playMessage) {
+      pendingQueue.offer(playMessage);
     }
-    getPendingAudio()[tailIndex] = new PlayMessage(stream, volume);
-    tailIndex = (tailIndex + 1) % MAX_PENDING;
   }
 
   /**
-   * This method uses the Update Method pattern. It takes the audio from the queue and plays it
+   * This method uses the Update Method pattern. It takes a batch of audio from the queue and plays
+   * it.
+   *
+   * @return the number of audio taken from the queue
    */
-  private void update() {
-    // If there are no pending requests, do nothing.
-    if (headIndex == tailIndex) {
-      return;
-    }
+  private int update() {
+    return pendingQueue.drain(this::play, MAX_BATCH);
+  }
+
+  private void play(PlayMessage playMessage) {
+    // Later requests for the stream are queued again.
+    pendingByStream.remove(playMessage.getStream(), playMessage);
     try {
-      var audioStream = getPendingAudio()[headIndex].getStream();
-      headIndex++;
       var clip = AudioSystem.getClip();
-      clip.open(audioStream);
+      clip.open(playMessage.getStream());
       clip.start();
     } catch (LineUnavailableException e) {
       LOGGER.trace("Error occoured while loading the audio: The line is unavailable", e);
@@ -165,12 +173,12 @@ public class Audio {
   }
 
   /**
-   * Returns with the message array of the queue.
+   * Returns with the messages waiting in the queue.
    *
    * @return PlayMessage[]
    */
   public PlayMessage[] getPendingAudio() {
-    return pendingAudio;
+    return pendingQueue.snapshot().toArray(new PlayMessage[0]);
   }
 
 }
@@ -0,0 +1,199 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.event.queue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Unbounded lock-free queue for many producers and a single consumer.
+ *
+ * <p>Producers claim a sequence number with one atomic increment and write the event into the slot
+ * of that number. Slots live in fixed-size segments linked one after the other, and a segment is
+ * added by whichever producer first needs it, so the queue grows as far as needed instead of
+ * wrapping around a fixed buffer. The consumer takes the events in sequence order, in batches, and
+ * parks while the queue is empty; a producer unparks it only when it is parked.
+ *
+ * @param <E> type of the events
+ */
+final class MpscQueue<E> {
+
+  private static final int SEGMENT_SIZE = 32;
+
+  private final AtomicLong tail = new AtomicLong();
+  private final AtomicReference<Segment<E>> producerSegment;
+  private volatile long head;
+  private volatile Segment<E> headSegment;
+  private final AtomicReference<Thread> parkedConsumer = new AtomicReference<>();
+
+  MpscQueue() {
+    headSegment = new Segment<>(0);
+    producerSegment = new AtomicReference<>(headSegment);
+  }
+
+  /**
+   * Adds an event. Never blocks and may be called from any thread.
+   *
+   * @param event event to add
+   */
+  void offer(E event) {
+    if (event == null) {
+      throw new NullPointerException("event");
+    }
+    // A segment read before claiming the sequence never lies beyond it.
+    var segment = producerSegment.get();
+    var sequence = tail.getAndIncrement();
+    while (sequence >= segment.base + SEGMENT_SIZE) {
+      segment = segment.nextOrAppend();
+    }
+    segment.slots.set((int) (sequence - segment.base), event);
+    advanceProducerSegment(segment);
+    // Only the first producer to find the consumer parked wakes it.
+    var consumer = parkedConsumer.get();
+    if (consumer != null && parkedConsumer.compareAndSet(consumer, null)) {
+      LockSupport.unpark(consumer);
+    }
+  }
+
+  /**
+   * Passes at most {@code limit} events, oldest first, to the sink. Only the consumer thread may
+   * call this.
+   *
+   * @param sink  receives the events
+   * @param limit most events to take
+   * @return the number of events taken
+   */
+  int drain(Consumer<? super E> sink, int limit) {
+    var taken = 0;
+    var sequence = head;
+    var segment = headSegment;
+    while (taken < limit) {
+      var index = (int) (sequence - segment.base);
+      if (index == SEGMENT_SIZE) {
+        var next = segment.next.get();
+        if (next == null) {
+          break;
+        }
+        segment = next;
+        headSegment = next;
+        index = 0;
+      }
+      var event = segment.slots.get(index);
+      if (event == null) {
+        // Empty, or the producer of this slot has not written it yet.
+        break;
+      }
+      segment.slots.lazySet(index, null);
+      head = ++sequence;
+      taken++;
+      sink.accept(event);
+    }
+    return taken;
+  }
+
+  /**
+   * Parks the consumer thread until an event is offered or the thread is interrupted. May return
+   * early, so callers check the queue again.
+   */
+  void awaitEvents() {
+    parkedConsumer.set(Thread.currentThread());
+    if (isEmpty()) {
+      LockSupport.park(this);
+    } else {
+      // A producer has claimed a slot but not written it yet.
+      Thread.yield();
+    }
+    parkedConsumer.set(null);
+  }
+
+  boolean isEmpty() {
+    return tail.get() == head;
+  }
+
+  int size() {
+    return (int) Math.max(0, tail.get() - head);
+  }
+
+  /**
+   * Returns the events waiting to be taken, oldest first. The result is a snapshot which may miss
+   * events being offered concurrently.
+   *
+   * @return waiting events
+   */
+  List<E> snapshot() {
+    var events = new ArrayList<E>();
+    var sequence = head;
+    var segment = headSegment;
+    var end = tail.get();
+    while (segment != null && sequence < end) {
+      var index = (int) (sequence - segment.base);
+      if (index >= SEGMENT_SIZE) {
+        segment = segment.next.get();
+        continue;
+      }
+      if (index >= 0) {
+        var event = segment.slots.get(index);
+        if (event != null) {
+          events.add(event);
+        }
+      }
+      sequence++;
+    }
+    return events;
+  }
+
+  private void advanceProducerSegment(Segment<E> segment) {
+    var current = producerSegment.get();
+    while (current.base < segment.base && !producerSegment.compareAndSet(current, segment)) {
+      current = producerSegment.get();
+    }
+  }
+
+  /**
+   * Slots of the events with sequence numbers from {@code base} on.
+   */
+  private static final class Segment<E> {
+    private final long base;
+    private final AtomicReferenceArray<E> slots = new AtomicReferenceArray<>(SEGMENT_SIZE);
+    private final AtomicReference<Segment<E>> next = new AtomicReference<>();
+
+    private Segment(long base) {
+      this.base = base;
+    }
+
+    private Segment<E> nextOrAppend() {
+      var current = next.get();
+      if (current != null) {
+        return current;
+      }
+      var appended = new Segment<E>(base + SEGMENT_SIZE);
+      return next.compareAndSet(null, appended) ? appended : next.get();
+    }
+  }
+}
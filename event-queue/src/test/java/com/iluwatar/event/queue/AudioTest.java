@@ -23,6 +23,7 @@
 
 package com.iluwatar.event.queue;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -73,14 +74,18 @@ class AudioTest {
    */
   @Test
   void testQueue() throws UnsupportedAudioFileException, IOException, InterruptedException {
-    audio.playSound(audio.getAudioStream("./etc/Bass-Drum-1.aif"), -10.0f);
-    audio.playSound(audio.getAudioStream("./etc/Bass-Drum-1.aif"), -10.0f);
-    audio.playSound(audio.getAudioStream("./etc/Bass-Drum-1.aif"), -10.0f);
-    assertTrue(audio.getPendingAudio().length > 0);
+    var stream = audio.getAudioStream("./etc/Bass-Drum-1.aif");
+    audio.playSound(stream, -10.0f);
+    audio.playSound(stream, -10.0f);
+    audio.playSound(stream, -10.0f);
+    // requests for a stream already waiting are merged into the waiting one
+    assertTrue(audio.getPendingAudio().length <= 1);
     // test that service is started
     assertTrue(audio.isServiceRunning());
     // adding a small pause to be sure that the sound is ended
     Thread.sleep(10000);
+    // test that the queue has been drained
+    assertEquals(0, audio.getPendingAudio().length);
 
     audio.stopService();
     // test that service is finished
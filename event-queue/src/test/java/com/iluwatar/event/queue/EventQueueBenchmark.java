@@ -0,0 +1,138 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.event.queue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Has 1 to 8 producer threads offer events as fast as they can while a single consumer takes them,
+ * and reports the throughput and the latency of single offers for {@link MpscQueue} and, as the
+ * lock-based baseline, {@link LinkedBlockingQueue}.
+ *
+ * <p>Run the main method; it is not part of the test suite.
+ */
+@Slf4j
+public class EventQueueBenchmark {
+
+  private static final int EVENTS_PER_PRODUCER = 500_000;
+  private static final int SAMPLE_EVERY = 8;
+  private static final int BATCH = 16;
+
+  /**
+   * Program entry point.
+   *
+   * @param args command line args
+   * @throws InterruptedException if interrupted while waiting for the threads
+   */
+  public static void main(String[] args) throws InterruptedException {
+    for (var producers : new int[]{1, 2, 4, 8}) {
+      var mpsc = new MpscQueue<Integer>();
+      run("mpsc", producers, mpsc::offer, done -> {
+        while (!done.get() || !mpsc.isEmpty()) {
+          if (mpsc.drain(e -> { }, BATCH) == 0) {
+            mpsc.awaitEvents();
+          }
+        }
+      });
+      var blocking = new LinkedBlockingQueue<Integer>();
+      run("blocking", producers, blocking::offer, done -> {
+        var batch = new ArrayList<Integer>(BATCH);
+        try {
+          while (!done.get() || !blocking.isEmpty()) {
+            var first = blocking.poll(1, TimeUnit.MILLISECONDS);
+            if (first != null) {
+              blocking.drainTo(batch, BATCH - 1);
+              batch.clear();
+            }
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      });
+    }
+  }
+
+  private static void run(String name, int producers, Producer producer, Drainer drainer)
+      throws InterruptedException {
+    var done = new AtomicBoolean();
+    var consumer = new Thread(() -> drainer.drain(done));
+    consumer.start();
+    var start = new CountDownLatch(1);
+    var samples = new long[producers][EVENTS_PER_PRODUCER / SAMPLE_EVERY];
+    var threads = new ArrayList<Thread>();
+    for (var p = 0; p < producers; p++) {
+      var latencies = samples[p];
+      var thread = new Thread(() -> {
+        try {
+          start.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+        for (var i = 0; i < EVENTS_PER_PRODUCER; i++) {
+          if (i % SAMPLE_EVERY == 0) {
+            var begin = System.nanoTime();
+            producer.offer(i);
+            latencies[i / SAMPLE_EVERY] = System.nanoTime() - begin;
+          } else {
+            producer.offer(i);
+          }
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    var begin = System.nanoTime();
+    start.countDown();
+    for (var thread : threads) {
+      thread.join();
+    }
+    done.set(true);
+    consumer.interrupt();
+    consumer.join();
+    var millis = Math.max(1, (System.nanoTime() - begin) / 1_000_000);
+    var all = Arrays.stream(samples).flatMapToLong(Arrays::stream).sorted().toArray();
+    LOGGER.info("{} with {} producers: {} events/ms, offer p50 {} ns, p99 {} ns, p99.9 {} ns",
+        name, producers, (long) producers * EVENTS_PER_PRODUCER / millis,
+        percentile(all, 0.5), percentile(all, 0.99), percentile(all, 0.999));
+  }
+
+  private static long percentile(long[] sorted, double fraction) {
+    return sorted[(int) Math.min(sorted.length - 1, Math.round(fraction * sorted.length))];
+  }
+
+  private interface Producer {
+    void offer(Integer event);
+  }
+
+  private interface Drainer {
+    void drain(AtomicBoolean done);
+  }
+}
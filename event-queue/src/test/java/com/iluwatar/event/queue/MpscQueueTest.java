@@ -0,0 +1,89 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.event.queue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testing the queue between the callers of the Audio service and its update thread
+ */
+class MpscQueueTest {
+
+  @Test
+  void testGrowsAndKeepsOrder() {
+    var queue = new MpscQueue<Integer>();
+    for (var i = 0; i < 100; i++) {
+      queue.offer(i);
+    }
+    assertEquals(100, queue.size());
+    assertEquals(100, queue.snapshot().size());
+
+    var taken = new ArrayList<Integer>();
+    assertEquals(40, queue.drain(taken::add, 40));
+    assertEquals(60, queue.drain(taken::add, 100));
+    assertEquals(0, queue.drain(taken::add, 100));
+    for (var i = 0; i < 100; i++) {
+      assertEquals(i, taken.get(i).intValue());
+    }
+    assertTrue(queue.isEmpty());
+  }
+
+  @Test
+  void testConcurrentProducers() throws InterruptedException {
+    var queue = new MpscQueue<int[]>();
+    var producers = 4;
+    var events = 20_000;
+    var threads = new ArrayList<Thread>();
+    for (var p = 0; p < producers; p++) {
+      var producer = p;
+      var thread = new Thread(() -> {
+        for (var i = 0; i < events; i++) {
+          queue.offer(new int[]{producer, i});
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+
+    var next = new int[producers];
+    List<int[]> taken = new ArrayList<>();
+    while (taken.size() < producers * events) {
+      if (queue.drain(taken::add, 16) == 0) {
+        queue.awaitEvents();
+      }
+    }
+    for (var thread : threads) {
+      thread.join();
+    }
+    for (var event : taken) {
+      assertEquals(next[event[0]]++, event[1]);
+    }
+    assertTrue(queue.isEmpty());
+  }
+}
@@ -38,6 +38,16 @@ public class App {
    */
   private static final int GAME_LOOP_DURATION_TIME = 2000;
 
+  /**
+   * Number of bullets in the simulation game loop.
+   */
+  private static final int SIMULATED_BULLETS = 10_000;
+
+  /**
+   * Number of frames of the headless benchmark.
+   */
+  private static final int BENCHMARK_FRAMES = 1000;
+
   /**
    * Program entry point.
    * @param args runtime arguments
@@ -66,6 +76,18 @@ public class App {
       fixedStepGameLoop.stop();
       LOGGER.info("Stop variable-step game loop.");
 
+      LOGGER.info("Start simulation game loop:");
+      var simulationGameLoop = new SimulationGameLoop(SIMULATED_BULLETS, 60);
+      simulationGameLoop.run();
+      Thread.sleep(GAME_LOOP_DURATION_TIME);
+      simulationGameLoop.stop();
+      LOGGER.info("Stop simulation game loop.");
+      LOGGER.info("Update times: " + simulationGameLoop.getUpdateTimes());
+      LOGGER.info("Render times: " + simulationGameLoop.getRenderTimes());
+
+      LOGGER.info("Headless simulation benchmark: "
+          + new SimulationGameLoop(SIMULATED_BULLETS, 60).benchmark(BENCHMARK_FRAMES));
+
     } catch (InterruptedException e) {
       LOGGER.error(e.getMessage());
     }
@@ -0,0 +1,135 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.gameloop;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A world of bullets stored as parallel arrays, so that thousands of them can be updated in one
+ * tick. The update is split into ranges which are processed in parallel on a {@link
+ * ForkJoinPool}. The position before the last update is kept to interpolate between ticks when
+ * rendering.
+ */
+public class EntityWorld {
+
+  /**
+   * Ranges smaller than this are updated on a single thread.
+   */
+  private static final int SEQUENTIAL_THRESHOLD = 1024;
+
+  private final float[] positions;
+  private final float[] previousPositions;
+  private final float[] velocities;
+
+  /**
+   * Create a world of bullets. The bullets start at position 0 and move with speeds between 0.5
+   * and 2.0 per second.
+   *
+   * @param size number of bullets
+   */
+  public EntityWorld(int size) {
+    positions = new float[size];
+    previousPositions = new float[size];
+    velocities = new float[size];
+    for (var i = 0; i < size; i++) {
+      velocities[i] = 0.5f * (1 + i % 4);
+    }
+  }
+
+  public int size() {
+    return positions.length;
+  }
+
+  /**
+   * Advance every bullet by the time step.
+   *
+   * @param seconds length of the time step
+   * @param pool    pool to run the update on
+   */
+  public void update(float seconds, ForkJoinPool pool) {
+    pool.invoke(new UpdateAction(0, positions.length, seconds));
+  }
+
+  /**
+   * Position of a bullet after the last update.
+   */
+  public float getPosition(int entity) {
+    return positions[entity];
+  }
+
+  /**
+   * Position of a bullet between the previous and the last update.
+   *
+   * @param entity bullet index
+   * @param alpha  0 for the previous state, 1 for the last state
+   */
+  public float getInterpolatedPosition(int entity, float alpha) {
+    return previousPositions[entity] + (positions[entity] - previousPositions[entity]) * alpha;
+  }
+
+  /**
+   * Interpolate the positions of all bullets into a render buffer.
+   */
+  public void interpolate(float alpha, float[] buffer) {
+    for (var i = 0; i < positions.length; i++) {
+      buffer[i] = getInterpolatedPosition(i, alpha);
+    }
+  }
+
+  private void updateRange(int from, int to, float seconds) {
+    for (var i = from; i < to; i++) {
+      previousPositions[i] = positions[i];
+      positions[i] += velocities[i] * seconds;
+    }
+  }
+
+  /**
+   * Updates a range of bullets, splitting it in halves until it is small enough.
+   */
+  private class UpdateAction extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int from;
+    private final int to;
+    private final float seconds;
+
+    UpdateAction(int from, int to, float seconds) {
+      this.from = from;
+      this.to = to;
+      this.seconds = seconds;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= SEQUENTIAL_THRESHOLD) {
+        updateRange(from, to, seconds);
+        return;
+      }
+      var middle = (from + to) >>> 1;
+      invokeAll(new UpdateAction(from, middle, seconds), new UpdateAction(middle, to, seconds));
+    }
+  }
+}
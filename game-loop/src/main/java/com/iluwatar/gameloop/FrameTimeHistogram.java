@@ -0,0 +1,112 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.gameloop;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Histogram of frame times. Buckets are powers of two in microseconds, which is precise enough to
+ * tell a 16 ms frame from a 33 ms frame while keeping the histogram tiny. Besides the buckets it
+ * keeps the exact mean and standard deviation, which is reported as jitter.
+ */
+public class FrameTimeHistogram {
+
+  private static final int BUCKETS = 32;
+
+  private final long[] buckets = new long[BUCKETS];
+  private long count;
+  private long minNanos = Long.MAX_VALUE;
+  private long maxNanos;
+  private double sumNanos;
+  private double sumSquaredNanos;
+
+  /**
+   * Record a frame time.
+   *
+   * @param nanos frame time in nanoseconds
+   */
+  public synchronized void record(long nanos) {
+    var micros = Math.max(1, nanos / 1000);
+    var bucket = Math.min(BUCKETS - 1, 63 - Long.numberOfLeadingZeros(micros));
+    buckets[bucket]++;
+    count++;
+    minNanos = Math.min(minNanos, nanos);
+    maxNanos = Math.max(maxNanos, nanos);
+    sumNanos += nanos;
+    sumSquaredNanos += (double) nanos * nanos;
+  }
+
+  public synchronized long getCount() {
+    return count;
+  }
+
+  public synchronized long getMin(TimeUnit unit) {
+    return count == 0 ? 0 : unit.convert(minNanos, TimeUnit.NANOSECONDS);
+  }
+
+  public synchronized long getMax(TimeUnit unit) {
+    return unit.convert(maxNanos, TimeUnit.NANOSECONDS);
+  }
+
+  public synchronized double getMeanMicros() {
+    return count == 0 ? 0 : sumNanos / count / 1000;
+  }
+
+  /**
+   * Standard deviation of the frame times in microseconds.
+   */
+  public synchronized double getJitterMicros() {
+    if (count == 0) {
+      return 0;
+    }
+    var mean = sumNanos / count;
+    var variance = Math.max(0, sumSquaredNanos / count - mean * mean);
+    return Math.sqrt(variance) / 1000;
+  }
+
+  /**
+   * Upper bound of the bucket that contains the given percentile, but no more than the maximum.
+   *
+   * @param percentile between 0 and 100
+   * @return frame time in microseconds
+   */
+  public synchronized long getPercentileMicros(double percentile) {
+    var threshold = (long) Math.ceil(count * percentile / 100);
+    var seen = 0L;
+    for (var i = 0; i < BUCKETS; i++) {
+      seen += buckets[i];
+      if (seen >= threshold && seen > 0) {
+        return Math.min((2L << i) - 1, getMax(TimeUnit.MICROSECONDS));
+      }
+    }
+    return 0;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return String.format("frames=%d, mean=%.1fus, p50<=%dus, p99<=%dus, max=%dus, jitter=%.1fus",
+        count, getMeanMicros(), getPercentileMicros(50), getPercentileMicros(99),
+        getMax(TimeUnit.MICROSECONDS), getJitterMicros());
+  }
+}
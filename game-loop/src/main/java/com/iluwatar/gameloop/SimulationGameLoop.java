@@ -0,0 +1,216 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.gameloop;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The simulation game loop is a fixed-step loop for many entities. Time is measured with {@link
+ * System#nanoTime()} and every tick has an absolute deadline, so an oversleeping frame is made up
+ * for by the following ones instead of drifting away from real time. When the loop falls too far
+ * behind it drops the backlog rather than spiralling into ever longer catch-up frames.
+ *
+ * <p>The entities of the {@link EntityWorld} are updated in parallel, and every tick moves the
+ * bullet of the game controller like the other loops do. Rendering happens between ticks, so the
+ * positions are interpolated between the previous and the last tick. Update and render times of
+ * every frame are recorded in histograms.
+ */
+public class SimulationGameLoop extends GameLoop {
+
+  /**
+   * Upper limit of updates in one frame before the backlog is dropped.
+   */
+  private static final int MAX_UPDATES_PER_FRAME = 5;
+
+  private final EntityWorld world;
+  private final ForkJoinPool pool;
+  private final int ticksPerSecond;
+  private final long nanosPerTick;
+  private final float secondsPerTick;
+  private final float[] renderBuffer;
+  private final FrameTimeHistogram updateTimes = new FrameTimeHistogram();
+  private final FrameTimeHistogram renderTimes = new FrameTimeHistogram();
+  private volatile long ticks;
+  private long renderedSecond = -1;
+
+  /**
+   * Create a simulation game loop on the common fork-join pool.
+   *
+   * @param entities       number of bullets in the world
+   * @param ticksPerSecond simulation rate
+   */
+  public SimulationGameLoop(int entities, int ticksPerSecond) {
+    this(entities, ticksPerSecond, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Create a simulation game loop.
+   *
+   * @param entities       number of bullets in the world
+   * @param ticksPerSecond simulation rate
+   * @param pool           pool that runs the entity updates
+   */
+  public SimulationGameLoop(int entities, int ticksPerSecond, ForkJoinPool pool) {
+    this.world = new EntityWorld(entities);
+    this.pool = pool;
+    this.ticksPerSecond = ticksPerSecond;
+    this.nanosPerTick = TimeUnit.SECONDS.toNanos(1) / ticksPerSecond;
+    this.secondsPerTick = 1f / ticksPerSecond;
+    this.renderBuffer = new float[entities];
+  }
+
+  @Override
+  protected void processGameLoop() {
+    var nextTick = System.nanoTime();
+    while (isGameRunning()) {
+      processInput();
+
+      var now = System.nanoTime();
+      var updates = 0;
+      while (now >= nextTick && updates < MAX_UPDATES_PER_FRAME) {
+        update();
+        nextTick += nanosPerTick;
+        updates++;
+      }
+      if (now - nextTick >= nanosPerTick) {
+        logger.warn("Simulation is " + (now - nextTick) / nanosPerTick + " ticks behind,"
+            + " dropping the backlog");
+        nextTick = now + nanosPerTick;
+      }
+
+      var alpha = 1f - (float) (nextTick - now) / nanosPerTick;
+      render(Math.max(0f, Math.min(1f, alpha)));
+
+      var sleep = nextTick - System.nanoTime();
+      if (sleep > 0) {
+        LockSupport.parkNanos(sleep);
+      }
+    }
+  }
+
+  /**
+   * Input is polled without blocking, so unlike the other loops no time lag is simulated.
+   */
+  @Override
+  protected void processInput() {
+  }
+
+  /**
+   * Advance the world by one tick.
+   */
+  protected void update() {
+    var start = System.nanoTime();
+    world.update(secondsPerTick, pool);
+    controller.moveBullet(0.5f * secondsPerTick);
+    updateTimes.record(System.nanoTime() - start);
+    ticks++;
+  }
+
+  /**
+   * Interpolate the entity positions into the render buffer. The position of the controller's
+   * bullet is printed once per simulated second.
+   *
+   * @param alpha how far the render time is between the previous and the last tick
+   */
+  protected void render(float alpha) {
+    var start = System.nanoTime();
+    world.interpolate(alpha, renderBuffer);
+    renderTimes.record(System.nanoTime() - start);
+    var second = ticks / ticksPerSecond;
+    if (second != renderedSecond) {
+      renderedSecond = second;
+      render();
+    }
+  }
+
+  /**
+   * Run the simulation headless: ticks are executed back to back without waiting for real time
+   * and nothing is logged.
+   *
+   * @param frames number of frames to simulate
+   * @return measured throughput and frame times
+   */
+  public BenchmarkResult benchmark(int frames) {
+    var frameTimes = new FrameTimeHistogram();
+    var start = System.nanoTime();
+    for (var i = 0; i < frames; i++) {
+      var frameStart = System.nanoTime();
+      world.update(secondsPerTick, pool);
+      world.interpolate(1f, renderBuffer);
+      frameTimes.record(System.nanoTime() - frameStart);
+    }
+    return new BenchmarkResult(frames, System.nanoTime() - start, frameTimes);
+  }
+
+  public EntityWorld getWorld() {
+    return world;
+  }
+
+  public long getTicks() {
+    return ticks;
+  }
+
+  public FrameTimeHistogram getUpdateTimes() {
+    return updateTimes;
+  }
+
+  public FrameTimeHistogram getRenderTimes() {
+    return renderTimes;
+  }
+
+  /**
+   * Result of a headless benchmark run.
+   */
+  public static class BenchmarkResult {
+
+    private final int frames;
+    private final long elapsedNanos;
+    private final FrameTimeHistogram frameTimes;
+
+    BenchmarkResult(int frames, long elapsedNanos, FrameTimeHistogram frameTimes) {
+      this.frames = frames;
+      this.elapsedNanos = elapsedNanos;
+      this.frameTimes = frameTimes;
+    }
+
+    public double getTicksPerSecond() {
+      return elapsedNanos == 0 ? 0 : frames * 1e9 / elapsedNanos;
+    }
+
+    public double getJitterMicros() {
+      return frameTimes.getJitterMicros();
+    }
+
+    public FrameTimeHistogram getFrameTimes() {
+      return frameTimes;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%.0f ticks/s, %s", getTicksPerSecond(), frameTimes);
+    }
+  }
+}
@@ -0,0 +1,58 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.gameloop;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+/**
+ * EntityWorld unit test class.
+ */
+class EntityWorldTest {
+
+  @Test
+  void testParallelUpdate() {
+    var world = new EntityWorld(5000);
+    world.update(0.5f, ForkJoinPool.commonPool());
+    assertEquals(5000, world.size());
+    assertEquals(0.25f, world.getPosition(0), 0);
+    assertEquals(1.0f, world.getPosition(4999), 0);
+  }
+
+  @Test
+  void testInterpolation() {
+    var world = new EntityWorld(2);
+    world.update(1f, ForkJoinPool.commonPool());
+    world.update(1f, ForkJoinPool.commonPool());
+    assertEquals(0.5f, world.getInterpolatedPosition(0, 0f), 0);
+    assertEquals(0.75f, world.getInterpolatedPosition(0, 0.5f), 0);
+    assertEquals(1.0f, world.getInterpolatedPosition(0, 1f), 0);
+
+    var buffer = new float[2];
+    world.interpolate(0.5f, buffer);
+    assertEquals(1.5f, buffer[1], 0);
+  }
+}
@@ -0,0 +1,61 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.gameloop;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * FrameTimeHistogram unit test class.
+ */
+class FrameTimeHistogramTest {
+
+  @Test
+  void testRecord() {
+    var histogram = new FrameTimeHistogram();
+    for (var i = 0; i < 99; i++) {
+      histogram.record(TimeUnit.MICROSECONDS.toNanos(100));
+    }
+    histogram.record(TimeUnit.MICROSECONDS.toNanos(5000));
+
+    assertEquals(100, histogram.getCount());
+    assertEquals(100, histogram.getMin(TimeUnit.MICROSECONDS));
+    assertEquals(5000, histogram.getMax(TimeUnit.MICROSECONDS));
+    assertEquals(149, histogram.getMeanMicros(), 0.001);
+    assertEquals(127, histogram.getPercentileMicros(50));
+    assertEquals(127, histogram.getPercentileMicros(99));
+    assertEquals(5000, histogram.getPercentileMicros(100));
+  }
+
+  @Test
+  void testJitter() {
+    var histogram = new FrameTimeHistogram();
+    histogram.record(TimeUnit.MICROSECONDS.toNanos(10));
+    histogram.record(TimeUnit.MICROSECONDS.toNanos(30));
+
+    assertEquals(10, histogram.getJitterMicros(), 0.001);
+  }
+}
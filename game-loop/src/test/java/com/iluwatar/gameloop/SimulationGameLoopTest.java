@@ -0,0 +1,63 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.gameloop;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * SimulationGameLoop unit test class.
+ */
+class SimulationGameLoopTest {
+
+  @Test
+  void testUpdate() {
+    var gameLoop = new SimulationGameLoop(10, 50);
+    gameLoop.update();
+    assertEquals(1, gameLoop.getTicks());
+    assertEquals(0.01f, gameLoop.getWorld().getPosition(0), 0);
+    assertEquals(0.01f, gameLoop.controller.getBulletPosition(), 0);
+    assertEquals(1, gameLoop.getUpdateTimes().getCount());
+  }
+
+  @Test
+  void testRun() throws InterruptedException {
+    var gameLoop = new SimulationGameLoop(2000, 100);
+    gameLoop.run();
+    Thread.sleep(500);
+    gameLoop.stop();
+    assertTrue(gameLoop.getTicks() > 10);
+    assertTrue(gameLoop.getRenderTimes().getCount() > 10);
+    assertEquals(gameLoop.getTicks() * 0.005f, gameLoop.controller.getBulletPosition(), 0.03f);
+  }
+
+  @Test
+  void testBenchmark() {
+    var result = new SimulationGameLoop(2000, 60).benchmark(100);
+    assertEquals(100, result.getFrameTimes().getCount());
+    assertTrue(result.getTicksPerSecond() > 0);
+  }
+}
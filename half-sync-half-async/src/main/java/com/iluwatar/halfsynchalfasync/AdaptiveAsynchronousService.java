@@ -0,0 +1,266 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.halfsynchalfasync;
+
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A variant of the {@link AsynchronousService} that posts results back through {@link
+ * CompletableFuture}s and adapts the size of the synchronous layer to the observed latency.
+ *
+ * <p>Tasks wait in the queuing layer until the {@link AimdLimit} allows another task to run. The
+ * synchronous layer is any {@link Executor}, for example one that starts a virtual thread per task
+ * on runtimes that support them. No thread blocks waiting for a result: {@link
+ * AsyncTask#onPostCall(Object)} and {@link AsyncTask#onError(Throwable)} are stages of the
+ * returned future and run in context of the background thread that completed the task.
+ */
+@Slf4j
+public class AdaptiveAsynchronousService {
+
+  private final BlockingQueue<Runnable> workQueue;
+  private final Executor executor;
+  private final ExecutorService ownedExecutor;
+  private final AimdLimit limit;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final ServiceMetrics metrics = new ServiceMetrics();
+  private final Object idle = new Object();
+  private volatile boolean closed;
+
+  /**
+   * Creates a service with a default limit of 10 concurrent tasks that may grow up to 100, backing
+   * off when a task runs longer than a second.
+   */
+  public AdaptiveAsynchronousService(BlockingQueue<Runnable> workQueue) {
+    this(workQueue, Duration.ofSeconds(1));
+  }
+
+  /**
+   * Creates a service with a default limit of 10 concurrent tasks that may grow up to 100.
+   *
+   * @param latencyThreshold execution time above which a task counts as a sign of saturation;
+   *                         it should be well above the usual execution time of the tasks
+   */
+  public AdaptiveAsynchronousService(BlockingQueue<Runnable> workQueue,
+      Duration latencyThreshold) {
+    this(workQueue, new AimdLimit(10, 1, 100, latencyThreshold.toNanos(), TimeUnit.NANOSECONDS,
+        0.9));
+  }
+
+  /**
+   * Creates a service that runs the tasks on its own pool of at most {@link
+   * AimdLimit#getMaxLimit()} threads. Idle threads are retired.
+   */
+  public AdaptiveAsynchronousService(BlockingQueue<Runnable> workQueue, AimdLimit limit) {
+    this(workQueue, limit, createPool(limit.getMaxLimit()), true);
+  }
+
+  /**
+   * Creates a service that runs the tasks on the given executor.
+   */
+  public AdaptiveAsynchronousService(BlockingQueue<Runnable> workQueue, AimdLimit limit,
+      Executor executor) {
+    this(workQueue, limit, executor, false);
+  }
+
+  private AdaptiveAsynchronousService(BlockingQueue<Runnable> workQueue, AimdLimit limit,
+      Executor executor, boolean ownsExecutor) {
+    this.workQueue = workQueue;
+    this.limit = limit;
+    this.executor = executor;
+    this.ownedExecutor = ownsExecutor ? (ExecutorService) executor : null;
+  }
+
+  private static ExecutorService createPool(int size) {
+    var pool = new ThreadPoolExecutor(size, size, 10, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>());
+    pool.allowCoreThreadTimeOut(true);
+    return pool;
+  }
+
+  /**
+   * A non-blocking method which queues the task and returns immediately.
+   *
+   * @return future completed after the result has been posted back to the task
+   */
+  public <T> CompletableFuture<T> execute(final AsyncTask<T> task) {
+    var job = new Job<>(task);
+    var stage = job.future.whenComplete((result, error) -> {
+      if (error == null) {
+        task.onPostCall(result);
+      } else {
+        task.onError(error);
+      }
+    });
+    if (closed) {
+      job.fail(new RejectedExecutionException("Service is closed"));
+      return stage;
+    }
+    try {
+      // some small tasks such as validation can be performed here.
+      task.onPreCall();
+    } catch (Exception e) {
+      job.fail(e);
+      return stage;
+    }
+    if (!workQueue.offer(job)) {
+      job.fail(new RejectedExecutionException("Work queue is full"));
+      return stage;
+    }
+    dispatch();
+    return stage;
+  }
+
+  /**
+   * Hands queued tasks to the synchronous layer while the limit allows it. Called after every
+   * enqueue and every completion, so a task is never left in the queue with a free slot.
+   */
+  private void dispatch() {
+    while (true) {
+      var current = inFlight.get();
+      if (current >= limit.getLimit() || workQueue.isEmpty()) {
+        if (current == 0) {
+          synchronized (idle) {
+            idle.notifyAll();
+          }
+        }
+        return;
+      }
+      if (!inFlight.compareAndSet(current, current + 1)) {
+        continue;
+      }
+      var job = workQueue.poll();
+      if (job == null) {
+        inFlight.decrementAndGet();
+        continue;
+      }
+      try {
+        executor.execute(job);
+      } catch (RejectedExecutionException e) {
+        inFlight.decrementAndGet();
+        ((Job<?>) job).fail(e);
+      }
+    }
+  }
+
+  public int getQueueDepth() {
+    return workQueue.size();
+  }
+
+  public int getInFlight() {
+    return inFlight.get();
+  }
+
+  public int getLimit() {
+    return limit.getLimit();
+  }
+
+  public ServiceMetrics getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * Stops accepting tasks and waits for the queued and running tasks to be completed.
+   */
+  public void close() {
+    closed = true;
+    var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    synchronized (idle) {
+      while (inFlight.get() > 0 || !workQueue.isEmpty()) {
+        var remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+          break;
+        }
+        try {
+          TimeUnit.NANOSECONDS.timedWait(idle, remaining);
+        } catch (InterruptedException ie) {
+          LOGGER.error("Error waiting for tasks to complete!");
+          Thread.currentThread().interrupt();
+          break;
+        }
+      }
+    }
+    if (ownedExecutor != null) {
+      ownedExecutor.shutdown();
+      try {
+        ownedExecutor.awaitTermination(10, TimeUnit.SECONDS);
+      } catch (InterruptedException ie) {
+        LOGGER.error("Error waiting for executor service shutdown!");
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * A queued task together with the future its result is posted to.
+   */
+  private final class Job<T> implements Runnable {
+    private final AsyncTask<T> task;
+    private final CompletableFuture<T> future = new CompletableFuture<>();
+    private final long enqueuedAt = System.nanoTime();
+
+    private Job(AsyncTask<T> task) {
+      this.task = task;
+    }
+
+    @Override
+    public void run() {
+      var startedAt = System.nanoTime();
+      try {
+        T result = null;
+        Throwable error = null;
+        try {
+          result = task.call();
+        } catch (Throwable e) {
+          // errors too, otherwise nothing would ever complete the future
+          error = e;
+        }
+        var executionNanos = System.nanoTime() - startedAt;
+        metrics.record(startedAt - enqueuedAt, executionNanos);
+        limit.onSample(executionNanos, workQueue.size());
+        if (error == null) {
+          future.complete(result);
+        } else {
+          future.completeExceptionally(error);
+        }
+      } finally {
+        inFlight.decrementAndGet();
+        dispatch();
+      }
+    }
+
+    private void fail(Throwable error) {
+      future.completeExceptionally(error);
+    }
+  }
+}
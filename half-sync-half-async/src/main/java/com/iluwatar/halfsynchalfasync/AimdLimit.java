@@ -0,0 +1,92 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.halfsynchalfasync;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Additive increase/multiplicative decrease (AIMD) concurrency limit. It decides how many tasks the
+ * synchronous layer may execute at the same time.
+ *
+ * <p>Every completed task is a sample. If the task took longer than the latency threshold, the
+ * workers are considered saturated and the limit is reduced by the backoff ratio. Otherwise the
+ * limit grows by one while tasks are waiting in the queue, i.e. while there is observed queue
+ * latency that more concurrency could remove.
+ */
+public class AimdLimit {
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final long latencyThresholdNanos;
+  private final double backoffRatio;
+  private volatile int limit;
+
+  /**
+   * Creates a limit.
+   *
+   * @param initialLimit     limit to start with
+   * @param minLimit         lower bound of the limit
+   * @param maxLimit         upper bound of the limit
+   * @param latencyThreshold execution time above which the limit is reduced
+   * @param unit             unit of the latency threshold
+   * @param backoffRatio     factor applied to the limit when it is reduced
+   */
+  public AimdLimit(int initialLimit, int minLimit, int maxLimit, long latencyThreshold,
+      TimeUnit unit, double backoffRatio) {
+    if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit
+        || initialLimit > maxLimit) {
+      throw new IllegalArgumentException("Invalid limit bounds");
+    }
+    if (backoffRatio <= 0 || backoffRatio >= 1) {
+      throw new IllegalArgumentException("Backoff ratio must be between 0 and 1");
+    }
+    this.limit = initialLimit;
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.latencyThresholdNanos = unit.toNanos(latencyThreshold);
+    this.backoffRatio = backoffRatio;
+  }
+
+  /**
+   * Records the execution time of a completed task.
+   *
+   * @param executionNanos time the task spent executing
+   * @param queued         number of tasks waiting in the queue
+   */
+  public synchronized void onSample(long executionNanos, int queued) {
+    if (executionNanos > latencyThresholdNanos) {
+      limit = Math.max(minLimit, (int) (limit * backoffRatio));
+    } else if (queued > 0) {
+      limit = Math.min(maxLimit, limit + 1);
+    }
+  }
+
+  public int getLimit() {
+    return limit;
+  }
+
+  public int getMaxLimit() {
+    return maxLimit;
+  }
+}
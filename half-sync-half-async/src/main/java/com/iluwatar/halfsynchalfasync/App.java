@@ -23,6 +23,8 @@
 
 package com.iluwatar.halfsynchalfasync;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.LinkedBlockingQueue;
 import lombok.extern.slf4j.Slf4j;
 
@@ -87,6 +89,22 @@ public class App {
     service.execute(new ArithmeticSumTask(1));
 
     service.close();
+
+    /*
+     * The adaptive variant posts the results through completable futures and lets the number of
+     * worker threads follow the observed latency. The tasks take up to two seconds, so only longer
+     * executions are taken as a sign of saturation.
+     */
+    var adaptiveService = new AdaptiveAsynchronousService(new LinkedBlockingQueue<>(),
+        Duration.ofSeconds(5));
+    CompletableFuture.allOf(
+        adaptiveService.execute(new ArithmeticSumTask(1000)),
+        adaptiveService.execute(new ArithmeticSumTask(500)),
+        adaptiveService.execute(new ArithmeticSumTask(2000)),
+        adaptiveService.execute(new ArithmeticSumTask(1))
+    ).thenRun(() -> LOGGER.info("All sums computed: " + adaptiveService.getMetrics()));
+
+    adaptiveService.close();
   }
 
   /**
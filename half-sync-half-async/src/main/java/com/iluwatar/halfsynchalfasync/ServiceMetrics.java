@@ -0,0 +1,84 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.halfsynchalfasync;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Queue and latency metrics of the {@link AdaptiveAsynchronousService}. Queue latency is the time a
+ * task waits in the queue before a worker picks it up, execution latency is the time the worker
+ * spends on it.
+ */
+public class ServiceMetrics {
+
+  private final LongAdder completed = new LongAdder();
+  private final LongAdder totalQueueNanos = new LongAdder();
+  private final LongAdder totalExecutionNanos = new LongAdder();
+  private final AtomicLong maxQueueNanos = new AtomicLong();
+  private final AtomicLong maxExecutionNanos = new AtomicLong();
+
+  void record(long queueNanos, long executionNanos) {
+    completed.increment();
+    totalQueueNanos.add(queueNanos);
+    totalExecutionNanos.add(executionNanos);
+    maxQueueNanos.accumulateAndGet(queueNanos, Math::max);
+    maxExecutionNanos.accumulateAndGet(executionNanos, Math::max);
+  }
+
+  public long getCompleted() {
+    return completed.sum();
+  }
+
+  public long getAverageQueueLatency(TimeUnit unit) {
+    return average(totalQueueNanos, unit);
+  }
+
+  public long getMaxQueueLatency(TimeUnit unit) {
+    return unit.convert(maxQueueNanos.get(), TimeUnit.NANOSECONDS);
+  }
+
+  public long getAverageExecutionLatency(TimeUnit unit) {
+    return average(totalExecutionNanos, unit);
+  }
+
+  public long getMaxExecutionLatency(TimeUnit unit) {
+    return unit.convert(maxExecutionNanos.get(), TimeUnit.NANOSECONDS);
+  }
+
+  private long average(LongAdder total, TimeUnit unit) {
+    var count = completed.sum();
+    return count == 0 ? 0 : unit.convert(total.sum() / count, TimeUnit.NANOSECONDS);
+  }
+
+  @Override
+  public String toString() {
+    return "completed=" + getCompleted()
+        + ", queueLatency(avg/max)=" + getAverageQueueLatency(TimeUnit.MILLISECONDS)
+        + "/" + getMaxQueueLatency(TimeUnit.MILLISECONDS) + "ms"
+        + ", executionLatency(avg/max)=" + getAverageExecutionLatency(TimeUnit.MILLISECONDS)
+        + "/" + getMaxExecutionLatency(TimeUnit.MILLISECONDS) + "ms";
+  }
+}
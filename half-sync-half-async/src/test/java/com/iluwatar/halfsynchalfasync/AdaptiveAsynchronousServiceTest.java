@@ -0,0 +1,194 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.halfsynchalfasync;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link AdaptiveAsynchronousService}
+ */
+class AdaptiveAsynchronousServiceTest {
+  private AdaptiveAsynchronousService service;
+  private AsyncTask<Object> task;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    service = new AdaptiveAsynchronousService(new LinkedBlockingQueue<>());
+    task = mock(AsyncTask.class);
+  }
+
+  @AfterEach
+  void tearDown() {
+    service.close();
+  }
+
+  @Test
+  void testPerfectExecution() throws Exception {
+    final var result = new Object();
+    when(task.call()).thenReturn(result);
+
+    assertSame(result, service.execute(task).get(2, TimeUnit.SECONDS));
+
+    final var inOrder = inOrder(task);
+    inOrder.verify(task, times(1)).onPreCall();
+    inOrder.verify(task, times(1)).call();
+    inOrder.verify(task, times(1)).onPostCall(eq(result));
+
+    verifyNoMoreInteractions(task);
+  }
+
+  @Test
+  void testCallException() throws Exception {
+    final var exception = new IOException();
+    when(task.call()).thenThrow(exception);
+
+    var future = service.execute(task);
+    var thrown = assertThrows(ExecutionException.class, () -> future.get(2, TimeUnit.SECONDS));
+    assertSame(exception, thrown.getCause());
+
+    final var inOrder = inOrder(task);
+    inOrder.verify(task, times(1)).onPreCall();
+    inOrder.verify(task, times(1)).call();
+    inOrder.verify(task, times(1)).onError(exception);
+
+    verifyNoMoreInteractions(task);
+  }
+
+  @Test
+  void testPreCallException() {
+    final var exception = new IllegalStateException();
+    doThrow(exception).when(task).onPreCall();
+
+    var future = service.execute(task);
+    assertTrue(future.isCompletedExceptionally());
+
+    final var inOrder = inOrder(task);
+    inOrder.verify(task, times(1)).onPreCall();
+    inOrder.verify(task, times(1)).onError(exception);
+
+    verifyNoMoreInteractions(task);
+  }
+
+  @Test
+  void testLimitGrowsWithBacklog() {
+    var limit = new AimdLimit(1, 1, 4, 1, TimeUnit.SECONDS, 0.5);
+    var adaptive = new AdaptiveAsynchronousService(new LinkedBlockingQueue<>(), limit);
+    var futures = new ArrayList<CompletableFuture<Long>>();
+    for (var i = 0; i < 20; i++) {
+      futures.add(adaptive.execute(new App.ArithmeticSumTask(10)));
+    }
+    CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+    adaptive.close();
+
+    assertEquals(4, adaptive.getLimit());
+    assertEquals(20, adaptive.getMetrics().getCompleted());
+    assertEquals(0, adaptive.getQueueDepth());
+    assertEquals(0, adaptive.getInFlight());
+    assertTrue(adaptive.getMetrics().getMaxQueueLatency(TimeUnit.MILLISECONDS) > 0);
+  }
+
+  @Test
+  void testRejectedAfterClose() {
+    service.close();
+
+    assertTrue(service.execute(task).isCompletedExceptionally());
+  }
+  @Test
+  void testErrorCompletesFutureAndFreesSlot() throws Exception {
+    var limit = new AimdLimit(1, 1, 1, 1, TimeUnit.SECONDS, 0.5);
+    var adaptive = new AdaptiveAsynchronousService(new LinkedBlockingQueue<>(), limit);
+    var error = new AssertionError("task failed");
+
+    var failed = adaptive.execute(new App.ArithmeticSumTask(1) {
+      @Override
+      public Long call() {
+        throw error;
+      }
+
+      @Override
+      public void onError(Throwable throwable) {
+        // expected
+      }
+    });
+    var thrown = assertThrows(ExecutionException.class, () -> failed.get(2, TimeUnit.SECONDS));
+    assertSame(error, thrown.getCause());
+
+    var result = adaptive.execute(new App.ArithmeticSumTask(1)).get(2, TimeUnit.SECONDS);
+    assertEquals(Long.valueOf(1), result);
+    adaptive.close();
+    assertEquals(0, adaptive.getInFlight());
+  }
+
+  @Test
+  void testLatencyThresholdDecidesBackoff() {
+    assertEquals(1, runTasksTaking50Millis(Duration.ofMillis(10)));
+    assertTrue(runTasksTaking50Millis(Duration.ofSeconds(5)) >= 10);
+  }
+
+  private static int runTasksTaking50Millis(Duration latencyThreshold) {
+    var adaptive = new AdaptiveAsynchronousService(new LinkedBlockingQueue<>(), latencyThreshold);
+    var futures = new ArrayList<CompletableFuture<Long>>();
+    for (var i = 0; i < 40; i++) {
+      futures.add(adaptive.execute(new App.ArithmeticSumTask(50)));
+    }
+    CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+    adaptive.close();
+    return adaptive.getLimit();
+  }
+
+  @Test
+  void testCloseReturnsOnceTasksComplete() {
+    var future = service.execute(new App.ArithmeticSumTask(200));
+    var start = System.nanoTime();
+
+    service.close();
+
+    assertTrue(future.isDone());
+    assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+  }
+
+}
@@ -0,0 +1,65 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.halfsynchalfasync;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link AimdLimit}
+ */
+class AimdLimitTest {
+
+  @Test
+  void testAdditiveIncreaseWithBacklog() {
+    var limit = new AimdLimit(2, 1, 3, 100, TimeUnit.MILLISECONDS, 0.5);
+    limit.onSample(TimeUnit.MILLISECONDS.toNanos(10), 0);
+    assertEquals(2, limit.getLimit());
+    limit.onSample(TimeUnit.MILLISECONDS.toNanos(10), 5);
+    assertEquals(3, limit.getLimit());
+    limit.onSample(TimeUnit.MILLISECONDS.toNanos(10), 5);
+    assertEquals(3, limit.getLimit());
+  }
+
+  @Test
+  void testMultiplicativeDecrease() {
+    var limit = new AimdLimit(8, 3, 10, 100, TimeUnit.MILLISECONDS, 0.5);
+    limit.onSample(TimeUnit.MILLISECONDS.toNanos(200), 5);
+    assertEquals(4, limit.getLimit());
+    limit.onSample(TimeUnit.MILLISECONDS.toNanos(200), 5);
+    assertEquals(3, limit.getLimit());
+  }
+
+  @Test
+  void testInvalidBounds() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new AimdLimit(5, 1, 4, 1, TimeUnit.SECONDS, 0.5));
+    assertThrows(IllegalArgumentException.class,
+        () -> new AimdLimit(1, 1, 4, 1, TimeUnit.SECONDS, 1.5));
+  }
+
+}
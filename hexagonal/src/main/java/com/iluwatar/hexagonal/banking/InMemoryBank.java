@@ -24,15 +24,16 @@
 package com.iluwatar.hexagonal.banking;
 
 import com.iluwatar.hexagonal.domain.LotteryConstants;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Banking implementation.
+ * Banking implementation. Transfers may run on several threads at once; an account is never
+ * debited below zero.
  */
 public class InMemoryBank implements WireTransfers {
 
-  private static final Map<String, Integer> accounts = new HashMap<>();
+  private static final Map<String, Integer> accounts = new ConcurrentHashMap<>();
 
   static {
     accounts
@@ -51,12 +52,14 @@ public class InMemoryBank implements WireTransfers {
 
   @Override
   public boolean transferFunds(int amount, String sourceAccount, String destinationAccount) {
-    if (accounts.getOrDefault(sourceAccount, 0) >= amount) {
-      accounts.put(sourceAccount, accounts.get(sourceAccount) - amount);
-      accounts.put(destinationAccount, accounts.get(destinationAccount) + amount);
-      return true;
-    } else {
-      return false;
+    var debited = new boolean[1];
+    accounts.computeIfPresent(sourceAccount, (account, funds) -> {
+      debited[0] = funds >= amount;
+      return debited[0] ? funds - amount : funds;
+    });
+    if (debited[0]) {
+      accounts.merge(destinationAccount, amount, Integer::sum);
     }
+    return debited[0];
   }
 }
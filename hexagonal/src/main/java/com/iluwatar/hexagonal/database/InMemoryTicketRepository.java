@@ -23,18 +23,24 @@
 
 package com.iluwatar.hexagonal.database;
 
+import com.iluwatar.hexagonal.domain.LotteryNumbers;
 import com.iluwatar.hexagonal.domain.LotteryTicket;
 import com.iluwatar.hexagonal.domain.LotteryTicketId;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Mock database for lottery tickets.
+ * Mock database for lottery tickets. Tickets may be saved and drawn from several threads at once,
+ * and are indexed by the bitmask of their numbers so the winners of a draw are found without
+ * looking at the other tickets.
  */
 public class InMemoryTicketRepository implements LotteryTicketRepository {
 
-  private static final Map<LotteryTicketId, LotteryTicket> tickets = new HashMap<>();
+  private static final Map<LotteryTicketId, LotteryTicket> tickets = new ConcurrentHashMap<>();
+  private static final Map<Integer, Map<LotteryTicketId, LotteryTicket>> ticketsByNumbers =
+      new ConcurrentHashMap<>();
 
   @Override
   public Optional<LotteryTicket> findById(LotteryTicketId id) {
@@ -45,6 +51,8 @@ public class InMemoryTicketRepository implements LotteryTicketRepository {
   public Optional<LotteryTicketId> save(LotteryTicket ticket) {
     var id = new LotteryTicketId();
     tickets.put(id, ticket);
+    ticketsByNumbers.computeIfAbsent(ticket.getLotteryNumbers().getBitmask(),
+        numbers -> new ConcurrentHashMap<>()).put(id, ticket);
     return Optional.of(id);
   }
 
@@ -53,8 +61,15 @@ public class InMemoryTicketRepository implements LotteryTicketRepository {
     return tickets;
   }
 
+  @Override
+  public Map<LotteryTicketId, LotteryTicket> findByNumbers(LotteryNumbers numbers) {
+    var found = ticketsByNumbers.get(numbers.getBitmask());
+    return found == null ? Collections.emptyMap() : Collections.unmodifiableMap(found);
+  }
+
   @Override
   public void deleteAll() {
     tickets.clear();
+    ticketsByNumbers.clear();
   }
 }
@@ -23,10 +23,16 @@
 
 package com.iluwatar.hexagonal.database;
 
+import com.iluwatar.hexagonal.domain.LotteryNumbers;
 import com.iluwatar.hexagonal.domain.LotteryTicket;
 import com.iluwatar.hexagonal.domain.LotteryTicketId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Interface for accessing lottery tickets in database.
@@ -43,11 +49,42 @@ public interface LotteryTicketRepository {
    */
   Optional<LotteryTicketId> save(LotteryTicket ticket);
 
+  /**
+   * Save many lottery tickets. Repositories able to store them together should override this.
+   *
+   * @return ids of the saved tickets, in the order of the tickets
+   */
+  default List<LotteryTicketId> saveAll(Collection<LotteryTicket> tickets) {
+    var ids = new ArrayList<LotteryTicketId>(tickets.size());
+    for (var ticket : tickets) {
+      save(ticket).ifPresent(ids::add);
+    }
+    return ids;
+  }
+
   /**
    * Get all lottery tickets.
    */
   Map<LotteryTicketId, LotteryTicket> findAll();
 
+  /**
+   * Get all lottery tickets one at a time. Repositories able to read tickets as they go should
+   * override this instead of reading them all first. The stream must be closed.
+   */
+  default Stream<LotteryTicket> streamAll() {
+    return findAll().values().stream();
+  }
+
+  /**
+   * Find the lottery tickets having the given numbers. Repositories able to index tickets by their
+   * numbers should override this instead of scanning every ticket.
+   */
+  default Map<LotteryTicketId, LotteryTicket> findByNumbers(LotteryNumbers numbers) {
+    return findAll().entrySet().stream()
+        .filter(entry -> entry.getValue().getLotteryNumbers().equals(numbers))
+        .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+  }
+
   /**
    * Delete all lottery tickets.
    */
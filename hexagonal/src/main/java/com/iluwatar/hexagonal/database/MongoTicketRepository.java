@@ -27,19 +27,34 @@ import com.iluwatar.hexagonal.domain.LotteryNumbers;
 import com.iluwatar.hexagonal.domain.LotteryTicket;
 import com.iluwatar.hexagonal.domain.LotteryTicketId;
 import com.iluwatar.hexagonal.domain.PlayerDetails;
+import com.iluwatar.hexagonal.mongo.SharedMongoClient;
 import com.mongodb.MongoClient;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.IndexOptions;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import org.bson.Document;
 
 /**
  * Mongo lottery ticket database.
+ *
+ * <p>Ticket ids are reserved from the counters collection in blocks, so only one save in a block
+ * makes the round trip to the counter (hi/lo). Ids reserved but not used when the repository goes
+ * away are skipped. Tickets are indexed by id and by the bitmask of their numbers, and the indexes
+ * are ensured on connecting, when tickets saved without a bitmask are given one. The client is
+ * shared with the other repositories of the same server.
  */
 public class MongoTicketRepository implements LotteryTicketRepository {
 
@@ -47,16 +62,23 @@ public class MongoTicketRepository implements LotteryTicketRepository {
   private static final String DEFAULT_TICKETS_COLLECTION = "lotteryTickets";
   private static final String DEFAULT_COUNTERS_COLLECTION = "counters";
   private static final String TICKET_ID = "ticketId";
+  private static final String NUMBERS_MASK = "numbersMask";
+  private static final int DEFAULT_ID_BLOCK = 100;
+  private static final int BATCH_SIZE = 1_000;
 
   private MongoClient mongoClient;
   private MongoDatabase database;
   private MongoCollection<Document> ticketsCollection;
   private MongoCollection<Document> countersCollection;
+  private final int idBlockSize;
+  private int nextId;
+  private int idBlockEnd;
 
   /**
    * Constructor.
    */
   public MongoTicketRepository() {
+    this.idBlockSize = DEFAULT_ID_BLOCK;
     connect();
   }
 
@@ -65,9 +87,33 @@ public class MongoTicketRepository implements LotteryTicketRepository {
    */
   public MongoTicketRepository(String dbName, String ticketsCollectionName,
                                String countersCollectionName) {
+    this(dbName, ticketsCollectionName, countersCollectionName, DEFAULT_ID_BLOCK);
+  }
+
+  /**
+   * Constructor accepting parameters.
+   *
+   * @param idBlockSize number of ticket ids reserved at a time, 1 to reserve each id on its own
+   */
+  public MongoTicketRepository(String dbName, String ticketsCollectionName,
+                               String countersCollectionName, int idBlockSize) {
+    this.idBlockSize = checkBlockSize(idBlockSize);
     connect(dbName, ticketsCollectionName, countersCollectionName);
   }
 
+  /**
+   * Constructor using the given collections, which the caller connects and closes.
+   *
+   * @param idBlockSize number of ticket ids reserved at a time, 1 to reserve each id on its own
+   */
+  public MongoTicketRepository(MongoCollection<Document> ticketsCollection,
+                               MongoCollection<Document> countersCollection, int idBlockSize) {
+    this.idBlockSize = checkBlockSize(idBlockSize);
+    this.ticketsCollection = ticketsCollection;
+    this.countersCollection = countersCollection;
+    prepareCollections();
+  }
+
   /**
    * Connect to database with default parameters.
    */
@@ -80,17 +126,38 @@ public class MongoTicketRepository implements LotteryTicketRepository {
    */
   public void connect(String dbName, String ticketsCollectionName,
                       String countersCollectionName) {
-    if (mongoClient != null) {
-      mongoClient.close();
-    }
-    mongoClient = new MongoClient(System.getProperty("mongo-host"),
+    mongoClient = SharedMongoClient.get(System.getProperty("mongo-host"),
         Integer.parseInt(System.getProperty("mongo-port")));
     database = mongoClient.getDatabase(dbName);
     ticketsCollection = database.getCollection(ticketsCollectionName);
     countersCollection = database.getCollection(countersCollectionName);
+    prepareCollections();
+  }
+
+  private void prepareCollections() {
     if (countersCollection.count() <= 0) {
       initCounters();
     }
+    ticketsCollection.createIndex(new Document(TICKET_ID, 1), new IndexOptions().unique(true));
+    ticketsCollection.createIndex(new Document(NUMBERS_MASK, 1), new IndexOptions());
+    addMissingNumbersMasks();
+    synchronized (this) {
+      // ids reserved from other collections are no use here
+      nextId = 0;
+      idBlockEnd = 0;
+    }
+  }
+
+  /**
+   * Gives the tickets saved before their bitmask was stored one, so that {@link #findByNumbers}
+   * finds them too. A null filter also matches a missing field.
+   */
+  private void addMissingNumbersMasks() {
+    for (var doc : ticketsCollection.find(new Document(NUMBERS_MASK, null))) {
+      var mask = new Document(NUMBERS_MASK, lotteryNumbers(doc).getBitmask());
+      ticketsCollection.updateOne(new Document(TICKET_ID, doc.getInteger(TICKET_ID)),
+          new Document("$set", mask));
+    }
   }
 
   private void initCounters() {
@@ -104,8 +171,33 @@ public class MongoTicketRepository implements LotteryTicketRepository {
    * @return next ticket id
    */
   public int getNextId() {
+    return reserveIds(1);
+  }
+
+  /**
+   * Reserves consecutive ticket ids, taking them from the current block when it has enough left.
+   *
+   * @return first of the reserved ids
+   */
+  private synchronized int reserveIds(int count) {
+    if (idBlockEnd - nextId >= count) {
+      var first = nextId;
+      nextId += count;
+      return first;
+    }
+    if (count >= idBlockSize) {
+      // the current block is kept for later saves
+      return increaseCounter(count);
+    }
+    var first = increaseCounter(idBlockSize);
+    nextId = first + count;
+    idBlockEnd = first + idBlockSize;
+    return first;
+  }
+
+  private int increaseCounter(int count) {
     var find = new Document("_id", TICKET_ID);
-    var increase = new Document("seq", 1);
+    var increase = new Document("seq", count);
     var update = new Document("$inc", increase);
     var result = countersCollection.findOneAndUpdate(find, update);
     return result.getInteger("seq");
@@ -131,35 +223,62 @@ public class MongoTicketRepository implements LotteryTicketRepository {
 
   @Override
   public Optional<LotteryTicket> findById(LotteryTicketId id) {
-    return ticketsCollection
-        .find(new Document(TICKET_ID, id.getId()))
-        .limit(1)
-        .into(new ArrayList<>())
-        .stream()
-        .findFirst()
+    return Optional.ofNullable(ticketsCollection.find(new Document(TICKET_ID, id.getId())).first())
         .map(this::docToTicket);
   }
 
   @Override
   public Optional<LotteryTicketId> save(LotteryTicket ticket) {
     var ticketId = getNextId();
-    var doc = new Document(TICKET_ID, ticketId);
-    doc.put("email", ticket.getPlayerDetails().getEmail());
-    doc.put("bank", ticket.getPlayerDetails().getBankAccount());
-    doc.put("phone", ticket.getPlayerDetails().getPhoneNumber());
-    doc.put("numbers", ticket.getLotteryNumbers().getNumbersAsString());
-    ticketsCollection.insertOne(doc);
+    ticketsCollection.insertOne(ticketToDoc(ticketId, ticket));
     return Optional.of(new LotteryTicketId(ticketId));
   }
 
+  @Override
+  public List<LotteryTicketId> saveAll(Collection<LotteryTicket> tickets) {
+    var ids = new ArrayList<LotteryTicketId>(tickets.size());
+    if (tickets.isEmpty()) {
+      return ids;
+    }
+    var ticketId = reserveIds(tickets.size());
+    var batch = new ArrayList<Document>(Math.min(tickets.size(), BATCH_SIZE));
+    for (var ticket : tickets) {
+      batch.add(ticketToDoc(ticketId, ticket));
+      ids.add(new LotteryTicketId(ticketId++));
+      if (batch.size() == BATCH_SIZE) {
+        ticketsCollection.insertMany(batch);
+        batch.clear();
+      }
+    }
+    if (!batch.isEmpty()) {
+      ticketsCollection.insertMany(batch);
+    }
+    return ids;
+  }
+
   @Override
   public Map<LotteryTicketId, LotteryTicket> findAll() {
-    return ticketsCollection
-        .find(new Document())
-        .into(new ArrayList<>())
-        .stream()
-        .map(this::docToTicket)
-        .collect(Collectors.toMap(LotteryTicket::getId, Function.identity()));
+    try (var tickets = streamAll()) {
+      return tickets.collect(Collectors.toMap(LotteryTicket::getId, Function.identity()));
+    }
+  }
+
+  @Override
+  public Stream<LotteryTicket> streamAll() {
+    var cursor = ticketsCollection.find(new Document()).batchSize(BATCH_SIZE).iterator();
+    var documents = Spliterators.spliteratorUnknownSize(cursor,
+        Spliterator.ORDERED | Spliterator.NONNULL);
+    return StreamSupport.stream(documents, false).onClose(cursor::close).map(this::docToTicket);
+  }
+
+  @Override
+  public Map<LotteryTicketId, LotteryTicket> findByNumbers(LotteryNumbers numbers) {
+    var tickets = new HashMap<LotteryTicketId, LotteryTicket>();
+    for (var doc : ticketsCollection.find(new Document(NUMBERS_MASK, numbers.getBitmask()))) {
+      var ticket = docToTicket(doc);
+      tickets.put(ticket.getId(), ticket);
+    }
+    return tickets;
   }
 
   @Override
@@ -167,14 +286,34 @@ public class MongoTicketRepository implements LotteryTicketRepository {
     ticketsCollection.deleteMany(new Document());
   }
 
+  private Document ticketToDoc(int ticketId, LotteryTicket ticket) {
+    var doc = new Document(TICKET_ID, ticketId);
+    doc.put("email", ticket.getPlayerDetails().getEmail());
+    doc.put("bank", ticket.getPlayerDetails().getBankAccount());
+    doc.put("phone", ticket.getPlayerDetails().getPhoneNumber());
+    doc.put("numbers", ticket.getLotteryNumbers().getNumbersAsString());
+    doc.put(NUMBERS_MASK, ticket.getLotteryNumbers().getBitmask());
+    return doc;
+  }
+
   private LotteryTicket docToTicket(Document doc) {
     var playerDetails = new PlayerDetails(doc.getString("email"), doc.getString("bank"),
         doc.getString("phone"));
+    var ticketId = new LotteryTicketId(doc.getInteger(TICKET_ID));
+    return new LotteryTicket(ticketId, playerDetails, lotteryNumbers(doc));
+  }
+
+  private static LotteryNumbers lotteryNumbers(Document doc) {
     var numbers = Arrays.stream(doc.getString("numbers").split(","))
         .map(Integer::parseInt)
         .collect(Collectors.toSet());
-    var lotteryNumbers = LotteryNumbers.create(numbers);
-    var ticketId = new LotteryTicketId(doc.getInteger(TICKET_ID));
-    return new LotteryTicket(ticketId, playerDetails, lotteryNumbers);
+    return LotteryNumbers.create(numbers);
+  }
+
+  private static int checkBlockSize(int idBlockSize) {
+    if (idBlockSize < 1) {
+      throw new IllegalArgumentException("Id block size must be positive: " + idBlockSize);
+    }
+    return idBlockSize;
   }
 }
@@ -27,29 +27,49 @@ import static com.iluwatar.hexagonal.domain.LotteryConstants.PRIZE_AMOUNT;
 import static com.iluwatar.hexagonal.domain.LotteryConstants.SERVICE_BANK_ACCOUNT;
 
 import com.google.inject.Inject;
+import com.google.inject.name.Named;
 import com.iluwatar.hexagonal.banking.WireTransfers;
 import com.iluwatar.hexagonal.database.LotteryTicketRepository;
 import com.iluwatar.hexagonal.eventlog.LotteryEventLog;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * Lottery administration implementation.
+ *
+ * <p>A draw asks the repository for the tickets having the winning numbers and pays their owners
+ * in batches run in parallel, while the owners of the other tickets are told they did not win.
  */
 public class LotteryAdministration {
 
+  /**
+   * Name of the binding of the executor running the prize transfers.
+   */
+  public static final String PAYOUTS = "payouts";
+
+  private static final int PAYOUT_BATCH = 256;
+
   private final LotteryTicketRepository repository;
   private final LotteryEventLog notifications;
   private final WireTransfers wireTransfers;
+  private final Executor payouts;
 
   /**
    * Constructor.
+   *
+   * @param payouts runs the batches of prize transfers, which may block on the bank
    */
   @Inject
   public LotteryAdministration(LotteryTicketRepository repository, LotteryEventLog notifications,
-                               WireTransfers wireTransfers) {
+                               WireTransfers wireTransfers, @Named(PAYOUTS) Executor payouts) {
     this.repository = repository;
     this.notifications = notifications;
     this.wireTransfers = wireTransfers;
+    this.payouts = payouts;
   }
 
   /**
@@ -64,22 +84,12 @@ public class LotteryAdministration {
    */
   public LotteryNumbers performLottery() {
     var numbers = LotteryNumbers.createRandom();
-    var tickets = getAllSubmittedTickets();
-    for (var id : tickets.keySet()) {
-      var lotteryTicket = tickets.get(id);
-      var playerDetails = lotteryTicket.getPlayerDetails();
-      var playerAccount = playerDetails.getBankAccount();
-      var result = LotteryUtils.checkTicketForPrize(repository, id, numbers).getResult();
-      if (result == LotteryTicketCheckResult.CheckResult.WIN_PRIZE) {
-        if (wireTransfers.transferFunds(PRIZE_AMOUNT, SERVICE_BANK_ACCOUNT, playerAccount)) {
-          notifications.ticketWon(playerDetails, PRIZE_AMOUNT);
-        } else {
-          notifications.prizeError(playerDetails, PRIZE_AMOUNT);
-        }
-      } else if (result == LotteryTicketCheckResult.CheckResult.NO_PRIZE) {
-        notifications.ticketDidNotWin(playerDetails);
-      }
+    var prizes = payWinners(repository.findByNumbers(numbers).values());
+    try (var tickets = repository.streamAll()) {
+      tickets.filter(ticket -> !ticket.getLotteryNumbers().equals(numbers))
+          .forEach(ticket -> notifications.ticketDidNotWin(ticket.getPlayerDetails()));
     }
+    prizes.join();
     return numbers;
   }
 
@@ -89,4 +99,33 @@ public class LotteryAdministration {
   public void resetLottery() {
     repository.deleteAll();
   }
+
+  private CompletableFuture<Void> payWinners(Collection<LotteryTicket> winners) {
+    var batches = new ArrayList<CompletableFuture<Void>>();
+    var batch = new ArrayList<PlayerDetails>(PAYOUT_BATCH);
+    for (var ticket : winners) {
+      batch.add(ticket.getPlayerDetails());
+      if (batch.size() == PAYOUT_BATCH) {
+        batches.add(payBatch(batch));
+        batch = new ArrayList<>(PAYOUT_BATCH);
+      }
+    }
+    if (!batch.isEmpty()) {
+      batches.add(payBatch(batch));
+    }
+    return CompletableFuture.allOf(batches.toArray(new CompletableFuture<?>[0]));
+  }
+
+  private CompletableFuture<Void> payBatch(List<PlayerDetails> winners) {
+    return CompletableFuture.runAsync(() -> {
+      for (var playerDetails : winners) {
+        var playerAccount = playerDetails.getBankAccount();
+        if (wireTransfers.transferFunds(PRIZE_AMOUNT, SERVICE_BANK_ACCOUNT, playerAccount)) {
+          notifications.ticketWon(playerDetails, PRIZE_AMOUNT);
+        } else {
+          notifications.prizeError(playerDetails, PRIZE_AMOUNT);
+        }
+      }
+    }, payouts);
+  }
 }
@@ -26,21 +26,22 @@ package com.iluwatar.hexagonal.domain;
 import com.google.common.base.Joiner;
 import java.security.SecureRandom;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.PrimitiveIterator;
 import java.util.Set;
 import lombok.EqualsAndHashCode;
-import lombok.ToString;
 
 /**
  * Value object representing lottery numbers. This lottery uses sets of 4 numbers. The numbers must
  * be unique and between 1 and 20.
+ *
+ * <p>The numbers are kept as a bitmask, bit n being set when number n is chosen, so comparing two
+ * sets of numbers is comparing two ints and tickets can be indexed by their numbers.
  */
 @EqualsAndHashCode
-@ToString
 public class LotteryNumbers {
 
-  private final Set<Integer> numbers;
+  private final int bitmask;
 
   public static final int MIN_NUMBER = 1;
   public static final int MAX_NUMBER = 20;
@@ -50,16 +51,21 @@ public class LotteryNumbers {
    * Constructor. Creates random lottery numbers.
    */
   private LotteryNumbers() {
-    numbers = new HashSet<>();
-    generateRandomNumbers();
+    bitmask = generateRandomNumbers();
   }
 
   /**
    * Constructor. Uses given numbers.
    */
   private LotteryNumbers(Set<Integer> givenNumbers) {
-    numbers = new HashSet<>();
-    numbers.addAll(givenNumbers);
+    var mask = 0;
+    for (var number : givenNumbers) {
+      if (number < MIN_NUMBER || number > MAX_NUMBER) {
+        throw new IllegalArgumentException("Lottery number out of range: " + number);
+      }
+      mask |= 1 << number;
+    }
+    bitmask = mask;
   }
 
   /**
@@ -75,6 +81,7 @@ public class LotteryNumbers {
    * Creates lottery number from given set of numbers.
    *
    * @return given LotteryNumbers
+   * @throws IllegalArgumentException if a number is not between 1 and 20
    */
   public static LotteryNumbers create(Set<Integer> givenNumbers) {
     return new LotteryNumbers(givenNumbers);
@@ -83,31 +90,49 @@ public class LotteryNumbers {
   /**
    * Get numbers.
    *
-   * @return lottery numbers
+   * @return lottery numbers in ascending order
    */
   public Set<Integer> getNumbers() {
+    var numbers = new LinkedHashSet<Integer>();
+    for (var remaining = bitmask; remaining != 0; remaining &= remaining - 1) {
+      numbers.add(Integer.numberOfTrailingZeros(remaining));
+    }
     return Collections.unmodifiableSet(numbers);
   }
 
+  /**
+   * Get numbers as a bitmask.
+   *
+   * @return bitmask with bit n set for each chosen number n
+   */
+  public int getBitmask() {
+    return bitmask;
+  }
+
   /**
    * Get numbers as string.
    *
    * @return numbers as comma separated string
    */
   public String getNumbersAsString() {
-    return Joiner.on(',').join(numbers);
+    return Joiner.on(',').join(getNumbers());
+  }
+
+  @Override
+  public String toString() {
+    return "LotteryNumbers(numbers=" + getNumbers() + ")";
   }
 
   /**
-   * Generates 4 unique random numbers between 1-20 into numbers set.
+   * Generates 4 unique random numbers between 1-20.
    */
-  private void generateRandomNumbers() {
-    numbers.clear();
+  private static int generateRandomNumbers() {
+    var mask = 0;
     var generator = new RandomNumberGenerator(MIN_NUMBER, MAX_NUMBER);
-    while (numbers.size() < NUM_NUMBERS) {
-      var num = generator.nextInt();
-      numbers.add(num);
+    while (Integer.bitCount(mask) < NUM_NUMBERS) {
+      mask |= 1 << generator.nextInt();
     }
+    return mask;
   }
 
   /**
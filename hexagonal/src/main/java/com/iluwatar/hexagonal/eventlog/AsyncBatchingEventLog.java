@@ -0,0 +1,287 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.hexagonal.eventlog;
+
+import com.iluwatar.hexagonal.domain.PlayerDetails;
+import com.iluwatar.hexagonal.eventlog.LotteryEvent.Type;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Event log decorator which buffers events in a bounded ring and writes them to the decorated event
+ * log on a thread of its own, many at a time through {@link LotteryEventLog#logAll(List)}. A batch
+ * is written once it holds the maximum number of events or once its first event has waited the
+ * maximum delay, whichever comes first.
+ *
+ * <p>Durability: logging an event only buffers it. Events are written in the order they were
+ * logged, and each is written, or has failed to be, within the maximum delay plus the time of the
+ * writes ahead of it. When the buffer is full, logging waits for room rather than dropping events.
+ * {@link #flush()} returns once every event logged before it was called has been written, and
+ * {@link #close()} does the same before stopping the writer. Events still buffered are lost if the
+ * process dies. A batch whose write fails is not retried; it is logged as an error and counted by
+ * {@link #getFailedEvents()}. Should the writer itself stop, further events are refused and
+ * {@link #flush()} and {@link #close()} fail instead of waiting for events that will never be
+ * written.
+ */
+@Slf4j
+public class AsyncBatchingEventLog implements LotteryEventLog, AutoCloseable {
+
+  private static final int DEFAULT_CAPACITY = 65_536;
+  private static final int DEFAULT_BATCH_SIZE = 1_000;
+  private static final Duration DEFAULT_MAX_DELAY = Duration.ofMillis(50);
+  private static final AtomicInteger LOG_NUMBER = new AtomicInteger();
+  private static final long CLOSED = 1L << 62;
+  private static final long FULL_BUFFER_CHECK_MILLIS = 100;
+
+  private final LotteryEventLog eventLog;
+  private final BlockingQueue<LotteryEvent> buffer;
+  private final int batchSize;
+  private final long maxDelayNanos;
+  private final Thread writer;
+  /**
+   * Number of events logged, with the {@link #CLOSED} bit set once no more are accepted.
+   */
+  private final AtomicLong logged = new AtomicLong();
+  private final Object progress = new Object();
+  private volatile long written;
+  private volatile boolean stopped;
+  private final LongAdder failed = new LongAdder();
+
+  /**
+   * Constructor buffering up to 65536 events and writing up to 1000 at a time, each within 50 ms.
+   *
+   * @param eventLog event log the events are written to
+   */
+  public AsyncBatchingEventLog(LotteryEventLog eventLog) {
+    this(eventLog, DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE, DEFAULT_MAX_DELAY);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param eventLog event log the events are written to
+   * @param capacity number of events the buffer holds
+   * @param batchSize maximum number of events written at once
+   * @param maxDelay longest time an event waits for others to be written with
+   */
+  public AsyncBatchingEventLog(LotteryEventLog eventLog, int capacity, int batchSize,
+      Duration maxDelay) {
+    if (batchSize < 1 || capacity < batchSize) {
+      throw new IllegalArgumentException(
+          "Unusable capacity " + capacity + " and batch size " + batchSize);
+    }
+    this.eventLog = eventLog;
+    this.buffer = new ArrayBlockingQueue<>(capacity);
+    this.batchSize = batchSize;
+    this.maxDelayNanos = maxDelay.toNanos();
+    this.writer =
+        new Thread(this::writeBatches, "lottery-event-log-" + LOG_NUMBER.incrementAndGet());
+    writer.setDaemon(true);
+    writer.start();
+  }
+
+  @Override
+  public void ticketSubmitted(PlayerDetails details) {
+    log(new LotteryEvent(Type.TICKET_SUBMITTED, details));
+  }
+
+  @Override
+  public void ticketSubmitError(PlayerDetails details) {
+    log(new LotteryEvent(Type.TICKET_SUBMIT_ERROR, details));
+  }
+
+  @Override
+  public void ticketDidNotWin(PlayerDetails details) {
+    log(new LotteryEvent(Type.TICKET_DID_NOT_WIN, details));
+  }
+
+  @Override
+  public void ticketWon(PlayerDetails details, int prizeAmount) {
+    log(new LotteryEvent(Type.TICKET_WON, details, prizeAmount));
+  }
+
+  @Override
+  public void prizeError(PlayerDetails details, int prizeAmount) {
+    log(new LotteryEvent(Type.PRIZE_ERROR, details, prizeAmount));
+  }
+
+  @Override
+  public void logAll(List<LotteryEvent> events) {
+    events.forEach(this::log);
+  }
+
+  /**
+   * Waits until every event logged before this call has been written or has failed to be.
+   *
+   * @throws InterruptedException  if interrupted while waiting
+   * @throws IllegalStateException if the writer has stopped with some of those events unwritten
+   */
+  public void flush() throws InterruptedException {
+    var target = count(logged.get());
+    synchronized (progress) {
+      while (written < target) {
+        if (stopped) {
+          throw writerStopped();
+        }
+        progress.wait();
+      }
+    }
+  }
+
+  /**
+   * Writes every buffered event and stops the writer. Events logged afterwards are refused.
+   *
+   * @throws IllegalStateException if the writer had stopped with events unwritten
+   */
+  @Override
+  public void close() {
+    logged.getAndUpdate(state -> state | CLOSED);
+    try {
+      writer.join();
+    } catch (InterruptedException e) {
+      LOGGER.error("Interrupted while writing the last lottery events", e);
+      Thread.currentThread().interrupt();
+      return;
+    }
+    if (getPendingEvents() > 0) {
+      throw writerStopped();
+    }
+  }
+
+  /**
+   * Number of events logged but not yet written.
+   */
+  public long getPendingEvents() {
+    return count(logged.get()) - written;
+  }
+
+  /**
+   * Number of events lost because writing them failed.
+   */
+  public long getFailedEvents() {
+    return failed.sum();
+  }
+
+  private void log(LotteryEvent event) {
+    // counted before it is buffered, so a flush never misses an event logged before it, and in
+    // the same step as the check, so the writer never stops with a counted event still to come
+    long state;
+    do {
+      state = logged.get();
+      if (isClosed(state)) {
+        throw new IllegalStateException("Event log is closed");
+      }
+    } while (!logged.compareAndSet(state, state + 1));
+    try {
+      while (!buffer.offer(event, FULL_BUFFER_CHECK_MILLIS, TimeUnit.MILLISECONDS)) {
+        if (stopped) {
+          LOGGER.error("Lottery event writer stopped, lottery event lost: {}", event);
+          failed.increment();
+          advance(1);
+          throw writerStopped();
+        }
+      }
+    } catch (InterruptedException e) {
+      LOGGER.error("Interrupted while waiting for room, lottery event lost: {}", event);
+      Thread.currentThread().interrupt();
+      failed.increment();
+      advance(1);
+    }
+  }
+
+  private void writeBatches() {
+    var batch = new ArrayList<LotteryEvent>(batchSize);
+    try {
+      while (!isClosed(logged.get()) || written < count(logged.get())) {
+        var first = buffer.poll(maxDelayNanos, TimeUnit.NANOSECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        var deadline = System.nanoTime() + maxDelayNanos;
+        while (batch.size() < batchSize) {
+          if (buffer.drainTo(batch, batchSize - batch.size()) > 0) {
+            continue;
+          }
+          var remaining = deadline - System.nanoTime();
+          var next = isClosed(logged.get()) || remaining <= 0
+              ? null : buffer.poll(remaining, TimeUnit.NANOSECONDS);
+          if (next == null) {
+            break;
+          }
+          batch.add(next);
+        }
+        write(batch);
+        batch.clear();
+      }
+    } catch (InterruptedException e) {
+      LOGGER.error("Lottery event writer interrupted, {} events not written", batch.size(), e);
+      Thread.currentThread().interrupt();
+    } finally {
+      logged.getAndUpdate(state -> state | CLOSED);
+      synchronized (progress) {
+        stopped = true;
+        progress.notifyAll();
+      }
+    }
+  }
+
+  private void write(List<LotteryEvent> batch) {
+    try {
+      eventLog.logAll(batch);
+    } catch (RuntimeException e) {
+      LOGGER.error("Could not write {} lottery events", batch.size(), e);
+      failed.add(batch.size());
+    }
+    advance(batch.size());
+  }
+
+  private IllegalStateException writerStopped() {
+    return new IllegalStateException(
+        "Lottery event writer stopped, " + getPendingEvents() + " events not written");
+  }
+
+  private static boolean isClosed(long state) {
+    return (state & CLOSED) != 0;
+  }
+
+  private static long count(long state) {
+    return state & ~CLOSED;
+  }
+
+  private void advance(int events) {
+    synchronized (progress) {
+      written += events;
+      progress.notifyAll();
+    }
+  }
+}
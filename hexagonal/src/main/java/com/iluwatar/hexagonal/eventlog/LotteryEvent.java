@@ -0,0 +1,88 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.hexagonal.eventlog;
+
+import com.iluwatar.hexagonal.domain.PlayerDetails;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Immutable value object holding one call to a {@link LotteryEventLog}, so events can be buffered
+ * and written later.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+@RequiredArgsConstructor
+public class LotteryEvent {
+
+  /**
+   * Enumeration of the events of a {@link LotteryEventLog}.
+   */
+  public enum Type {
+    TICKET_SUBMITTED,
+    TICKET_SUBMIT_ERROR,
+    TICKET_DID_NOT_WIN,
+    TICKET_WON,
+    PRIZE_ERROR
+  }
+
+  private final Type type;
+  private final PlayerDetails playerDetails;
+  private final int prizeAmount;
+
+  /**
+   * Constructor for events without a prize.
+   */
+  public LotteryEvent(Type type, PlayerDetails playerDetails) {
+    this(type, playerDetails, 0);
+  }
+
+  /**
+   * Makes the call to the given event log that this event stands for.
+   */
+  public void replayTo(LotteryEventLog eventLog) {
+    switch (type) {
+      case TICKET_SUBMITTED:
+        eventLog.ticketSubmitted(playerDetails);
+        break;
+      case TICKET_SUBMIT_ERROR:
+        eventLog.ticketSubmitError(playerDetails);
+        break;
+      case TICKET_DID_NOT_WIN:
+        eventLog.ticketDidNotWin(playerDetails);
+        break;
+      case TICKET_WON:
+        eventLog.ticketWon(playerDetails, prizeAmount);
+        break;
+      case PRIZE_ERROR:
+        eventLog.prizeError(playerDetails, prizeAmount);
+        break;
+      default:
+        throw new IllegalStateException("Unknown event type: " + type);
+    }
+  }
+}
@@ -24,6 +24,7 @@
 package com.iluwatar.hexagonal.eventlog;
 
 import com.iluwatar.hexagonal.domain.PlayerDetails;
+import java.util.List;
 
 /**
  * Event log for lottery events.
@@ -55,4 +56,12 @@ public interface LotteryEventLog {
    */
   void prizeError(PlayerDetails details, int prizeAmount);
 
+  /**
+   * log many events at once, in order. Event logs able to write them together should override
+   * this.
+   */
+  default void logAll(List<LotteryEvent> events) {
+    events.forEach(event -> event.replayTo(this));
+  }
+
 }
@@ -24,13 +24,17 @@
 package com.iluwatar.hexagonal.eventlog;
 
 import com.iluwatar.hexagonal.domain.PlayerDetails;
+import com.iluwatar.hexagonal.eventlog.LotteryEvent.Type;
 import com.mongodb.MongoClient;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
+import java.util.ArrayList;
+import java.util.List;
 import org.bson.Document;
 
 /**
- * Mongo based event log.
+ * Mongo based event log. Events logged together through {@link #logAll(List)} are inserted with
+ * one bulk write.
  */
 public class MongoEventLog implements LotteryEventLog {
 
@@ -60,6 +64,13 @@ public class MongoEventLog implements LotteryEventLog {
     connect(dbName, eventsCollectionName);
   }
 
+  /**
+   * Constructor writing to the given collection, which the caller connects and closes.
+   */
+  public MongoEventLog(MongoCollection<Document> eventsCollection) {
+    this.eventsCollection = eventsCollection;
+  }
+
   /**
    * Connect to database with default parameters.
    */
@@ -110,56 +121,73 @@ public class MongoEventLog implements LotteryEventLog {
 
   @Override
   public void ticketSubmitted(PlayerDetails details) {
-    var document = new Document(EMAIL, details.getEmail());
-    document.put(PHONE, details.getPhoneNumber());
-    document.put("bank", details.getBankAccount());
-    document
-        .put(MESSAGE, "Lottery ticket was submitted and bank account was charged for 3 credits.");
-    eventsCollection.insertOne(document);
-    stdOutEventLog.ticketSubmitted(details);
+    insert(new LotteryEvent(Type.TICKET_SUBMITTED, details));
   }
 
   @Override
   public void ticketSubmitError(PlayerDetails details) {
-    var document = new Document(EMAIL, details.getEmail());
-    document.put(PHONE, details.getPhoneNumber());
-    document.put("bank", details.getBankAccount());
-    document.put(MESSAGE, "Lottery ticket could not be submitted because lack of funds.");
-    eventsCollection.insertOne(document);
-    stdOutEventLog.ticketSubmitError(details);
+    insert(new LotteryEvent(Type.TICKET_SUBMIT_ERROR, details));
   }
 
   @Override
   public void ticketDidNotWin(PlayerDetails details) {
-    var document = new Document(EMAIL, details.getEmail());
-    document.put(PHONE, details.getPhoneNumber());
-    document.put("bank", details.getBankAccount());
-    document.put(MESSAGE, "Lottery ticket was checked and unfortunately did not win this time.");
-    eventsCollection.insertOne(document);
-    stdOutEventLog.ticketDidNotWin(details);
+    insert(new LotteryEvent(Type.TICKET_DID_NOT_WIN, details));
   }
 
   @Override
   public void ticketWon(PlayerDetails details, int prizeAmount) {
-    var document = new Document(EMAIL, details.getEmail());
-    document.put(PHONE, details.getPhoneNumber());
-    document.put("bank", details.getBankAccount());
-    document.put(MESSAGE, String
-        .format("Lottery ticket won! The bank account was deposited with %d credits.",
-            prizeAmount));
-    eventsCollection.insertOne(document);
-    stdOutEventLog.ticketWon(details, prizeAmount);
+    insert(new LotteryEvent(Type.TICKET_WON, details, prizeAmount));
   }
 
   @Override
   public void prizeError(PlayerDetails details, int prizeAmount) {
+    insert(new LotteryEvent(Type.PRIZE_ERROR, details, prizeAmount));
+  }
+
+  @Override
+  public void logAll(List<LotteryEvent> events) {
+    if (events.isEmpty()) {
+      return;
+    }
+    var documents = new ArrayList<Document>(events.size());
+    for (var event : events) {
+      documents.add(toDocument(event));
+    }
+    eventsCollection.insertMany(documents);
+    events.forEach(event -> event.replayTo(stdOutEventLog));
+  }
+
+  private void insert(LotteryEvent event) {
+    eventsCollection.insertOne(toDocument(event));
+    event.replayTo(stdOutEventLog);
+  }
+
+  private static Document toDocument(LotteryEvent event) {
+    var details = event.getPlayerDetails();
     var document = new Document(EMAIL, details.getEmail());
     document.put(PHONE, details.getPhoneNumber());
     document.put("bank", details.getBankAccount());
-    document.put(MESSAGE, String
-        .format("Lottery ticket won! Unfortunately the bank credit transfer of %d failed.",
-            prizeAmount));
-    eventsCollection.insertOne(document);
-    stdOutEventLog.prizeError(details, prizeAmount);
+    document.put(MESSAGE, messageOf(event));
+    return document;
+  }
+
+  private static String messageOf(LotteryEvent event) {
+    switch (event.getType()) {
+      case TICKET_SUBMITTED:
+        return "Lottery ticket was submitted and bank account was charged for 3 credits.";
+      case TICKET_SUBMIT_ERROR:
+        return "Lottery ticket could not be submitted because lack of funds.";
+      case TICKET_DID_NOT_WIN:
+        return "Lottery ticket was checked and unfortunately did not win this time.";
+      case TICKET_WON:
+        return String.format("Lottery ticket won! The bank account was deposited with %d credits.",
+            event.getPrizeAmount());
+      case PRIZE_ERROR:
+        return String.format(
+            "Lottery ticket won! Unfortunately the bank credit transfer of %d failed.",
+            event.getPrizeAmount());
+      default:
+        throw new IllegalStateException("Unknown event type: " + event.getType());
+    }
   }
 }
@@ -24,21 +24,53 @@
 package com.iluwatar.hexagonal.module;
 
 import com.google.inject.AbstractModule;
+import com.google.inject.Provides;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
 import com.iluwatar.hexagonal.banking.MongoBank;
 import com.iluwatar.hexagonal.banking.WireTransfers;
 import com.iluwatar.hexagonal.database.LotteryTicketRepository;
 import com.iluwatar.hexagonal.database.MongoTicketRepository;
+import com.iluwatar.hexagonal.domain.LotteryAdministration;
 import com.iluwatar.hexagonal.eventlog.LotteryEventLog;
 import com.iluwatar.hexagonal.eventlog.MongoEventLog;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * Guice module for binding production dependencies.
+ * Guice module for binding production dependencies. Prize transfers wait on the bank's database,
+ * so they run on a bounded pool of their own rather than on a shared one; when it falls behind, the
+ * draw pays the next batch itself.
  */
 public class LotteryModule extends AbstractModule {
+
+  private static final int PAYOUT_THREADS = 8;
+  private static final int PAYOUT_QUEUE = 64;
+
   @Override
   protected void configure() {
     bind(LotteryTicketRepository.class).to(MongoTicketRepository.class);
     bind(LotteryEventLog.class).to(MongoEventLog.class);
     bind(WireTransfers.class).to(MongoBank.class);
   }
+
+  @Provides
+  @Singleton
+  @Named(LotteryAdministration.PAYOUTS)
+  Executor providePayouts() {
+    var threads = new AtomicInteger();
+    ThreadFactory factory = runnable -> {
+      var thread = new Thread(runnable, "lottery-payouts-" + threads.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+    var executor = new ThreadPoolExecutor(PAYOUT_THREADS, PAYOUT_THREADS, 1, TimeUnit.MINUTES,
+        new ArrayBlockingQueue<>(PAYOUT_QUEUE), factory, new ThreadPoolExecutor.CallerRunsPolicy());
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
 }
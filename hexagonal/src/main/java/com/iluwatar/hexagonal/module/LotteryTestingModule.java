@@ -24,12 +24,15 @@
 package com.iluwatar.hexagonal.module;
 
 import com.google.inject.AbstractModule;
+import com.google.inject.name.Names;
 import com.iluwatar.hexagonal.banking.InMemoryBank;
 import com.iluwatar.hexagonal.banking.WireTransfers;
 import com.iluwatar.hexagonal.database.InMemoryTicketRepository;
 import com.iluwatar.hexagonal.database.LotteryTicketRepository;
+import com.iluwatar.hexagonal.domain.LotteryAdministration;
 import com.iluwatar.hexagonal.eventlog.LotteryEventLog;
 import com.iluwatar.hexagonal.eventlog.StdOutEventLog;
+import java.util.concurrent.Executor;
 
 /**
  * Guice module for testing dependencies.
@@ -40,5 +43,8 @@ public class LotteryTestingModule extends AbstractModule {
     bind(LotteryTicketRepository.class).to(InMemoryTicketRepository.class);
     bind(LotteryEventLog.class).to(StdOutEventLog.class);
     bind(WireTransfers.class).to(InMemoryBank.class);
+    // in-memory transfers do not block, so the draw makes them itself
+    bind(Executor.class).annotatedWith(Names.named(LotteryAdministration.PAYOUTS))
+        .toInstance(Runnable::run);
   }
 }
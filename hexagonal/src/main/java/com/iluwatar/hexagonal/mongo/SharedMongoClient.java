@@ -0,0 +1,68 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.hexagonal.mongo;
+
+import com.mongodb.MongoClient;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mongo clients shared by the adapters connecting to the same server. A client keeps a pool of
+ * connections, so adapters sharing one reuse its connections instead of each opening their own.
+ * The clients are closed by {@link #closeAll()}, or otherwise when the application shuts down.
+ */
+public class SharedMongoClient {
+
+  private static final Map<String, MongoClient> CLIENTS = new ConcurrentHashMap<>();
+
+  static {
+    Runtime.getRuntime().addShutdownHook(
+        new Thread(SharedMongoClient::closeAll, "shared-mongo-client-close"));
+  }
+
+  private SharedMongoClient() {
+  }
+
+  /**
+   * Get the client of the given server, creating it on first use.
+   *
+   * @return client shared by every caller asking for this server
+   */
+  public static MongoClient get(String host, int port) {
+    return CLIENTS.computeIfAbsent(host + ":" + port, address -> new MongoClient(host, port));
+  }
+
+  /**
+   * Close every client and forget it, so that the next caller gets a new one. The repositories
+   * using a closed client can no longer reach their server.
+   */
+  public static void closeAll() {
+    for (var address : CLIENTS.keySet()) {
+      var client = CLIENTS.remove(address);
+      if (client != null) {
+        client.close();
+      }
+    }
+  }
+}
@@ -24,8 +24,13 @@
 package com.iluwatar.hexagonal.banking;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -46,4 +51,35 @@ class InMemoryBankTest {
     assertEquals(150, bank.getFunds("foo"));
     assertEquals(100, bank.getFunds("bar"));
   }
+
+  @Test
+  void testTransferWithoutFundsFails() {
+    bank.setFunds("foo", 10);
+    assertFalse(bank.transferFunds(20, "foo", "bar"));
+    assertFalse(bank.transferFunds(20, "unknown", "bar"));
+    assertEquals(10, bank.getFunds("foo"));
+  }
+
+  @Test
+  void testConcurrentTransfersNeverOverdraw() throws InterruptedException {
+    bank.setFunds("source", 1000);
+    IntStream.range(0, 10).forEach(i -> bank.setFunds("destination-" + i, 0));
+    var executor = Executors.newFixedThreadPool(8);
+    var transferred = new AtomicInteger();
+    for (var i = 0; i < 2000; i++) {
+      var destination = "destination-" + (i % 10);
+      executor.execute(() -> {
+        if (bank.transferFunds(1, "source", destination)) {
+          transferred.incrementAndGet();
+        }
+      });
+    }
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+    assertEquals(1000, transferred.get());
+    assertEquals(0, bank.getFunds("source"));
+    var received = IntStream.range(0, 10).map(i -> bank.getFunds("destination-" + i)).sum();
+    assertEquals(1000, received);
+  }
 }
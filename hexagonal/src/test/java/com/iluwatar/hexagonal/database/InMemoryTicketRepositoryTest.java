@@ -26,7 +26,10 @@ package com.iluwatar.hexagonal.database;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.iluwatar.hexagonal.domain.LotteryNumbers;
 import com.iluwatar.hexagonal.test.LotteryTestUtils;
+import java.util.Map;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -53,4 +56,19 @@ class InMemoryTicketRepositoryTest {
     var optionalTicket = repository.findById(id.get());
     assertTrue(optionalTicket.isPresent());
   }
+
+  @Test
+  void testFindByNumbers() {
+    var winning = LotteryTestUtils.createLotteryTicket("foo@bar.com", "12231-213132",
+        "+99324554", Set.of(1, 2, 3, 4));
+    var losing = LotteryTestUtils.createLotteryTicket("bar@foo.com", "32131-132312",
+        "+45523993", Set.of(1, 2, 3, 5));
+    var winningId = repository.save(winning).orElseThrow();
+    repository.save(losing);
+
+    var found = repository.findByNumbers(LotteryNumbers.create(Set.of(4, 3, 2, 1)));
+
+    assertEquals(Map.of(winningId, winning), found);
+    assertTrue(repository.findByNumbers(LotteryNumbers.create(Set.of(7, 8, 9, 10))).isEmpty());
+  }
 }
@@ -0,0 +1,173 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.hexagonal.database;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.iluwatar.hexagonal.domain.LotteryNumbers;
+import com.iluwatar.hexagonal.domain.LotteryTicket;
+import com.iluwatar.hexagonal.domain.LotteryTicketId;
+import com.iluwatar.hexagonal.test.FakeMongoCollection;
+import com.iluwatar.hexagonal.test.LotteryTestUtils;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link MongoTicketRepository} against in-memory collections, so they run without a
+ * Mongo server.
+ */
+class MongoTicketRepositoryFakeTest {
+
+  private FakeMongoCollection tickets;
+  private FakeMongoCollection counters;
+  private MongoTicketRepository repository;
+
+  @BeforeEach
+  void init() {
+    tickets = new FakeMongoCollection();
+    counters = new FakeMongoCollection();
+    repository = new MongoTicketRepository(tickets.collection(), counters.collection(), 10);
+  }
+
+  @Test
+  void testSetup() {
+    assertEquals(1, repository.getCountersCollection().count());
+    assertEquals(0, repository.getTicketsCollection().count());
+    assertEquals(Set.of("ticketId", "numbersMask"), tickets.getIndexes());
+    assertEquals(Set.of("ticketId"), tickets.getUniqueIndexes());
+  }
+
+  @Test
+  void testCrudOperations() {
+    var original = LotteryTestUtils.createLotteryTicket();
+    var saved = repository.save(original);
+    assertTrue(saved.isPresent());
+    var found = repository.findById(saved.get());
+    assertTrue(found.isPresent());
+    assertEquals(original, found.get());
+    assertEquals(saved.get(), found.get().getId());
+    assertFalse(repository.findById(new LotteryTicketId(saved.get().getId() + 1)).isPresent());
+    repository.deleteAll();
+    assertEquals(0, repository.getTicketsCollection().count());
+  }
+
+  @Test
+  void testIdsAreReservedInBlocks() {
+    var ids = new ArrayList<Integer>();
+    for (var i = 0; i < 25; i++) {
+      ids.add(repository.save(LotteryTestUtils.createLotteryTicket()).orElseThrow().getId());
+    }
+    assertEquals(25, Set.copyOf(ids).size());
+    assertEquals(Integer.valueOf(1), ids.get(0));
+    assertEquals(3, counters.getCalls("findOneAndUpdate"));
+
+    var other = new MongoTicketRepository(tickets.collection(), counters.collection(), 10);
+    var next = other.save(LotteryTestUtils.createLotteryTicket()).orElseThrow().getId();
+    assertEquals(31, next);
+  }
+
+  @Test
+  void testSaveAllReservesOneRange() {
+    repository.getNextId();
+    var batch = new ArrayList<LotteryTicket>();
+    for (var i = 0; i < 2_500; i++) {
+      batch.add(LotteryTestUtils.createLotteryTicket("p" + i + "@lottery.com", "100-" + i, "+" + i,
+          Set.of(1, 2, 3, 4 + i % 17)));
+    }
+
+    var ids = repository.saveAll(batch);
+
+    assertEquals(2_500, ids.size());
+    assertEquals(2_500, Set.copyOf(ids).size());
+    assertEquals(2, counters.getCalls("findOneAndUpdate"));
+    assertEquals(3, tickets.getCalls("insertMany"));
+    assertEquals(batch.get(1_234), repository.findById(ids.get(1_234)).orElseThrow());
+    //the ids left in the block are still used
+    assertEquals(2, repository.getNextId());
+    assertEquals(2, counters.getCalls("findOneAndUpdate"));
+  }
+
+  @Test
+  void testStreamAllClosesItsCursor() {
+    var batch = new ArrayList<LotteryTicket>();
+    for (var i = 0; i < 2_500; i++) {
+      batch.add(LotteryTestUtils.createLotteryTicket("p" + i + "@lottery.com", "100-" + i, "+" + i,
+          Set.of(1, 2, 3, 4)));
+    }
+    repository.saveAll(batch);
+
+    try (var all = repository.streamAll()) {
+      assertEquals("p0@lottery.com", all.findFirst().orElseThrow().getPlayerDetails().getEmail());
+      assertEquals(1, tickets.getOpenCursors());
+    }
+    assertEquals(0, tickets.getOpenCursors());
+    assertEquals(0, tickets.getCalls("getMore"));
+
+    var found = repository.findAll();
+    assertEquals(2_500, found.size());
+    assertEquals(Set.copyOf(batch), Set.copyOf(found.values()));
+    assertEquals(0, tickets.getOpenCursors());
+  }
+
+  @Test
+  void testFindByNumbers() {
+    var winning = LotteryTestUtils.createLotteryTicket("foo@bar.com", "12231-213132",
+        "+99324554", Set.of(1, 2, 3, 4));
+    var losing = LotteryTestUtils.createLotteryTicket("bar@foo.com", "32131-132312",
+        "+45523993", Set.of(1, 2, 3, 5));
+    var winningId = repository.save(winning).orElseThrow();
+    repository.save(losing);
+
+    var found = repository.findByNumbers(LotteryNumbers.create(Set.of(4, 3, 2, 1)));
+
+    assertEquals(Map.of(winningId, winning), found);
+    assertTrue(repository.findByNumbers(LotteryNumbers.create(Set.of(7, 8, 9, 10))).isEmpty());
+  }
+
+  @Test
+  void testFindByNumbersFindsTicketsSavedWithoutMask() {
+    var ticket = LotteryTestUtils.createLotteryTicket("foo@bar.com", "12231-213132",
+        "+99324554", Set.of(1, 2, 3, 4));
+    var id = repository.save(ticket).orElseThrow();
+    tickets.getDocuments().forEach(document -> document.remove("numbersMask"));
+
+    var reconnected = new MongoTicketRepository(tickets.collection(), counters.collection(), 10);
+
+    assertEquals(Map.of(id, ticket),
+        reconnected.findByNumbers(LotteryNumbers.create(Set.of(1, 2, 3, 4))));
+    assertEquals(1, tickets.getCalls("updateOne"));
+  }
+
+  @Test
+  void testInvalidBlockSize() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new MongoTicketRepository(tickets.collection(), counters.collection(), 0));
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.hexagonal.database;
+
+import com.iluwatar.hexagonal.domain.LotteryNumbers;
+import com.iluwatar.hexagonal.domain.LotteryTicket;
+import com.iluwatar.hexagonal.domain.LotteryTicketId;
+import com.iluwatar.hexagonal.domain.PlayerDetails;
+import com.iluwatar.hexagonal.test.FakeMongoCollection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Saves 20000 tickets to {@link MongoTicketRepository}, backed by fake collections taking 100 us
+ * per call as a round trip to a server would, first reserving each id on its own as the repository
+ * used to, then reserving ids in blocks of 100, and then with a single {@code saveAll}. Reports
+ * the time taken and the round trips to both collections, and the time to stream every ticket
+ * back.
+ *
+ * <p>Run the main method; it is not part of the test suite.
+ */
+@Slf4j
+public class TicketRepositoryBenchmark {
+
+  private static final int TICKETS = 20_000;
+  private static final Duration ROUND_TRIP = Duration.ofNanos(100_000);
+
+  /**
+   * Program entry point.
+   *
+   * @param args command line args
+   */
+  public static void main(String[] args) {
+    var tickets = new ArrayList<LotteryTicket>();
+    for (var i = 0; i < TICKETS; i++) {
+      var player = new PlayerDetails("player" + i + "@lottery.com", "100-" + i, "+" + i);
+      tickets.add(new LotteryTicket(new LotteryTicketId(), player, LotteryNumbers.createRandom()));
+    }
+    for (var round = 0; round < 2; round++) { //the first round warms up
+      saveOneByOne("id per save", 1, tickets);
+      saveOneByOne("ids in blocks of 100", 100, tickets);
+      var ticketsCollection = new FakeMongoCollection(ROUND_TRIP);
+      var countersCollection = new FakeMongoCollection(ROUND_TRIP);
+      var repository = new MongoTicketRepository(ticketsCollection.collection(),
+          countersCollection.collection(), 100);
+      var start = System.nanoTime();
+      repository.saveAll(tickets);
+      report("saveAll", start, repository, ticketsCollection, countersCollection);
+    }
+  }
+
+  private static void saveOneByOne(String name, int idBlockSize, List<LotteryTicket> tickets) {
+    var ticketsCollection = new FakeMongoCollection(ROUND_TRIP);
+    var countersCollection = new FakeMongoCollection(ROUND_TRIP);
+    var repository = new MongoTicketRepository(ticketsCollection.collection(),
+        countersCollection.collection(), idBlockSize);
+    var start = System.nanoTime();
+    tickets.forEach(repository::save);
+    report(name, start, repository, ticketsCollection, countersCollection);
+  }
+
+  private static void report(String name, long start, MongoTicketRepository repository,
+      FakeMongoCollection ticketsCollection, FakeMongoCollection countersCollection) {
+    var saved = System.nanoTime() - start;
+    start = System.nanoTime();
+    long streamed;
+    try (var all = repository.streamAll()) {
+      streamed = all.count();
+    }
+    var read = System.nanoTime() - start;
+    LOGGER.info("{}: saved in {} ms with {} inserts and {} counter updates, streamed {} in {} ms",
+        name, TimeUnit.NANOSECONDS.toMillis(saved), ticketsCollection.getWrites(),
+        countersCollection.getCalls("findOneAndUpdate"), streamed,
+        TimeUnit.NANOSECONDS.toMillis(read));
+  }
+}
@@ -0,0 +1,189 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.hexagonal.domain;
+
+import static com.iluwatar.hexagonal.domain.LotteryConstants.PRIZE_AMOUNT;
+import static com.iluwatar.hexagonal.domain.LotteryConstants.SERVICE_BANK_ACCOUNT;
+
+import com.iluwatar.hexagonal.banking.InMemoryBank;
+import com.iluwatar.hexagonal.database.InMemoryTicketRepository;
+import com.iluwatar.hexagonal.eventlog.LotteryEventLog;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Draws a lottery of 10^7 tickets held by {@link InMemoryTicketRepository}, first the way
+ * {@link LotteryAdministration} used to, looking every ticket up again and checking it with
+ * {@link LotteryUtils} before paying it, and then with {@link LotteryAdministration} as it is,
+ * finding the winners through the index on the numbers and paying them in parallel batches.
+ * Events are only counted.
+ *
+ * <p>Run the main method with -Xmx3g; it is not part of the test suite.
+ */
+@Slf4j
+public class LotteryDrawBenchmark {
+
+  private static final int TICKETS = 10_000_000;
+  private static final int PLAYERS = 1_000;
+
+  /**
+   * Program entry point.
+   *
+   * @param args command line args
+   */
+  public static void main(String[] args) {
+    var repository = new InMemoryTicketRepository();
+    var bank = new InMemoryBank();
+    var events = new CountingEventLog();
+    var payouts = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    var administration = new LotteryAdministration(repository, events, bank, payouts);
+    try {
+      var start = System.nanoTime();
+      submitTickets(repository);
+      LOGGER.info("submitted {} tickets in {} ms", TICKETS, millisSince(start));
+      for (var round = 0; round < 2; round++) { //the first round warms up
+        bank.setFunds(SERVICE_BANK_ACCOUNT, Integer.MAX_VALUE);
+        events.reset();
+        start = System.nanoTime();
+        var numbers = drawOneByOne(repository, bank, events);
+        LOGGER.info("ticket by ticket: {} ms, {}", millisSince(start), events);
+
+        bank.setFunds(SERVICE_BANK_ACCOUNT, Integer.MAX_VALUE);
+        events.reset();
+        start = System.nanoTime();
+        numbers = administration.performLottery();
+        LOGGER.info("indexed winners, parallel payouts: {} ms, {}", millisSince(start), events);
+
+        start = System.nanoTime();
+        var winners = repository.findByNumbers(numbers).size();
+        LOGGER.info("finding the {} winners of {}: {} us", winners, numbers,
+            TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+      }
+    } finally {
+      payouts.shutdown();
+      repository.deleteAll();
+    }
+  }
+
+  private static void submitTickets(InMemoryTicketRepository repository) {
+    //tickets share their numbers, as there are only 4845 different sets of them
+    var allNumbers = new ArrayList<LotteryNumbers>();
+    for (var mask = 0; mask < 1 << LotteryNumbers.MAX_NUMBER + 1; mask += 2) {
+      if (Integer.bitCount(mask) == LotteryNumbers.NUM_NUMBERS) {
+        allNumbers.add(LotteryNumbers.create(numbersOf(mask)));
+      }
+    }
+    var players = new ArrayList<PlayerDetails>(PLAYERS);
+    for (var i = 0; i < PLAYERS; i++) {
+      players.add(new PlayerDetails("player" + i + "@lottery.com", "100-" + i, "+" + i));
+    }
+    var random = ThreadLocalRandom.current();
+    for (var i = 0; i < TICKETS; i++) {
+      repository.save(new LotteryTicket(new LotteryTicketId(), players.get(i % PLAYERS),
+          allNumbers.get(random.nextInt(allNumbers.size()))));
+    }
+  }
+
+  /**
+   * Draw as {@link LotteryAdministration#performLottery()} did before the tickets were indexed.
+   */
+  private static LotteryNumbers drawOneByOne(InMemoryTicketRepository repository,
+      InMemoryBank bank, LotteryEventLog events) {
+    var numbers = LotteryNumbers.createRandom();
+    var tickets = repository.findAll();
+    for (var id : tickets.keySet()) {
+      var playerDetails = tickets.get(id).getPlayerDetails();
+      var result = LotteryUtils.checkTicketForPrize(repository, id, numbers).getResult();
+      if (result == LotteryTicketCheckResult.CheckResult.WIN_PRIZE) {
+        if (bank.transferFunds(PRIZE_AMOUNT, SERVICE_BANK_ACCOUNT, playerDetails.getBankAccount())) {
+          events.ticketWon(playerDetails, PRIZE_AMOUNT);
+        } else {
+          events.prizeError(playerDetails, PRIZE_AMOUNT);
+        }
+      } else if (result == LotteryTicketCheckResult.CheckResult.NO_PRIZE) {
+        events.ticketDidNotWin(playerDetails);
+      }
+    }
+    return numbers;
+  }
+
+  private static HashSet<Integer> numbersOf(int mask) {
+    var numbers = new HashSet<Integer>();
+    for (var number = LotteryNumbers.MIN_NUMBER; number <= LotteryNumbers.MAX_NUMBER; number++) {
+      if ((mask & 1 << number) != 0) {
+        numbers.add(number);
+      }
+    }
+    return numbers;
+  }
+
+  private static long millisSince(long start) {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+  }
+
+  private static class CountingEventLog implements LotteryEventLog {
+    private final LongAdder won = new LongAdder();
+    private final LongAdder didNotWin = new LongAdder();
+    private final LongAdder prizeErrors = new LongAdder();
+
+    void reset() {
+      won.reset();
+      didNotWin.reset();
+      prizeErrors.reset();
+    }
+
+    @Override
+    public void ticketSubmitted(PlayerDetails details) {
+    }
+
+    @Override
+    public void ticketSubmitError(PlayerDetails details) {
+    }
+
+    @Override
+    public void ticketDidNotWin(PlayerDetails details) {
+      didNotWin.increment();
+    }
+
+    @Override
+    public void ticketWon(PlayerDetails details, int prizeAmount) {
+      won.increment();
+    }
+
+    @Override
+    public void prizeError(PlayerDetails details, int prizeAmount) {
+      prizeErrors.increment();
+    }
+
+    @Override
+    public String toString() {
+      return "won " + won + ", did not win " + didNotWin + ", prize errors " + prizeErrors;
+    }
+  }
+}
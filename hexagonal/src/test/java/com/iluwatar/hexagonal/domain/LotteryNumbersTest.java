@@ -66,4 +66,18 @@ class LotteryNumbersTest {
     var numbers3 = LotteryNumbers.create(Set.of(11, 12, 13, 14));
     assertNotEquals(numbers1, numbers3);
   }
+
+  @Test
+  void testBitmask() {
+    var numbers = LotteryNumbers.create(Set.of(1, 2, 3, 20));
+    assertEquals(0b100000000000000001110, numbers.getBitmask());
+    assertEquals("1,2,3,20", numbers.getNumbersAsString());
+    assertEquals(numbers, LotteryNumbers.create(numbers.getNumbers()));
+  }
+
+  @Test
+  void testNumbersOutOfRange() {
+    assertThrows(IllegalArgumentException.class, () -> LotteryNumbers.create(Set.of(0, 1, 2, 3)));
+    assertThrows(IllegalArgumentException.class, () -> LotteryNumbers.create(Set.of(1, 2, 3, 21)));
+  }
 }
@@ -23,6 +23,9 @@
 
 package com.iluwatar.hexagonal.domain;
 
+import static com.iluwatar.hexagonal.domain.LotteryConstants.PRIZE_AMOUNT;
+import static com.iluwatar.hexagonal.domain.LotteryConstants.SERVICE_BANK_ACCOUNT;
+import static com.iluwatar.hexagonal.domain.LotteryConstants.SERVICE_BANK_ACCOUNT_BALANCE;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -31,10 +34,15 @@ import com.google.inject.Guice;
 import com.google.inject.Inject;
 import com.google.inject.Injector;
 import com.iluwatar.hexagonal.banking.WireTransfers;
+import com.iluwatar.hexagonal.database.InMemoryTicketRepository;
 import com.iluwatar.hexagonal.domain.LotteryTicketCheckResult.CheckResult;
+import com.iluwatar.hexagonal.eventlog.LotteryEventLog;
 import com.iluwatar.hexagonal.module.LotteryTestingModule;
 import com.iluwatar.hexagonal.test.LotteryTestUtils;
+import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -106,4 +114,70 @@ class LotteryTest {
     assertEquals(CheckResult.TICKET_NOT_SUBMITTED, checkResult.getResult());
     assertEquals(0, checkResult.getPrizeAmount());
   }
+
+  @Test
+  void testDrawPaysEveryWinner() {
+    administration.resetLottery();
+    var repository = new InMemoryTicketRepository();
+    var events = new CountingEventLog();
+    var payouts = Executors.newFixedThreadPool(4);
+    var draw = new LotteryAdministration(repository, events, wireTransfers, payouts);
+    // two tickets for every possible set of numbers
+    for (var mask = 0; mask < 1 << LotteryNumbers.MAX_NUMBER + 1; mask += 2) {
+      if (Integer.bitCount(mask) == LotteryNumbers.NUM_NUMBERS) {
+        var numbers = new HashSet<Integer>();
+        for (var number = 1; number <= LotteryNumbers.MAX_NUMBER; number++) {
+          if ((mask & 1 << number) != 0) {
+            numbers.add(number);
+          }
+        }
+        repository.save(LotteryTestUtils.createLotteryTicket("a@b.com", "124-1", "+1", numbers));
+        repository.save(LotteryTestUtils.createLotteryTicket("b@a.com", "124-2", "+2", numbers));
+      }
+    }
+    wireTransfers.setFunds(SERVICE_BANK_ACCOUNT, 2 * PRIZE_AMOUNT);
+    wireTransfers.setFunds("124-1", 0);
+    wireTransfers.setFunds("124-2", 0);
+
+    var winningNumbers = draw.performLottery();
+    payouts.shutdown();
+
+    assertEquals(2, repository.findByNumbers(winningNumbers).size());
+    assertEquals(2, events.won.get());
+    assertEquals(2 * 4845 - 2, events.didNotWin.get());
+    assertEquals(0, events.prizeErrors.get());
+    assertEquals(PRIZE_AMOUNT, wireTransfers.getFunds("124-1"));
+    assertEquals(PRIZE_AMOUNT, wireTransfers.getFunds("124-2"));
+    wireTransfers.setFunds(SERVICE_BANK_ACCOUNT, SERVICE_BANK_ACCOUNT_BALANCE);
+    administration.resetLottery();
+  }
+
+  private static class CountingEventLog implements LotteryEventLog {
+    private final AtomicInteger won = new AtomicInteger();
+    private final AtomicInteger didNotWin = new AtomicInteger();
+    private final AtomicInteger prizeErrors = new AtomicInteger();
+
+    @Override
+    public void ticketSubmitted(PlayerDetails details) {
+    }
+
+    @Override
+    public void ticketSubmitError(PlayerDetails details) {
+    }
+
+    @Override
+    public void ticketDidNotWin(PlayerDetails details) {
+      didNotWin.incrementAndGet();
+    }
+
+    @Override
+    public void ticketWon(PlayerDetails details, int prizeAmount) {
+      won.incrementAndGet();
+    }
+
+    @Override
+    public void prizeError(PlayerDetails details, int prizeAmount) {
+      prizeErrors.incrementAndGet();
+    }
+  }
 }
@@ -0,0 +1,184 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.hexagonal.eventlog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.iluwatar.hexagonal.domain.PlayerDetails;
+import com.iluwatar.hexagonal.test.FakeMongoCollection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link AsyncBatchingEventLog}
+ */
+class AsyncBatchingEventLogTest {
+
+  private final FakeMongoCollection events = new FakeMongoCollection();
+
+  @Test
+  void testWritesEventsInOrderInBatches() throws InterruptedException {
+    try (var eventLog = new AsyncBatchingEventLog(new MongoEventLog(events.collection()), 1_000,
+        100, Duration.ofMillis(100))) {
+      for (var i = 0; i < 2_500; i++) {
+        eventLog.ticketDidNotWin(player(i));
+      }
+      eventLog.flush();
+
+      assertEquals(0, eventLog.getPendingEvents());
+      assertEquals(emails(2_500), events.getDocuments().stream()
+          .map(document -> document.getString("email")).collect(Collectors.toList()));
+      assertTrue(events.getWrites() >= 25 && events.getWrites() < 2_500,
+          events.getWrites() + " writes");
+    }
+  }
+
+  @Test
+  void testWritesPartialBatchAfterMaxDelay() throws InterruptedException {
+    try (var eventLog = new AsyncBatchingEventLog(new MongoEventLog(events.collection()), 1_000,
+        1_000, Duration.ofMillis(50))) {
+      eventLog.ticketWon(player(1), 1000);
+      eventLog.prizeError(player(2), 1000);
+      eventLog.ticketSubmitted(player(3));
+
+      for (var waits = 0; waits < 100 && events.getDocuments().size() < 3; waits++) {
+        Thread.sleep(20);
+      }
+
+      assertEquals(3, events.getDocuments().size());
+      assertEquals(1, events.getWrites());
+      assertEquals("Lottery ticket won! The bank account was deposited with 1000 credits.",
+          events.getDocuments().get(0).getString(MongoEventLog.MESSAGE));
+    }
+  }
+
+  @Test
+  void testCloseWritesBufferedEventsAndRefusesMore() {
+    var eventLog = new AsyncBatchingEventLog(new MongoEventLog(events.collection()), 1_000,
+        1_000, Duration.ofSeconds(10));
+    for (var i = 0; i < 10; i++) {
+      eventLog.ticketSubmitError(player(i));
+    }
+
+    eventLog.close();
+
+    assertEquals(10, events.getDocuments().size());
+    assertThrows(IllegalStateException.class, () -> eventLog.ticketSubmitted(player(11)));
+  }
+
+  @Test
+  void testCountsEventsWhoseWriteFailed() throws InterruptedException {
+    var failing = new StdOutEventLog() {
+      @Override
+      public void logAll(List<LotteryEvent> events) {
+        throw new IllegalStateException("Mongo is down");
+      }
+    };
+    try (var eventLog = new AsyncBatchingEventLog(failing, 100, 10, Duration.ofMillis(10))) {
+      for (var i = 0; i < 25; i++) {
+        eventLog.ticketDidNotWin(player(i));
+      }
+      eventLog.flush();
+
+      assertEquals(25, eventLog.getFailedEvents());
+      assertEquals(0, eventLog.getPendingEvents());
+    }
+  }
+
+  @Test
+  void testFailsFastOnceTheWriterHasStopped() {
+    var broken = new StdOutEventLog() {
+      @Override
+      public void logAll(List<LotteryEvent> events) {
+        throw new AssertionError("Writer thread killed");
+      }
+    };
+    var eventLog = new AsyncBatchingEventLog(broken, 100, 10, Duration.ofMillis(10));
+    eventLog.ticketDidNotWin(player(1));
+
+    assertThrows(IllegalStateException.class, eventLog::flush);
+    assertThrows(IllegalStateException.class, () -> eventLog.ticketDidNotWin(player(2)));
+    assertThrows(IllegalStateException.class, eventLog::close);
+  }
+
+  @Test
+  void testWritesEveryEventAcceptedWhileClosing() throws InterruptedException {
+    var eventLog = new AsyncBatchingEventLog(new MongoEventLog(events.collection()), 1_000,
+        100, Duration.ofMillis(1));
+    var accepted = new AtomicInteger();
+    var loggers = new ArrayList<Thread>();
+    for (var t = 0; t < 4; t++) {
+      var logger = new Thread(() -> {
+        try {
+          while (true) {
+            eventLog.ticketSubmitted(player(accepted.get()));
+            accepted.incrementAndGet();
+          }
+        } catch (IllegalStateException e) {
+          // closed
+        }
+      });
+      loggers.add(logger);
+      logger.start();
+    }
+    Thread.sleep(50);
+
+    eventLog.close();
+    for (var logger : loggers) {
+      logger.join();
+    }
+
+    eventLog.flush();
+    assertEquals(accepted.get(), events.getDocuments().size());
+    assertEquals(0, eventLog.getPendingEvents());
+  }
+
+  @Test
+  void testMongoEventLogInsertsAllEventsAtOnce() {
+    var eventLog = new MongoEventLog(events.collection());
+
+    eventLog.logAll(List.of(new LotteryEvent(LotteryEvent.Type.TICKET_SUBMITTED, player(1)),
+        new LotteryEvent(LotteryEvent.Type.TICKET_DID_NOT_WIN, player(2))));
+
+    assertEquals(1, events.getWrites());
+    assertEquals(emails(3).subList(1, 3), events.getDocuments().stream()
+        .map(document -> document.getString("email")).collect(Collectors.toList()));
+  }
+
+  private static PlayerDetails player(int number) {
+    return new PlayerDetails("player" + number + "@lottery.com", "100-" + number, "+" + number);
+  }
+
+  private static List<String> emails(int players) {
+    return IntStream.range(0, players).mapToObj(number -> player(number).getEmail())
+        .collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,99 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.hexagonal.eventlog;
+
+import ch.qos.logback.classic.Level;
+import com.iluwatar.hexagonal.domain.PlayerDetails;
+import com.iluwatar.hexagonal.test.FakeMongoCollection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Logs the events of a lottery draw of 100000 tickets to {@link MongoEventLog}, backed by a fake
+ * collection taking 100 us per write as a round trip to a server would, first directly, one insert
+ * per event, and then through {@link AsyncBatchingEventLog}. Reports how long the drawing thread
+ * spends logging, how long until every event is written, and how many writes were made.
+ *
+ * <p>Run the main method; it is not part of the test suite.
+ */
+@Slf4j
+public class EventLogBenchmark {
+
+  private static final int EVENTS = 100_000;
+  private static final Duration WRITE_TIME = Duration.ofNanos(100_000);
+
+  /**
+   * Program entry point.
+   *
+   * @param args command line args
+   * @throws InterruptedException if interrupted while flushing
+   */
+  public static void main(String[] args) throws InterruptedException {
+    ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(StdOutEventLog.class))
+        .setLevel(Level.WARN);
+    var players = new ArrayList<PlayerDetails>();
+    for (var i = 0; i < 1_000; i++) {
+      players.add(new PlayerDetails("player" + i + "@lottery.com", "100-" + i, "+" + i));
+    }
+    for (var round = 0; round < 2; round++) { //the first round warms up
+      var direct = new FakeMongoCollection(WRITE_TIME);
+      var start = System.nanoTime();
+      logDraw(new MongoEventLog(direct.collection()), players);
+      var logged = System.nanoTime() - start;
+      report("insert per event", logged, logged, direct);
+
+      var batched = new FakeMongoCollection(WRITE_TIME);
+      try (var eventLog = new AsyncBatchingEventLog(new MongoEventLog(batched.collection()))) {
+        start = System.nanoTime();
+        logDraw(eventLog, players);
+        logged = System.nanoTime() - start;
+        eventLog.flush();
+        report("async batches", logged, System.nanoTime() - start, batched);
+      }
+    }
+  }
+
+  private static void logDraw(LotteryEventLog eventLog, List<PlayerDetails> players) {
+    for (var i = 0; i < EVENTS; i++) {
+      var player = players.get(i % players.size());
+      if (i % 10_000 == 0) {
+        eventLog.ticketWon(player, 1000);
+      } else {
+        eventLog.ticketDidNotWin(player);
+      }
+    }
+  }
+
+  private static void report(String name, long loggedNanos, long writtenNanos,
+      FakeMongoCollection collection) {
+    LOGGER.info("{}: {} events/s, logging took {} ms, all written after {} ms in {} writes",
+        name, EVENTS * TimeUnit.SECONDS.toNanos(1) / writtenNanos,
+        TimeUnit.NANOSECONDS.toMillis(loggedNanos), TimeUnit.NANOSECONDS.toMillis(writtenNanos),
+        collection.getWrites());
+  }
+}
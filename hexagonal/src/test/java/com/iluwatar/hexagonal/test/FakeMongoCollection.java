@@ -0,0 +1,355 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.hexagonal.test;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.ServerCursor;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.IndexOptions;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import org.bson.Document;
+
+/**
+ * In-memory stand-in for a Mongo collection, for tests that cannot reach a Mongo server. Supports
+ * inserts, counts, finds with equality filters, {@code $inc} and {@code $set} updates, deletes and
+ * unique indexes; every call to the server, and every batch a cursor fetches, may be made to take
+ * the time of a round trip.
+ */
+public class FakeMongoCollection {
+
+  private static final int DEFAULT_BATCH_SIZE = 101;
+
+  private final List<Document> documents = new ArrayList<>();
+  private final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+  private final Set<String> indexes = ConcurrentHashMap.newKeySet();
+  private final Map<String, Set<Object>> uniqueValues = new ConcurrentHashMap<>();
+  private final AtomicInteger openCursors = new AtomicInteger();
+  private final long roundTripNanos;
+
+  public FakeMongoCollection() {
+    this(Duration.ZERO);
+  }
+
+  public FakeMongoCollection(Duration roundTrip) {
+    this.roundTripNanos = roundTrip.toNanos();
+  }
+
+  /**
+   * @return collection storing its documents in this fake
+   */
+  @SuppressWarnings("unchecked")
+  public MongoCollection<Document> collection() {
+    return (MongoCollection<Document>) Proxy.newProxyInstance(getClass().getClassLoader(),
+        new Class<?>[] {MongoCollection.class}, (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "toString":
+              return "FakeMongoCollection" + getDocuments();
+            case "hashCode":
+              return System.identityHashCode(proxy);
+            case "equals":
+              return proxy == args[0];
+            case "find":
+              return find((Document) args[0]);
+            default:
+              break;
+          }
+          roundTrip(method.getName());
+          switch (method.getName()) {
+            case "insertOne":
+              insert(List.of((Document) args[0]));
+              return null;
+            case "insertMany":
+              insert((List<Document>) args[0]);
+              return null;
+            case "count":
+            case "countDocuments":
+              synchronized (documents) {
+                return (long) documents.size();
+              }
+            case "findOneAndUpdate":
+              return increment((Document) args[0], (Document) args[1]);
+            case "updateOne":
+              set((Document) args[0], (Document) args[1]);
+              return null;
+            case "createIndex":
+              var key = ((Document) args[0]).keySet().iterator().next();
+              indexes.add(key);
+              if (args.length > 1 && ((IndexOptions) args[1]).isUnique()) {
+                indexUnique(key);
+              }
+              return key + "_1";
+            case "deleteMany":
+              synchronized (documents) {
+                documents.removeIf(document -> matches(document, (Document) args[0]));
+              }
+              uniqueValues.keySet().forEach(this::indexUnique);
+              return null;
+            default:
+              throw new UnsupportedOperationException(method.getName());
+          }
+        });
+  }
+
+  /**
+   * @return copy of the documents stored, in insertion order
+   */
+  public List<Document> getDocuments() {
+    synchronized (documents) {
+      return new ArrayList<>(documents);
+    }
+  }
+
+  /**
+   * @return number of insert calls made so far
+   */
+  public int getWrites() {
+    return getCalls("insertOne") + getCalls("insertMany");
+  }
+
+  /**
+   * @return number of calls made so far to the collection method of the given name, or number of
+   *     batches fetched for {@code "getMore"}
+   */
+  public int getCalls(String method) {
+    var count = calls.get(method);
+    return count == null ? 0 : count.get();
+  }
+
+  /**
+   * @return fields indexed so far
+   */
+  public Set<String> getIndexes() {
+    return Set.copyOf(indexes);
+  }
+
+  /**
+   * @return fields given a unique index so far
+   */
+  public Set<String> getUniqueIndexes() {
+    return Set.copyOf(uniqueValues.keySet());
+  }
+
+  /**
+   * @return number of cursors opened and not yet exhausted or closed
+   */
+  public int getOpenCursors() {
+    return openCursors.get();
+  }
+
+  private void roundTrip(String call) {
+    calls.computeIfAbsent(call, name -> new AtomicInteger()).incrementAndGet();
+    if (roundTripNanos > 0) {
+      LockSupport.parkNanos(roundTripNanos);
+    }
+  }
+
+  private void insert(List<Document> inserted) {
+    synchronized (documents) {
+      for (var unique : uniqueValues.entrySet()) {
+        var values = new HashSet<>();
+        for (var document : inserted) {
+          var value = document.get(unique.getKey());
+          if (unique.getValue().contains(value) || !values.add(value)) {
+            throw new IllegalStateException("Duplicate " + unique.getKey() + ": " + value);
+          }
+        }
+      }
+      uniqueValues.forEach((key, values) ->
+          inserted.forEach(document -> values.add(document.get(key))));
+      documents.addAll(inserted);
+    }
+  }
+
+  private void indexUnique(String key) {
+    synchronized (documents) {
+      var values = new HashSet<>();
+      documents.forEach(document -> values.add(document.get(key)));
+      uniqueValues.put(key, values);
+    }
+  }
+
+  private Document increment(Document filter, Document update) {
+    synchronized (documents) {
+      for (var document : documents) {
+        if (matches(document, filter)) {
+          var before = new Document();
+          before.putAll(document);
+          var increments = (Document) update.get("$inc");
+          increments.forEach((key, amount) ->
+              document.merge(key, amount, (old, add) -> (Integer) old + (Integer) add));
+          return before;
+        }
+      }
+      return null;
+    }
+  }
+
+  private void set(Document filter, Document update) {
+    synchronized (documents) {
+      for (var document : documents) {
+        if (matches(document, filter)) {
+          document.putAll((Document) update.get("$set"));
+          return;
+        }
+      }
+    }
+  }
+
+  private static boolean matches(Document document, Document filter) {
+    return filter.entrySet().stream()
+        .allMatch(entry -> Objects.equals(document.get(entry.getKey()), entry.getValue()));
+  }
+
+  @SuppressWarnings("unchecked")
+  private FindIterable<Document> find(Document filter) {
+    var limit = new int[] {0};
+    var batchSize = new int[] {DEFAULT_BATCH_SIZE};
+    return (FindIterable<Document>) Proxy.newProxyInstance(getClass().getClassLoader(),
+        new Class<?>[] {FindIterable.class}, (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "limit":
+              limit[0] = (Integer) args[0];
+              return proxy;
+            case "batchSize":
+              batchSize[0] = (Integer) args[0];
+              return proxy;
+            case "iterator":
+              return cursor(filter, limit[0], batchSize[0]);
+            case "first":
+              try (var cursor = cursor(filter, 1, 1)) {
+                return cursor.hasNext() ? cursor.next() : null;
+              }
+            case "into":
+              try (var cursor = cursor(filter, limit[0], batchSize[0])) {
+                cursor.forEachRemaining(((Collection<Document>) args[0])::add);
+              }
+              return args[0];
+            case "forEach":
+              try (var cursor = cursor(filter, limit[0], batchSize[0])) {
+                cursor.forEachRemaining(((java.util.function.Consumer<Document>) args[0]));
+              }
+              return null;
+            case "hashCode":
+              return System.identityHashCode(proxy);
+            case "equals":
+              return proxy == args[0];
+            default:
+              throw new UnsupportedOperationException(method.getName());
+          }
+        });
+  }
+
+  /**
+   * Cursor fetching the matching documents in batches, each batch a round trip.
+   */
+  private MongoCursor<Document> cursor(Document filter, int limit, int batchSize) {
+    roundTrip("find");
+    openCursors.incrementAndGet();
+    return new MongoCursor<>() {
+      private final List<Document> batch = new ArrayList<>();
+      private int position;
+      private int returned;
+      private boolean fetched;
+      private boolean open = true;
+
+      @Override
+      public boolean hasNext() {
+        if (position == batch.size() && open) {
+          fetch();
+        }
+        return position < batch.size();
+      }
+
+      @Override
+      public Document next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        returned++;
+        return batch.get(position++);
+      }
+
+      @Override
+      public Document tryNext() {
+        return hasNext() ? next() : null;
+      }
+
+      @Override
+      public ServerCursor getServerCursor() {
+        return null;
+      }
+
+      @Override
+      public ServerAddress getServerAddress() {
+        return new ServerAddress();
+      }
+
+      @Override
+      public void close() {
+        if (open) {
+          open = false;
+          openCursors.decrementAndGet();
+        }
+      }
+
+      private void fetch() {
+        if (fetched) {
+          roundTrip("getMore");
+        }
+        var wanted = limit > 0 ? Math.min(batchSize, limit - returned) : batchSize;
+        var skip = returned;
+        batch.clear();
+        position = 0;
+        synchronized (documents) {
+          for (var document : documents) {
+            if (batch.size() == wanted) {
+              break;
+            }
+            if (matches(document, filter) && skip-- <= 0) {
+              batch.add(document);
+            }
+          }
+        }
+        fetched = true;
+        if (batch.size() < wanted || wanted == 0) {
+          close();
+        }
+      }
+    };
+  }
+}
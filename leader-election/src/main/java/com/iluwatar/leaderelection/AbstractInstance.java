@@ -23,46 +23,75 @@
 
 package com.iluwatar.leaderelection;
 
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Abstract class of all the instance implementation classes.
+ *
+ * <p>An instance blocks on its message queue while it has nothing to do, so idle instances cost no
+ * CPU, and its next heartbeat is handed on by a scheduler shared by all instances instead of a
+ * sleep that would hold up its messages.
  */
 @Slf4j
 public abstract class AbstractInstance implements Instance, Runnable {
 
   protected static final int HEARTBEAT_INTERVAL = 5000;
-  private static final String INSTANCE = "Instance ";
+  private static final String INSTANCE = "Instance {}";
+
+  private static final ScheduledExecutorService HEARTBEAT_SCHEDULER =
+      Executors.newSingleThreadScheduledExecutor(runnable -> {
+        var thread = new Thread(runnable, "heartbeat-scheduler");
+        thread.setDaemon(true);
+        return thread;
+      });
 
   protected MessageManager messageManager;
-  protected Queue<Message> messageQueue;
+  protected BlockingQueue<Message> messageQueue;
   protected final int localId;
-  protected int leaderId;
-  protected boolean alive;
+  protected volatile int leaderId;
+  protected volatile boolean alive;
+  protected final long heartbeatInterval;
 
   /**
    * Constructor of BullyInstance.
    */
   public AbstractInstance(MessageManager messageManager, int localId, int leaderId) {
+    this(messageManager, localId, leaderId, HEARTBEAT_INTERVAL);
+  }
+
+  /**
+   * Constructor of AbstractInstance with a heartbeat interval.
+   *
+   * @param heartbeatInterval milliseconds between the heartbeats of two instances
+   */
+  public AbstractInstance(MessageManager messageManager, int localId, int leaderId,
+                          long heartbeatInterval) {
     this.messageManager = messageManager;
-    this.messageQueue = new ConcurrentLinkedQueue<>();
+    this.messageQueue = new LinkedBlockingQueue<>();
     this.localId = localId;
     this.leaderId = leaderId;
     this.alive = true;
+    this.heartbeatInterval = heartbeatInterval;
   }
 
   /**
-   * The instance will execute the message in its message queue periodically once it is alive.
+   * The instance will execute the messages in its message queue as they arrive, until its thread
+   * is interrupted.
    */
   @Override
-  @SuppressWarnings("squid:S2189")
   public void run() {
-    while (true) {
-      if (!this.messageQueue.isEmpty()) {
-        this.processMessage(this.messageQueue.remove());
+    try {
+      while (!Thread.currentThread().isInterrupted()) {
+        this.processMessage(this.messageQueue.take());
       }
+    } catch (InterruptedException e) {
+      LOGGER.info(INSTANCE + " - Stopped.", localId);
+      Thread.currentThread().interrupt();
     }
   }
 
@@ -97,6 +126,24 @@ public abstract class AbstractInstance implements Instance, Runnable {
     this.alive = alive;
   }
 
+  /**
+   * Hand the heartbeat on to the next instance once the heartbeat interval has passed.
+   */
+  protected void scheduleHeartbeat() {
+    HEARTBEAT_SCHEDULER.schedule(() -> messageManager.sendHeartbeatInvokeMessage(localId),
+        heartbeatInterval, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Post a message to this instance once the heartbeat interval has passed.
+   *
+   * @param message message to handle later
+   */
+  protected void scheduleMessage(Message message) {
+    HEARTBEAT_SCHEDULER.schedule(() -> onMessage(message), heartbeatInterval,
+        TimeUnit.MILLISECONDS);
+  }
+
   /**
    * Process the message according to its type.
    *
@@ -105,27 +152,27 @@ public abstract class AbstractInstance implements Instance, Runnable {
   private void processMessage(Message message) {
     switch (message.getType()) {
       case ELECTION:
-        LOGGER.info(INSTANCE + localId + " - Election Message handling...");
+        LOGGER.info(INSTANCE + " - Election Message handling...", localId);
         handleElectionMessage(message);
         break;
       case LEADER:
-        LOGGER.info(INSTANCE + localId + " - Leader Message handling...");
+        LOGGER.info(INSTANCE + " - Leader Message handling...", localId);
         handleLeaderMessage(message);
         break;
       case HEARTBEAT:
-        LOGGER.info(INSTANCE + localId + " - Heartbeat Message handling...");
+        LOGGER.info(INSTANCE + " - Heartbeat Message handling...", localId);
         handleHeartbeatMessage(message);
         break;
       case ELECTION_INVOKE:
-        LOGGER.info(INSTANCE + localId + " - Election Invoke Message handling...");
+        LOGGER.info(INSTANCE + " - Election Invoke Message handling...", localId);
         handleElectionInvokeMessage();
         break;
       case LEADER_INVOKE:
-        LOGGER.info(INSTANCE + localId + " - Leader Invoke Message handling...");
+        LOGGER.info(INSTANCE + " - Leader Invoke Message handling...", localId);
         handleLeaderInvokeMessage();
         break;
       case HEARTBEAT_INVOKE:
-        LOGGER.info(INSTANCE + localId + " - Heartbeat Invoke Message handling...");
+        LOGGER.info(INSTANCE + " - Heartbeat Invoke Message handling...", localId);
         handleHeartbeatInvokeMessage();
         break;
       default:
@@ -23,9 +23,9 @@
 
 package com.iluwatar.leaderelection;
 
-import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 /**
  * Abstract class of all the message manager classes.
@@ -33,42 +33,41 @@ import java.util.stream.Collectors;
 public abstract class AbstractMessageManager implements MessageManager {
 
   /**
-   * Contain all the instances in the system. Key is its ID, and value is the instance itself.
+   * Contain all the instances in the system, ordered by ID. Key is its ID, and value is the
+   * instance itself.
    */
-  protected Map<Integer, Instance> instanceMap;
+  protected NavigableMap<Integer, Instance> instanceMap;
 
   /**
-   * Construtor of AbstractMessageManager.
+   * Construtor of AbstractMessageManager. A map not ordered by ID, such as a {@code HashMap}, is
+   * copied, so instances added to it later are not seen; pass a {@link ConcurrentSkipListMap} to
+   * add instances while the manager is in use.
    */
   public AbstractMessageManager(Map<Integer, Instance> instanceMap) {
-    this.instanceMap = instanceMap;
+    this.instanceMap = instanceMap instanceof NavigableMap
+        ? (NavigableMap<Integer, Instance>) instanceMap
+        : new ConcurrentSkipListMap<>(instanceMap);
   }
 
   /**
-   * Find the next instance with smallest ID.
+   * Find the next alive instance in the ring, that is the one with the smallest ID greater than the
+   * current one, or the alive instance with the smallest ID if there is none. The lookup is
+   * logarithmic in the number of instances, plus the dead instances passed over.
    *
    * @return The next instance.
    */
   protected Instance findNextInstance(int currentId) {
-    Instance result = null;
-    var candidateList = instanceMap.keySet()
-        .stream()
-        .filter((i) -> i > currentId && instanceMap.get(i).isAlive())
-        .sorted()
-        .collect(Collectors.toList());
-    if (candidateList.isEmpty()) {
-      var index = instanceMap.keySet()
-          .stream()
-          .filter((i) -> instanceMap.get(i).isAlive())
-          .sorted()
-          .collect(Collectors.toList())
-          .get(0);
-      result = instanceMap.get(index);
-    } else {
-      var index = candidateList.get(0);
-      result = instanceMap.get(index);
+    for (var instance : instanceMap.tailMap(currentId, false).values()) {
+      if (instance.isAlive()) {
+        return instance;
+      }
     }
-    return result;
+    for (var instance : instanceMap.headMap(currentId, true).values()) {
+      if (instance.isAlive()) {
+        return instance;
+      }
+    }
+    throw new IllegalStateException("No alive instance");
   }
 
 }
@@ -27,8 +27,8 @@ import com.iluwatar.leaderelection.Instance;
 import com.iluwatar.leaderelection.Message;
 import com.iluwatar.leaderelection.MessageManager;
 import com.iluwatar.leaderelection.MessageType;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 /**
  * Example of how to use bully leader election. Initially 5 instances is created in the clould
@@ -42,7 +42,7 @@ public class BullyApp {
    */
   public static void main(String[] args) {
 
-    Map<Integer, Instance> instanceMap = new HashMap<>();
+    Map<Integer, Instance> instanceMap = new ConcurrentSkipListMap<>();
     var messageManager = new BullyMessageManager(instanceMap);
 
     var instance1 = new BullyInstance(messageManager, 1, 1);
@@ -26,6 +26,8 @@ package com.iluwatar.leaderelection.bully;
 import com.iluwatar.leaderelection.AbstractInstance;
 import com.iluwatar.leaderelection.Message;
 import com.iluwatar.leaderelection.MessageManager;
+import com.iluwatar.leaderelection.MessageType;
+import java.util.concurrent.TimeUnit;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -41,6 +43,9 @@ import lombok.extern.slf4j.Slf4j;
 public class BullyInstance extends AbstractInstance {
   private static final String INSTANCE = "Instance ";
 
+  private boolean electing;
+  private long electionStart;
+
   /**
    * Constructor of BullyInstance.
    */
@@ -48,6 +53,14 @@ public class BullyInstance extends AbstractInstance {
     super(messageManager, localId, leaderId);
   }
 
+  /**
+   * Constructor of BullyInstance with a heartbeat interval in milliseconds.
+   */
+  public BullyInstance(MessageManager messageManager, int localId, int leaderId,
+                       long heartbeatInterval) {
+    super(messageManager, localId, leaderId, heartbeatInterval);
+  }
+
   /**
    * Process the heartbeat invoke message. After receiving the message, the instance will send a
    * heartbeat to leader to check its health. If alive, it will inform the next instance to do the
@@ -55,42 +68,30 @@ public class BullyInstance extends AbstractInstance {
    */
   @Override
   protected void handleHeartbeatInvokeMessage() {
-    try {
-      boolean isLeaderAlive = messageManager.sendHeartbeatMessage(leaderId);
-      if (isLeaderAlive) {
-        LOGGER.info(INSTANCE + localId + "- Leader is alive.");
-        Thread.sleep(HEARTBEAT_INTERVAL);
-        messageManager.sendHeartbeatInvokeMessage(localId);
-      } else {
-        LOGGER.info(INSTANCE + localId + "- Leader is not alive. Start election.");
-        boolean electionResult =
-            messageManager.sendElectionMessage(localId, String.valueOf(localId));
-        if (electionResult) {
-          LOGGER.info(INSTANCE + localId + "- Succeed in election. Start leader notification.");
-          messageManager.sendLeaderMessage(localId, localId);
-        }
-      }
-    } catch (InterruptedException e) {
-      LOGGER.info(INSTANCE + localId + "- Interrupted.");
+    boolean isLeaderAlive = messageManager.sendHeartbeatMessage(leaderId);
+    if (isLeaderAlive) {
+      LOGGER.info(INSTANCE + localId + "- Leader is alive.");
+      scheduleHeartbeat();
+    } else {
+      LOGGER.info(INSTANCE + localId + "- Leader is not alive. Start election.");
+      startElection();
     }
   }
 
   /**
    * Process election invoke message. Send election message to all the instances with smaller ID. If
    * any one of them is alive, do nothing. If no instance alive, send leader message to all the
-   * alive instance and restart heartbeat.
+   * alive instance and restart heartbeat. An instance already waiting for the result of its own
+   * election, or already following an alive leader, does not start another one, so each instance
+   * takes part in an election at most once. If no leader has been announced a heartbeat interval
+   * after it lost, for instance because the candidate it deferred to died, it elects again.
    */
   @Override
   protected void handleElectionInvokeMessage() {
-    if (!isLeader()) {
+    if (!isLeader() && (!electing || electionTimedOut())
+        && !messageManager.sendHeartbeatMessage(leaderId)) {
       LOGGER.info(INSTANCE + localId + "- Start election.");
-      boolean electionResult = messageManager.sendElectionMessage(localId, String.valueOf(localId));
-      if (electionResult) {
-        LOGGER.info(INSTANCE + localId + "- Succeed in election. Start leader notification.");
-        leaderId = localId;
-        messageManager.sendLeaderMessage(localId, localId);
-        messageManager.sendHeartbeatInvokeMessage(localId);
-      }
+      startElection();
     }
   }
 
@@ -100,9 +101,29 @@ public class BullyInstance extends AbstractInstance {
   @Override
   protected void handleLeaderMessage(Message message) {
     leaderId = Integer.valueOf(message.getContent());
+    electing = false;
     LOGGER.info(INSTANCE + localId + " - Leader update done.");
   }
 
+  private void startElection() {
+    electing = true;
+    electionStart = System.nanoTime();
+    boolean electionResult = messageManager.sendElectionMessage(localId, String.valueOf(localId));
+    if (electionResult) {
+      LOGGER.info(INSTANCE + localId + "- Succeed in election. Start leader notification.");
+      electing = false;
+      leaderId = localId;
+      messageManager.sendLeaderMessage(localId, localId);
+      messageManager.sendHeartbeatInvokeMessage(localId);
+    } else {
+      scheduleMessage(new Message(MessageType.ELECTION_INVOKE, ""));
+    }
+  }
+
+  private boolean electionTimedOut() {
+    return System.nanoTime() - electionStart >= TimeUnit.MILLISECONDS.toNanos(heartbeatInterval);
+  }
+
   private boolean isLeader() {
     return localId == leaderId;
   }
@@ -70,7 +70,7 @@ public class BullyMessageManager extends AbstractMessageManager {
       return true;
     } else {
       var electionMessage = new Message(MessageType.ELECTION_INVOKE, "");
-      candidateList.stream().forEach((i) -> instanceMap.get(i).onMessage(electionMessage));
+      candidateList.forEach((i) -> instanceMap.get(i).onMessage(electionMessage));
       return false;
     }
   }
@@ -111,9 +111,11 @@ public class BullyMessageManager extends AbstractMessageManager {
    * @return ID list of all the candidate instance.
    */
   private List<Integer> findElectionCandidateInstanceList(int currentId) {
-    return instanceMap.keySet()
+    return instanceMap.headMap(currentId, false)
+        .entrySet()
         .stream()
-        .filter((i) -> i < currentId && instanceMap.get(i).isAlive())
+        .filter((e) -> e.getValue().isAlive())
+        .map(Map.Entry::getKey)
         .collect(Collectors.toList());
   }
 
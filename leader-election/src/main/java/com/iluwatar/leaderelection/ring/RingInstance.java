@@ -26,8 +26,6 @@ package com.iluwatar.leaderelection.ring;
 import com.iluwatar.leaderelection.AbstractInstance;
 import com.iluwatar.leaderelection.Message;
 import com.iluwatar.leaderelection.MessageManager;
-import java.util.Arrays;
-import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -52,6 +50,14 @@ public class RingInstance extends AbstractInstance {
     super(messageManager, localId, leaderId);
   }
 
+  /**
+   * Constructor of RingInstance with a heartbeat interval in milliseconds.
+   */
+  public RingInstance(MessageManager messageManager, int localId, int leaderId,
+                      long heartbeatInterval) {
+    super(messageManager, localId, leaderId, heartbeatInterval);
+  }
+
   /**
    * Process the heartbeat invoke message. After receiving the message, the instance will send a
    * heartbeat to leader to check its health. If alive, it will inform the next instance to do the
@@ -59,18 +65,13 @@ public class RingInstance extends AbstractInstance {
    */
   @Override
   protected void handleHeartbeatInvokeMessage() {
-    try {
-      var isLeaderAlive = messageManager.sendHeartbeatMessage(this.leaderId);
-      if (isLeaderAlive) {
-        LOGGER.info(INSTANCE + localId + "- Leader is alive. Start next heartbeat in 5 second.");
-        Thread.sleep(HEARTBEAT_INTERVAL);
-        messageManager.sendHeartbeatInvokeMessage(this.localId);
-      } else {
-        LOGGER.info(INSTANCE + localId + "- Leader is not alive. Start election.");
-        messageManager.sendElectionMessage(this.localId, String.valueOf(this.localId));
-      }
-    } catch (InterruptedException e) {
-      LOGGER.info(INSTANCE + localId + "- Interrupted.");
+    var isLeaderAlive = messageManager.sendHeartbeatMessage(this.leaderId);
+    if (isLeaderAlive) {
+      LOGGER.info(INSTANCE + localId + "- Leader is alive. Start next heartbeat.");
+      scheduleHeartbeat();
+    } else {
+      LOGGER.info(INSTANCE + localId + "- Leader is not alive. Start election.");
+      messageManager.sendElectionMessage(this.localId, String.valueOf(this.localId));
     }
   }
 
@@ -83,13 +84,15 @@ public class RingInstance extends AbstractInstance {
   @Override
   protected void handleElectionMessage(Message message) {
     var content = message.getContent();
-    LOGGER.info(INSTANCE + localId + " - Election Message: " + content);
-    var candidateList = Arrays.stream(content.trim().split(","))
-        .map(Integer::valueOf)
-        .sorted()
-        .collect(Collectors.toList());
-    if (candidateList.contains(localId)) {
-      var newLeaderId = candidateList.get(0);
+    LOGGER.info(INSTANCE + "{} - Election Message: {}", localId, content);
+    var newLeaderId = Integer.MAX_VALUE;
+    var containsLocalId = false;
+    for (var id : content.trim().split(",")) {
+      var candidateId = Integer.parseInt(id);
+      newLeaderId = Math.min(newLeaderId, candidateId);
+      containsLocalId |= candidateId == localId;
+    }
+    if (containsLocalId) {
       LOGGER.info(INSTANCE + localId + " - New leader should be " + newLeaderId + ".");
       messageManager.sendLeaderMessage(localId, newLeaderId);
     } else {
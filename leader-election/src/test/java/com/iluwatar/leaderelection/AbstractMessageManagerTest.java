@@ -0,0 +1,81 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.leaderelection;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.iluwatar.leaderelection.bully.BullyInstance;
+import com.iluwatar.leaderelection.bully.BullyMessageManager;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/**
+ * AbstractMessageManager test case.
+ */
+public class AbstractMessageManagerTest {
+
+  private final BullyInstance instance1 = new BullyInstance(null, 1, 1);
+  private final BullyInstance instance2 = new BullyInstance(null, 2, 1);
+  private final BullyInstance instance3 = new BullyInstance(null, 3, 1);
+  private final BullyInstance instance4 = new BullyInstance(null, 4, 1);
+  private final AbstractMessageManager messageManager = new BullyMessageManager(
+      Map.of(1, instance1, 2, instance2, 3, instance3, 4, instance4));
+
+  @Test
+  void testFindNextInstance() {
+    assertSame(instance3, messageManager.findNextInstance(2));
+  }
+
+  @Test
+  void testFindNextInstanceSkipsDeadInstances() {
+    instance2.setAlive(false);
+    instance3.setAlive(false);
+    assertSame(instance4, messageManager.findNextInstance(1));
+  }
+
+  @Test
+  void testFindNextInstanceWrapsAround() {
+    assertSame(instance1, messageManager.findNextInstance(4));
+    instance1.setAlive(false);
+    assertSame(instance2, messageManager.findNextInstance(4));
+  }
+
+  @Test
+  void testFindNextInstanceReturnsItselfWhenAlone() {
+    instance1.setAlive(false);
+    instance2.setAlive(false);
+    instance4.setAlive(false);
+    assertSame(instance3, messageManager.findNextInstance(3));
+  }
+
+  @Test
+  void testFindNextInstanceFailsWithoutAliveInstance() {
+    for (var instance : new BullyInstance[] {instance1, instance2, instance3, instance4}) {
+      instance.setAlive(false);
+    }
+    assertThrows(IllegalStateException.class, () -> messageManager.findNextInstance(2));
+  }
+
+}
@@ -0,0 +1,125 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.leaderelection;
+
+import ch.qos.logback.classic.Level;
+import com.iluwatar.leaderelection.bully.BullyInstance;
+import com.iluwatar.leaderelection.bully.BullyMessageManager;
+import com.iluwatar.leaderelection.ring.RingInstance;
+import com.iluwatar.leaderelection.ring.RingMessageManager;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Starts a thousand instances with instance 1 as leader, stops the leader and measures how long
+ * Ring and Bully take until every alive instance follows instance 2, and how much CPU the
+ * instances use during the election and afterwards, while only heartbeats go round.
+ *
+ * <p>Run the main method; it is not part of the test suite.
+ */
+@Slf4j
+public class LeaderElectionBenchmark {
+
+  private static final int INSTANCES = 1_000;
+  private static final long HEARTBEAT_MILLIS = 10;
+  private static final long IDLE_MILLIS = 2_000;
+
+  /**
+   * Program entry point.
+   *
+   * @param args command line args
+   */
+  public static void main(String[] args) {
+    ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger("com.iluwatar.leaderelection"))
+        .setLevel(Level.WARN);
+    ((ch.qos.logback.classic.Logger) LOGGER).setLevel(Level.INFO);
+    run("ring", RingMessageManager::new,
+        (manager, id) -> new RingInstance(manager, id, 1, HEARTBEAT_MILLIS));
+    run("bully", BullyMessageManager::new,
+        (manager, id) -> new BullyInstance(manager, id, 1, HEARTBEAT_MILLIS));
+  }
+
+  private static void run(String name,
+                          Function<Map<Integer, Instance>, MessageManager> managers,
+                          InstanceFactory instances) {
+    Map<Integer, Instance> instanceMap = new ConcurrentSkipListMap<>();
+    var manager = managers.apply(instanceMap);
+    var threads = new ArrayList<Thread>();
+    var all = new ArrayList<AbstractInstance>();
+    for (var id = 1; id <= INSTANCES; id++) {
+      var instance = instances.create(manager, id);
+      instanceMap.put(id, instance);
+      all.add(instance);
+      var thread = new Thread(instance, name + "-" + id);
+      thread.setDaemon(true);
+      threads.add(thread);
+      thread.start();
+    }
+
+    all.get(0).setAlive(false);
+    var cpu = cpuNanos();
+    var start = System.nanoTime();
+    all.get(INSTANCES - 1).onMessage(new Message(MessageType.HEARTBEAT_INVOKE, ""));
+    while (!elected(all, 2)) {
+      LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+    }
+    var electionMillis = (System.nanoTime() - start) / 1_000_000;
+    var electionCpu = (cpuNanos() - cpu) / 1_000_000;
+
+    cpu = cpuNanos();
+    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(IDLE_MILLIS));
+    var idleCpu = (cpuNanos() - cpu) / 1_000_000;
+
+    threads.forEach(Thread::interrupt);
+    LOGGER.info("{}: {} instances elected a leader in {} ms using {} ms CPU;"
+            + " {} ms CPU in {} ms of heartbeats",
+        name, INSTANCES, electionMillis, electionCpu, idleCpu, IDLE_MILLIS);
+  }
+
+  private static boolean elected(List<AbstractInstance> instances, int leaderId) {
+    for (var instance : instances) {
+      if (instance.isAlive() && instance.leaderId != leaderId) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static long cpuNanos() {
+    return ((com.sun.management.OperatingSystemMXBean)
+        ManagementFactory.getOperatingSystemMXBean()).getProcessCpuTime();
+  }
+
+  private interface InstanceFactory {
+    AbstractInstance create(MessageManager manager, int id);
+  }
+}
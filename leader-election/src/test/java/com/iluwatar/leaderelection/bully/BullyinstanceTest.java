@@ -28,9 +28,14 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import com.iluwatar.leaderelection.AbstractInstance;
+import com.iluwatar.leaderelection.Instance;
 import com.iluwatar.leaderelection.Message;
 import com.iluwatar.leaderelection.MessageType;
+import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -75,4 +80,43 @@ public class BullyinstanceTest {
     assertFalse(bullyInstance.isAlive());
   }
 
+  @Test
+  void testElectsOnlyOnceWhileWaitingForResult() throws Exception {
+    var instanceMap = new ConcurrentSkipListMap<Integer, Instance>();
+    var messageManager = new BullyMessageManager(instanceMap);
+    var instance1 = new BullyInstance(messageManager, 1, 1);
+    var instance2 = new BullyInstance(messageManager, 2, 1);
+    var instance3 = new BullyInstance(messageManager, 3, 1, 60_000);
+    instanceMap.putAll(Map.of(1, instance1, 2, instance2, 3, instance3));
+    instance1.setAlive(false);
+    instance3.handleElectionInvokeMessage();
+    instance3.handleElectionInvokeMessage();
+    assertEquals(1, messageQueue(instance2).size());
+  }
+
+  @Test
+  void testElectsAgainWhenCandidateDies() throws Exception {
+    var instanceMap = new ConcurrentSkipListMap<Integer, Instance>();
+    var messageManager = new BullyMessageManager(instanceMap);
+    var instance1 = new BullyInstance(messageManager, 1, 1);
+    var instance2 = new BullyInstance(messageManager, 2, 1);
+    var instance3 = new BullyInstance(messageManager, 3, 1, 10);
+    instanceMap.putAll(Map.of(1, instance1, 2, instance2, 3, instance3));
+    instance1.setAlive(false);
+    instance3.handleElectionInvokeMessage();
+    assertEquals(new Message(MessageType.ELECTION_INVOKE, ""), messageQueue(instance2).poll());
+    instance2.setAlive(false);
+    var retry = messageQueue(instance3).poll(10, TimeUnit.SECONDS);
+    assertEquals(new Message(MessageType.ELECTION_INVOKE, ""), retry);
+    instance3.handleElectionInvokeMessage();
+    assertEquals(new Message(MessageType.LEADER, "3"), messageQueue(instance2).poll());
+  }
+
+  @SuppressWarnings("unchecked")
+  private static BlockingQueue<Message> messageQueue(BullyInstance instance) throws Exception {
+    var messageQueueField = AbstractInstance.class.getDeclaredField("messageQueue");
+    messageQueueField.setAccessible(true);
+    return (BlockingQueue<Message>) messageQueueField.get(instance);
+  }
+
 }
@@ -26,6 +26,7 @@ package com.iluwatar.leaderfollowers;
 import java.security.SecureRandom;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * Leader/Followers pattern is a concurrency pattern. This pattern behaves like a taxi stand where
@@ -53,7 +54,12 @@ import java.util.concurrent.TimeUnit;
  * The Leader/Followers pattern simplifies the programming of concurrency models where multiple
  * threads can receive requests, process responses, and de-multiplex connections using a shared
  * handle set.
+ *
+ * <p>The {@link LockFreeWorkCenter} is a variant where the followers park on a lock-free stack and
+ * the leader wakes up exactly one of them. Its leader selects tasks from several {@link TaskSet}s
+ * through a {@link HandleSet}.
  */
+@Slf4j
 public class App {
 
   /**
@@ -65,6 +71,12 @@ public class App {
     var workCenter = new WorkCenter();
     workCenter.createWorkers(4, taskSet, taskHandler);
     execute(workCenter, taskSet);
+
+    var firstTaskSet = new TaskSet();
+    var secondTaskSet = new TaskSet();
+    var lockFreeWorkCenter = new LockFreeWorkCenter();
+    lockFreeWorkCenter.createWorkers(4, new HandleSet(firstTaskSet, secondTaskSet), taskHandler);
+    execute(lockFreeWorkCenter, firstTaskSet, secondTaskSet);
   }
 
   /**
@@ -80,6 +92,23 @@ public class App {
     exec.shutdownNow();
   }
 
+  /**
+   * Start the lock-free work center, dispatch tasks to both task sets and report the handoff
+   * latency.
+   */
+  private static void execute(LockFreeWorkCenter workCenter, TaskSet... taskSets)
+      throws InterruptedException {
+    var workers = workCenter.getWorkers();
+    var exec = Executors.newFixedThreadPool(workers.size());
+    workers.forEach(exec::submit);
+    for (var taskSet : taskSets) {
+      addTasks(taskSet);
+    }
+    exec.awaitTermination(2, TimeUnit.SECONDS);
+    exec.shutdownNow();
+    LOGGER.info("Leadership handoffs: " + workCenter.getHandoffMetrics());
+  }
+
   /**
    * Add tasks.
    */
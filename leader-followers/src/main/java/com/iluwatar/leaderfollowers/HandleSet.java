@@ -0,0 +1,100 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.leaderfollowers;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A HandleSet de-multiplexes several {@link TaskSet}s for the leader. The task sets are polled
+ * round-robin, so a busy task set can not starve the others. When every task set is empty the
+ * leader parks until a task arrives in one of them.
+ *
+ * <p>Only the current leader selects from the handle set, therefore the round-robin position needs
+ * no synchronization of its own. Leadership handoff makes it visible to the next leader.
+ */
+public class HandleSet {
+
+  private final TaskSet[] taskSets;
+  private volatile Thread waiter;
+  private int next;
+
+  /**
+   * Create a handle set over the given task sets.
+   */
+  public HandleSet(TaskSet... taskSets) {
+    if (taskSets.length == 0) {
+      throw new IllegalArgumentException("At least one task set is required");
+    }
+    this.taskSets = taskSets.clone();
+    for (var taskSet : this.taskSets) {
+      taskSet.addListener(this::signal);
+    }
+  }
+
+  /**
+   * Wait for the next task from any of the task sets.
+   */
+  public Task select() throws InterruptedException {
+    while (true) {
+      var task = poll();
+      if (task != null) {
+        return task;
+      }
+      waiter = Thread.currentThread();
+      task = poll();
+      if (task != null) {
+        waiter = null;
+        return task;
+      }
+      LockSupport.park(this);
+      waiter = null;
+      if (Thread.interrupted()) {
+        throw new InterruptedException();
+      }
+    }
+  }
+
+  public int getSize() {
+    return taskSets.length;
+  }
+
+  private Task poll() {
+    for (var i = 0; i < taskSets.length; i++) {
+      var index = next;
+      next = (index + 1) % taskSets.length;
+      var task = taskSets[index].poll();
+      if (task != null) {
+        return task;
+      }
+    }
+    return null;
+  }
+
+  private void signal() {
+    var thread = waiter;
+    if (thread != null) {
+      LockSupport.unpark(thread);
+    }
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.leaderfollowers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A work center that keeps its idle workers on a lock-free stack instead of a list guarded by the
+ * work center monitor. Every idle worker parks on its own, and promoting a new leader pops exactly
+ * one follower from the stack and unparks it, so no other follower is woken up.
+ *
+ * <p>Leadership is a token that is passed from thread to thread. Only the thread that holds the
+ * token pops from the stack, which keeps the stack free from the ABA problem. When the leader finds
+ * the stack empty the token is left vacant, and the next worker that joins the followers claims it.
+ */
+public class LockFreeWorkCenter {
+
+  private static final int WAITING = 0;
+  private static final int PROMOTED = 1;
+  private static final int CANCELLED = 2;
+
+  private final AtomicReference<Follower> followers = new AtomicReference<>();
+  private final AtomicBoolean vacant = new AtomicBoolean(true);
+  private final List<ParkingWorker> workers = new ArrayList<>();
+  private final HandoffMetrics handoffMetrics = new HandoffMetrics();
+
+  /**
+   * Create workers that take their tasks from the handle set.
+   */
+  public List<ParkingWorker> createWorkers(int numberOfWorkers, HandleSet handleSet,
+      TaskHandler taskHandler) {
+    for (var id = 1; id <= numberOfWorkers; id++) {
+      workers.add(new ParkingWorker(id, this, handleSet, taskHandler));
+    }
+    return getWorkers();
+  }
+
+  public List<ParkingWorker> getWorkers() {
+    return Collections.unmodifiableList(workers);
+  }
+
+  public HandoffMetrics getHandoffMetrics() {
+    return handoffMetrics;
+  }
+
+  /**
+   * Count the parked followers.
+   */
+  public int getFollowerCount() {
+    var count = 0;
+    for (var follower = followers.get(); follower != null; follower = follower.next) {
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * Join the followers and park until promoted to leader.
+   */
+  void awaitLeadership(Follower follower) throws InterruptedException {
+    follower.state.set(WAITING);
+    push(follower);
+    if (vacant.get() && vacant.compareAndSet(true, false)) {
+      promoteFollower();
+    }
+    var parked = false;
+    while (follower.state.get() != PROMOTED) {
+      LockSupport.park(this);
+      parked = true;
+      if (Thread.interrupted()) {
+        if (!follower.state.compareAndSet(WAITING, CANCELLED)) {
+          promoteFollower();
+        }
+        throw new InterruptedException();
+      }
+    }
+    if (parked) {
+      handoffMetrics.record(System.nanoTime() - follower.promotedAt);
+    }
+  }
+
+  /**
+   * Pass leadership to exactly one parked follower, or leave it vacant if there is none.
+   */
+  void promoteFollower() {
+    while (true) {
+      var follower = pop();
+      if (follower == null) {
+        vacant.set(true);
+        if (followers.get() == null || !vacant.compareAndSet(true, false)) {
+          return;
+        }
+        continue;
+      }
+      follower.promotedAt = System.nanoTime();
+      if (follower.state.compareAndSet(WAITING, PROMOTED)) {
+        LockSupport.unpark(follower.thread);
+        return;
+      }
+    }
+  }
+
+  private void push(Follower follower) {
+    Follower head;
+    do {
+      head = followers.get();
+      follower.next = head;
+    } while (!followers.compareAndSet(head, follower));
+  }
+
+  private Follower pop() {
+    Follower head;
+    do {
+      head = followers.get();
+      if (head == null) {
+        return null;
+      }
+    } while (!followers.compareAndSet(head, head.next));
+    return head;
+  }
+
+  /**
+   * The stack node of a worker. It is reused every time the worker joins the followers.
+   */
+  static final class Follower {
+    private final AtomicInteger state = new AtomicInteger(WAITING);
+    private volatile long promotedAt;
+    private Follower next;
+    volatile Thread thread;
+  }
+}
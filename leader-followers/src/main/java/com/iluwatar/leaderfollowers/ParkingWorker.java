@@ -0,0 +1,76 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.leaderfollowers;
+
+import lombok.EqualsAndHashCode;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A worker of the {@link LockFreeWorkCenter}. While it is a follower it stays parked, and it only
+ * wakes up when the previous leader hands leadership over to it.
+ */
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Slf4j
+public class ParkingWorker implements Runnable {
+
+  @EqualsAndHashCode.Include
+  private final long id;
+  private final LockFreeWorkCenter workCenter;
+  private final HandleSet handleSet;
+  private final TaskHandler taskHandler;
+  private final LockFreeWorkCenter.Follower follower = new LockFreeWorkCenter.Follower();
+
+  /**
+   * Constructor to create a worker which will take work from the handle set.
+   */
+  public ParkingWorker(long id, LockFreeWorkCenter workCenter, HandleSet handleSet,
+      TaskHandler taskHandler) {
+    this.id = id;
+    this.workCenter = workCenter;
+    this.handleSet = handleSet;
+    this.taskHandler = taskHandler;
+  }
+
+  /**
+   * The leader waits for a task on the handle set. When a task arrives, it promotes one follower to
+   * be the new leader, handles the task and joins the followers again.
+   */
+  @Override
+  public void run() {
+    follower.thread = Thread.currentThread();
+    try {
+      workCenter.awaitLeadership(follower);
+      while (!Thread.currentThread().isInterrupted()) {
+        var task = handleSet.select();
+        workCenter.promoteFollower();
+        taskHandler.handleTask(task);
+        LOGGER.info("The Worker with the ID " + id + " completed the task");
+        workCenter.awaitLeadership(follower);
+      }
+    } catch (InterruptedException e) {
+      LOGGER.warn("Worker interrupted");
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -23,8 +23,10 @@
 
 package com.iluwatar.leaderfollowers;
 
+import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * A TaskSet is a collection of the tasks, the leader receives task from here.
@@ -32,15 +34,38 @@ import java.util.concurrent.BlockingQueue;
 public class TaskSet {
 
   private final BlockingQueue<Task> queue = new ArrayBlockingQueue<>(100);
+  private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
 
+  /**
+   * Add a task and notify the listeners that a task has arrived.
+   */
   public void addTask(Task task) throws InterruptedException {
     queue.put(task);
+    for (var listener : listeners) {
+      listener.run();
+    }
   }
 
   public Task getTask() throws InterruptedException {
     return queue.take();
   }
 
+  /**
+   * Take a task without waiting.
+   *
+   * @return the task or null if there is no task
+   */
+  public Task poll() {
+    return queue.poll();
+  }
+
+  /**
+   * Register a listener that is called after every added task.
+   */
+  public void addListener(Runnable listener) {
+    listeners.add(listener);
+  }
+
   public int getSize() {
     return queue.size();
   }
@@ -0,0 +1,77 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.iluwatar.leaderfollowers.HandleSet;
+import com.iluwatar.leaderfollowers.Task;
+import com.iluwatar.leaderfollowers.TaskSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for HandleSet
+ */
+class HandleSetTest {
+
+  @Test
+  void testSelectRoundRobin() throws InterruptedException {
+    var first = new TaskSet();
+    var second = new TaskSet();
+    var handleSet = new HandleSet(first, second);
+    var a = new Task(1);
+    var b = new Task(2);
+    var c = new Task(3);
+    first.addTask(a);
+    first.addTask(b);
+    second.addTask(c);
+    assertSame(a, handleSet.select());
+    assertSame(c, handleSet.select());
+    assertSame(b, handleSet.select());
+    assertEquals(2, handleSet.getSize());
+  }
+
+  @Test
+  void testSelectWaitsForTask() throws Exception {
+    var taskSet = new TaskSet();
+    var handleSet = new HandleSet(new TaskSet(), taskSet);
+    var executor = Executors.newSingleThreadExecutor();
+    var selected = executor.submit(handleSet::select);
+    Thread.sleep(50);
+    var task = new Task(10);
+    taskSet.addTask(task);
+    assertSame(task, selected.get(1, TimeUnit.SECONDS));
+    executor.shutdownNow();
+  }
+
+  @Test
+  void testEmptyHandleSet() {
+    assertThrows(IllegalArgumentException.class, () -> new HandleSet());
+  }
+
+}
@@ -0,0 +1,80 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.iluwatar.leaderfollowers.HandleSet;
+import com.iluwatar.leaderfollowers.LockFreeWorkCenter;
+import com.iluwatar.leaderfollowers.Task;
+import com.iluwatar.leaderfollowers.TaskHandler;
+import com.iluwatar.leaderfollowers.TaskSet;
+import java.util.ArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for LockFreeWorkCenter
+ */
+class LockFreeWorkCenterTest {
+
+  @Test
+  void testCreateWorkers() {
+    var workCenter = new LockFreeWorkCenter();
+    workCenter.createWorkers(5, new HandleSet(new TaskSet()), new TaskHandler());
+    assertEquals(5, workCenter.getWorkers().size());
+    assertEquals(0, workCenter.getFollowerCount());
+  }
+
+  @Test
+  void testAllTasksHandled() throws InterruptedException {
+    var first = new TaskSet();
+    var second = new TaskSet();
+    var workCenter = new LockFreeWorkCenter();
+    var workers = workCenter.createWorkers(4, new HandleSet(first, second), new TaskHandler());
+    var executor = Executors.newFixedThreadPool(workers.size());
+    workers.forEach(executor::submit);
+
+    var tasks = new ArrayList<Task>();
+    for (var i = 0; i < 20; i++) {
+      var task = new Task(5);
+      tasks.add(task);
+      (i % 2 == 0 ? first : second).addTask(task);
+    }
+    var deadline = System.currentTimeMillis() + 5000;
+    while (!tasks.stream().allMatch(Task::isFinished) && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    Thread.sleep(50);
+
+    assertTrue(tasks.stream().allMatch(Task::isFinished));
+    assertEquals(3, workCenter.getFollowerCount());
+    assertTrue(workCenter.getHandoffMetrics().getHandoffs() > 0);
+    executor.shutdownNow();
+    assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+  }
+
+}
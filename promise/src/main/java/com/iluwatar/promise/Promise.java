@@ -24,8 +24,8 @@
 package com.iluwatar.promise;
 
 import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -36,13 +36,14 @@ import java.util.function.Function;
  * the final value, the asynchronous method returns a promise of having a value at some point in the
  * future.
  *
+ * <p>Any number of dependent promises and error handlers can be attached to a promise. They run in
+ * the thread that fulfills the promise, or in the given executor for the {@code Async} variants.
+ * If the promise is already fulfilled they run right away in the calling thread.
+ *
  * @param <T> type of result.
  */
 public class Promise<T> extends PromiseSupport<T> {
 
-  private Runnable fulfillmentAction;
-  private Consumer<? super Throwable> exceptionHandler;
-
   /**
    * Creates a promise that will be fulfilled in future.
    */
@@ -50,44 +51,6 @@ public class Promise<T> extends PromiseSupport<T> {
     // Empty constructor
   }
 
-  /**
-   * Fulfills the promise with the provided value.
-   *
-   * @param value the fulfilled value that can be accessed using {@link #get()}.
-   */
-  @Override
-  public void fulfill(T value) {
-    super.fulfill(value);
-    postFulfillment();
-  }
-
-  /**
-   * Fulfills the promise with exception due to error in execution.
-   *
-   * @param exception the exception will be wrapped in {@link ExecutionException} when accessing the
-   *                  value using {@link #get()}.
-   */
-  @Override
-  public void fulfillExceptionally(Exception exception) {
-    super.fulfillExceptionally(exception);
-    handleException(exception);
-    postFulfillment();
-  }
-
-  private void handleException(Exception exception) {
-    if (exceptionHandler == null) {
-      return;
-    }
-    exceptionHandler.accept(exception);
-  }
-
-  private void postFulfillment() {
-    if (fulfillmentAction == null) {
-      return;
-    }
-    fulfillmentAction.run();
-  }
-
   /**
    * Executes the task using the executor in other thread and fulfills the promise returned once the
    * task completes either successfully or with an exception.
@@ -116,19 +79,28 @@ public class Promise<T> extends PromiseSupport<T> {
    */
   public Promise<Void> thenAccept(Consumer<? super T> action) {
     var dest = new Promise<Void>();
-    fulfillmentAction = new ConsumeAction(this, dest, action);
+    push(new ConsumeAction(dest, action, null));
+    return dest;
+  }
+
+  /**
+   * Like {@link #thenAccept(Consumer)}, but the action runs in the executor.
+   */
+  public Promise<Void> thenAcceptAsync(Consumer<? super T> action, Executor executor) {
+    var dest = new Promise<Void>();
+    push(new ConsumeAction(dest, action, executor));
     return dest;
   }
 
   /**
-   * Set the exception handler on this promise.
+   * Adds an exception handler to this promise.
    *
    * @param exceptionHandler a consumer that will handle the exception occurred while fulfilling the
    *                         promise.
    * @return this
    */
   public Promise<T> onError(Consumer<? super Throwable> exceptionHandler) {
-    this.exceptionHandler = exceptionHandler;
+    push(new ErrorAction(exceptionHandler));
     return this;
   }
 
@@ -140,61 +112,230 @@ public class Promise<T> extends PromiseSupport<T> {
    * @return a new promise.
    */
   public <V> Promise<V> thenApply(Function<? super T, V> func) {
-    Promise<V> dest = new Promise<>();
-    fulfillmentAction = new TransformAction<>(this, dest, func);
+    var dest = new Promise<V>();
+    push(new TransformAction<>(dest, func, null));
+    return dest;
+  }
+
+  /**
+   * Like {@link #thenApply(Function)}, but the function runs in the executor.
+   */
+  public <V> Promise<V> thenApplyAsync(Function<? super T, V> func, Executor executor) {
+    var dest = new Promise<V>();
+    push(new TransformAction<>(dest, func, executor));
+    return dest;
+  }
+
+  /**
+   * Returns a new promise that, when this promise is fulfilled normally, is fulfilled with the
+   * result of the promise returned by the function provided.
+   *
+   * @param func function returning the next promise.
+   * @return a new promise.
+   */
+  public <V> Promise<V> thenCompose(Function<? super T, Promise<V>> func) {
+    var dest = new Promise<V>();
+    push(new ComposeAction<>(dest, func));
+    return dest;
+  }
+
+  /**
+   * Returns a new promise that is fulfilled when all the given promises are fulfilled normally, or
+   * fulfilled exceptionally as soon as one of them is.
+   *
+   * @param promises promises to wait for.
+   * @return a new promise.
+   */
+  public static Promise<Void> allOf(Promise<?>... promises) {
+    var dest = new Promise<Void>();
+    if (promises.length == 0) {
+      dest.fulfill(null);
+      return dest;
+    }
+    var remaining = new AtomicInteger(promises.length);
+    for (var promise : promises) {
+      promise.push(new AllOfAction(promise, dest, remaining));
+    }
     return dest;
   }
 
   /**
-   * Accesses the value from source promise and calls the consumer, then fulfills the destination
+   * Returns a new promise that is fulfilled in the same way as the first of the given promises.
+   *
+   * @param promises promises to wait for.
+   * @return a new promise.
+   */
+  public static Promise<Object> anyOf(Promise<?>... promises) {
+    var dest = new Promise<Object>();
+    for (var promise : promises) {
+      promise.push(new RelayAction(promise, dest));
+    }
+    return dest;
+  }
+
+  /**
+   * Accesses the value from this promise and calls the consumer, then fulfills the destination
    * promise.
    */
-  private class ConsumeAction implements Runnable {
+  private class ConsumeAction extends Continuation {
 
-    private final Promise<T> src;
     private final Promise<Void> dest;
     private final Consumer<? super T> action;
 
-    private ConsumeAction(Promise<T> src, Promise<Void> dest, Consumer<? super T> action) {
-      this.src = src;
+    private ConsumeAction(Promise<Void> dest, Consumer<? super T> action, Executor executor) {
+      super(executor);
       this.dest = dest;
       this.action = action;
     }
 
+    @Override
+    void fail(Throwable throwable) {
+      dest.completeExceptionally(throwable);
+    }
+
     @Override
     public void run() {
+      if (isFailed()) {
+        dest.completeExceptionally(getFailure());
+        return;
+      }
       try {
-        action.accept(src.get());
+        action.accept(getValue());
         dest.fulfill(null);
       } catch (Throwable throwable) {
-        dest.fulfillExceptionally((Exception) throwable.getCause());
+        dest.completeExceptionally(throwable);
       }
     }
   }
 
   /**
-   * Accesses the value from source promise, then fulfills the destination promise using the
-   * transformed value. The source value is transformed using the transformation function.
+   * Accesses the value from this promise, then fulfills the destination promise using the
+   * transformed value. The value is transformed using the transformation function.
    */
-  private class TransformAction<V> implements Runnable {
+  private class TransformAction<V> extends Continuation {
 
-    private final Promise<T> src;
     private final Promise<V> dest;
     private final Function<? super T, V> func;
 
-    private TransformAction(Promise<T> src, Promise<V> dest, Function<? super T, V> func) {
-      this.src = src;
+    private TransformAction(Promise<V> dest, Function<? super T, V> func, Executor executor) {
+      super(executor);
       this.dest = dest;
       this.func = func;
     }
 
+    @Override
+    void fail(Throwable throwable) {
+      dest.completeExceptionally(throwable);
+    }
+
     @Override
     public void run() {
+      if (isFailed()) {
+        dest.completeExceptionally(getFailure());
+        return;
+      }
       try {
-        dest.fulfill(func.apply(src.get()));
+        dest.fulfill(func.apply(getValue()));
       } catch (Throwable throwable) {
-        dest.fulfillExceptionally((Exception) throwable.getCause());
+        dest.completeExceptionally(throwable);
+      }
+    }
+  }
+
+  /**
+   * Accesses the value from this promise and relays the outcome of the promise returned by the
+   * function to the destination promise.
+   */
+  private class ComposeAction<V> extends Continuation {
+
+    private final Promise<V> dest;
+    private final Function<? super T, Promise<V>> func;
+
+    private ComposeAction(Promise<V> dest, Function<? super T, Promise<V>> func) {
+      super(null);
+      this.dest = dest;
+      this.func = func;
+    }
+
+    @Override
+    public void run() {
+      if (isFailed()) {
+        dest.completeExceptionally(getFailure());
+        return;
+      }
+      try {
+        var next = func.apply(getValue());
+        next.push(new RelayAction(next, dest));
+      } catch (Throwable throwable) {
+        dest.completeExceptionally(throwable);
+      }
+    }
+  }
+
+  /**
+   * Calls the exception handler if this promise failed.
+   */
+  private class ErrorAction extends Continuation {
+
+    private final Consumer<? super Throwable> exceptionHandler;
+
+    private ErrorAction(Consumer<? super Throwable> exceptionHandler) {
+      super(null);
+      this.exceptionHandler = exceptionHandler;
+    }
+
+    @Override
+    public void run() {
+      if (isFailed()) {
+        exceptionHandler.accept(getFailure());
+      }
+    }
+  }
+
+  /**
+   * Completes the destination promise with the outcome of the source promise.
+   */
+  private static class RelayAction extends Continuation {
+
+    private final PromiseSupport<?> src;
+    private final PromiseSupport<?> dest;
+
+    private RelayAction(PromiseSupport<?> src, PromiseSupport<?> dest) {
+      super(null);
+      this.src = src;
+      this.dest = dest;
+    }
+
+    @Override
+    public void run() {
+      dest.completeWith(src);
+    }
+  }
+
+  /**
+   * Counts down the promises that are still running and fulfills the destination promise after the
+   * last one.
+   */
+  private static class AllOfAction extends Continuation {
+
+    private final Promise<?> src;
+    private final Promise<Void> dest;
+    private final AtomicInteger remaining;
+
+    private AllOfAction(Promise<?> src, Promise<Void> dest, AtomicInteger remaining) {
+      super(null);
+      this.src = src;
+      this.dest = dest;
+      this.remaining = remaining;
+    }
+
+    @Override
+    public void run() {
+      if (src.isFailed()) {
+        dest.completeExceptionally(src.getFailure());
+      } else if (remaining.decrementAndGet() == 0) {
+        dest.fulfill(null);
       }
     }
   }
-}
\ No newline at end of file
+}
@@ -23,50 +23,198 @@
 
 package com.iluwatar.promise;
 
+import java.util.ArrayDeque;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * A really simplified implementation of future that allows completing it successfully with a value
  * or exceptionally with an exception.
+ *
+ * <p>The future is lock-free. The result is set once with a compare-and-set, and everything that
+ * has to happen after completion, dependent actions as well as threads waiting in {@link #get()},
+ * is pushed on a Treiber stack of {@link Continuation}s. Whoever completes the future pops and runs
+ * the continuations. A continuation pushed after completion is run by the thread that pushed it.
+ * As continuations are popped from a stack, they run in reverse order of registration.
  */
 class PromiseSupport<T> implements Future<T> {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(PromiseSupport.class);
 
-  private static final int RUNNING = 1;
-  private static final int FAILED = 2;
-  private static final int COMPLETED = 3;
+  /**
+   * Stands for a {@code null} value, as {@code null} means the future is still running.
+   */
+  private static final Object NULL_VALUE = new Object();
+
+  @SuppressWarnings("rawtypes")
+  private static final AtomicReferenceFieldUpdater<PromiseSupport, Object> RESULT =
+      AtomicReferenceFieldUpdater.newUpdater(PromiseSupport.class, Object.class, "result");
+
+  @SuppressWarnings("rawtypes")
+  private static final AtomicReferenceFieldUpdater<PromiseSupport, Continuation> STACK =
+      AtomicReferenceFieldUpdater.newUpdater(PromiseSupport.class, Continuation.class, "stack");
 
-  private final Object lock;
+  private static final ThreadLocal<Trampoline> TRAMPOLINE =
+      ThreadLocal.withInitial(Trampoline::new);
 
-  private volatile int state = RUNNING;
-  private T value;
-  private Exception exception;
+  private volatile Object result;
+  private volatile Continuation stack;
 
   PromiseSupport() {
-    this.lock = new Object();
   }
 
-  void fulfill(T value) {
-    this.value = value;
-    this.state = COMPLETED;
-    synchronized (lock) {
-      lock.notifyAll();
+  /**
+   * Fulfills the promise with the provided value.
+   *
+   * @param value the fulfilled value that can be accessed using {@link #get()}.
+   */
+  public void fulfill(T value) {
+    complete(value == null ? NULL_VALUE : value);
+  }
+
+  /**
+   * Fulfills the promise with exception due to error in execution.
+   *
+   * @param exception the exception will be wrapped in {@link ExecutionException} when accessing the
+   *                  value using {@link #get()}.
+   */
+  public void fulfillExceptionally(Exception exception) {
+    completeExceptionally(exception);
+  }
+
+  final boolean completeExceptionally(Throwable throwable) {
+    return complete(new Failure(throwable));
+  }
+
+  /**
+   * Completes this future with the outcome of another one.
+   */
+  final boolean completeWith(PromiseSupport<?> other) {
+    return complete(other.result);
+  }
+
+  private boolean complete(Object outcome) {
+    if (RESULT.compareAndSet(this, null, outcome)) {
+      runContinuations();
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Registers a continuation to run when this future is done.
+   */
+  final void push(Continuation continuation) {
+    if (result != null) {
+      continuation.trigger();
+      return;
+    }
+    Continuation head;
+    do {
+      head = stack;
+      continuation.next = head;
+    } while (!STACK.compareAndSet(this, head, continuation));
+    if (result != null) {
+      runContinuations();
+    }
+  }
+
+  /**
+   * Runs the continuations of this future. Continuations that complete other futures while this
+   * thread is already running continuations are queued on the thread's trampoline instead of
+   * recursing, so that completing a deep chain of promises does not overflow the stack.
+   */
+  private void runContinuations() {
+    var trampoline = TRAMPOLINE.get();
+    if (trampoline.running) {
+      trampoline.pending.add(this);
+      return;
+    }
+    trampoline.running = true;
+    try {
+      PromiseSupport<?> next = this;
+      do {
+        next.popAndRunContinuations();
+      } while ((next = trampoline.pending.poll()) != null);
+    } finally {
+      trampoline.running = false;
     }
   }
 
-  void fulfillExceptionally(Exception exception) {
-    this.exception = exception;
-    this.state = FAILED;
-    synchronized (lock) {
-      lock.notifyAll();
+  private void popAndRunContinuations() {
+    Continuation head;
+    while ((head = stack) != null) {
+      if (STACK.compareAndSet(this, head, head.next)) {
+        head.next = null;
+        head.trigger();
+      }
+    }
+  }
+
+  /**
+   * Unlinks a waiter that gave up, and any other waiter that gave up meanwhile, from the stack.
+   */
+  private void removeWaiter(Waiter waiter) {
+    waiter.thread = null;
+    retry:
+    while (true) {
+      Continuation previous = null;
+      var node = stack;
+      while (node != null) {
+        var next = node.next;
+        if (!isRemovedWaiter(node)) {
+          previous = node;
+        } else if (previous != null) {
+          previous.next = next;
+          if (isRemovedWaiter(previous)) {
+            //the previous node gave up as well, start over
+            continue retry;
+          }
+        } else if (!STACK.compareAndSet(this, node, next)) {
+          continue retry;
+        }
+        node = next;
+      }
+      return;
     }
   }
 
+  private static boolean isRemovedWaiter(Continuation node) {
+    return node instanceof Waiter && ((Waiter) node).thread == null;
+  }
+
+  /**
+   * Counts the continuations waiting for this future.
+   */
+  final int countContinuations() {
+    var count = 0;
+    for (var node = stack; node != null; node = node.next) {
+      count++;
+    }
+    return count;
+  }
+
+  final boolean isFailed() {
+    return result instanceof Failure;
+  }
+
+  final Throwable getFailure() {
+    return ((Failure) result).throwable;
+  }
+
+  @SuppressWarnings("unchecked")
+  final T getValue() {
+    var value = result;
+    return value == NULL_VALUE ? null : (T) value;
+  }
+
   @Override
   public boolean cancel(boolean mayInterruptIfRunning) {
     return false;
@@ -79,38 +227,136 @@ class PromiseSupport<T> implements Future<T> {
 
   @Override
   public boolean isDone() {
-    return state > RUNNING;
+    return result != null;
   }
 
   @Override
   public T get() throws InterruptedException, ExecutionException {
-    synchronized (lock) {
-      while (state == RUNNING) {
-        lock.wait();
-      }
-    }
-    if (state == COMPLETED) {
-      return value;
+    if (result == null) {
+      await(false, 0L);
     }
-    throw new ExecutionException(exception);
+    return report();
   }
 
+  /**
+   * Waits at most the given time for the result.
+   *
+   * @throws ExecutionException if the future completed exceptionally, or with a {@link
+   *                            TimeoutException} or {@link InterruptedException} cause if the wait
+   *                            timed out or was interrupted
+   */
   @Override
   public T get(long timeout, TimeUnit unit) throws ExecutionException {
-    synchronized (lock) {
-      while (state == RUNNING) {
-        try {
-          lock.wait(unit.toMillis(timeout));
-        } catch (InterruptedException e) {
-          LOGGER.warn("Interrupted!", e);
-          Thread.currentThread().interrupt();
+    if (result == null) {
+      try {
+        if (!await(true, unit.toNanos(timeout))) {
+          throw new ExecutionException(new TimeoutException());
+        }
+      } catch (InterruptedException e) {
+        LOGGER.warn("Interrupted!", e);
+        Thread.currentThread().interrupt();
+        throw new ExecutionException(e);
+      }
+    }
+    return report();
+  }
+
+  private boolean await(boolean timed, long nanos) throws InterruptedException {
+    var waiter = new Waiter(Thread.currentThread());
+    push(waiter);
+    var deadline = timed ? System.nanoTime() + nanos : 0L;
+    while (result == null) {
+      if (Thread.interrupted()) {
+        removeWaiter(waiter);
+        throw new InterruptedException();
+      }
+      if (timed) {
+        var remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+          removeWaiter(waiter);
+          return false;
+        }
+        LockSupport.parkNanos(this, remaining);
+      } else {
+        LockSupport.park(this);
+      }
+    }
+    return true;
+  }
+
+  private T report() throws ExecutionException {
+    if (isFailed()) {
+      throw new ExecutionException(getFailure());
+    }
+    return getValue();
+  }
+
+  /**
+   * Futures whose continuations are waiting to be run by the current thread.
+   */
+  private static final class Trampoline {
+    private final ArrayDeque<PromiseSupport<?>> pending = new ArrayDeque<>();
+    private boolean running;
+  }
+
+  /**
+   * Outcome of a future that completed exceptionally.
+   */
+  private static final class Failure {
+    private final Throwable throwable;
+
+    private Failure(Throwable throwable) {
+      this.throwable = throwable;
+    }
+  }
+
+  /**
+   * Something that has to happen once a future is done. A continuation is a stack node and the
+   * task handed to an executor at the same time, so no wrapper is allocated per stage.
+   */
+  abstract static class Continuation implements Runnable {
+    private final Executor executor;
+    private Continuation next;
+
+    Continuation(Executor executor) {
+      this.executor = executor;
+    }
+
+    /**
+     * Completes the future depending on this continuation exceptionally, if there is one.
+     */
+    void fail(Throwable throwable) {
+    }
+
+    private void trigger() {
+      try {
+        if (executor == null) {
+          run();
+        } else {
+          executor.execute(this);
         }
+      } catch (Throwable throwable) {
+        //errors and rejected executions too, or the dependent future would never complete
+        LOGGER.error("Continuation failed", throwable);
+        fail(throwable);
       }
     }
+  }
+
+  /**
+   * Wakes up a thread waiting for the result.
+   */
+  private static final class Waiter extends Continuation {
+    private volatile Thread thread;
+
+    private Waiter(Thread thread) {
+      super(null);
+      this.thread = thread;
+    }
 
-    if (state == COMPLETED) {
-      return value;
+    @Override
+    public void run() {
+      LockSupport.unpark(thread);
     }
-    throw new ExecutionException(exception);
   }
 }
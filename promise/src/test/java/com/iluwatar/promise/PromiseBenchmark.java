@@ -0,0 +1,90 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.promise;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Compares {@link Promise} with {@link CompletableFuture} on deep chains of dependent stages. The
+ * chain is built first and then the head is fulfilled, so completion has to walk the whole chain.
+ *
+ * <p>Run the main method; it is not part of the test suite.
+ */
+@Slf4j
+public class PromiseBenchmark {
+
+  private static final int CHAIN_DEPTH = 10_000;
+  private static final int WARMUP_ROUNDS = 200;
+  private static final int MEASURED_ROUNDS = 500;
+
+  /**
+   * Program entry point.
+   *
+   * @param args command line args
+   */
+  public static void main(String[] args) throws Exception {
+    report("Promise", PromiseBenchmark::promiseChain);
+    report("CompletableFuture", PromiseBenchmark::completableFutureChain);
+  }
+
+  private static void report(String name, Supplier<Integer> chain) {
+    for (var i = 0; i < WARMUP_ROUNDS; i++) {
+      chain.get();
+    }
+    var start = System.nanoTime();
+    for (var i = 0; i < MEASURED_ROUNDS; i++) {
+      chain.get();
+    }
+    var nanosPerStage = (double) (System.nanoTime() - start) / MEASURED_ROUNDS / CHAIN_DEPTH;
+    LOGGER.info("{}: {} ns per stage for chains of {} stages",
+        name, String.format("%.1f", nanosPerStage), CHAIN_DEPTH);
+  }
+
+  private static Integer promiseChain() {
+    var head = new Promise<Integer>();
+    Promise<Integer> last = head;
+    for (var i = 0; i < CHAIN_DEPTH; i++) {
+      last = last.thenApply(value -> value + 1);
+    }
+    head.fulfill(0);
+    try {
+      return last.get();
+    } catch (InterruptedException | ExecutionException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static Integer completableFutureChain() {
+    var head = new CompletableFuture<Integer>();
+    CompletableFuture<Integer> last = head;
+    for (var i = 0; i < CHAIN_DEPTH; i++) {
+      last = last.thenApply(value -> value + 1);
+    }
+    head.complete(0);
+    return last.join();
+  }
+}
@@ -25,6 +25,7 @@ package com.iluwatar.promise;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.Matchers.eq;
@@ -35,7 +36,10 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -225,6 +229,158 @@ class PromiseTest {
     verify(exceptionHandler).accept(eq(exception));
   }
 
+  @Test
+  void allDependentPromisesAreFulfilled() throws InterruptedException, ExecutionException {
+    var first = promise.thenApply(value -> value + 1);
+    var second = promise.thenApply(value -> value * 2);
+    var errors = new AtomicInteger();
+    promise.onError(throwable -> errors.incrementAndGet());
+
+    promise.fulfill(10);
+
+    assertEquals(11, first.get());
+    assertEquals(20, second.get());
+    assertEquals(0, errors.get());
+  }
+
+  @Test
+  void allExceptionHandlersAreCalled() {
+    var errors = new AtomicInteger();
+    promise.onError(throwable -> errors.incrementAndGet());
+    promise.onError(throwable -> errors.incrementAndGet());
+
+    promise.fulfillExceptionally(new Exception("barf!"));
+
+    assertEquals(2, errors.get());
+  }
+
+  @Test
+  void dependentPromiseAddedAfterFulfillmentIsFulfilledImmediately() {
+    promise.fulfill(5);
+
+    var dependentPromise = promise.thenApply(value -> value + 1);
+
+    assertTrue(dependentPromise.isDone());
+  }
+
+  @Test
+  void asyncDependentPromiseRunsInTheExecutor() throws InterruptedException, ExecutionException {
+    var dependentPromise = promise.thenApplyAsync(value -> Thread.currentThread().getName(),
+        command -> new Thread(command, "promise-executor").start());
+
+    promise.fulfill(1);
+
+    assertEquals("promise-executor", dependentPromise.get());
+  }
+
+  @Test
+  void composedPromiseIsFulfilledWithTheResultOfTheReturnedPromise()
+      throws InterruptedException, ExecutionException {
+    var composed = promise
+        .fulfillInAsync(new NumberCrunchingTask(), executor)
+        .thenCompose(value -> new Promise<String>()
+            .fulfillInAsync(() -> "crunched " + value, executor));
+
+    assertEquals("crunched " + NumberCrunchingTask.CRUNCHED_NUMBER, composed.get());
+  }
+
+  @Test
+  void allOfIsFulfilledAfterAllPromises() throws InterruptedException, ExecutionException {
+    var other = new Promise<String>();
+    var all = Promise.allOf(promise, other);
+
+    promise.fulfill(1);
+    assertFalse(all.isDone());
+    other.fulfill("done");
+
+    assertTrue(all.isDone());
+    all.get();
+  }
+
+  @Test
+  void allOfFailsWhenOnePromiseFails() {
+    var other = new Promise<String>();
+    var all = Promise.allOf(promise, other);
+
+    other.fulfillExceptionally(new Exception("barf!"));
+
+    assertThrows(ExecutionException.class, all::get);
+  }
+
+  @Test
+  void anyOfIsFulfilledWithTheFirstResult() throws InterruptedException, ExecutionException {
+    var other = new Promise<String>();
+    var any = Promise.anyOf(promise, other);
+
+    other.fulfill("first");
+    promise.fulfill(2);
+
+    assertEquals("first", any.get());
+  }
+
+  @Test
+  void deepChainDoesNotOverflowTheStack() throws InterruptedException, ExecutionException {
+    Promise<Integer> last = promise;
+    for (var i = 0; i < 100_000; i++) {
+      last = last.thenApply(value -> value + 1);
+    }
+
+    promise.fulfill(0);
+
+    assertEquals(100_000, last.get());
+  }
+
+  @Test
+  void waitingForAPromiseTimesOut() {
+    var exception = assertThrows(ExecutionException.class,
+        () -> promise.get(10, TimeUnit.MILLISECONDS));
+
+    assertTrue(exception.getCause() instanceof TimeoutException);
+  }
+
+  @Test
+  void waitersThatTimedOutAreUnlinked() {
+    for (var i = 0; i < 10; i++) {
+      assertThrows(ExecutionException.class, () -> promise.get(1, TimeUnit.MILLISECONDS));
+    }
+    promise.thenApply(value -> value + 1);
+
+    assertEquals(1, promise.countContinuations());
+  }
+
+  @Test
+  void asyncDependentPromiseFailsWhenTheExecutorRejects() {
+    Executor rejecting = command -> {
+      throw new RejectedExecutionException("shut down");
+    };
+    var before = promise.thenApplyAsync(value -> value + 1, rejecting);
+
+    promise.fulfill(1);
+    var after = promise.thenAcceptAsync(value -> { }, rejecting);
+
+    var exception = assertThrows(ExecutionException.class, before::get);
+    assertTrue(exception.getCause() instanceof RejectedExecutionException);
+    exception = assertThrows(ExecutionException.class, after::get);
+    assertTrue(exception.getCause() instanceof RejectedExecutionException);
+  }
+
+  @Test
+  void errorInAHandlerDoesNotStopTheOtherContinuations()
+      throws InterruptedException, ExecutionException {
+    var dependent = promise.thenApply(value -> value + 1);
+    promise.onError(exception -> {
+      throw new AssertionError("handler failed");
+    });
+
+    promise.fulfillExceptionally(new Exception("barf!"));
+    var next = new Promise<Integer>();
+    var chained = next.thenApply(value -> value * 2);
+    next.fulfill(21);
+
+    assertThrows(ExecutionException.class, dependent::get);
+    assertEquals(42, chained.get());
+  }
+
   private static class NumberCrunchingTask implements Callable<Integer> {
 
     private static final Integer CRUNCHED_NUMBER = Integer.MAX_VALUE;
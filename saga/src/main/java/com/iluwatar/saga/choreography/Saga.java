@@ -29,7 +29,8 @@ import java.util.List;
 
 /**
  * Saga representation. Saga consists of chapters. Every ChoreographyChapter is executed a certain
- * service.
+ * service. A saga begun in a {@link SagaLog} records every chapter it completes there, so it can be
+ * resumed or compensated after a crash.
  */
 public class Saga {
 
@@ -37,6 +38,8 @@ public class Saga {
   private int pos;
   private boolean forward;
   private boolean finished;
+  private long id;
+  private SagaLog log;
 
 
   public static Saga create() {
@@ -110,10 +113,62 @@ public class Saga {
     chapters.get(pos).setResult(result);
   }
 
+  /**
+   * turn the saga back from the current chapter, so that the chapter and every chapter before it
+   * are rolled back. Used for sagas recovered from a {@link SagaLog} which should not go on.
+   *
+   * @return this
+   */
+  public Saga compensate() {
+    this.forward = false;
+    return this;
+  }
+
+  /**
+   * get id given by the saga log.
+   *
+   * @return id, 0 if the saga is not logged
+   */
+  public long getId() {
+    return id;
+  }
+
   void setFinished(boolean finished) {
     this.finished = finished;
   }
 
+  boolean isFinished() {
+    return finished;
+  }
+
+  void attach(SagaLog log, long id) {
+    this.log = log;
+    this.id = id;
+  }
+
+  void logStep(int chapter) {
+    if (log != null) {
+      log.step(this, chapter);
+    }
+  }
+
+  int position() {
+    return pos;
+  }
+
+  void restore(int pos, boolean forward) {
+    this.pos = pos;
+    this.forward = forward;
+  }
+
+  int chapterCount() {
+    return chapters.size();
+  }
+
+  Chapter getChapter(int idx) {
+    return chapters.get(idx);
+  }
+
   boolean isForward() {
     return forward;
   }
@@ -175,6 +230,10 @@ public class Saga {
       return name;
     }
 
+    ChapterResult getResult() {
+      return result;
+    }
+
     /**
      * set result.
      *
@@ -0,0 +1,425 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.saga.choreography;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Progress log of choreography sagas. A saga {@link #begin(Saga) begun} in the log records every
+ * chapter a service completes, together with where the saga goes next and the value handed on, and
+ * the service only passes the saga on once that record is durable. After a crash the log is
+ * reopened and the sagas still in flight are offered by {@link #inFlight()}, to be resumed by
+ * handing them to any service or rolled back after {@link Saga#compensate()}.
+ *
+ * <p>This is not a write-ahead log: a chapter is recorded only after the service has processed it,
+ * so the chapter that was running when the crash came is run again and chapters must tolerate being
+ * repeated. Logging is opt-in; {@link SagaApplication} runs its sagas without a log, and only sagas
+ * passed through {@link #begin(Saga)} or recovered by {@link #inFlight()} are recorded.
+ *
+ * <p>Records of concurrent sagas are committed in groups: the first thread to need its record
+ * written writes everything appended so far with a single write and sync, and the threads queued
+ * behind it find their records already durable. Opening the log replays it, cuts off a record torn
+ * by the crash and rewrites the file down to the sagas still in flight. The first failed write
+ * leaves the log unusable, as the records of that group may be torn and nothing may follow them.
+ *
+ * <p>Chapter values are stored with a compact tagged encoding and may be null, strings, integers,
+ * longs, booleans, doubles or byte arrays.
+ */
+public final class SagaLog implements Closeable {
+
+  private static final int MAGIC = 0x5341474C;
+  private static final byte NAME = 1;
+  private static final byte BEGIN = 2;
+  private static final byte STEP = 3;
+  private static final Saga.ChapterResult[] RESULTS = Saga.ChapterResult.values();
+
+  private final Path file;
+  private final boolean fsync;
+  private final FileChannel channel;
+  private final AtomicLong nextId;
+  private final List<Saga> inFlight;
+  private final Map<String, Integer> names;
+  private final Object bufferLock = new Object();
+  private final ReentrantLock flushLock = new ReentrantLock();
+  private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+  private long appended;
+  private volatile long flushed;
+  private long batches;
+  private boolean closed;
+  private IOException failure;
+
+  private SagaLog(Path file, boolean fsync, Replay replay) throws IOException {
+    this.file = file;
+    this.fsync = fsync;
+    this.names = new HashMap<>();
+    if (replay != null) {
+      compact(replay.live.values());
+    }
+    this.channel = FileChannel.open(file, CREATE, WRITE);
+    if (channel.size() == 0) {
+      channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, MAGIC));
+    }
+    channel.position(channel.size());
+    var live = replay == null ? List.<Saga>of() : new ArrayList<>(replay.live.values());
+    live.forEach(saga -> saga.attach(this, saga.getId()));
+    this.inFlight = Collections.unmodifiableList(live);
+    this.nextId = new AtomicLong(replay == null ? 1 : replay.maxId + 1);
+  }
+
+  /**
+   * Opens the log, recovering the sagas in flight when it was last used.
+   *
+   * @param file  log file, created if missing
+   * @param fsync whether a record must reach the disk before the saga moves on, rather than only
+   *              the operating system
+   * @return the log
+   * @throws IOException if the log cannot be read or written
+   */
+  public static SagaLog open(Path file, boolean fsync) throws IOException {
+    return new SagaLog(file, fsync, Files.exists(file) ? replay(file) : null);
+  }
+
+  /**
+   * get the sagas which were neither finished nor rolled back when the log was last used, in the
+   * order they began. Each is positioned at the chapter it was about to run.
+   *
+   * @return in-flight sagas, logging their further progress here
+   */
+  public List<Saga> inFlight() {
+    return inFlight;
+  }
+
+  /**
+   * Starts logging a saga, recording its chapters and values.
+   *
+   * @param saga saga not yet executed
+   * @return the saga, with its id
+   * @throws IllegalArgumentException if a chapter value has no encoding
+   * @throws UncheckedIOException     if the log cannot be written
+   */
+  public Saga begin(Saga saga) {
+    var id = nextId.getAndIncrement();
+    long ticket;
+    synchronized (bufferLock) {
+      var chapterNames = names(saga);
+      frame(snapshot(saga, id, chapterNames));
+      ticket = appended;
+    }
+    saga.attach(this, id);
+    awaitDurable(ticket);
+    return saga;
+  }
+
+  void step(Saga saga, int chapter) {
+    var payload = new ByteArrayOutputStream(16);
+    try (var out = new DataOutputStream(payload)) {
+      out.writeByte(STEP);
+      ValueCodec.writeVarLong(out, saga.getId());
+      ValueCodec.writeVarLong(out, chapter);
+      out.writeByte(saga.getChapter(chapter).getResult().ordinal());
+      ValueCodec.writeVarLong(out, ValueCodec.zigzag(saga.position()));
+      out.writeBoolean(saga.isForward());
+      ValueCodec.write(out, saga.isPresent() ? saga.getCurrentValue() : null);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    long ticket;
+    synchronized (bufferLock) {
+      frame(payload.toByteArray());
+      ticket = appended;
+    }
+    awaitDurable(ticket);
+  }
+
+  long batches() {
+    flushLock.lock();
+    try {
+      return batches;
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    flushLock.lock();
+    try {
+      if (!closed) {
+        closed = true;
+        try {
+          if (failure == null) {
+            write();
+          }
+        } finally {
+          channel.close();
+        }
+      }
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  private int[] names(Saga saga) {
+    var ids = new int[saga.chapterCount()];
+    for (var i = 0; i < ids.length; i++) {
+      var name = saga.getChapter(i).getName();
+      var id = names.get(name);
+      if (id == null) {
+        id = names.size();
+        names.put(name, id);
+        frame(nameRecord(id, name));
+      }
+      ids[i] = id;
+    }
+    return ids;
+  }
+
+  private void frame(byte[] payload) {
+    var crc = new CRC32();
+    crc.update(payload);
+    var header = ByteBuffer.allocate(2 * Integer.BYTES)
+        .putInt(payload.length)
+        .putInt((int) crc.getValue());
+    pending.write(header.array(), 0, header.capacity());
+    pending.write(payload, 0, payload.length);
+    appended++;
+  }
+
+  private void awaitDurable(long ticket) {
+    if (flushed >= ticket) {
+      return;
+    }
+    flushLock.lock();
+    try {
+      if (flushed < ticket) {
+        if (failure != null) {
+          throw new UncheckedIOException("The saga log failed to write", failure);
+        }
+        if (closed) {
+          throw new IllegalStateException("The saga log has been closed");
+        }
+        write();
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  private void write() throws IOException {
+    ByteBuffer batch;
+    long last;
+    synchronized (bufferLock) {
+      batch = ByteBuffer.wrap(pending.toByteArray());
+      last = appended;
+    }
+    if (!batch.hasRemaining()) {
+      return;
+    }
+    try {
+      while (batch.hasRemaining()) {
+        channel.write(batch);
+      }
+      if (fsync) {
+        channel.force(false);
+      }
+    } catch (IOException e) {
+      //part of the group may be on disk, so no later record may be written behind it
+      failure = e;
+      throw e;
+    }
+    synchronized (bufferLock) {
+      var more = pending.toByteArray();
+      pending.reset();
+      pending.write(more, batch.capacity(), more.length - batch.capacity());
+    }
+    batches++;
+    flushed = last;
+  }
+
+  private void compact(Iterable<Saga> live) throws IOException {
+    var temp = file.resolveSibling(file.getFileName() + ".tmp");
+    try (var out = new DataOutputStream(
+        Files.newOutputStream(temp, CREATE, WRITE, TRUNCATE_EXISTING))) {
+      out.writeInt(MAGIC);
+      for (var saga : live) {
+        var chapterNames = names(saga);
+        frame(snapshot(saga, saga.getId(), chapterNames));
+        pending.writeTo(out);
+        pending.reset();
+      }
+    }
+    try (var sync = FileChannel.open(temp, WRITE)) {
+      sync.force(true);
+    }
+    Files.move(temp, file, REPLACE_EXISTING, ATOMIC_MOVE);
+    appended = 0;
+  }
+
+  private static byte[] nameRecord(int id, String name) {
+    var payload = new ByteArrayOutputStream(name.length() + 8);
+    try (var out = new DataOutputStream(payload)) {
+      out.writeByte(NAME);
+      ValueCodec.writeVarLong(out, id);
+      ValueCodec.write(out, name);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return payload.toByteArray();
+  }
+
+  private static byte[] snapshot(Saga saga, long id, int[] chapterNames) {
+    var payload = new ByteArrayOutputStream(32);
+    try (var out = new DataOutputStream(payload)) {
+      out.writeByte(BEGIN);
+      ValueCodec.writeVarLong(out, id);
+      ValueCodec.writeVarLong(out, chapterNames.length);
+      for (var i = 0; i < chapterNames.length; i++) {
+        var chapter = saga.getChapter(i);
+        ValueCodec.writeVarLong(out, chapterNames[i]);
+        out.writeByte(chapter.getResult().ordinal());
+        ValueCodec.write(out, chapter.getInValue());
+      }
+      ValueCodec.writeVarLong(out, ValueCodec.zigzag(saga.position()));
+      out.writeBoolean(saga.isForward());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return payload.toByteArray();
+  }
+
+  private static Replay replay(Path file) throws IOException {
+    var replay = new Replay();
+    var names = new ArrayList<String>();
+    var crc = new CRC32();
+    try (var in = new DataInputStream(
+        new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+      if (in.readInt() != MAGIC) {
+        throw new IOException("Not a saga log: " + file);
+      }
+      while (true) {
+        byte[] payload;
+        try {
+          var length = in.readInt();
+          final var checksum = in.readInt();
+          if (length < 0) {
+            break;
+          }
+          payload = new byte[length];
+          in.readFully(payload);
+          crc.reset();
+          crc.update(payload);
+          if ((int) crc.getValue() != checksum) {
+            break;
+          }
+        } catch (EOFException e) {
+          break;
+        }
+        apply(ByteBuffer.wrap(payload), names, replay);
+      }
+    } catch (EOFException e) {
+      //the log header itself was torn
+    }
+    //whatever follows the last good record is dropped by the rewrite
+    return replay;
+  }
+
+  private static void apply(ByteBuffer record, List<String> names, Replay replay) {
+    var type = record.get();
+    if (type == NAME) {
+      var id = (int) ValueCodec.readVarLong(record);
+      var name = (String) ValueCodec.read(record);
+      while (names.size() <= id) {
+        names.add(null);
+      }
+      names.set(id, name);
+    } else if (type == BEGIN) {
+      var id = ValueCodec.readVarLong(record);
+      var saga = Saga.create();
+      var count = (int) ValueCodec.readVarLong(record);
+      for (var i = 0; i < count; i++) {
+        saga.chapter(names.get((int) ValueCodec.readVarLong(record)));
+        saga.getChapter(i).setResult(RESULTS[record.get()]);
+        saga.setInValue(ValueCodec.read(record));
+      }
+      var pos = (int) ValueCodec.unzigzag(ValueCodec.readVarLong(record));
+      saga.restore(pos, record.get() != 0);
+      saga.attach(null, id);
+      replay.live.put(id, saga);
+      replay.maxId = Math.max(replay.maxId, id);
+    } else if (type == STEP) {
+      var saga = replay.live.get(ValueCodec.readVarLong(record));
+      if (saga == null) {
+        return;
+      }
+      var chapter = (int) ValueCodec.readVarLong(record);
+      saga.getChapter(chapter).setResult(RESULTS[record.get()]);
+      var pos = (int) ValueCodec.unzigzag(ValueCodec.readVarLong(record));
+      saga.restore(pos, record.get() != 0);
+      var value = ValueCodec.read(record);
+      if (saga.isPresent()) {
+        saga.setCurrentValue(value);
+      } else {
+        replay.live.remove(saga.getId());
+      }
+    } else {
+      throw new IllegalStateException("Unknown saga log record " + type);
+    }
+  }
+
+  /**
+   * State rebuilt from the log file.
+   */
+  private static final class Replay {
+    private final Map<Long, Saga> live = new LinkedHashMap<>();
+    private long maxId;
+  }
+}
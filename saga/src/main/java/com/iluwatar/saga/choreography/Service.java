@@ -47,6 +47,7 @@ public abstract class Service implements ChoreographyChapter {
     Object nextVal;
     var chapterName = saga.getCurrent().getName();
     if (chapterName.equals(getName())) {
+      var chapter = saga.position();
       if (saga.isForward()) {
         nextSaga = process(saga);
         nextVal = nextSaga.getCurrentValue();
@@ -62,10 +63,12 @@ public abstract class Service implements ChoreographyChapter {
       }
 
       if (isSagaFinished(nextSaga)) {
+        nextSaga.logStep(chapter);
         return nextSaga;
       }
 
       nextSaga.setCurrentValue(nextVal);
+      nextSaga.logStep(chapter);
     }
     var finalNextSaga = nextSaga;
 
@@ -0,0 +1,152 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.saga.choreography;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compact binary encoding of the chapter values written to the {@link SagaLog}. A value is a one
+ * byte tag followed by its data, integers as zigzag varints and strings as UTF-8, so a small value
+ * costs a couple of bytes instead of its {@code toString} form and comes back as the same type.
+ */
+final class ValueCodec {
+
+  private static final byte NULL = 0;
+  private static final byte STRING = 1;
+  private static final byte INT = 2;
+  private static final byte LONG = 3;
+  private static final byte FALSE = 4;
+  private static final byte TRUE = 5;
+  private static final byte DOUBLE = 6;
+  private static final byte BYTES = 7;
+
+  private ValueCodec() {
+  }
+
+  /**
+   * Writes a value.
+   *
+   * @param out   destination
+   * @param value null, a String, Integer, Long, Boolean, Double or byte[]
+   * @throws IOException              if the destination fails
+   * @throws IllegalArgumentException if the value has no encoding
+   */
+  static void write(DataOutput out, Object value) throws IOException {
+    if (value == null) {
+      out.writeByte(NULL);
+    } else if (value instanceof String) {
+      out.writeByte(STRING);
+      writeBytes(out, ((String) value).getBytes(StandardCharsets.UTF_8));
+    } else if (value instanceof Integer) {
+      out.writeByte(INT);
+      writeVarLong(out, zigzag((Integer) value));
+    } else if (value instanceof Long) {
+      out.writeByte(LONG);
+      writeVarLong(out, zigzag((Long) value));
+    } else if (value instanceof Boolean) {
+      out.writeByte((Boolean) value ? TRUE : FALSE);
+    } else if (value instanceof Double) {
+      out.writeByte(DOUBLE);
+      out.writeDouble((Double) value);
+    } else if (value instanceof byte[]) {
+      out.writeByte(BYTES);
+      writeBytes(out, (byte[]) value);
+    } else {
+      throw new IllegalArgumentException("No encoding for " + value.getClass().getName());
+    }
+  }
+
+  /**
+   * Reads a value written by {@link #write(DataOutput, Object)}.
+   *
+   * @param in source, positioned at the tag
+   * @return the value
+   * @throws IllegalArgumentException if the tag is unknown
+   */
+  static Object read(ByteBuffer in) {
+    var tag = in.get();
+    switch (tag) {
+      case NULL:
+        return null;
+      case STRING:
+        return new String(readBytes(in), StandardCharsets.UTF_8);
+      case INT:
+        return (int) unzigzag(readVarLong(in));
+      case LONG:
+        return unzigzag(readVarLong(in));
+      case FALSE:
+        return Boolean.FALSE;
+      case TRUE:
+        return Boolean.TRUE;
+      case DOUBLE:
+        return in.getDouble();
+      case BYTES:
+        return readBytes(in);
+      default:
+        throw new IllegalArgumentException("Unknown value tag " + tag);
+    }
+  }
+
+  static void writeVarLong(DataOutput out, long value) throws IOException {
+    while ((value & ~0x7FL) != 0) {
+      out.writeByte((int) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    out.writeByte((int) value);
+  }
+
+  static long readVarLong(ByteBuffer in) {
+    long value = 0;
+    for (var shift = 0; shift < Long.SIZE; shift += 7) {
+      var b = in.get();
+      value |= (long) (b & 0x7F) << shift;
+      if (b >= 0) {
+        return value;
+      }
+    }
+    throw new IllegalArgumentException("Malformed varint");
+  }
+
+  static long zigzag(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  static long unzigzag(long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  private static void writeBytes(DataOutput out, byte[] bytes) throws IOException {
+    writeVarLong(out, bytes.length);
+    out.write(bytes);
+  }
+
+  private static byte[] readBytes(ByteBuffer in) {
+    var bytes = new byte[(int) readVarLong(in)];
+    in.get(bytes);
+    return bytes;
+  }
+}
@@ -0,0 +1,176 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.saga.orchestration;
+
+import static com.iluwatar.saga.orchestration.Saga.Result;
+import static com.iluwatar.saga.orchestration.Saga.Result.CRASHED;
+import static com.iluwatar.saga.orchestration.Saga.Result.FINISHED;
+import static com.iluwatar.saga.orchestration.Saga.Result.ROLLBACK;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The orchestrator that runs sagas asynchronously on an executor. Every execution keeps its own
+ * state, so any number of sagas can be in flight at once, and no thread waits on a chapter.
+ *
+ * <p>The stages of the {@link Saga} run one after another, and the chapters within a stage run in
+ * parallel. If any chapter of a stage fails, or has no service, the chapters of that stage are
+ * rolled back, and then every earlier stage is rolled back in reverse order. The rollbacks within
+ * a stage also run in parallel. A failed rollback marks the saga {@link Result#CRASHED}, and the
+ * remaining rollbacks still run, as in {@link SagaOrchestrator}.
+ *
+ * <p>The value passed on from a stage is the one returned by its last chapter, both when going
+ * forward and when rolling back. The chapters of a failed stage are rolled back with the value the
+ * stage was given. An exception thrown by a service counts as a failure of its chapter.
+ */
+@Slf4j
+public class AsyncSagaOrchestrator {
+  private final Saga saga;
+  private final ServiceDiscoveryService sd;
+  private final Executor executor;
+
+  public AsyncSagaOrchestrator(Saga saga, ServiceDiscoveryService sd) {
+    this(saga, sd, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Create a new service to orchestrate sagas on the given executor.
+   *
+   * @param saga     saga to process
+   * @param sd       service discovery @see {@link ServiceDiscoveryService}
+   * @param executor runs the chapters
+   */
+  public AsyncSagaOrchestrator(Saga saga, ServiceDiscoveryService sd, Executor executor) {
+    this.saga = saga;
+    this.sd = sd;
+    this.executor = executor;
+  }
+
+  /**
+   * Starts a saga for the given value.
+   *
+   * @param value incoming value
+   * @param <K>   type for incoming value
+   * @return future completed with the result @see {@link Result}
+   */
+  public <K> CompletableFuture<Result> execute(K value) {
+    LOGGER.debug("The new saga is about to start");
+    return new Execution<K>().forward(0, value);
+  }
+
+  /**
+   * State of one run of the saga. Its steps follow each other through the futures, so they never
+   * touch it at the same time.
+   */
+  private class Execution<K> {
+    private boolean crashed;
+
+    CompletableFuture<Result> forward(int stage, K value) {
+      if (stage == saga.stageCount()) {
+        return CompletableFuture.completedFuture(FINISHED);
+      }
+      var chapters = saga.getStage(stage);
+      var services = new ArrayList<OrchestrationChapter<K>>(chapters.size());
+      var results = new ArrayList<CompletableFuture<ChapterResult<K>>>(chapters.size());
+      for (var chapter : chapters) {
+        var service = this.<K>find(chapter);
+        services.add(service);
+        results.add(service == null
+            ? CompletableFuture.completedFuture(ChapterResult.failure(value))
+            : CompletableFuture.supplyAsync(() -> process(service, value), executor));
+      }
+      return allOf(results).thenCompose(ignored -> {
+        var failed = results.stream().anyMatch(result -> !result.join().isSuccess());
+        if (!failed) {
+          return forward(stage + 1, results.get(results.size() - 1).join().getValue());
+        }
+        return compensate(services, value).thenCompose(next -> backward(stage - 1, next));
+      });
+    }
+
+    CompletableFuture<Result> backward(int stage, K value) {
+      if (stage < 0) {
+        return CompletableFuture.completedFuture(crashed ? CRASHED : ROLLBACK);
+      }
+      var services = new ArrayList<OrchestrationChapter<K>>();
+      for (var chapter : saga.getStage(stage)) {
+        services.add(this.<K>find(chapter));
+      }
+      return compensate(services, value).thenCompose(next -> backward(stage - 1, next));
+    }
+
+    private CompletableFuture<K> compensate(List<OrchestrationChapter<K>> services, K value) {
+      var results = new ArrayList<CompletableFuture<ChapterResult<K>>>(services.size());
+      for (var service : services) {
+        if (service != null) {
+          results.add(CompletableFuture.supplyAsync(() -> rollback(service, value), executor));
+        }
+      }
+      return allOf(results).thenApply(ignored -> {
+        var next = value;
+        for (var result : results) {
+          var rollback = result.join();
+          if (rollback.isSuccess()) {
+            next = rollback.getValue();
+          } else {
+            crashed = true;
+          }
+        }
+        return next;
+      });
+    }
+
+    @SuppressWarnings("unchecked")
+    private <V> OrchestrationChapter<V> find(Saga.Chapter chapter) {
+      return (OrchestrationChapter<V>) sd.find(chapter.name).orElse(null);
+    }
+  }
+
+  private static <K> ChapterResult<K> process(OrchestrationChapter<K> service, K value) {
+    try {
+      return service.process(value);
+    } catch (RuntimeException e) {
+      LOGGER.warn("The chapter '{}' threw an exception", service.getName(), e);
+      return ChapterResult.failure(value);
+    }
+  }
+
+  private static <K> ChapterResult<K> rollback(OrchestrationChapter<K> service, K value) {
+    try {
+      return service.rollback(value);
+    } catch (RuntimeException e) {
+      LOGGER.warn("The rollback of chapter '{}' threw an exception", service.getName(), e);
+      return ChapterResult.failure(value);
+    }
+  }
+
+  private static CompletableFuture<Void> allOf(List<? extends CompletableFuture<?>> futures) {
+    return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+  }
+}
@@ -28,20 +28,43 @@ import java.util.List;
 
 /**
  * Saga representation. Saga consists of chapters. Every ChoreographyChapter is executed by a
- * certain service.
+ * certain service. Chapters are grouped in stages that run one after another; a stage added with
+ * {@link #parallel(String...)} holds chapters that do not depend on each other, which {@link
+ * AsyncSagaOrchestrator} runs at the same time.
  */
 public class Saga {
 
   private final List<Chapter> chapters;
+  private final List<List<Chapter>> stages;
 
 
   private Saga() {
     this.chapters = new ArrayList<>();
+    this.stages = new ArrayList<>();
   }
 
 
   public Saga chapter(String name) {
-    this.chapters.add(new Chapter(name));
+    return parallel(name);
+  }
+
+  /**
+   * Adds a stage of chapters which are independent of each other and may run in parallel.
+   *
+   * @param names chapter names
+   * @return this saga
+   */
+  public Saga parallel(String... names) {
+    if (names.length == 0) {
+      throw new IllegalArgumentException("A stage needs at least one chapter");
+    }
+    var stage = new ArrayList<Chapter>();
+    for (var name : names) {
+      var chapter = new Chapter(name);
+      stage.add(chapter);
+      this.chapters.add(chapter);
+    }
+    this.stages.add(List.copyOf(stage));
     return this;
   }
 
@@ -54,6 +77,14 @@ public class Saga {
     return idx >= 0 && idx < chapters.size();
   }
 
+  public List<Chapter> getStage(int idx) {
+    return stages.get(idx);
+  }
+
+  public int stageCount() {
+    return stages.size();
+  }
+
 
   public static Saga create() {
     return new Saga();
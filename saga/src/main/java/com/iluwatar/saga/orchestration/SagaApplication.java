@@ -40,8 +40,12 @@ import lombok.extern.slf4j.Slf4j;
  * crashed services (otherwise in choreography services very hard to prevent a saga if one of them
  * has been crashed)
  *
+ * <p>{@link AsyncSagaOrchestrator} runs many sagas at once, booking the fly and the hotel in
+ * parallel since neither depends on the other.
+ *
  * @see Saga
  * @see SagaOrchestrator
+ * @see AsyncSagaOrchestrator
  * @see Service
  */
 @Slf4j
@@ -59,6 +63,14 @@ public class SagaApplication {
 
     LOGGER.info("orders: goodOrder is {}, badOrder is {},crashedOrder is {}",
         goodOrder, badOrder, crashedOrder);
+
+    var asyncOrchestrator = new AsyncSagaOrchestrator(newParallelSaga(), serviceDiscovery());
+    var goodAsync = asyncOrchestrator.execute("good_order");
+    var badAsync = asyncOrchestrator.execute("bad_order");
+    var crashedAsync = asyncOrchestrator.execute("crashed_order");
+
+    LOGGER.info("concurrent orders: goodOrder is {}, badOrder is {},crashedOrder is {}",
+        goodAsync.join(), badAsync.join(), crashedAsync.join());
   }
 
 
@@ -71,6 +83,14 @@ public class SagaApplication {
         .chapter("withdrawing Money");
   }
 
+  private static Saga newParallelSaga() {
+    return Saga
+        .create()
+        .chapter("init an order")
+        .parallel("booking a Fly", "booking a Hotel")
+        .chapter("withdrawing Money");
+  }
+
   private static ServiceDiscoveryService serviceDiscovery() {
     return new ServiceDiscoveryService()
         .discover(new OrderService())
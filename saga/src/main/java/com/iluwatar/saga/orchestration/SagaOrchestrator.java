@@ -33,13 +33,14 @@ import lombok.extern.slf4j.Slf4j;
 
 /**
  * The orchestrator that manages all the transactions and directs the participant services to
- * execute local transactions based on events.
+ * execute local transactions based on events. Chapters run one by one on the calling thread, and
+ * every call keeps its own state, so one orchestrator can run several sagas at once. See {@link
+ * AsyncSagaOrchestrator} for running stages in parallel without blocking.
  */
 @Slf4j
 public class SagaOrchestrator {
   private final Saga saga;
   private final ServiceDiscoveryService sd;
-  private final CurrentState state;
 
 
   /**
@@ -51,7 +52,6 @@ public class SagaOrchestrator {
   public SagaOrchestrator(Saga saga, ServiceDiscoveryService sd) {
     this.saga = saga;
     this.sd = sd;
-    this.state = new CurrentState();
   }
 
   /**
@@ -63,7 +63,7 @@ public class SagaOrchestrator {
    */
   @SuppressWarnings("unchecked")
   public <K> Result execute(K value) {
-    state.cleanUp();
+    var state = new CurrentState();
     LOGGER.info(" The new saga is about to start");
     var result = FINISHED;
     K tempVal = value;
@@ -113,11 +113,6 @@ public class SagaOrchestrator {
     int currentNumber;
     boolean isForward;
 
-    void cleanUp() {
-      currentNumber = 0;
-      isForward = true;
-    }
-
     CurrentState() {
       this.currentNumber = 0;
       this.isForward = true;
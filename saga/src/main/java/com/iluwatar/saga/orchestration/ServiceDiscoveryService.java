@@ -23,9 +23,9 @@
 
 package com.iluwatar.saga.orchestration;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The class representing a service discovery pattern.
@@ -43,7 +43,7 @@ public class ServiceDiscoveryService {
   }
 
   public ServiceDiscoveryService() {
-    this.services = new HashMap<>();
+    this.services = new ConcurrentHashMap<>();
   }
 
 
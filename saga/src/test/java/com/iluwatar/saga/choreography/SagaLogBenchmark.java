@@ -0,0 +1,137 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.saga.choreography;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Logs a million four chapter sagas, one in ten left in flight at a random chapter, and measures
+ * how long reopening the {@link SagaLog} takes to recover them and rewrite the log. Then runs sagas
+ * from many threads with every record synced to disk, to show how many records each group commit
+ * carries.
+ *
+ * <p>Run the main method; it is not part of the test suite.
+ */
+@Slf4j
+public class SagaLogBenchmark {
+
+  private static final int SAGAS = 1_000_000;
+  private static final int SYNCED_SAGAS = 20_000;
+  private static final int THREADS = 16;
+
+  /**
+   * Program entry point.
+   *
+   * @param args command line args
+   * @throws Exception if the log cannot be used
+   */
+  public static void main(String[] args) throws Exception {
+    var dir = Files.createTempDirectory("saga-log");
+    var file = dir.resolve("saga.log");
+
+    var start = System.nanoTime();
+    try (var log = SagaLog.open(file, false)) {
+      run(THREADS, SAGAS, i -> logSaga(log, i));
+    }
+    LOGGER.info("logged {} sagas in {} ms, log size {} KB", SAGAS,
+        (System.nanoTime() - start) / 1_000_000, Files.size(file) / 1024);
+
+    start = System.nanoTime();
+    int inFlight;
+    try (var log = SagaLog.open(file, false)) {
+      inFlight = log.inFlight().size();
+    }
+    LOGGER.info("recovered {} in-flight sagas in {} ms, log size after rewrite {} KB", inFlight,
+        (System.nanoTime() - start) / 1_000_000, Files.size(file) / 1024);
+
+    var synced = dir.resolve("synced.log");
+    start = System.nanoTime();
+    long batches;
+    try (var log = SagaLog.open(synced, true)) {
+      run(THREADS, SYNCED_SAGAS, i -> logSaga(log, i));
+      batches = log.batches();
+    }
+    var millis = (System.nanoTime() - start) / 1_000_000;
+    LOGGER.info("synced {} sagas from {} threads in {} ms with {} commits", SYNCED_SAGAS, THREADS,
+        millis, batches);
+
+    try (var files = Files.list(dir)) {
+      for (var path : (Iterable<Path>) files::iterator) {
+        Files.delete(path);
+      }
+    }
+    Files.delete(dir);
+  }
+
+  private static void logSaga(SagaLog log, int i) {
+    var saga = log.begin(Saga.create()
+        .chapter("init an order").setInValue("order-" + i)
+        .chapter("booking a Fly")
+        .chapter("booking a Hotel")
+        .chapter("withdrawing Money"));
+    var steps = i % 10 == 0 ? i / 10 % 4 : 4;
+    for (var chapter = 0; chapter < steps; chapter++) {
+      var value = saga.getCurrentValue();
+      saga.setCurrentStatus(Saga.ChapterResult.SUCCESS);
+      saga.forward();
+      if (saga.isPresent()) {
+        saga.setCurrentValue(value);
+      }
+      saga.logStep(chapter);
+    }
+  }
+
+  private static void run(int threads, int sagas, IntTask task) throws Exception {
+    var executor = Executors.newFixedThreadPool(threads);
+    try {
+      var tasks = new ArrayList<Callable<Void>>();
+      var perThread = sagas / threads;
+      for (var t = 0; t < threads; t++) {
+        var from = t * perThread;
+        var to = t == threads - 1 ? sagas : from + perThread;
+        tasks.add(() -> {
+          for (var i = from; i < to; i++) {
+            task.run(i);
+          }
+          return null;
+        });
+      }
+      for (var result : executor.invokeAll(tasks)) {
+        result.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private interface IntTask {
+    void run(int i) throws IOException;
+  }
+}
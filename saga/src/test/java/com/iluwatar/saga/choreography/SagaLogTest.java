@@ -0,0 +1,221 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.saga.choreography;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * test to check the saga log and recovery of choreography sagas
+ */
+class SagaLogTest {
+
+  @TempDir
+  Path dir;
+
+  @Test
+  void finishedSagasAreNotRecovered() throws IOException {
+    var file = dir.resolve("saga.log");
+    try (var log = SagaLog.open(file, true)) {
+      var service = serviceDiscovery(new HotelBookingService(null)).findAny();
+      assertEquals(Saga.SagaResult.FINISHED, service.execute(log.begin(newSaga("good_order"))).getResult());
+      assertEquals(Saga.SagaResult.ROLLBACKED, service.execute(log.begin(newSaga("bad_order"))).getResult());
+    }
+    try (var log = SagaLog.open(file, true)) {
+      assertTrue(log.inFlight().isEmpty());
+    }
+  }
+
+  @Test
+  void crashedSagaIsResumed() throws IOException {
+    var file = dir.resolve("saga.log");
+    long id;
+    try (var log = SagaLog.open(file, true)) {
+      var saga = log.begin(newSaga("good_order"));
+      id = saga.getId();
+      var service = serviceDiscovery(new CrashingHotelService()).findAny();
+      assertThrows(IllegalStateException.class, () -> service.execute(saga));
+    }
+    try (var log = SagaLog.open(file, true)) {
+      assertEquals(1, log.inFlight().size());
+      var saga = log.inFlight().get(0);
+      assertEquals(id, saga.getId());
+      assertEquals("booking a Hotel", saga.getCurrent().getName());
+      assertEquals("good_order", saga.getCurrentValue());
+      var service = serviceDiscovery(new HotelBookingService(null)).findAny();
+      assertEquals(Saga.SagaResult.FINISHED, service.execute(saga).getResult());
+      assertTrue(log.begin(newSaga("good_order")).getId() > id);
+    }
+    try (var log = SagaLog.open(file, true)) {
+      assertEquals(1, log.inFlight().size());
+    }
+  }
+
+  @Test
+  void crashedSagaIsCompensated() throws IOException {
+    var file = dir.resolve("saga.log");
+    try (var log = SagaLog.open(file, false)) {
+      var saga = log.begin(newSaga("good_order"));
+      var service = serviceDiscovery(new CrashingHotelService()).findAny();
+      assertThrows(IllegalStateException.class, () -> service.execute(saga));
+    }
+    try (var log = SagaLog.open(file, false)) {
+      var saga = log.inFlight().get(0).compensate();
+      var service = serviceDiscovery(new HotelBookingService(null)).findAny();
+      assertEquals(Saga.SagaResult.ROLLBACKED, service.execute(saga).getResult());
+    }
+    try (var log = SagaLog.open(file, false)) {
+      assertTrue(log.inFlight().isEmpty());
+    }
+  }
+
+  @Test
+  void tornRecordIsDropped() throws IOException {
+    var file = dir.resolve("saga.log");
+    try (var log = SagaLog.open(file, false)) {
+      log.begin(newSaga("first"));
+      log.begin(newSaga("second"));
+    }
+    try (var channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+      channel.truncate(channel.size() - 3);
+    }
+    try (var log = SagaLog.open(file, false)) {
+      assertEquals(1, log.inFlight().size());
+      assertEquals("first", log.inFlight().get(0).getCurrentValue());
+      log.begin(newSaga("third"));
+    }
+    try (var log = SagaLog.open(file, false)) {
+      assertEquals(2, log.inFlight().size());
+      assertEquals("third", log.inFlight().get(1).getCurrentValue());
+    }
+  }
+
+  @Test
+  void valuesKeepTheirType() throws IOException {
+    var file = dir.resolve("saga.log");
+    var values = new Object[]{null, "order", -7, Long.MIN_VALUE, true, 2.5, new byte[]{1, 2, 3}};
+    try (var log = SagaLog.open(file, false)) {
+      var saga = Saga.create();
+      for (var value : values) {
+        saga.chapter("chapter").setInValue(value);
+      }
+      log.begin(saga);
+      assertThrows(IllegalArgumentException.class,
+          () -> log.begin(Saga.create().chapter("chapter").setInValue(new Object())));
+    }
+    try (var log = SagaLog.open(file, false)) {
+      var saga = log.inFlight().get(0);
+      for (var i = 0; i < values.length - 1; i++) {
+        assertEquals(values[i], saga.getChapter(i).getInValue());
+      }
+      assertArrayEquals((byte[]) values[values.length - 1],
+          (byte[]) saga.getChapter(values.length - 1).getInValue());
+    }
+  }
+
+  @Test
+  void concurrentSagasShareCommits() throws Exception {
+    var file = dir.resolve("saga.log");
+    var executor = Executors.newFixedThreadPool(8);
+    try (var log = SagaLog.open(file, true)) {
+      var service = serviceDiscovery(new HotelBookingService(null)).findAny();
+      var results = new ArrayList<Future<Saga>>();
+      for (var i = 0; i < 400; i++) {
+        var value = i % 4 == 0 ? "bad_order" : "good_order";
+        results.add(executor.submit(() -> service.execute(log.begin(newSaga(value)))));
+      }
+      for (var result : results) {
+        assertTrue(result.get().getResult() != Saga.SagaResult.PROGRESS);
+      }
+      //every saga writes a begin and four steps
+      assertTrue(log.batches() < 400 * 5);
+    } finally {
+      executor.shutdown();
+      executor.awaitTermination(1, TimeUnit.SECONDS);
+    }
+    try (var log = SagaLog.open(file, true)) {
+      assertTrue(log.inFlight().isEmpty());
+    }
+  }
+
+  private static Saga newSaga(Object value) {
+    return Saga
+        .create()
+        .chapter("init an order").setInValue(value)
+        .chapter("booking a Fly")
+        .chapter("booking a Hotel")
+        .chapter("withdrawing Money");
+  }
+
+  private static ServiceDiscoveryService serviceDiscovery(Service hotel) {
+    var sd = new ServiceDiscoveryService();
+    return sd
+        .discover(new OrderService(sd))
+        .discover(new FlyBookingService(sd))
+        .discover(new HotelServiceProxy(sd, hotel))
+        .discover(new WithdrawMoneyService(sd));
+  }
+
+  private static class CrashingHotelService extends HotelBookingService {
+    CrashingHotelService() {
+      super(null);
+    }
+
+    @Override
+    public Saga process(Saga saga) {
+      throw new IllegalStateException("crash");
+    }
+  }
+
+  /**
+   * Runs the hotel chapter through the given service while moving the saga on with the discovery
+   * service under test.
+   */
+  private static class HotelServiceProxy extends HotelBookingService {
+    private final Service hotel;
+
+    HotelServiceProxy(ServiceDiscoveryService sd, Service hotel) {
+      super(sd);
+      this.hotel = hotel;
+    }
+
+    @Override
+    public Saga process(Saga saga) {
+      return hotel.process(saga);
+    }
+  }
+}
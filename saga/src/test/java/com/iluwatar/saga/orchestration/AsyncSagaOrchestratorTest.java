@@ -0,0 +1,182 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.saga.orchestration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntPredicate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * test to check the asynchronous orchestrator
+ */
+class AsyncSagaOrchestratorTest {
+
+  private final List<String> records = Collections.synchronizedList(new ArrayList<>());
+  private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+  @AfterEach
+  void shutDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void rollsBackSequentialSagaLikeSagaOrchestrator() throws Exception {
+    var saga = Saga.create().chapter("1").chapter("2").chapter("3");
+    var sd = new ServiceDiscoveryService()
+        .discover(new RecordingService("1", v -> true, v -> true))
+        .discover(new RecordingService("2", v -> true, v -> true))
+        .discover(new RecordingService("3", v -> false, v -> true));
+    var result = new AsyncSagaOrchestrator(saga, sd, executor).execute(1).get(5, TimeUnit.SECONDS);
+    assertEquals(Saga.Result.ROLLBACK, result);
+    assertEquals(List.of("+1", "+2", "+3", "-3", "-2", "-1"), records);
+  }
+
+  @Test
+  void runsChaptersOfStageInParallel() throws Exception {
+    var bothStarted = new CountDownLatch(2);
+    var saga = Saga.create().chapter("order").parallel("fly", "hotel").chapter("money");
+    var sd = new ServiceDiscoveryService()
+        .discover(new RecordingService("order", v -> true, v -> true))
+        .discover(new RendezvousService("fly", bothStarted))
+        .discover(new RendezvousService("hotel", bothStarted))
+        .discover(new RecordingService("money", v -> true, v -> true));
+    var result = new AsyncSagaOrchestrator(saga, sd, executor).execute(1).get(5, TimeUnit.SECONDS);
+    assertEquals(Saga.Result.FINISHED, result);
+    assertEquals("+order", records.get(0));
+    assertEquals("+money", records.get(3));
+  }
+
+  @Test
+  void compensatesWholeStageThenEarlierStagesInReverse() throws Exception {
+    var saga = Saga.create().chapter("order").parallel("fly", "hotel").chapter("money");
+    var sd = new ServiceDiscoveryService()
+        .discover(new RecordingService("order", v -> true, v -> true))
+        .discover(new RecordingService("fly", v -> true, v -> true))
+        .discover(new RecordingService("hotel", v -> false, v -> true))
+        .discover(new RecordingService("money", v -> true, v -> true));
+    var result = new AsyncSagaOrchestrator(saga, sd, executor).execute(1).get(5, TimeUnit.SECONDS);
+    assertEquals(Saga.Result.ROLLBACK, result);
+    assertEquals(6, records.size());
+    assertTrue(records.subList(0, 3).containsAll(List.of("+order", "+fly", "+hotel")));
+    assertTrue(records.subList(3, 5).containsAll(List.of("-fly", "-hotel")));
+    assertEquals("-order", records.get(5));
+  }
+
+  @Test
+  void reportsCrashWhenRollbackFails() throws Exception {
+    var saga = Saga.create().chapter("1").chapter("2").chapter("3");
+    var sd = new ServiceDiscoveryService()
+        .discover(new RecordingService("1", v -> true, v -> true))
+        .discover(new RecordingService("2", v -> true, v -> false))
+        .discover(new RecordingService("3", v -> false, v -> true));
+    var result = new AsyncSagaOrchestrator(saga, sd, executor).execute(1).get(5, TimeUnit.SECONDS);
+    assertEquals(Saga.Result.CRASHED, result);
+    assertEquals(List.of("+1", "+2", "+3", "-3", "-2", "-1"), records);
+  }
+
+  @Test
+  void keepsStateOfConcurrentSagasApart() throws Exception {
+    var saga = Saga.create().chapter("order").parallel("fly", "hotel").chapter("money");
+    var sd = new ServiceDiscoveryService()
+        .discover(new RecordingService("order", v -> true, v -> true))
+        .discover(new RecordingService("fly", v -> true, v -> true))
+        .discover(new RecordingService("hotel", v -> v % 3 != 0, v -> true))
+        .discover(new RecordingService("money", v -> v % 5 != 0, v -> v % 7 != 0));
+    var orchestrator = new AsyncSagaOrchestrator(saga, sd, executor);
+    var futures = new ArrayList<CompletableFuture<Saga.Result>>();
+    for (var i = 0; i < 1000; i++) {
+      futures.add(orchestrator.execute(i));
+    }
+    for (var i = 0; i < futures.size(); i++) {
+      var expected = i % 3 != 0 && i % 5 != 0 ? Saga.Result.FINISHED
+          : i % 3 != 0 && i % 7 == 0 ? Saga.Result.CRASHED
+          : Saga.Result.ROLLBACK;
+      assertEquals(expected, futures.get(i).get(5, TimeUnit.SECONDS), "saga " + i);
+    }
+  }
+
+  private class RecordingService extends Service<Integer> {
+    private final String name;
+    private final IntPredicate processSucceeds;
+    private final IntPredicate rollbackSucceeds;
+
+    RecordingService(String name, IntPredicate processSucceeds, IntPredicate rollbackSucceeds) {
+      this.name = name;
+      this.processSucceeds = processSucceeds;
+      this.rollbackSucceeds = rollbackSucceeds;
+    }
+
+    @Override
+    public String getName() {
+      return name;
+    }
+
+    @Override
+    public ChapterResult<Integer> process(Integer value) {
+      records.add("+" + name);
+      return processSucceeds.test(value)
+          ? ChapterResult.success(value) : ChapterResult.failure(value);
+    }
+
+    @Override
+    public ChapterResult<Integer> rollback(Integer value) {
+      records.add("-" + name);
+      return rollbackSucceeds.test(value)
+          ? ChapterResult.success(value) : ChapterResult.failure(value);
+    }
+  }
+
+  private class RendezvousService extends RecordingService {
+    private final CountDownLatch started;
+
+    RendezvousService(String name, CountDownLatch started) {
+      super(name, v -> true, v -> true);
+      this.started = started;
+    }
+
+    @Override
+    public ChapterResult<Integer> process(Integer value) {
+      started.countDown();
+      try {
+        //only succeeds if the other chapter of the stage runs at the same time
+        return started.await(5, TimeUnit.SECONDS)
+            ? super.process(value) : ChapterResult.failure(value);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return ChapterResult.failure(value);
+      }
+    }
+  }
+}
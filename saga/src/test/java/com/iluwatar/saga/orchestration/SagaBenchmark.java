@@ -0,0 +1,149 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.saga.orchestration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs thousands of sagas at once, each chapter taking about a millisecond, with some withdrawals
+ * failing and some hotel rollbacks crashing. Compares {@link SagaOrchestrator} run on a pool,
+ * {@link AsyncSagaOrchestrator} with the same chapters, and {@link AsyncSagaOrchestrator} booking
+ * the fly and the hotel in parallel, by throughput and by latency from start to result, and also
+ * by the latency of a single saga when nothing else is running.
+ *
+ * <p>Run the main method; it is not part of the test suite.
+ */
+@Slf4j
+public class SagaBenchmark {
+
+  private static final int SAGAS = 5_000;
+  private static final int SINGLE_SAGAS = 200;
+  private static final int THREADS = 64;
+  private static final long CHAPTER_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  /**
+   * Program entry point.
+   *
+   * @param args command line args
+   */
+  public static void main(String[] args) {
+    var sequential = Saga.create()
+        .chapter("order").chapter("fly").chapter("hotel").chapter("money");
+    var parallel = Saga.create()
+        .chapter("order").parallel("fly", "hotel").chapter("money");
+    var sd = new ServiceDiscoveryService()
+        .discover(new SlowService("order", v -> true, v -> true))
+        .discover(new SlowService("fly", v -> true, v -> true))
+        .discover(new SlowService("hotel", v -> true, v -> v % 100 != 0))
+        .discover(new SlowService("money", v -> v % 10 != 0, v -> true));
+
+    var executor = Executors.newFixedThreadPool(THREADS);
+    try {
+      for (var round = 0; round < 2; round++) { //the first round warms up
+        var blocking = new SagaOrchestrator(sequential, sd);
+        run("blocking orchestrator, sequential saga",
+            value -> CompletableFuture.supplyAsync(() -> blocking.execute(value), executor));
+        var async = new AsyncSagaOrchestrator(sequential, sd, executor);
+        run("async orchestrator, sequential saga", async::execute);
+        var asyncParallel = new AsyncSagaOrchestrator(parallel, sd, executor);
+        run("async orchestrator, parallel fly and hotel", asyncParallel::execute);
+      }
+      single("async orchestrator, sequential saga",
+          new AsyncSagaOrchestrator(sequential, sd, executor)::execute);
+      single("async orchestrator, parallel fly and hotel",
+          new AsyncSagaOrchestrator(parallel, sd, executor)::execute);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private static void run(String name, Function<Integer, CompletableFuture<Saga.Result>> saga) {
+    var latencies = new long[SAGAS];
+    var results = new EnumMap<Saga.Result, Integer>(Saga.Result.class);
+    var futures = new ArrayList<CompletableFuture<Saga.Result>>(SAGAS);
+    var start = System.nanoTime();
+    for (var i = 0; i < SAGAS; i++) {
+      var index = i;
+      var begin = System.nanoTime();
+      futures.add(saga.apply(i).whenComplete((result, error) ->
+          latencies[index] = System.nanoTime() - begin));
+    }
+    futures.forEach(future -> results.merge(future.join(), 1, Integer::sum));
+    var elapsed = System.nanoTime() - start;
+    Arrays.sort(latencies);
+    LOGGER.info("{}: {} sagas/s, latency p50 {} ms, p99 {} ms, results {}", name,
+        SAGAS * TimeUnit.SECONDS.toNanos(1) / elapsed,
+        TimeUnit.NANOSECONDS.toMillis(latencies[SAGAS / 2]),
+        TimeUnit.NANOSECONDS.toMillis(latencies[SAGAS * 99 / 100]), results);
+  }
+
+  private static void single(String name, Function<Integer, CompletableFuture<Saga.Result>> saga) {
+    var start = System.nanoTime();
+    for (var i = 1; i <= SINGLE_SAGAS; i++) {
+      saga.apply(i).join();
+    }
+    var micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start) / SINGLE_SAGAS;
+    LOGGER.info("{}: {} us per saga run alone", name, micros);
+  }
+
+  private static class SlowService extends Service<Integer> {
+    private final String name;
+    private final IntPredicate processSucceeds;
+    private final IntPredicate rollbackSucceeds;
+
+    SlowService(String name, IntPredicate processSucceeds, IntPredicate rollbackSucceeds) {
+      this.name = name;
+      this.processSucceeds = processSucceeds;
+      this.rollbackSucceeds = rollbackSucceeds;
+    }
+
+    @Override
+    public String getName() {
+      return name;
+    }
+
+    @Override
+    public ChapterResult<Integer> process(Integer value) {
+      LockSupport.parkNanos(CHAPTER_NANOS);
+      return processSucceeds.test(value)
+          ? ChapterResult.success(value) : ChapterResult.failure(value);
+    }
+
+    @Override
+    public ChapterResult<Integer> rollback(Integer value) {
+      LockSupport.parkNanos(CHAPTER_NANOS);
+      return rollbackSucceeds.test(value)
+          ? ChapterResult.success(value) : ChapterResult.failure(value);
+    }
+  }
+}
@@ -27,6 +27,10 @@ import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+
 /**
  * test to check general logic
  */
@@ -42,6 +46,26 @@ class SagaOrchestratorTest {
     assertEquals(Saga.Result.CRASHED, crashedOrder);
   }
 
+  @Test
+  void executeConcurrently() throws Exception {
+    SagaOrchestrator sagaOrchestrator = new SagaOrchestrator(newSaga(), serviceDiscovery());
+    var tasks = new ArrayList<Callable<Saga.Result>>();
+    for (var i = 0; i < 20; i++) {
+      tasks.add(() -> sagaOrchestrator.execute("bad_order"));
+      tasks.add(() -> sagaOrchestrator.execute("crashed_order"));
+    }
+    var executor = Executors.newFixedThreadPool(4);
+    try {
+      var results = executor.invokeAll(tasks);
+      for (var i = 0; i < results.size(); i += 2) {
+        assertEquals(Saga.Result.ROLLBACK, results.get(i).get());
+        assertEquals(Saga.Result.CRASHED, results.get(i + 1).get());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
   private static Saga newSaga() {
     return Saga
         .create()
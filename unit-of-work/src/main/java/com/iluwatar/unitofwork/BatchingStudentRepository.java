@@ -0,0 +1,188 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.unitofwork;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link BatchingStudentRepository} is a unit of work for student data keeping one pending change
+ * per student id. Registering a student again folds the change into the one already pending: an
+ * insert followed by modifications stays one insert of the latest state, an insert followed by a
+ * delete leaves nothing to write, and a delete followed by a new registration becomes a modify. On
+ * commit the changes are written in batches, inserts first, then modifications, then deletes.
+ * Commits are written one after another in the order they were made, so the changes of a commit
+ * never overtake those of an earlier one, even on an executor with many threads.
+ */
+@Slf4j
+public class BatchingStudentRepository implements IUnitOfWork<Student> {
+
+  private static final int BATCH_SIZE = 1000;
+
+  private final StudentDatabase studentDatabase;
+  private Map<Integer, Change> changes = new LinkedHashMap<>();
+  private CompletableFuture<Void> lastCommit = CompletableFuture.completedFuture(null);
+
+  public BatchingStudentRepository(StudentDatabase studentDatabase) {
+    this.studentDatabase = studentDatabase;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalStateException if the student is already registered as new or modified
+   */
+  @Override
+  public synchronized void registerNew(Student student) {
+    var pending = changes.get(student.getId());
+    if (pending == null) {
+      changes.put(student.getId(), new Change(UnitActions.INSERT, student));
+    } else if (pending.action == UnitActions.DELETE) {
+      //the row is still in the database, so it is overwritten rather than inserted
+      changes.put(student.getId(), new Change(UnitActions.MODIFY, student));
+    } else {
+      throw new IllegalStateException("Student " + student.getId() + " is already registered");
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalStateException if the student is registered as deleted
+   */
+  @Override
+  public synchronized void registerModified(Student student) {
+    var pending = changes.get(student.getId());
+    if (pending == null) {
+      changes.put(student.getId(), new Change(UnitActions.MODIFY, student));
+    } else if (pending.action == UnitActions.DELETE) {
+      throw new IllegalStateException("Student " + student.getId() + " is registered as deleted");
+    } else {
+      changes.put(student.getId(), new Change(pending.action, student));
+    }
+  }
+
+  @Override
+  public synchronized void registerDeleted(Student student) {
+    var pending = changes.get(student.getId());
+    if (pending != null && pending.action == UnitActions.INSERT) {
+      //never written, so there is nothing to delete
+      changes.remove(student.getId());
+    } else {
+      changes.put(student.getId(), new Change(UnitActions.DELETE, student));
+    }
+  }
+
+  /**
+   * Returns the number of students with a pending change.
+   */
+  public synchronized int getPendingCount() {
+    return changes.size();
+  }
+
+  /**
+   * All pending changes are written in batches per action, once the commits made before are
+   * written. If writing fails, the changes not written yet are lost with the unit of work, as with
+   * a rolled back transaction.
+   */
+  @Override
+  public void commit() {
+    var written = new CompletableFuture<Void>();
+    Map<Integer, Change> taken;
+    CompletableFuture<Void> previous;
+    synchronized (this) {
+      taken = takeChanges();
+      previous = lastCommit;
+      lastCommit = written;
+    }
+    try {
+      previous.exceptionally(e -> null).join();
+      write(taken);
+      written.complete(null);
+    } catch (RuntimeException | Error e) {
+      written.completeExceptionally(e);
+      throw e;
+    }
+  }
+
+  /**
+   * Takes the pending changes and writes them on the executor once the commits made before are
+   * written. Students registered meanwhile belong to the next commit.
+   *
+   * @param executor runs the writes
+   * @return a future completed once the changes are written
+   */
+  public synchronized CompletableFuture<Void> commitAsync(Executor executor) {
+    var taken = takeChanges();
+    //a failed commit is lost on its own and does not hold up the next one
+    lastCommit = lastCommit.exceptionally(e -> null).thenRunAsync(() -> write(taken), executor);
+    return lastCommit;
+  }
+
+  private synchronized Map<Integer, Change> takeChanges() {
+    var taken = changes;
+    changes = new LinkedHashMap<>();
+    return taken;
+  }
+
+  private void write(Map<Integer, Change> taken) {
+    if (taken.isEmpty()) {
+      return;
+    }
+    var byAction = new EnumMap<UnitActions, List<Student>>(UnitActions.class);
+    taken.values().forEach(change ->
+        byAction.computeIfAbsent(change.action, action -> new ArrayList<>()).add(change.student));
+    LOGGER.info("Commit started");
+    writeBatches(byAction.get(UnitActions.INSERT), studentDatabase::insertAll);
+    writeBatches(byAction.get(UnitActions.MODIFY), studentDatabase::modifyAll);
+    writeBatches(byAction.get(UnitActions.DELETE), studentDatabase::deleteAll);
+    LOGGER.info("Commit finished, {} students written.", taken.size());
+  }
+
+  private static void writeBatches(List<Student> students, Consumer<List<Student>> writer) {
+    if (students == null) {
+      return;
+    }
+    for (var from = 0; from < students.size(); from += BATCH_SIZE) {
+      writer.accept(students.subList(from, Math.min(from + BATCH_SIZE, students.size())));
+    }
+  }
+
+  private static final class Change {
+    private final UnitActions action;
+    private final Student student;
+
+    private Change(UnitActions action, Student student) {
+      this.action = action;
+      this.student = student;
+    }
+  }
+}
@@ -23,6 +23,8 @@
 
 package com.iluwatar.unitofwork;
 
+import java.util.List;
+
 /**
  * Act as Database for student records.
  */
@@ -39,4 +41,19 @@ public class StudentDatabase {
   public void delete(Student student) {
     //Some delete logic to DB
   }
+
+  public void insertAll(List<Student> students) {
+    //Some batch insert logic to DB
+    students.forEach(this::insert);
+  }
+
+  public void modifyAll(List<Student> students) {
+    //Some batch modify logic to DB
+    students.forEach(this::modify);
+  }
+
+  public void deleteAll(List<Student> students) {
+    //Some batch delete logic to DB
+    students.forEach(this::delete);
+  }
 }
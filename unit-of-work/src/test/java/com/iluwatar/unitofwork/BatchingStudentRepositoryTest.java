@@ -0,0 +1,173 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.unitofwork;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * tests {@link BatchingStudentRepository}
+ */
+class BatchingStudentRepositoryTest {
+
+  private final RecordingDatabase studentDatabase = new RecordingDatabase();
+  private final BatchingStudentRepository studentRepository =
+      new BatchingStudentRepository(studentDatabase);
+
+  @Test
+  void shouldFoldRepeatedRegistrationsIntoOneChange() {
+    var ram = new Student(1, "Ram", "street 9, cupertino");
+    var movedRam = new Student(1, "Ram", "Z bridge, pune");
+    var sham = new Student(2, "Sham", "Z bridge, pune");
+    var gopi = new Student(3, "Gopi", "street 10, mumbai");
+    var newGopi = new Student(3, "Gopi", "street 11, mumbai");
+
+    studentRepository.registerNew(ram);
+    studentRepository.registerModified(movedRam);
+    studentRepository.registerNew(sham);
+    studentRepository.registerDeleted(sham);
+    studentRepository.registerDeleted(gopi);
+    studentRepository.registerNew(newGopi);
+
+    assertEquals(2, studentRepository.getPendingCount());
+    studentRepository.commit();
+
+    assertEquals(List.of("insert [1]", "modify [3]"), studentDatabase.calls);
+    assertEquals("Z bridge, pune", studentDatabase.written.get(0).getAddress());
+    assertEquals("street 11, mumbai", studentDatabase.written.get(1).getAddress());
+    assertEquals(0, studentRepository.getPendingCount());
+  }
+
+  @Test
+  void shouldWriteInBatchesPerAction() {
+    for (var id = 0; id < 2500; id++) {
+      studentRepository.registerNew(new Student(id, "Student" + id, "street " + id));
+    }
+    studentRepository.registerDeleted(new Student(5000, "Gone", "nowhere"));
+
+    studentRepository.commit();
+
+    assertEquals(4, studentDatabase.calls.size());
+    assertTrue(studentDatabase.calls.get(2).startsWith("insert"));
+    assertEquals("delete [5000]", studentDatabase.calls.get(3));
+    assertEquals(2501, studentDatabase.written.size());
+  }
+
+  @Test
+  void shouldRejectConflictingRegistrations() {
+    var ram = new Student(1, "Ram", "street 9, cupertino");
+    studentRepository.registerModified(ram);
+    assertThrows(IllegalStateException.class, () -> studentRepository.registerNew(ram));
+
+    studentRepository.registerDeleted(ram);
+    assertThrows(IllegalStateException.class, () -> studentRepository.registerModified(ram));
+  }
+
+  @Test
+  void shouldCommitAsynchronously() {
+    var executor = Executors.newSingleThreadExecutor();
+    try {
+      studentRepository.registerNew(new Student(1, "Ram", "street 9, cupertino"));
+      var committed = studentRepository.commitAsync(executor);
+      studentRepository.registerNew(new Student(2, "Sham", "Z bridge, pune"));
+
+      committed.join();
+
+      assertEquals(List.of("insert [1]"), studentDatabase.calls);
+      assertEquals(1, studentRepository.getPendingCount());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  void shouldWriteAsynchronousCommitsInOrder() throws Exception {
+    var release = new CountDownLatch(1);
+    RecordingDatabase database = new RecordingDatabase() {
+      @Override
+      public void insertAll(List<Student> students) {
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        super.insertAll(students);
+      }
+    };
+    var repository = new BatchingStudentRepository(database);
+    var executor = Executors.newFixedThreadPool(2);
+    try {
+      repository.registerNew(new Student(1, "Ram", "street 9, cupertino"));
+      var inserted = repository.commitAsync(executor);
+      repository.registerModified(new Student(1, "Ram", "Z bridge, pune"));
+      var modified = repository.commitAsync(executor);
+
+      assertThrows(TimeoutException.class, () -> modified.get(100, TimeUnit.MILLISECONDS));
+      release.countDown();
+      inserted.join();
+      modified.join();
+
+      assertEquals(List.of("insert [1]", "modify [1]"), database.calls);
+    } finally {
+      release.countDown();
+      executor.shutdown();
+    }
+  }
+
+  private static class RecordingDatabase extends StudentDatabase {
+    private final List<String> calls = new ArrayList<>();
+    private final List<Student> written = new ArrayList<>();
+
+    @Override
+    public synchronized void insertAll(List<Student> students) {
+      record("insert", students);
+    }
+
+    @Override
+    public synchronized void modifyAll(List<Student> students) {
+      record("modify", students);
+    }
+
+    @Override
+    public synchronized void deleteAll(List<Student> students) {
+      record("delete", students);
+    }
+
+    private void record(String action, List<Student> students) {
+      var ids = new ArrayList<Integer>();
+      students.forEach(student -> ids.add(student.getId()));
+      calls.add(action + " " + (ids.size() > 3 ? ids.size() + " students" : ids.toString()));
+      written.addAll(students);
+    }
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2021 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.unitofwork;
+
+import ch.qos.logback.classic.Level;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Registers 10^5 changes: 50,000 new students, 40,000 modifications of them and 10,000 deletions
+ * of the rest, and commits them with {@link StudentRepository} and with {@link
+ * BatchingStudentRepository} against a database charging a fixed cost per call and a small one
+ * per row. Reports the database calls, the rows written and the commit time of each.
+ *
+ * <p>Run the main method; it is not part of the test suite.
+ */
+@Slf4j
+public class UnitOfWorkBenchmark {
+
+  private static final int NEW = 50_000;
+  private static final int MODIFIED = 40_000;
+  private static final long CALL_NANOS = TimeUnit.MICROSECONDS.toNanos(20);
+  private static final long ROW_NANOS = 200;
+
+  /**
+   * Program entry point.
+   *
+   * @param args command line args
+   */
+  public static void main(String[] args) {
+    ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger("com.iluwatar.unitofwork"))
+        .setLevel(Level.WARN);
+    for (var round = 0; round < 2; round++) { //the first round warms up
+      var database = new SlowDatabase();
+      run("one write per registration", new StudentRepository(new HashMap<>(), database),
+          database);
+      database = new SlowDatabase();
+      run("folded change set, batched", new BatchingStudentRepository(database), database);
+    }
+  }
+
+  private static void run(String name, IUnitOfWork<Student> unitOfWork, SlowDatabase database) {
+    for (var id = 0; id < NEW; id++) {
+      unitOfWork.registerNew(new Student(id, "Student" + id, "street " + id));
+    }
+    for (var id = 0; id < MODIFIED; id++) {
+      unitOfWork.registerModified(new Student(id, "Student" + id, "avenue " + id));
+    }
+    for (var id = MODIFIED; id < NEW; id++) {
+      unitOfWork.registerDeleted(new Student(id, "Student" + id, "street " + id));
+    }
+    var start = System.nanoTime();
+    unitOfWork.commit();
+    LOGGER.info("{}: {} calls, {} rows, commit {} ms", name, database.calls, database.rows,
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+  }
+
+  private static class SlowDatabase extends StudentDatabase {
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+
+    @Override
+    public void insert(Student student) {
+      work(1);
+    }
+
+    @Override
+    public void modify(Student student) {
+      work(1);
+    }
+
+    @Override
+    public void delete(Student student) {
+      work(1);
+    }
+
+    @Override
+    public void insertAll(List<Student> students) {
+      work(students.size());
+    }
+
+    @Override
+    public void modifyAll(List<Student> students) {
+      work(students.size());
+    }
+
+    @Override
+    public void deleteAll(List<Student> students) {
+      work(students.size());
+    }
+
+    private void work(int rowCount) {
+      calls.increment();
+      rows.add(rowCount);
+      var end = System.nanoTime() + CALL_NANOS + rowCount * ROW_NANOS;
+      while (System.nanoTime() < end) {
+        Thread.onSpinWait();
+      }
+    }
+  }
+}